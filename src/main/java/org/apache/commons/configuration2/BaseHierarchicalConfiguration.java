@@ -34,6 +34,7 @@ import org.apache.commons.configuration2.tree.ConfigurationNodeVisitorAdapter;
 import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.commons.configuration2.tree.InMemoryNodeModel;
 import org.apache.commons.configuration2.tree.InMemoryNodeModelSupport;
+import org.apache.commons.configuration2.tree.IndexedNodeHandler;
 import org.apache.commons.configuration2.tree.NodeHandler;
 import org.apache.commons.configuration2.tree.NodeModel;
 import org.apache.commons.configuration2.tree.NodeSelector;
@@ -101,6 +102,43 @@ public class BaseHierarchicalConfiguration extends AbstractHierarchicalConfigura
         return (InMemoryNodeModel) super.getNodeModel();
     }
 
+    /**
+     * Replaces the whole content of this configuration by the content of the
+     * given configuration. The nodes and reference objects of the source
+     * configuration are taken over by the node model of this configuration
+     * (see {@link InMemoryNodeModel#replaceContent(InMemoryNodeModel,
+     * org.apache.commons.configuration2.tree.NodeKeyResolver)}); tracked sub
+     * configurations and event listeners are retained. Listeners are notified
+     * by an event of type {@link ConfigurationEvent#REPLACE_CONTENT}. The
+     * source configuration should not be used any more after this operation.
+     *
+     * @param source the configuration whose content is to be taken over (must
+     *        not be <b>null</b>)
+     * @throws IllegalArgumentException if the source configuration is
+     *         <b>null</b>
+     * @since 2.2
+     */
+    public void replaceContent(BaseHierarchicalConfiguration source)
+    {
+        if (source == null)
+        {
+            throw new IllegalArgumentException(
+                    "Source configuration must not be null!");
+        }
+
+        beginWrite(false);
+        try
+        {
+            fireEvent(ConfigurationEvent.REPLACE_CONTENT, null, null, true);
+            getNodeModel().replaceContent(source.getNodeModel(), this);
+            fireEvent(ConfigurationEvent.REPLACE_CONTENT, null, null, false);
+        }
+        finally
+        {
+            endWrite();
+        }
+    }
+
     /**
      * Creates a new {@code Configuration} object containing all keys
      * that start with the specified prefix. This implementation will return a
@@ -389,6 +427,41 @@ public class BaseHierarchicalConfiguration extends AbstractHierarchicalConfigura
         return sub;
     }
 
+    /**
+     * Determines the children of a node with a given name and attribute value.
+     * If the node handler supports an index, it is used. Otherwise, the
+     * children are filtered manually.
+     *
+     * @param handler the node handler
+     * @param parent the parent node
+     * @param childName the name of the child nodes
+     * @param attrName the name of the attribute
+     * @param value the expected attribute value
+     * @return a list with the matching child nodes
+     */
+    private static List<ImmutableNode> fetchChildrenByAttribute(
+            NodeHandler<ImmutableNode> handler, ImmutableNode parent,
+            String childName, String attrName, Object value)
+    {
+        if (handler instanceof IndexedNodeHandler)
+        {
+            return ((IndexedNodeHandler<ImmutableNode>) handler)
+                    .getChildrenByAttribute(parent, childName, attrName, value);
+        }
+
+        String strValue = String.valueOf(value);
+        List<ImmutableNode> children = new LinkedList<ImmutableNode>();
+        for (ImmutableNode child : handler.getChildren(parent, childName))
+        {
+            Object attrValue = handler.getAttributeValue(child, attrName);
+            if (attrValue != null && strValue.equals(String.valueOf(attrValue)))
+            {
+                children.add(child);
+            }
+        }
+        return children;
+    }
+
     /**
      * Executes a query on the specified key and filters it for node results.
      *
@@ -550,6 +623,71 @@ public class BaseHierarchicalConfiguration extends AbstractHierarchicalConfigura
         return subs;
     }
 
+    /**
+     * Returns a list with sub configurations for all child nodes of the nodes
+     * selected by the given key which have a specific name and an attribute
+     * with a specific value. Attribute values are compared based on their
+     * string representation. This method is a more efficient alternative to
+     * constructing a query with a predicate: if the attribute index of the
+     * underlying {@link InMemoryNodeModel} is enabled, the matching child
+     * nodes are determined without iterating over all children. The sub
+     * configurations returned are independent from this configuration, in the
+     * same way as for {@link #configurationsAt(String)}.
+     *
+     * @param key the key selecting the parent nodes (can be <b>null</b> or
+     *        empty to select the root node)
+     * @param childName the name of the child nodes
+     * @param attrName the name of the attribute
+     * @param value the expected value of the attribute
+     * @return a list with sub configurations for the matching child nodes
+     * @throws IllegalArgumentException if the child or the attribute name is
+     *         <b>null</b>
+     * @since 2.2
+     */
+    public List<HierarchicalConfiguration<ImmutableNode>> findByAttribute(
+            String key, String childName, String attrName, Object value)
+    {
+        if (childName == null)
+        {
+            throw new IllegalArgumentException(
+                    "Child name must not be null!");
+        }
+        if (attrName == null)
+        {
+            throw new IllegalArgumentException(
+                    "Attribute name must not be null!");
+        }
+
+        List<ImmutableNode> nodes = new LinkedList<ImmutableNode>();
+        beginRead(false);
+        try
+        {
+            NodeHandler<ImmutableNode> handler = getModel().getNodeHandler();
+            List<ImmutableNode> parents =
+                    (key == null || key.length() == 0) ? Collections
+                            .singletonList(handler.getRootNode())
+                            : fetchFilteredNodeResults(key);
+            for (ImmutableNode parent : parents)
+            {
+                nodes.addAll(fetchChildrenByAttribute(handler, parent,
+                        childName, attrName, value));
+            }
+        }
+        finally
+        {
+            endRead();
+        }
+
+        List<HierarchicalConfiguration<ImmutableNode>> results =
+                new ArrayList<HierarchicalConfiguration<ImmutableNode>>(
+                        nodes.size());
+        for (ImmutableNode node : nodes)
+        {
+            results.add(createIndependentSubConfigurationForNode(node));
+        }
+        return results;
+    }
+
     /**
      * {@inheritDoc} This method works like
      * {@link #childConfigurationsAt(String)}; however, depending on the value
@@ -899,13 +899,13 @@ public class CombinedConfiguration extends BaseHierarchicalConfiguration impleme
 
         else
         {
-            Iterator<ConfigData> it = configurations.iterator();
-            ImmutableNode node = it.next().getTransformedRoot();
-            while (it.hasNext())
+            List<ImmutableNode> roots =
+                    new ArrayList<ImmutableNode>(configurations.size());
+            for (ConfigData cd : configurations)
             {
-                node = nodeCombiner.combine(node,
-                        it.next().getTransformedRoot());
+                roots.add(cd.getTransformedRoot());
             }
+            ImmutableNode node = nodeCombiner.combineAll(roots);
             if (getLogger().isDebugEnabled())
             {
                 ByteArrayOutputStream os = new ByteArrayOutputStream();
@@ -976,9 +976,11 @@ public class CombinedConfiguration extends BaseHierarchicalConfiguration impleme
 
     /**
      * Removes this combined configuration as listener from all child
-     * configurations. This method is called on a clear() operation.
+     * configurations. This method is called on a clear() operation. It is
+     * also used by {@link DynamicCombinedConfiguration} to release evicted
+     * configurations without changing their data.
      */
-    private void unregisterListenerAtChildren()
+    void unregisterListenerAtChildren()
     {
         if (configurations != null)
         {
@@ -22,7 +22,6 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.util.Iterator;
 
 import org.apache.commons.configuration2.event.ConfigurationErrorEvent;
@@ -51,21 +50,6 @@ public final class ConfigurationUtils
     /** Constant for the name of the clone() method.*/
     private static final String METHOD_CLONE = "clone";
 
-    /**
-     * An array with interfaces to be implemented by a proxy for an immutable
-     * configuration.
-     */
-    private static final Class<?>[] IMMUTABLE_CONFIG_IFCS = {
-        ImmutableConfiguration.class
-    };
-
-    /**
-     * An array with interfaces to be implemented by a proxy for an immutable
-     * hierarchical configuration.
-     */
-    private static final Class<?>[] IMMUTABLE_HIERARCHICAL_CONFIG_IFCS = {
-        ImmutableHierarchicalConfiguration.class
-    };
     /**
      * A dummy event source that is returned by {@code asEventSource()} if a
      * mock object has to be returned. It provides empty dummy implementations
@@ -512,7 +496,7 @@ public final class ConfigurationUtils
 
     /**
      * Creates an {@code ImmutableConfiguration} from the given
-     * {@code Configuration} object. This method creates a proxy object wrapping
+     * {@code Configuration} object. This method creates an object wrapping
      * the original configuration and making it available under the
      * {@code ImmutableConfiguration} interface. Through this interface the
      * configuration cannot be manipulated. It is also not possible to cast the
@@ -530,7 +514,7 @@ public final class ConfigurationUtils
     public static ImmutableConfiguration unmodifiableConfiguration(
             Configuration c)
     {
-        return createUnmodifiableConfiguration(IMMUTABLE_CONFIG_IFCS, c);
+        return new UnmodifiableConfiguration(checkWrappedConfiguration(c));
     }
 
     /**
@@ -550,25 +534,28 @@ public final class ConfigurationUtils
     public static ImmutableHierarchicalConfiguration unmodifiableConfiguration(
             HierarchicalConfiguration<?> c)
     {
-        return (ImmutableHierarchicalConfiguration) createUnmodifiableConfiguration(
-                IMMUTABLE_HIERARCHICAL_CONFIG_IFCS, c);
+        return new UnmodifiableHierarchicalConfiguration(
+                checkWrappedConfiguration(c));
     }
 
     /**
-     * Helper method for creating a proxy for an unmodifiable configuration. The
-     * interfaces the proxy should implement are passed as argument.
+     * Checks that a configuration to be wrapped by an unmodifiable view is not
+     * <b>null</b>.
      *
-     * @param ifcs an array with the interface classes the proxy must implement
-     * @param c the configuration object to be wrapped
-     * @return a proxy object for an immutable configuration
+     * @param <C> the type of the configuration
+     * @param c the configuration to be checked
+     * @return the same configuration
      * @throws NullPointerException if the configuration is <b>null</b>
      */
-    private static ImmutableConfiguration createUnmodifiableConfiguration(
-            Class<?>[] ifcs, Configuration c)
+    private static <C extends ImmutableConfiguration> C checkWrappedConfiguration(
+            C c)
     {
-        return (ImmutableConfiguration) Proxy.newProxyInstance(
-                ConfigurationUtils.class.getClassLoader(), ifcs,
-                new ImmutableConfigurationInvocationHandler(c));
+        if (c == null)
+        {
+            throw new NullPointerException(
+                    "Wrapped configuration must not be null!");
+        }
+        return c;
     }
 
     /**
@@ -602,4 +589,132 @@ public final class ConfigurationUtils
         }
         return DUMMY_EVENT_SOURCE;
     }
+
+    /**
+     * An unmodifiable view on a configuration. It delegates all methods to the
+     * wrapped configuration, but makes sure that iterators over keys do not
+     * support removing elements.
+     */
+    private static class UnmodifiableConfiguration extends
+            DelegatingImmutableConfiguration<ImmutableConfiguration>
+    {
+        /** The wrapped configuration. */
+        private final ImmutableConfiguration wrappedConfiguration;
+
+        /**
+         * Creates a new instance of {@code UnmodifiableConfiguration}.
+         *
+         * @param conf the wrapped configuration
+         */
+        public UnmodifiableConfiguration(ImmutableConfiguration conf)
+        {
+            wrappedConfiguration = conf;
+        }
+
+        @Override
+        public Iterator<String> getKeys()
+        {
+            return new ImmutableIterator<String>(super.getKeys());
+        }
+
+        @Override
+        public Iterator<String> getKeys(String prefix)
+        {
+            return new ImmutableIterator<String>(super.getKeys(prefix));
+        }
+
+        @Override
+        protected ImmutableConfiguration getDelegate()
+        {
+            return wrappedConfiguration;
+        }
+    }
+
+    /**
+     * An unmodifiable view on a hierarchical configuration. This works like
+     * {@code UnmodifiableConfiguration}, but implements the
+     * {@code ImmutableHierarchicalConfiguration} interface.
+     */
+    private static class UnmodifiableHierarchicalConfiguration extends
+            DelegatingImmutableHierarchicalConfiguration<ImmutableHierarchicalConfiguration>
+    {
+        /** The wrapped configuration. */
+        private final ImmutableHierarchicalConfiguration wrappedConfiguration;
+
+        /**
+         * Creates a new instance of
+         * {@code UnmodifiableHierarchicalConfiguration}.
+         *
+         * @param conf the wrapped configuration
+         */
+        public UnmodifiableHierarchicalConfiguration(
+                ImmutableHierarchicalConfiguration conf)
+        {
+            wrappedConfiguration = conf;
+        }
+
+        @Override
+        public Iterator<String> getKeys()
+        {
+            return new ImmutableIterator<String>(super.getKeys());
+        }
+
+        @Override
+        public Iterator<String> getKeys(String prefix)
+        {
+            return new ImmutableIterator<String>(super.getKeys(prefix));
+        }
+
+        @Override
+        protected ImmutableHierarchicalConfiguration getDelegate()
+        {
+            return wrappedConfiguration;
+        }
+    }
+
+    /**
+     * A specialized {@code Iterator} implementation which delegates to an
+     * underlying iterator, but does not support the {@code remove()} method.
+     *
+     * @param <E> the type of the elements of the iteration
+     */
+    private static class ImmutableIterator<E> implements Iterator<E>
+    {
+        /** The underlying iterator. */
+        private final Iterator<? extends E> wrappedIterator;
+
+        /**
+         * Creates a new instance of {@code ImmutableIterator} and sets the
+         * underlying iterator.
+         *
+         * @param it the underlying iterator
+         */
+        public ImmutableIterator(Iterator<? extends E> it)
+        {
+            wrappedIterator = it;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return wrappedIterator.hasNext();
+        }
+
+        @Override
+        public E next()
+        {
+            return wrappedIterator.next();
+        }
+
+        /**
+         * {@inheritDoc} This implementation just throws an exception: removing
+         * elements is not supported.
+         */
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException(
+                    "remove() operation not supported!");
+        }
+    }
 }
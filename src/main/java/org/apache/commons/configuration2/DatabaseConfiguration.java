@@ -26,15 +26,24 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.configuration2.convert.DisabledListDelimiterHandler;
 import org.apache.commons.configuration2.convert.ListDelimiterHandler;
 import org.apache.commons.configuration2.event.ConfigurationErrorEvent;
 import org.apache.commons.configuration2.event.ConfigurationEvent;
+import org.apache.commons.configuration2.event.EventListener;
 import org.apache.commons.configuration2.event.EventType;
 import org.apache.commons.configuration2.io.ConfigurationLogger;
+import org.apache.commons.configuration2.reloading.DatabaseReloadingDetector;
+import org.apache.commons.configuration2.reloading.ReloadingController;
+import org.apache.commons.configuration2.reloading.ReloadingEvent;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -112,6 +121,30 @@ import org.apache.commons.lang3.StringUtils;
  * constructors to <b>true</b>. If commits should not be performed (which is the
  * default behavior), it should be ensured that the connections returned by the
  * {@code DataSource} are in auto-commit mode.
+ * <p>
+ * Per default, each access to a property causes a query on the underlying
+ * table. If the {@code cached} flag is set, the configuration loads all its
+ * properties in a single query on first access and answers read operations
+ * from memory afterwards. Updates are still written directly to the database,
+ * and the cached data is updated accordingly. (If another update or a reload
+ * of the cache happens concurrently, the cache is invalidated instead.) Read
+ * operations on the cache are not blocked by database updates in progress.
+ * With the {@code cacheTimeout}
+ * property a time span (in milliseconds) can be defined after which the cache
+ * is reloaded from the database. A reload can also be enforced by calling
+ * {@link #invalidateCache()}. Note that changes made by other parties are
+ * not visible before the cache is reloaded. In order to pick up such changes
+ * as soon as they happen, the configuration can be connected to a
+ * {@link ReloadingController} with a {@link DatabaseReloadingDetector} which
+ * monitors the table (see {@link #connectToReloadingController(ReloadingController)}).
+ * </p>
+ * <p>
+ * The {@link #copy(Configuration)} and {@link #append(Configuration)} methods
+ * are optimized for a larger number of properties: rather than executing a
+ * separate statement for each update, all updates are collected and sent to
+ * the database in JDBC batches using a single connection. If the
+ * {@code autoCommit} flag is set, a single commit is performed at the end.
+ * </p>
  *
  * <h1>Note: Like JDBC itself, protection against SQL injection is left to the user.</h1>
  * @since 1.0
@@ -136,6 +169,18 @@ public class DatabaseConfiguration extends AbstractConfiguration
     /** Constant for the statement used by getKeys.*/
     private static final String SQL_GET_KEYS = "SELECT DISTINCT %s FROM %s WHERE 1 = 1";
 
+    /** Constant for the statement used for loading the cache.*/
+    private static final String SQL_GET_ALL = "SELECT * FROM %s WHERE 1 = 1";
+
+    /** Constant for the statement used for loading multiple configurations.*/
+    private static final String SQL_GET_ALL_CONFIGS = "SELECT * FROM %s ORDER BY %s";
+
+    /** Constant for the statement used by queryChangeIndicator.*/
+    private static final String SQL_CHANGE_INDICATOR = "SELECT %s FROM %s WHERE 1 = 1";
+
+    /** Constant for a cache generation indicating that no cache is used. */
+    private static final long NO_CACHE_UPDATE = -1;
+
     /** The data source to connect to the database. */
     private DataSource dataSource;
 
@@ -157,6 +202,37 @@ public class DatabaseConfiguration extends AbstractConfiguration
     /** A flag whether commits should be performed by this configuration. */
     private boolean autoCommit;
 
+    /** A flag whether the properties of this configuration are cached. */
+    private volatile boolean cached;
+
+    /** The time span after which the cache expires. */
+    private volatile long cacheTimeout;
+
+    /**
+     * The cached property values. The map contains the raw values as read
+     * from the database; it is <b>null</b> if the cache has not been loaded.
+     */
+    private Map<String, List<Object>> cache;
+
+    /** The time when the cache was loaded. */
+    private long cacheLoadTime;
+
+    /**
+     * A counter which is incremented whenever the cache is loaded or
+     * invalidated and before each update of the database. It is used to
+     * detect whether the cache was changed concurrently while an update was
+     * in progress.
+     */
+    private long cacheGeneration;
+
+    /**
+     * The batch collecting updates while a bulk operation is in progress. The
+     * batch is bound to the thread executing the bulk operation; so updates
+     * performed concurrently by other threads are not affected.
+     */
+    private final ThreadLocal<UpdateBatch> batch =
+            new ThreadLocal<UpdateBatch>();
+
     /**
      * Creates a new instance of {@code DatabaseConfiguration}.
      */
@@ -309,6 +385,138 @@ public class DatabaseConfiguration extends AbstractConfiguration
         this.autoCommit = autoCommit;
     }
 
+    /**
+     * Returns a flag whether the properties of this configuration are cached.
+     *
+     * @return the cached flag
+     * @since 2.2
+     */
+    public boolean isCached()
+    {
+        return cached;
+    }
+
+    /**
+     * Sets a flag whether the properties of this configuration are cached. If
+     * set to <b>true</b>, all properties are loaded in a single query and kept
+     * in memory; so read operations do not access the database.
+     *
+     * @param cached the cached flag
+     * @since 2.2
+     */
+    public void setCached(boolean cached)
+    {
+        this.cached = cached;
+        invalidateCache();
+    }
+
+    /**
+     * Returns the time span (in milliseconds) after which cached data is
+     * reloaded from the database.
+     *
+     * @return the cache timeout
+     * @since 2.2
+     */
+    public long getCacheTimeout()
+    {
+        return cacheTimeout;
+    }
+
+    /**
+     * Sets the time span (in milliseconds) after which cached data is reloaded
+     * from the database. This property is evaluated only if the
+     * {@code cached} flag is set. A value less or equal 0 means that the cache
+     * never expires; it is then reloaded only after a call of
+     * {@link #invalidateCache()}.
+     *
+     * @param cacheTimeout the cache timeout
+     * @since 2.2
+     */
+    public void setCacheTimeout(long cacheTimeout)
+    {
+        this.cacheTimeout = cacheTimeout;
+    }
+
+    /**
+     * Discards the data cached by this configuration. The next read access
+     * reloads all properties from the database. This method has no effect if
+     * the {@code cached} flag is not set.
+     *
+     * @since 2.2
+     */
+    public synchronized void invalidateCache()
+    {
+        cache = null;
+        cacheGeneration++;
+    }
+
+    /**
+     * Connects this configuration with a {@code ReloadingController}. Whenever
+     * the controller detects that a reload is required, the cache of this
+     * configuration is invalidated, and the controller's reloading state is
+     * reset. So the next read access loads the current data from the
+     * database. Typically, the controller is set up with a
+     * {@link DatabaseReloadingDetector} for this configuration and triggered
+     * periodically, e.g. by a {@code PeriodicReloadingTrigger}. This is
+     * useful in cached mode only.
+     *
+     * @param controller the {@code ReloadingController} to connect to (must
+     *        not be <b>null</b>)
+     * @throws IllegalArgumentException if the controller is <b>null</b>
+     * @since 2.2
+     */
+    public void connectToReloadingController(final ReloadingController controller)
+    {
+        if (controller == null)
+        {
+            throw new IllegalArgumentException(
+                    "ReloadingController must not be null!");
+        }
+
+        controller.addEventListener(ReloadingEvent.ANY,
+                new EventListener<ReloadingEvent>()
+                {
+                    @Override
+                    public void onEvent(ReloadingEvent event)
+                    {
+                        invalidateCache();
+                        controller.resetReloadingState();
+                    }
+                });
+    }
+
+    /**
+     * Evaluates an SQL expression on the data of this configuration and
+     * returns the result. The expression is used as select list of a query
+     * on the configuration table which is restricted to the rows of this
+     * configuration. This is intended for cheap aggregates like
+     * {@code COUNT(*)} or {@code MAX(version)} whose values change when the
+     * data of this configuration changes; it is used by
+     * {@link DatabaseReloadingDetector}. If this causes a database error, an
+     * error event will be generated of type {@code READ} with the causing
+     * exception, and result is <b>null</b>.
+     *
+     * @param expression the SQL expression to be evaluated
+     * @return the value of this expression (may be <b>null</b>)
+     * @since 2.2
+     */
+    public Object queryChangeIndicator(final String expression)
+    {
+        return new JdbcOperation<Object>(ConfigurationErrorEvent.READ,
+                ConfigurationErrorEvent.READ, null, null)
+        {
+            @Override
+            protected Object performOperation() throws SQLException
+            {
+                ResultSet rs = openResultSet(String.format(
+                        SQL_CHANGE_INDICATOR, expression, table), true);
+
+                return rs.next() ? rs.getObject(1) : null;
+            }
+        }
+        .execute();
+    }
+
     /**
      * Returns the value of the specified property. If this causes a database
      * error, an error event will be generated of type
@@ -322,6 +530,11 @@ public class DatabaseConfiguration extends AbstractConfiguration
     @Override
     protected Object getPropertyInternal(final String key)
     {
+        if (isCached())
+        {
+            return createPropertyValue(fetchCachedValues(key));
+        }
+
         JdbcOperation<Object> op =
                 new JdbcOperation<Object>(ConfigurationErrorEvent.READ,
                         ConfigurationErrorEvent.READ, key, null)
@@ -333,26 +546,12 @@ public class DatabaseConfiguration extends AbstractConfiguration
                         openResultSet(String.format(SQL_GET_PROPERTY,
                                 table, keyColumn), true, key);
 
-                List<Object> results = new ArrayList<Object>();
+                List<Object> values = new ArrayList<Object>();
                 while (rs.next())
                 {
-                    Object value = extractPropertyValue(rs);
-                    // Split value if it contains the list delimiter
-                    for (Object o : getListDelimiterHandler().parse(value))
-                    {
-                        results.add(o);
-                    }
-                }
-
-                if (!results.isEmpty())
-                {
-                    return (results.size() > 1) ? results : results
-                            .get(0);
-                }
-                else
-                {
-                    return null;
+                    values.add(extractPropertyValue(rs));
                 }
+                return createPropertyValue(values);
             }
         };
 
@@ -372,28 +571,20 @@ public class DatabaseConfiguration extends AbstractConfiguration
     @Override
     protected void addPropertyDirect(final String key, final Object obj)
     {
-        new JdbcOperation<Void>(ConfigurationErrorEvent.WRITE,
+        UpdateBatch currentBatch = batch.get();
+        if (currentBatch != null)
+        {
+            currentBatch.addInsert(key, String.valueOf(obj));
+            return;
+        }
+
+        JdbcOperation<Boolean> op = new JdbcOperation<Boolean>(ConfigurationErrorEvent.WRITE,
                 ConfigurationEvent.ADD_PROPERTY, key, obj)
         {
             @Override
-            protected Void performOperation() throws SQLException
+            protected Boolean performOperation() throws SQLException
             {
-                StringBuilder query = new StringBuilder("INSERT INTO ");
-                query.append(table).append(" (");
-                query.append(keyColumn).append(", ");
-                query.append(valueColumn);
-                if (configurationNameColumn != null)
-                {
-                    query.append(", ").append(configurationNameColumn);
-                }
-                query.append(") VALUES (?, ?");
-                if (configurationNameColumn != null)
-                {
-                    query.append(", ?");
-                }
-                query.append(")");
-
-                PreparedStatement pstmt = initStatement(query.toString(),
+                PreparedStatement pstmt = initStatement(createInsertQuery(),
                         false, key, String.valueOf(obj));
                 if (configurationNameColumn != null)
                 {
@@ -401,10 +592,22 @@ public class DatabaseConfiguration extends AbstractConfiguration
                 }
 
                 pstmt.executeUpdate();
-                return null;
+                return Boolean.TRUE;
+            }
+        };
+
+        long generation = beginCacheUpdate();
+        boolean success = op.execute() != null;
+        if (generation != NO_CACHE_UPDATE)
+        {
+            synchronized (this)
+            {
+                if (endCacheUpdate(generation, success))
+                {
+                    addCachedValue(key, String.valueOf(obj));
+                }
             }
         }
-        .execute();
     }
 
     /**
@@ -446,6 +649,11 @@ public class DatabaseConfiguration extends AbstractConfiguration
     @Override
     protected boolean isEmptyInternal()
     {
+        if (isCached())
+        {
+            return isCacheEmpty();
+        }
+
         JdbcOperation<Integer> op =
                 new JdbcOperation<Integer>(ConfigurationErrorEvent.READ,
                         ConfigurationErrorEvent.READ, null, null)
@@ -477,6 +685,11 @@ public class DatabaseConfiguration extends AbstractConfiguration
     @Override
     protected boolean containsKeyInternal(final String key)
     {
+        if (isCached())
+        {
+            return isCachedKey(key);
+        }
+
         JdbcOperation<Boolean> op =
                 new JdbcOperation<Boolean>(ConfigurationErrorEvent.READ,
                         ConfigurationErrorEvent.READ, key, null)
@@ -507,19 +720,38 @@ public class DatabaseConfiguration extends AbstractConfiguration
     @Override
     protected void clearPropertyDirect(final String key)
     {
-        new JdbcOperation<Void>(ConfigurationErrorEvent.WRITE,
+        UpdateBatch currentBatch = batch.get();
+        if (currentBatch != null)
+        {
+            currentBatch.addDelete(key);
+            return;
+        }
+
+        JdbcOperation<Boolean> op = new JdbcOperation<Boolean>(ConfigurationErrorEvent.WRITE,
                 ConfigurationEvent.CLEAR_PROPERTY, key, null)
         {
             @Override
-            protected Void performOperation() throws SQLException
+            protected Boolean performOperation() throws SQLException
             {
                 PreparedStatement ps = initStatement(String.format(
                         SQL_CLEAR_PROPERTY, table, keyColumn), true, key);
                 ps.executeUpdate();
-                return null;
+                return Boolean.TRUE;
+            }
+        };
+
+        long generation = beginCacheUpdate();
+        boolean success = op.execute() != null;
+        if (generation != NO_CACHE_UPDATE)
+        {
+            synchronized (this)
+            {
+                if (endCacheUpdate(generation, success))
+                {
+                    removeCachedValues(key);
+                }
             }
         }
-        .execute();
     }
 
     /**
@@ -532,18 +764,37 @@ public class DatabaseConfiguration extends AbstractConfiguration
     @Override
     protected void clearInternal()
     {
-        new JdbcOperation<Void>(ConfigurationErrorEvent.WRITE,
+        UpdateBatch currentBatch = batch.get();
+        if (currentBatch != null)
+        {
+            // pending updates have to be executed before the table is cleared
+            currentBatch.execute();
+        }
+
+        JdbcOperation<Boolean> op = new JdbcOperation<Boolean>(ConfigurationErrorEvent.WRITE,
                 ConfigurationEvent.CLEAR, null, null)
         {
             @Override
-            protected Void performOperation() throws SQLException
+            protected Boolean performOperation() throws SQLException
             {
                 initStatement(String.format(SQL_CLEAR,
                         table), true).executeUpdate();
-                return null;
+                return Boolean.TRUE;
+            }
+        };
+
+        long generation = beginCacheUpdate();
+        boolean success = op.execute() != null;
+        if (generation != NO_CACHE_UPDATE)
+        {
+            synchronized (this)
+            {
+                if (endCacheUpdate(generation, success))
+                {
+                    clearCache();
+                }
             }
         }
-        .execute();
     }
 
     /**
@@ -559,6 +810,11 @@ public class DatabaseConfiguration extends AbstractConfiguration
     @Override
     protected Iterator<String> getKeysInternal()
     {
+        if (isCached())
+        {
+            return fetchCachedKeys().iterator();
+        }
+
         final Collection<String> keys = new ArrayList<String>();
         new JdbcOperation<Collection<String>>(ConfigurationErrorEvent.READ,
                 ConfigurationErrorEvent.READ, null, null)
@@ -581,6 +837,66 @@ public class DatabaseConfiguration extends AbstractConfiguration
         return keys.iterator();
     }
 
+    /**
+     * {@inheritDoc} This implementation collects all resulting database
+     * updates and executes them in JDBC batches over a single connection. If a
+     * database error occurs, an error event of type {@code WRITE} is generated
+     * whose operation type is {@code ConfigurationEvent.ANY}.
+     */
+    @Override
+    public void copy(Configuration c)
+    {
+        beginWrite(false);
+        try
+        {
+            boolean started = startBatch();
+            try
+            {
+                super.copy(c);
+            }
+            finally
+            {
+                if (started)
+                {
+                    executeBatch();
+                }
+            }
+        }
+        finally
+        {
+            endWrite();
+        }
+    }
+
+    /**
+     * {@inheritDoc} Like {@link #copy(Configuration)}, this implementation
+     * executes all database updates in JDBC batches over a single connection.
+     */
+    @Override
+    public void append(Configuration c)
+    {
+        beginWrite(false);
+        try
+        {
+            boolean started = startBatch();
+            try
+            {
+                super.append(c);
+            }
+            finally
+            {
+                if (started)
+                {
+                    executeBatch();
+                }
+            }
+        }
+        finally
+        {
+            endWrite();
+        }
+    }
+
     /**
      * Returns the used {@code DataSource} object.
      *
@@ -661,6 +977,398 @@ public class DatabaseConfiguration extends AbstractConfiguration
         return value;
     }
 
+    /**
+     * Generates the SQL statement for inserting a property value. The
+     * statement has parameters for the key, the value, and - if defined - the
+     * configuration name.
+     *
+     * @return the insert statement
+     */
+    private String createInsertQuery()
+    {
+        StringBuilder query = new StringBuilder("INSERT INTO ");
+        query.append(table).append(" (");
+        query.append(keyColumn).append(", ");
+        query.append(valueColumn);
+        if (configurationNameColumn != null)
+        {
+            query.append(", ").append(configurationNameColumn);
+        }
+        query.append(") VALUES (?, ?");
+        if (configurationNameColumn != null)
+        {
+            query.append(", ?");
+        }
+        query.append(")");
+        return query.toString();
+    }
+
+    /**
+     * Starts a batch operation for the current thread. From now on, updates
+     * of this thread are not executed directly, but collected until
+     * {@link #executeBatch()} is called. If a batch operation is already in
+     * progress, it is reused.
+     *
+     * @return a flag whether a new batch operation was started
+     */
+    private boolean startBatch()
+    {
+        if (batch.get() != null)
+        {
+            return false;
+        }
+        batch.set(new UpdateBatch());
+        return true;
+    }
+
+    /**
+     * Ends the batch operation of the current thread and executes all updates
+     * which have been collected. If this fails, the cache is invalidated.
+     */
+    private void executeBatch()
+    {
+        UpdateBatch currentBatch = batch.get();
+        batch.remove();
+        if (currentBatch != null && !currentBatch.execute())
+        {
+            invalidateCache();
+        }
+    }
+
+    /**
+     * Creates the value of a property from the raw values stored in the
+     * database. Each raw value is split at list delimiters. Result is
+     * <b>null</b> if there are no values, a single object if there is exactly
+     * one value, or a list otherwise.
+     *
+     * @param rawValues the raw values of the property (may be <b>null</b>)
+     * @return the value of the property
+     */
+    private Object createPropertyValue(Collection<Object> rawValues)
+    {
+        if (rawValues == null)
+        {
+            return null;
+        }
+
+        List<Object> results = new ArrayList<Object>();
+        for (Object value : rawValues)
+        {
+            // Split value if it contains the list delimiter
+            for (Object o : getListDelimiterHandler().parse(value))
+            {
+                results.add(o);
+            }
+        }
+
+        if (!results.isEmpty())
+        {
+            return (results.size() > 1) ? results : results.get(0);
+        }
+        else
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the cached data of this configuration. If the cache has not yet
+     * been loaded or is expired, all properties are loaded from the database
+     * now. If loading fails, an empty map is returned, and the cache remains
+     * invalid. The map returned by this method must only be accessed while
+     * holding this object's monitor.
+     *
+     * @return a map with the cached raw property values
+     */
+    private Map<String, List<Object>> fetchCache()
+    {
+        if (cache == null || isCacheExpired())
+        {
+            cache = loadCache();
+            cacheGeneration++;
+            if (cache == null)
+            {
+                return Collections.emptyMap();
+            }
+            cacheLoadTime = System.currentTimeMillis();
+        }
+        return cache;
+    }
+
+    /**
+     * Returns the cached raw values of the specified property. The lists
+     * stored in the cache are never modified, so the result can be used
+     * without further synchronization.
+     *
+     * @param key the property key
+     * @return the raw values of this property or <b>null</b> if it is
+     *         undefined
+     */
+    private synchronized Collection<Object> fetchCachedValues(String key)
+    {
+        return fetchCache().get(key);
+    }
+
+    /**
+     * Checks whether the cached data contains the specified key.
+     *
+     * @param key the property key
+     * @return a flag whether this key is cached
+     */
+    private synchronized boolean isCachedKey(String key)
+    {
+        return fetchCache().containsKey(key);
+    }
+
+    /**
+     * Checks whether the cached data is empty.
+     *
+     * @return a flag whether there are no cached properties
+     */
+    private synchronized boolean isCacheEmpty()
+    {
+        return fetchCache().isEmpty();
+    }
+
+    /**
+     * Returns a collection with the keys of all cached properties.
+     *
+     * @return a collection with the keys of the cached properties
+     */
+    private synchronized Collection<String> fetchCachedKeys()
+    {
+        return new ArrayList<String>(fetchCache().keySet());
+    }
+
+    /**
+     * Checks whether the cache has expired, i.e. the cache timeout has passed
+     * since it was loaded.
+     *
+     * @return a flag whether the cache has to be reloaded
+     */
+    private boolean isCacheExpired()
+    {
+        return getCacheTimeout() > 0
+                && System.currentTimeMillis() - cacheLoadTime >= getCacheTimeout();
+    }
+
+    /**
+     * Loads all properties of this configuration in a single query. Result is
+     * <b>null</b> if a database error occurs.
+     *
+     * @return a map with the raw property values
+     */
+    private Map<String, List<Object>> loadCache()
+    {
+        return new JdbcOperation<Map<String, List<Object>>>(
+                ConfigurationErrorEvent.READ, ConfigurationErrorEvent.READ,
+                null, null)
+        {
+            @Override
+            protected Map<String, List<Object>> performOperation()
+                    throws SQLException
+            {
+                ResultSet rs =
+                        openResultSet(String.format(SQL_GET_ALL, table), true);
+
+                Map<String, List<Object>> data =
+                        new LinkedHashMap<String, List<Object>>();
+                while (rs.next())
+                {
+                    addRawValue(data, rs.getString(keyColumn),
+                            extractPropertyValue(rs));
+                }
+                return data;
+            }
+        }
+        .execute();
+    }
+
+    /**
+     * Loads the data of all configurations stored in the table of this
+     * configuration in a single query. This method is used by
+     * {@link DatabaseConfigurationLoader}. The rows are ordered by the
+     * configuration name column. They are grouped by their configuration name
+     * in a map; so rows of a configuration need not be adjacent (which is not
+     * guaranteed, e.g. for a case-insensitive collation). After all rows have
+     * been read, the data of each configuration is passed to the handler in
+     * the order in which the names have been encountered.
+     * Rows with a <b>null</b> configuration name are ignored. If a database
+     * error occurs, an error event is generated, and result is <b>false</b>.
+     *
+     * @param handler the handler to be notified about loaded configurations
+     * @return a flag whether the data could be loaded successfully
+     */
+    boolean loadConfigurations(final ConfigurationDataHandler handler)
+    {
+        Boolean result = new JdbcOperation<Boolean>(
+                ConfigurationErrorEvent.READ, ConfigurationErrorEvent.READ,
+                null, null)
+        {
+            @Override
+            protected Boolean performOperation() throws SQLException
+            {
+                ResultSet rs = openResultSet(String.format(
+                        SQL_GET_ALL_CONFIGS, table, configurationNameColumn),
+                        false);
+
+                Map<String, Map<String, List<Object>>> configs =
+                        new LinkedHashMap<String, Map<String, List<Object>>>();
+                while (rs.next())
+                {
+                    String name = rs.getString(configurationNameColumn);
+                    if (name != null)
+                    {
+                        Map<String, List<Object>> data = configs.get(name);
+                        if (data == null)
+                        {
+                            data = new LinkedHashMap<String, List<Object>>();
+                            configs.put(name, data);
+                        }
+                        addRawValue(data, rs.getString(keyColumn),
+                                extractPropertyValue(rs));
+                    }
+                }
+
+                for (Map.Entry<String, Map<String, List<Object>>> e : configs
+                        .entrySet())
+                {
+                    handler.configurationLoaded(e.getKey(), e.getValue());
+                }
+                return Boolean.TRUE;
+            }
+        }
+        .execute();
+
+        return Boolean.TRUE.equals(result);
+    }
+
+    /**
+     * Initializes the cache of this configuration with data that has been
+     * loaded externally. This is used by {@link DatabaseConfigurationLoader};
+     * the cache is treated as if it had just been loaded by this object.
+     *
+     * @param data a map with the raw property values
+     */
+    synchronized void initCache(Map<String, List<Object>> data)
+    {
+        cache = data;
+        cacheLoadTime = System.currentTimeMillis();
+        cacheGeneration++;
+    }
+
+    /**
+     * Prepares an update of the cached data for a write operation. This method
+     * is called before the database is accessed. If this configuration is in
+     * cached mode, the cache generation is incremented, and the new value is
+     * returned. It has to be passed to {@link #endCacheUpdate(long, boolean)}
+     * after the write operation. Otherwise, result is
+     * {@code NO_CACHE_UPDATE}; then the cache need not be updated.
+     *
+     * @return the cache generation for the current write operation
+     */
+    private long beginCacheUpdate()
+    {
+        if (!isCached())
+        {
+            return NO_CACHE_UPDATE;
+        }
+        synchronized (this)
+        {
+            return ++cacheGeneration;
+        }
+    }
+
+    /**
+     * Checks whether the cached data can be updated after a write operation.
+     * This is the case if the write operation was successful and the cache
+     * has not been changed since {@link #beginCacheUpdate()} was called; then
+     * the cache still reflects the state of the database before the write
+     * operation, and the update can be applied to it. Otherwise, the cache is
+     * invalidated. This method must be called while holding this object's
+     * monitor; the cache has to be updated in the same synchronized block.
+     *
+     * @param generation the cache generation returned by
+     *        {@code beginCacheUpdate()}
+     * @param success a flag whether the write operation was successful
+     * @return a flag whether the cached data can be updated
+     */
+    private boolean endCacheUpdate(long generation, boolean success)
+    {
+        if (success && generation == cacheGeneration)
+        {
+            return true;
+        }
+        invalidateCache();
+        return false;
+    }
+
+    /**
+     * Adds a raw property value loaded from the database to a map with
+     * property data.
+     *
+     * @param data the map with property data
+     * @param key the property key
+     * @param value the raw value
+     */
+    private static void addRawValue(Map<String, List<Object>> data,
+            String key, Object value)
+    {
+        List<Object> values = data.get(key);
+        if (values == null)
+        {
+            values = new ArrayList<Object>(1);
+            data.put(key, values);
+        }
+        values.add(value);
+    }
+
+    /**
+     * Adds a value to the cached data after it has been written to the
+     * database. This method has no effect if the cache is not loaded.
+     *
+     * @param key the property key
+     * @param value the raw value which has been stored
+     */
+    private synchronized void addCachedValue(String key, Object value)
+    {
+        if (cache != null)
+        {
+            List<Object> values = cache.get(key);
+            List<Object> newValues =
+                    (values != null) ? new ArrayList<Object>(values)
+                            : new ArrayList<Object>(1);
+            newValues.add(value);
+            cache.put(key, newValues);
+        }
+    }
+
+    /**
+     * Removes a property from the cached data after it has been deleted from
+     * the database. This method has no effect if the cache is not loaded.
+     *
+     * @param key the property key
+     */
+    private synchronized void removeCachedValues(String key)
+    {
+        if (cache != null)
+        {
+            cache.remove(key);
+        }
+    }
+
+    /**
+     * Clears the cached data after all properties have been deleted from the
+     * database. This method has no effect if the cache is not loaded.
+     */
+    private synchronized void clearCache()
+    {
+        if (cache != null)
+        {
+            cache.clear();
+        }
+    }
+
     /**
      * Converts a CLOB to a string.
      *
@@ -858,4 +1566,191 @@ public class DatabaseConfiguration extends AbstractConfiguration
          */
         protected abstract T performOperation() throws SQLException;
     }
+
+    /**
+     * An internally used helper class for collecting database updates during a
+     * bulk operation. Updates are split into deletions and insertions. When
+     * the batch is executed, all deletions are sent to the database first, and
+     * then all insertions, each group as a single JDBC batch. To preserve the
+     * order of operations, pending updates are executed before a key is
+     * deleted which has already been inserted in this batch. The cached data
+     * is updated together with the execution of the batch.
+     */
+    private class UpdateBatch
+    {
+        /** The keys to be deleted. */
+        private final List<String> deletions = new ArrayList<String>();
+
+        /** The keys and values to be inserted. */
+        private final List<Object[]> insertions = new ArrayList<Object[]>();
+
+        /** The keys affected by insertions. */
+        private final Set<String> insertedKeys = new HashSet<String>();
+
+        /** A flag whether all executions so far were successful. */
+        private boolean success = true;
+
+        /**
+         * Adds an insertion to this batch.
+         *
+         * @param key the property key
+         * @param value the value to be inserted
+         */
+        public void addInsert(String key, Object value)
+        {
+            insertions.add(new Object[] {
+                    key, value
+            });
+            insertedKeys.add(key);
+        }
+
+        /**
+         * Adds a deletion to this batch.
+         *
+         * @param key the key of the property to be deleted
+         */
+        public void addDelete(String key)
+        {
+            if (insertedKeys.contains(key))
+            {
+                execute();
+            }
+            deletions.add(key);
+        }
+
+        /**
+         * Executes all updates collected so far. The batch is empty
+         * afterwards and can be used further.
+         *
+         * @return a flag whether all updates of this batch were successful
+         */
+        public boolean execute()
+        {
+            if (!deletions.isEmpty() || !insertions.isEmpty())
+            {
+                JdbcOperation<Boolean> op = new JdbcOperation<Boolean>(
+                        ConfigurationErrorEvent.WRITE, ConfigurationEvent.ANY,
+                        null, null)
+                {
+                    @Override
+                    protected Boolean performOperation() throws SQLException
+                    {
+                        executeDeletions(this);
+                        executeInsertions(this);
+                        return Boolean.TRUE;
+                    }
+                };
+
+                long generation = beginCacheUpdate();
+                boolean executed = op.execute() != null;
+                success &= executed;
+                if (generation != NO_CACHE_UPDATE)
+                {
+                    synchronized (DatabaseConfiguration.this)
+                    {
+                        if (endCacheUpdate(generation, executed))
+                        {
+                            updateCache();
+                        }
+                    }
+                }
+                deletions.clear();
+                insertions.clear();
+                insertedKeys.clear();
+            }
+            return success;
+        }
+
+        /**
+         * Applies the updates of this batch to the cached data after they
+         * have been executed successfully.
+         */
+        private void updateCache()
+        {
+            for (String key : deletions)
+            {
+                removeCachedValues(key);
+            }
+            for (Object[] insertion : insertions)
+            {
+                addCachedValue((String) insertion[0], insertion[1]);
+            }
+        }
+
+        /**
+         * Executes a JDBC batch with all deletions.
+         *
+         * @param op the current JDBC operation
+         * @throws SQLException if an SQL error occurs
+         */
+        private void executeDeletions(JdbcOperation<?> op) throws SQLException
+        {
+            if (!deletions.isEmpty())
+            {
+                PreparedStatement ps =
+                        op.createStatement(String.format(SQL_CLEAR_PROPERTY,
+                                table, keyColumn), true);
+                try
+                {
+                    for (String key : deletions)
+                    {
+                        ps.setString(1, key);
+                        if (configurationNameColumn != null)
+                        {
+                            ps.setString(2, configurationName);
+                        }
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                finally
+                {
+                    close(null, ps, null);
+                }
+            }
+        }
+
+        /**
+         * Executes a JDBC batch with all insertions.
+         *
+         * @param op the current JDBC operation
+         * @throws SQLException if an SQL error occurs
+         */
+        private void executeInsertions(JdbcOperation<?> op) throws SQLException
+        {
+            if (!insertions.isEmpty())
+            {
+                PreparedStatement ps =
+                        op.createStatement(createInsertQuery(), false);
+                for (Object[] insertion : insertions)
+                {
+                    ps.setObject(1, insertion[0]);
+                    ps.setObject(2, insertion[1]);
+                    if (configurationNameColumn != null)
+                    {
+                        ps.setString(3, configurationName);
+                    }
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * An internal callback interface used by
+     * {@link DatabaseConfiguration#loadConfigurations(ConfigurationDataHandler)}
+     * to pass the data of a single configuration to the caller.
+     */
+    interface ConfigurationDataHandler
+    {
+        /**
+         * Notifies this object that the data of a configuration has been
+         * loaded.
+         *
+         * @param name the name of the configuration
+         * @param data a map with the raw property values of this configuration
+         */
+        void configurationLoaded(String name, Map<String, List<Object>> data);
+    }
 }
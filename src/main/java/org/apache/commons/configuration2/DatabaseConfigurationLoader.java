@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.configuration2.builder.BasicConfigurationBuilder;
+import org.apache.commons.configuration2.builder.BuilderParameters;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+
+/**
+ * <p>
+ * A class for loading all configurations stored in a single database table
+ * at once.
+ * </p>
+ * <p>
+ * If multiple {@link DatabaseConfiguration} instances share a table and are
+ * distinguished by a configuration name column, creating them one by one
+ * causes a separate query for each configuration. This class instead reads
+ * the whole table in a single query ordered by the configuration name. The
+ * rows are grouped by configuration name in memory; only after the whole
+ * result set has been read, a {@code DatabaseConfiguration} is created for
+ * each name, and its data is stored in the configuration's cache. (Grouping
+ * does not rely on the ordering of the database, which may treat names
+ * differing only in case as equal.) Note that therefore the data of the whole
+ * table is held in memory during a load operation in addition to the created
+ * configurations; for very large tables creating the configurations
+ * individually may be preferable.
+ * </p>
+ * <p>
+ * An instance is initialized with the class of the configurations to be
+ * created and the same builder parameters that would be passed to a
+ * {@link BasicConfigurationBuilder} for a {@code DatabaseConfiguration}. The
+ * parameters must define a configuration name column; a configuration name
+ * contained in the parameters is ignored. The configurations created by the
+ * {@link #load()} method are in cached mode (see
+ * {@link DatabaseConfiguration#setCached(boolean)}); so they do not access
+ * the database again for read operations until their cache expires or is
+ * invalidated. Updates are written to the database as usual.
+ * </p>
+ * <p>
+ * Example:
+ * </p>
+ * <pre>
+ * Parameters params = new Parameters();
+ * DatabaseConfigurationLoader&lt;DatabaseConfiguration&gt; loader =
+ *     new DatabaseConfigurationLoader&lt;DatabaseConfiguration&gt;(
+ *         DatabaseConfiguration.class, params.database()
+ *             .setDataSource(dataSource)
+ *             .setTable("configurations")
+ *             .setConfigurationNameColumn("name")
+ *             .setKeyColumn("key")
+ *             .setValueColumn("value"));
+ * Map&lt;String, DatabaseConfiguration&gt; configs = loader.load();
+ * </pre>
+ *
+ * @version $Id$
+ * @since 2.2
+ * @param <T> the type of the configurations created by this loader
+ */
+public class DatabaseConfigurationLoader<T extends DatabaseConfiguration>
+{
+    /** Constant for the name of the configuration name column property. */
+    private static final String PROP_CONFIG_NAME_COLUMN =
+            "configurationNameColumn";
+
+    /** Constant for the name of the configuration name property. */
+    private static final String PROP_CONFIG_NAME = "configurationName";
+
+    /** Constant for the name of the cached property. */
+    private static final String PROP_CACHED = "cached";
+
+    /** The class of the configurations to be created. */
+    private final Class<? extends T> resultClass;
+
+    /** The parameters for creating configurations. */
+    private final Map<String, Object> parameters;
+
+    /**
+     * Creates a new instance of {@code DatabaseConfigurationLoader} and
+     * initializes it with the class of the configurations to be created and
+     * the parameters for these configurations.
+     *
+     * @param resCls the result class (must not be <b>null</b>)
+     * @param params the builder parameters for the configurations
+     * @throws IllegalArgumentException if the result class is <b>null</b>
+     */
+    public DatabaseConfigurationLoader(Class<? extends T> resCls,
+            BuilderParameters... params)
+    {
+        if (resCls == null)
+        {
+            throw new IllegalArgumentException("Result class must not be null!");
+        }
+
+        resultClass = resCls;
+        parameters = new HashMap<String, Object>();
+        for (BuilderParameters p : params)
+        {
+            parameters.putAll(p.getParameters());
+        }
+    }
+
+    /**
+     * Returns the class of the configurations created by this loader.
+     *
+     * @return the result class
+     */
+    public Class<? extends T> getResultClass()
+    {
+        return resultClass;
+    }
+
+    /**
+     * Loads all configurations stored in the table defined by the parameters
+     * of this object. The resulting map contains the configurations keyed by
+     * their names in the order of these names. If the table is empty, an
+     * empty map is returned.
+     *
+     * @return a map with all configurations stored in the table
+     * @throws ConfigurationException if no configuration name column is
+     *         defined, a configuration cannot be created, or the data cannot
+     *         be loaded from the database
+     */
+    public Map<String, T> load() throws ConfigurationException
+    {
+        if (parameters.get(PROP_CONFIG_NAME_COLUMN) == null)
+        {
+            throw new ConfigurationException(
+                    "No configuration name column defined!");
+        }
+
+        T scanConfig = createConfiguration(null);
+        final Map<String, T> configs = new LinkedHashMap<String, T>();
+        final ConfigurationException[] error = new ConfigurationException[1];
+        boolean success = scanConfig.loadConfigurations(
+                new DatabaseConfiguration.ConfigurationDataHandler()
+                {
+                    @Override
+                    public void configurationLoaded(String name,
+                            Map<String, List<Object>> data)
+                    {
+                        if (error[0] == null)
+                        {
+                            try
+                            {
+                                T config = createConfiguration(name);
+                                config.initCache(data);
+                                configs.put(name, config);
+                            }
+                            catch (ConfigurationException cex)
+                            {
+                                error[0] = cex;
+                            }
+                        }
+                    }
+                });
+
+        if (error[0] != null)
+        {
+            throw error[0];
+        }
+        if (!success)
+        {
+            throw new ConfigurationException(
+                    "Could not load configurations from table "
+                            + scanConfig.getTable());
+        }
+        return Collections.unmodifiableMap(configs);
+    }
+
+    /**
+     * Creates the configuration for the specified name. This implementation
+     * uses a {@link BasicConfigurationBuilder} initialized with the
+     * parameters of this object. The resulting configuration is in cached
+     * mode.
+     *
+     * @param name the name of the configuration
+     * @return the newly created configuration
+     * @throws ConfigurationException if an error occurs
+     */
+    protected T createConfiguration(String name) throws ConfigurationException
+    {
+        Map<String, Object> params = new HashMap<String, Object>(parameters);
+        params.put(PROP_CONFIG_NAME, name);
+        params.put(PROP_CACHED, Boolean.TRUE);
+        return new BasicConfigurationBuilder<T>(getResultClass(), params)
+                .getConfiguration();
+    }
+}
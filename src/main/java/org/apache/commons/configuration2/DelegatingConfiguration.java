@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.configuration2;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.apache.commons.configuration2.interpol.ConfigurationInterpolator;
+import org.apache.commons.configuration2.interpol.Lookup;
+import org.apache.commons.configuration2.sync.LockMode;
+import org.apache.commons.configuration2.sync.Synchronizer;
+
+/**
+ * <p>
+ * An abstract base class for a {@link Configuration} which delegates all
+ * method calls to another configuration object.
+ * </p>
+ * <p>
+ * This class extends {@link DelegatingImmutableConfiguration} by the methods
+ * for manipulating a configuration.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.2
+ * @param <C> the type of the delegate configuration
+ */
+public abstract class DelegatingConfiguration<C extends Configuration> extends
+        DelegatingImmutableConfiguration<C> implements Configuration
+{
+    @Override
+    public Configuration subset(String prefix)
+    {
+        return getDelegate().subset(prefix);
+    }
+
+    @Override
+    public void addProperty(String key, Object value)
+    {
+        getDelegate().addProperty(key, value);
+    }
+
+    @Override
+    public void setProperty(String key, Object value)
+    {
+        getDelegate().setProperty(key, value);
+    }
+
+    @Override
+    public void clearProperty(String key)
+    {
+        getDelegate().clearProperty(key);
+    }
+
+    @Override
+    public void clear()
+    {
+        getDelegate().clear();
+    }
+
+    @Override
+    public ConfigurationInterpolator getInterpolator()
+    {
+        return getDelegate().getInterpolator();
+    }
+
+    @Override
+    public void setInterpolator(ConfigurationInterpolator ci)
+    {
+        getDelegate().setInterpolator(ci);
+    }
+
+    @Override
+    public void installInterpolator(Map<String, ? extends Lookup> prefixLookups,
+            Collection<? extends Lookup> defLookups)
+    {
+        getDelegate().installInterpolator(prefixLookups, defLookups);
+    }
+
+    @Override
+    public Synchronizer getSynchronizer()
+    {
+        return getDelegate().getSynchronizer();
+    }
+
+    @Override
+    public void setSynchronizer(Synchronizer sync)
+    {
+        getDelegate().setSynchronizer(sync);
+    }
+
+    @Override
+    public void lock(LockMode mode)
+    {
+        getDelegate().lock(mode);
+    }
+
+    @Override
+    public void unlock(LockMode mode)
+    {
+        getDelegate().unlock(mode);
+    }
+}
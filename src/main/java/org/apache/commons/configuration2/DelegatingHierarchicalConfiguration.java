@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.configuration2;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.commons.configuration2.tree.ExpressionEngine;
+import org.apache.commons.configuration2.tree.NodeModel;
+
+/**
+ * <p>
+ * An abstract base class for a {@link HierarchicalConfiguration} which
+ * delegates all method calls to another configuration object.
+ * </p>
+ * <p>
+ * This class extends {@link DelegatingConfiguration} by the methods of the
+ * hierarchical configuration interfaces.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.2
+ * @param <T> the type of the nodes of the configuration
+ * @param <C> the type of the delegate configuration
+ */
+public abstract class DelegatingHierarchicalConfiguration<T, C extends HierarchicalConfiguration<T>>
+        extends DelegatingConfiguration<C> implements HierarchicalConfiguration<T>
+{
+    @Override
+    public ExpressionEngine getExpressionEngine()
+    {
+        return getDelegate().getExpressionEngine();
+    }
+
+    @Override
+    public int getMaxIndex(String key)
+    {
+        return getDelegate().getMaxIndex(key);
+    }
+
+    @Override
+    public String getRootElementName()
+    {
+        return getDelegate().getRootElementName();
+    }
+
+    @Override
+    public ImmutableHierarchicalConfiguration immutableConfigurationAt(
+            String key, boolean supportUpdates)
+    {
+        return getDelegate().immutableConfigurationAt(key, supportUpdates);
+    }
+
+    @Override
+    public ImmutableHierarchicalConfiguration immutableConfigurationAt(
+            String key)
+    {
+        return getDelegate().immutableConfigurationAt(key);
+    }
+
+    @Override
+    public List<ImmutableHierarchicalConfiguration> immutableConfigurationsAt(
+            String key)
+    {
+        return getDelegate().immutableConfigurationsAt(key);
+    }
+
+    @Override
+    public List<ImmutableHierarchicalConfiguration> immutableChildConfigurationsAt(
+            String key)
+    {
+        return getDelegate().immutableChildConfigurationsAt(key);
+    }
+
+    @Override
+    public void setExpressionEngine(ExpressionEngine expressionEngine)
+    {
+        getDelegate().setExpressionEngine(expressionEngine);
+    }
+
+    @Override
+    public void addNodes(String key, Collection<? extends T> nodes)
+    {
+        getDelegate().addNodes(key, nodes);
+    }
+
+    @Override
+    public HierarchicalConfiguration<T> configurationAt(String key,
+            boolean supportUpdates)
+    {
+        return getDelegate().configurationAt(key, supportUpdates);
+    }
+
+    @Override
+    public HierarchicalConfiguration<T> configurationAt(String key)
+    {
+        return getDelegate().configurationAt(key);
+    }
+
+    @Override
+    public List<HierarchicalConfiguration<T>> configurationsAt(String key)
+    {
+        return getDelegate().configurationsAt(key);
+    }
+
+    @Override
+    public List<HierarchicalConfiguration<T>> configurationsAt(String key,
+            boolean supportUpdates)
+    {
+        return getDelegate().configurationsAt(key, supportUpdates);
+    }
+
+    @Override
+    public List<HierarchicalConfiguration<T>> childConfigurationsAt(String key)
+    {
+        return getDelegate().childConfigurationsAt(key);
+    }
+
+    @Override
+    public List<HierarchicalConfiguration<T>> childConfigurationsAt(String key,
+            boolean supportUpdates)
+    {
+        return getDelegate().childConfigurationsAt(key, supportUpdates);
+    }
+
+    @Override
+    public void clearTree(String key)
+    {
+        getDelegate().clearTree(key);
+    }
+
+    @Override
+    public NodeModel<T> getNodeModel()
+    {
+        return getDelegate().getNodeModel();
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.configuration2;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * <p>
+ * An abstract base class for an {@link ImmutableConfiguration} which delegates
+ * all method calls to another configuration object.
+ * </p>
+ * <p>
+ * This class implements all methods of the {@code ImmutableConfiguration}
+ * interface by calling the corresponding method on the object returned by
+ * {@link #getDelegate()}. This method is invoked on each access, so concrete
+ * subclasses can determine the target configuration dynamically, e.g. by
+ * querying a configuration builder. Unlike a dynamic proxy, calls are
+ * dispatched directly without reflection, boxing of arguments, or wrapping of
+ * exceptions.
+ * </p>
+ * <p>
+ * Subclasses can override single methods in order to modify the results of
+ * the delegate. There are derived classes for the other standard
+ * configuration interfaces.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.2
+ * @param <C> the type of the delegate configuration
+ */
+public abstract class DelegatingImmutableConfiguration<C extends ImmutableConfiguration>
+        implements ImmutableConfiguration
+{
+    /**
+     * Returns the configuration to which method calls are delegated. This
+     * method is called for each method invocation.
+     *
+     * @return the delegate configuration
+     */
+    protected abstract C getDelegate();
+
+    @Override
+    public boolean isEmpty()
+    {
+        return getDelegate().isEmpty();
+    }
+
+    @Override
+    public int size()
+    {
+        return getDelegate().size();
+    }
+
+    @Override
+    public boolean containsKey(String key)
+    {
+        return getDelegate().containsKey(key);
+    }
+
+    @Override
+    public Object getProperty(String key)
+    {
+        return getDelegate().getProperty(key);
+    }
+
+    @Override
+    public Iterator<String> getKeys(String prefix)
+    {
+        return getDelegate().getKeys(prefix);
+    }
+
+    @Override
+    public Iterator<String> getKeys()
+    {
+        return getDelegate().getKeys();
+    }
+
+    @Override
+    public Properties getProperties(String key)
+    {
+        return getDelegate().getProperties(key);
+    }
+
+    @Override
+    public boolean getBoolean(String key)
+    {
+        return getDelegate().getBoolean(key);
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue)
+    {
+        return getDelegate().getBoolean(key, defaultValue);
+    }
+
+    @Override
+    public Boolean getBoolean(String key, Boolean defaultValue)
+    {
+        return getDelegate().getBoolean(key, defaultValue);
+    }
+
+    @Override
+    public byte getByte(String key)
+    {
+        return getDelegate().getByte(key);
+    }
+
+    @Override
+    public byte getByte(String key, byte defaultValue)
+    {
+        return getDelegate().getByte(key, defaultValue);
+    }
+
+    @Override
+    public Byte getByte(String key, Byte defaultValue)
+    {
+        return getDelegate().getByte(key, defaultValue);
+    }
+
+    @Override
+    public double getDouble(String key)
+    {
+        return getDelegate().getDouble(key);
+    }
+
+    @Override
+    public double getDouble(String key, double defaultValue)
+    {
+        return getDelegate().getDouble(key, defaultValue);
+    }
+
+    @Override
+    public Double getDouble(String key, Double defaultValue)
+    {
+        return getDelegate().getDouble(key, defaultValue);
+    }
+
+    @Override
+    public float getFloat(String key)
+    {
+        return getDelegate().getFloat(key);
+    }
+
+    @Override
+    public float getFloat(String key, float defaultValue)
+    {
+        return getDelegate().getFloat(key, defaultValue);
+    }
+
+    @Override
+    public Float getFloat(String key, Float defaultValue)
+    {
+        return getDelegate().getFloat(key, defaultValue);
+    }
+
+    @Override
+    public int getInt(String key)
+    {
+        return getDelegate().getInt(key);
+    }
+
+    @Override
+    public int getInt(String key, int defaultValue)
+    {
+        return getDelegate().getInt(key, defaultValue);
+    }
+
+    @Override
+    public Integer getInteger(String key, Integer defaultValue)
+    {
+        return getDelegate().getInteger(key, defaultValue);
+    }
+
+    @Override
+    public long getLong(String key)
+    {
+        return getDelegate().getLong(key);
+    }
+
+    @Override
+    public long getLong(String key, long defaultValue)
+    {
+        return getDelegate().getLong(key, defaultValue);
+    }
+
+    @Override
+    public Long getLong(String key, Long defaultValue)
+    {
+        return getDelegate().getLong(key, defaultValue);
+    }
+
+    @Override
+    public short getShort(String key)
+    {
+        return getDelegate().getShort(key);
+    }
+
+    @Override
+    public short getShort(String key, short defaultValue)
+    {
+        return getDelegate().getShort(key, defaultValue);
+    }
+
+    @Override
+    public Short getShort(String key, Short defaultValue)
+    {
+        return getDelegate().getShort(key, defaultValue);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String key)
+    {
+        return getDelegate().getBigDecimal(key);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String key, BigDecimal defaultValue)
+    {
+        return getDelegate().getBigDecimal(key, defaultValue);
+    }
+
+    @Override
+    public BigInteger getBigInteger(String key)
+    {
+        return getDelegate().getBigInteger(key);
+    }
+
+    @Override
+    public BigInteger getBigInteger(String key, BigInteger defaultValue)
+    {
+        return getDelegate().getBigInteger(key, defaultValue);
+    }
+
+    @Override
+    public String getString(String key)
+    {
+        return getDelegate().getString(key);
+    }
+
+    @Override
+    public String getString(String key, String defaultValue)
+    {
+        return getDelegate().getString(key, defaultValue);
+    }
+
+    @Override
+    public String getEncodedString(String key, ConfigurationDecoder decoder)
+    {
+        return getDelegate().getEncodedString(key, decoder);
+    }
+
+    @Override
+    public String getEncodedString(String key)
+    {
+        return getDelegate().getEncodedString(key);
+    }
+
+    @Override
+    public String[] getStringArray(String key)
+    {
+        return getDelegate().getStringArray(key);
+    }
+
+    @Override
+    public List<Object> getList(String key)
+    {
+        return getDelegate().getList(key);
+    }
+
+    @Override
+    public List<Object> getList(String key, List<?> defaultValue)
+    {
+        return getDelegate().getList(key, defaultValue);
+    }
+
+    @Override
+    public <T> T get(Class<T> cls, String key)
+    {
+        return getDelegate().get(cls, key);
+    }
+
+    @Override
+    public <T> T get(Class<T> cls, String key, T defaultValue)
+    {
+        return getDelegate().get(cls, key, defaultValue);
+    }
+
+    @Override
+    public Object getArray(Class<?> cls, String key)
+    {
+        return getDelegate().getArray(cls, key);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @deprecated This method is deprecated in the
+     *             {@code ImmutableConfiguration} interface.
+     */
+    @Deprecated
+    @Override
+    public Object getArray(Class<?> cls, String key, Object defaultValue)
+    {
+        return getDelegate().getArray(cls, key, defaultValue);
+    }
+
+    @Override
+    public <T> List<T> getList(Class<T> cls, String key)
+    {
+        return getDelegate().getList(cls, key);
+    }
+
+    @Override
+    public <T> List<T> getList(Class<T> cls, String key, List<T> defaultValue)
+    {
+        return getDelegate().getList(cls, key, defaultValue);
+    }
+
+    @Override
+    public <T> Collection<T> getCollection(Class<T> cls,
+            String key, Collection<T> target)
+    {
+        return getDelegate().getCollection(cls, key, target);
+    }
+
+    @Override
+    public <T> Collection<T> getCollection(Class<T> cls,
+            String key, Collection<T> target, Collection<T> defaultValue)
+    {
+        return getDelegate().getCollection(cls, key, target, defaultValue);
+    }
+
+    @Override
+    public ImmutableConfiguration immutableSubset(String prefix)
+    {
+        return getDelegate().immutableSubset(prefix);
+    }
+}
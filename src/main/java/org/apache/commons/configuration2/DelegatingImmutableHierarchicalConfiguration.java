@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.configuration2;
+
+import java.util.List;
+
+import org.apache.commons.configuration2.tree.ExpressionEngine;
+
+/**
+ * <p>
+ * An abstract base class for an {@link ImmutableHierarchicalConfiguration}
+ * which delegates all method calls to another configuration object.
+ * </p>
+ * <p>
+ * This class extends {@link DelegatingImmutableConfiguration} by the methods
+ * defined by the {@code ImmutableHierarchicalConfiguration} interface.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.2
+ * @param <C> the type of the delegate configuration
+ */
+public abstract class DelegatingImmutableHierarchicalConfiguration<C extends ImmutableHierarchicalConfiguration>
+        extends DelegatingImmutableConfiguration<C> implements
+        ImmutableHierarchicalConfiguration
+{
+    @Override
+    public ExpressionEngine getExpressionEngine()
+    {
+        return getDelegate().getExpressionEngine();
+    }
+
+    @Override
+    public int getMaxIndex(String key)
+    {
+        return getDelegate().getMaxIndex(key);
+    }
+
+    @Override
+    public String getRootElementName()
+    {
+        return getDelegate().getRootElementName();
+    }
+
+    @Override
+    public ImmutableHierarchicalConfiguration immutableConfigurationAt(
+            String key, boolean supportUpdates)
+    {
+        return getDelegate().immutableConfigurationAt(key, supportUpdates);
+    }
+
+    @Override
+    public ImmutableHierarchicalConfiguration immutableConfigurationAt(
+            String key)
+    {
+        return getDelegate().immutableConfigurationAt(key);
+    }
+
+    @Override
+    public List<ImmutableHierarchicalConfiguration> immutableConfigurationsAt(
+            String key)
+    {
+        return getDelegate().immutableConfigurationsAt(key);
+    }
+
+    @Override
+    public List<ImmutableHierarchicalConfiguration> immutableChildConfigurationsAt(
+            String key)
+    {
+        return getDelegate().immutableChildConfigurationsAt(key);
+    }
+}
@@ -23,6 +23,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -58,6 +60,34 @@ import org.apache.commons.configuration2.tree.NodeCombiner;
  * consistency and to avoid exceptions. The {@code Synchronizer} assigned to an
  * instance is also passed to child configuration objects when they are created.
  * </p>
+ * <p>
+ * Evaluating the key pattern on each access can be expensive if many
+ * properties are read in a row for the same key (e.g. while processing a
+ * request in a multi-tenant application). In this case, the key can be
+ * evaluated once and bound to the current thread using the
+ * {@link #bindCurrentKey()} method. All following operations of this thread
+ * use the bound key until {@link #unbindCurrentKey()} is called. A typical
+ * usage scenario looks as follows:
+ * </p>
+ *
+ * <pre>
+ * config.bindCurrentKey();
+ * try
+ * {
+ *     // access the configuration
+ * }
+ * finally
+ * {
+ *     config.unbindCurrentKey();
+ * }
+ * </pre>
+ * <p>
+ * For each key a child configuration is created. Per default, these child
+ * configurations are kept until the structure of this configuration changes.
+ * With {@link #setMaxConfigurations(int)} the number of child configurations
+ * can be limited; if the limit is exceeded, the least recently used child
+ * configurations are removed.
+ * </p>
  *
  * @since 1.6
  * @version $Id$
@@ -75,6 +105,20 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
     private final ConcurrentMap<String, CombinedConfiguration> configs =
             new ConcurrentHashMap<String, CombinedConfiguration>();
 
+    /**
+     * Stores the keys of child configurations in access order. This map is
+     * only maintained if the number of child configurations is limited. It is
+     * guarded by its own monitor.
+     */
+    private final Map<String, Boolean> accessOrder =
+            new LinkedHashMap<String, Boolean>(16, 0.75f, true);
+
+    /** Stores the key bound to a thread. */
+    private final ThreadLocal<String> boundKey = new ThreadLocal<String>();
+
+    /** The maximum number of child configurations. */
+    private volatile int maxConfigurations;
+
     /** Stores a list with the contained configurations. */
     private final List<ConfigData> configurations = new ArrayList<ConfigData>();
 
@@ -132,6 +176,94 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
         return this.keyPattern;
     }
 
+    /**
+     * Evaluates the key pattern and binds the resulting key to the current
+     * thread. Until {@link #unbindCurrentKey()} is called, all operations
+     * executed by this thread use this key without evaluating the key pattern
+     * again. Callers have to make sure that the key is unbound when it is no
+     * longer valid, typically in a {@code finally} block.
+     *
+     * @return the key which has been bound to the current thread
+     * @since 2.2
+     */
+    public String bindCurrentKey()
+    {
+        boundKey.remove();
+        String key = evaluateKeyPattern();
+        boundKey.set(key);
+        return key;
+    }
+
+    /**
+     * Removes the binding of a key to the current thread. After that, the key
+     * pattern is again evaluated for each operation. If no key is bound, this
+     * method has no effect.
+     *
+     * @since 2.2
+     */
+    public void unbindCurrentKey()
+    {
+        boundKey.remove();
+    }
+
+    /**
+     * Returns the key which is currently bound to the calling thread. Result
+     * is <b>null</b> if {@link #bindCurrentKey()} has not been called by this
+     * thread.
+     *
+     * @return the key bound to the current thread or <b>null</b>
+     * @since 2.2
+     */
+    public String getBoundKey()
+    {
+        return boundKey.get();
+    }
+
+    /**
+     * Returns the maximum number of child configurations kept by this object.
+     * A value less than or equal to 0 means that there is no limit.
+     *
+     * @return the maximum number of child configurations
+     * @since 2.2
+     */
+    public int getMaxConfigurations()
+    {
+        return maxConfigurations;
+    }
+
+    /**
+     * Sets the maximum number of child configurations kept by this object.
+     * For each key produced by the key pattern a child configuration is
+     * created. If this limit is exceeded when a new child configuration is
+     * created, the child configurations which have not been accessed for the
+     * longest time are removed. (They are created again when their keys are
+     * accessed later.) The data of removed child configurations is not
+     * changed, so operations already in progress on them can complete. A
+     * value less than or equal to 0 means that there is no limit; this is the
+     * default.
+     *
+     * @param max the maximum number of child configurations
+     * @since 2.2
+     */
+    public void setMaxConfigurations(int max)
+    {
+        if (max > 0)
+        {
+            // record existing child configurations which may not be tracked
+            synchronized (accessOrder)
+            {
+                for (String key : configs.keySet())
+                {
+                    if (!accessOrder.containsKey(key))
+                    {
+                        accessOrder.put(key, Boolean.TRUE);
+                    }
+                }
+            }
+        }
+        maxConfigurations = max;
+    }
+
     /**
      * Set the name of the Logger to use on each CombinedConfiguration.
      * @param name The Logger name.
@@ -205,6 +337,10 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
 
             // clear cache of all child configurations
             configs.clear();
+            synchronized (accessOrder)
+            {
+                accessOrder.clear();
+            }
         }
         finally
         {
@@ -831,6 +967,7 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
             cch.setCurrentConfiguration(createChildConfiguration());
             configs.put(cch.getKey(), cch.getCurrentConfiguration());
             initChildConfiguration(cch.getCurrentConfiguration());
+            evictChildConfigurations(cch.getKey());
         }
     }
 
@@ -971,14 +1108,96 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
         CurrentConfigHolder cch = CURRENT_CONFIG.get();
         if (cch == null)
         {
-            String key = String.valueOf(localSubst.interpolate(keyPattern));
+            String key = boundKey.get();
+            if (key == null)
+            {
+                key = evaluateKeyPattern();
+            }
             cch = new CurrentConfigHolder(key);
             cch.setCurrentConfiguration(configs.get(key));
             CURRENT_CONFIG.set(cch);
+            if (maxConfigurations > 0)
+            {
+                synchronized (accessOrder)
+                {
+                    accessOrder.put(key, Boolean.TRUE);
+                }
+            }
         }
         return cch;
     }
 
+    /**
+     * Evaluates the key pattern and returns the key of the current child
+     * configuration.
+     *
+     * @return the current key
+     */
+    private String evaluateKeyPattern()
+    {
+        return String.valueOf(localSubst.interpolate(keyPattern));
+    }
+
+    /**
+     * Removes child configurations if the maximum number of child
+     * configurations is exceeded. The least recently used configurations are
+     * removed first. The configuration with the given key, which has just been
+     * created, is never removed. Removed configurations are detached from the
+     * configurations they contain.
+     *
+     * @param currentKey the key of the current child configuration
+     */
+    private void evictChildConfigurations(String currentKey)
+    {
+        int max = maxConfigurations;
+        if (max <= 0)
+        {
+            return;
+        }
+
+        List<CombinedConfiguration> evicted =
+                new LinkedList<CombinedConfiguration>();
+        synchronized (accessOrder)
+        {
+            accessOrder.put(currentKey, Boolean.TRUE);
+
+            Iterator<String> it = accessOrder.keySet().iterator();
+            while (configs.size() > max && it.hasNext())
+            {
+                String key = it.next();
+                if (currentKey.equals(key))
+                {
+                    break;
+                }
+                it.remove();
+                CombinedConfiguration config = configs.remove(key);
+                if (config != null)
+                {
+                    evicted.add(config);
+                }
+            }
+        }
+
+        for (CombinedConfiguration config : evicted)
+        {
+            releaseChildConfiguration(config);
+        }
+    }
+
+    /**
+     * Releases a child configuration which has been evicted. The child
+     * configuration is removed as event listener from all the configurations
+     * it contains; so it is no longer referenced by them. Its data is not
+     * changed because it may still be used by other threads which obtained it
+     * before it was evicted.
+     *
+     * @param config the evicted child configuration
+     */
+    private static void releaseChildConfiguration(CombinedConfiguration config)
+    {
+        config.unregisterListenerAtChildren();
+    }
+
     /**
      * Internal class that identifies each Configuration.
      */
@@ -38,6 +38,7 @@ import org.apache.commons.configuration2.io.FileHandler;
 import org.apache.commons.configuration2.io.FileLocator;
 import org.apache.commons.configuration2.io.FileLocatorAware;
 import org.apache.commons.configuration2.io.FileLocatorUtils;
+import org.apache.commons.configuration2.tree.CanonicalizationPool;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -171,6 +172,10 @@ import org.apache.commons.lang3.text.translate.UnicodeEscaper;
  * method can be used to obtain this layout object. With {@code setLayout()}
  * a new layout object can be set. This should be done before a properties file
  * was loaded.
+ * <p>If the same properties files are loaded into many configuration objects,
+ * a {@link CanonicalizationPool} can be set with
+ * {@link #setCanonicalizationPool(CanonicalizationPool)}. The keys and values
+ * of loaded properties are then shared between these objects.
  * <p>Like other {@code Configuration} implementations, this class uses a
  * {@code Synchronizer} object to control concurrent access. By choosing a
  * suitable implementation of the {@code Synchronizer} interface, an instance
@@ -261,6 +266,12 @@ public class PropertiesConfiguration extends BaseConfiguration
     /** Allow file inclusion or not */
     private boolean includesAllowed = true;
 
+    /** The pool for canonicalizing loaded keys and values. */
+    private CanonicalizationPool canonicalizationPool;
+
+    /** A flag whether a properties file is currently loaded. */
+    private boolean loading;
+
     /**
      * Creates an empty PropertyConfiguration object which can be
      * used to synthesize a new Properties file by adding values and
@@ -314,6 +325,33 @@ public class PropertiesConfiguration extends BaseConfiguration
         return this.includesAllowed;
     }
 
+    /**
+     * Returns the {@code CanonicalizationPool} used by this configuration.
+     *
+     * @return the {@code CanonicalizationPool} (can be <b>null</b>)
+     * @since 2.2
+     */
+    public CanonicalizationPool getCanonicalizationPool()
+    {
+        return canonicalizationPool;
+    }
+
+    /**
+     * Sets the {@code CanonicalizationPool} to be used when loading properties
+     * files. If a pool is set, the keys and the string values of properties
+     * read from a file are replaced by canonical instances obtained from the
+     * pool; so they are shared with other configurations using the same pool.
+     * Properties added programmatically are not affected. A value of
+     * <b>null</b> (which is the default) disables canonicalization.
+     *
+     * @param pool the {@code CanonicalizationPool}
+     * @since 2.2
+     */
+    public void setCanonicalizationPool(CanonicalizationPool pool)
+    {
+        canonicalizationPool = pool;
+    }
+
     /**
      * Return the comment header.
      *
@@ -515,7 +553,38 @@ public class PropertiesConfiguration extends BaseConfiguration
     @Override
     public void read(Reader in) throws ConfigurationException, IOException
     {
-        getLayout().load(this, in);
+        boolean oldLoading = loading;
+        loading = true;
+        try
+        {
+            getLayout().load(this, in);
+        }
+        finally
+        {
+            loading = oldLoading;
+        }
+    }
+
+    /**
+     * {@inheritDoc} This implementation replaces the key and the value by
+     * canonical instances if a file is loaded and a
+     * {@code CanonicalizationPool} is set.
+     *
+     * @since 2.2
+     */
+    @Override
+    protected void addPropertyDirect(String key, Object value)
+    {
+        CanonicalizationPool pool = getCanonicalizationPool();
+        if (loading && pool != null)
+        {
+            super.addPropertyDirect(pool.canonicalize(key),
+                    pool.canonicalizeValue(value));
+        }
+        else
+        {
+            super.addPropertyDirect(key, value);
+        }
     }
 
     /**
@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * A registry for connected sub configurations of a
+ * {@link BaseHierarchicalConfiguration}.
+ * </p>
+ * <p>
+ * Each call of {@code configurationAt(key, true)} evaluates the passed in key
+ * and registers a new observer for the tracked node selected by it. If the
+ * same sub configuration is needed frequently - for instance, each time a
+ * request is processed - this causes unnecessary overhead; and if the sub
+ * configurations are not closed explicitly, tracked nodes are only released
+ * when they are garbage collected.
+ * </p>
+ * <p>
+ * This class can be used to share sub configurations instead. On the first
+ * call of {@link #acquire(String)} for a key, a connected sub configuration is
+ * created and cached. Further calls for the same key return the cached
+ * instance and just increment a reference counter. Callers indicate that they
+ * no longer need the sub configuration by calling {@link #release(String)}.
+ * When the reference counter drops to zero, the sub configuration is removed
+ * from the registry and closed, so that its tracked node is released. Thus,
+ * there is only a single tracked node for each key no matter how many clients
+ * use the sub configuration.
+ * </p>
+ * <p>
+ * If the tracked node of a cached sub configuration becomes detached (e.g.
+ * because the corresponding part of the parent configuration was removed and
+ * added again), the next call of {@code acquire()} closes it and creates a
+ * new sub configuration for the key; the reference counter is retained.
+ * Because tracked nodes are shared by all observers of the same key, this only
+ * yields the current data if no other sub configurations for this key have
+ * been created outside of the registry.
+ * </p>
+ * <p>
+ * Typical usage could look as follows:
+ * </p>
+ *
+ * <pre>
+ * SubConfigurationRegistry registry = new SubConfigurationRegistry(config);
+ * ...
+ * SubnodeConfiguration pool = registry.acquire(&quot;db.pool&quot;);
+ * try
+ * {
+ *     int size = pool.getInt(&quot;size&quot;);
+ *     ...
+ * }
+ * finally
+ * {
+ *     registry.release(&quot;db.pool&quot;);
+ * }
+ * </pre>
+ *
+ * <p>
+ * Implementation note: This class is thread-safe.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.2
+ */
+public class SubConfigurationRegistry
+{
+    /** The parent configuration. */
+    private final BaseHierarchicalConfiguration parent;
+
+    /** A map with the sub configurations managed by this registry. */
+    private final Map<String, RegistryEntry> subConfigurations;
+
+    /**
+     * Creates a new instance of {@code SubConfigurationRegistry} for the
+     * specified parent configuration.
+     *
+     * @param parentConfig the parent configuration (must not be <b>null</b>)
+     * @throws IllegalArgumentException if the parent configuration is
+     *         <b>null</b>
+     */
+    public SubConfigurationRegistry(BaseHierarchicalConfiguration parentConfig)
+    {
+        if (parentConfig == null)
+        {
+            throw new IllegalArgumentException(
+                    "Parent configuration must not be null!");
+        }
+        parent = parentConfig;
+        subConfigurations = new HashMap<String, RegistryEntry>();
+    }
+
+    /**
+     * Returns the parent configuration of this registry.
+     *
+     * @return the parent configuration
+     */
+    public BaseHierarchicalConfiguration getParent()
+    {
+        return parent;
+    }
+
+    /**
+     * Returns the connected sub configuration for the given key. If no sub
+     * configuration for this key is registered, it is created now by calling
+     * {@code configurationAt(key, true)} on the parent configuration.
+     * Otherwise, the cached instance is returned unless its tracked node has
+     * been detached; in this case, a new sub configuration is created. In all
+     * cases, the reference counter for this key is incremented; each call of
+     * this method should be matched by a call of {@link #release(String)}.
+     *
+     * @param key the key of the sub configuration
+     * @return the sub configuration for this key
+     * @throws org.apache.commons.configuration2.ex.ConfigurationRuntimeException
+     *         if the key does not select a single node
+     */
+    public synchronized SubnodeConfiguration acquire(String key)
+    {
+        RegistryEntry entry = subConfigurations.get(key);
+        if (entry == null || entry.isDetached())
+        {
+            if (entry != null)
+            {
+                // check the key before the detached node is released, so
+                // that the entry stays intact if the key is now invalid
+                parent.configurationAt(key);
+                entry.configuration.close();
+            }
+            RegistryEntry newEntry =
+                    new RegistryEntry((SubnodeConfiguration) parent
+                            .configurationAt(key, true));
+            if (entry != null)
+            {
+                newEntry.referenceCount = entry.referenceCount;
+            }
+            subConfigurations.put(key, newEntry);
+            entry = newEntry;
+        }
+        entry.referenceCount++;
+        return entry.configuration;
+    }
+
+    /**
+     * Releases the sub configuration for the given key. The reference counter
+     * for this key is decremented. If it reaches zero, the sub configuration
+     * is removed from this registry and closed.
+     *
+     * @param key the key of the sub configuration
+     * @return a flag whether the sub configuration was closed
+     * @throws IllegalArgumentException if no sub configuration has been
+     *         acquired for this key
+     */
+    public synchronized boolean release(String key)
+    {
+        RegistryEntry entry = subConfigurations.get(key);
+        if (entry == null)
+        {
+            throw new IllegalArgumentException(
+                    "No sub configuration acquired for key: " + key);
+        }
+
+        if (--entry.referenceCount > 0)
+        {
+            return false;
+        }
+        subConfigurations.remove(key);
+        entry.configuration.close();
+        return true;
+    }
+
+    /**
+     * Returns the number of references to the sub configuration with the
+     * given key. Result is 0 if no sub configuration is registered for this
+     * key.
+     *
+     * @param key the key of the sub configuration
+     * @return the reference counter for this key
+     */
+    public synchronized int getReferenceCount(String key)
+    {
+        RegistryEntry entry = subConfigurations.get(key);
+        return (entry != null) ? entry.referenceCount : 0;
+    }
+
+    /**
+     * Returns the number of sub configurations currently managed by this
+     * registry.
+     *
+     * @return the number of registered sub configurations
+     */
+    public synchronized int size()
+    {
+        return subConfigurations.size();
+    }
+
+    /**
+     * Closes all sub configurations managed by this registry independent on
+     * their reference counters. Afterwards the registry is empty.
+     */
+    public void clear()
+    {
+        Collection<RegistryEntry> entries;
+        synchronized (this)
+        {
+            entries = new ArrayList<RegistryEntry>(subConfigurations.values());
+            subConfigurations.clear();
+        }
+
+        for (RegistryEntry entry : entries)
+        {
+            entry.configuration.close();
+        }
+    }
+
+    /**
+     * A simple data class storing a sub configuration and its reference
+     * counter.
+     */
+    private static class RegistryEntry
+    {
+        /** The sub configuration. */
+        private final SubnodeConfiguration configuration;
+
+        /** The reference counter. */
+        private int referenceCount;
+
+        /**
+         * Creates a new instance of {@code RegistryEntry}.
+         *
+         * @param config the sub configuration
+         */
+        public RegistryEntry(SubnodeConfiguration config)
+        {
+            configuration = config;
+        }
+
+        /**
+         * Checks whether the tracked node of the sub configuration has been
+         * detached from the parent configuration.
+         *
+         * @return a flag whether the sub configuration is detached
+         */
+        public boolean isDetached()
+        {
+            return configuration.getNodeModel().isTrackedNodeDetached(
+                    configuration.getRootSelector());
+        }
+    }
+}
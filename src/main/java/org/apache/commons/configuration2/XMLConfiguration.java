@@ -20,6 +20,13 @@ package org.apache.commons.configuration2;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLResolver;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
@@ -34,9 +41,11 @@ import java.io.StringWriter;
 import java.io.Writer;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -46,8 +55,12 @@ import org.apache.commons.configuration2.io.ConfigurationLogger;
 import org.apache.commons.configuration2.io.FileLocator;
 import org.apache.commons.configuration2.io.FileLocatorAware;
 import org.apache.commons.configuration2.io.InputStreamSupport;
+import org.apache.commons.configuration2.io.ParsedContentCache;
+import org.apache.commons.configuration2.io.ParsedContentSupport;
 import org.apache.commons.configuration2.resolver.DefaultEntityResolver;
+import org.apache.commons.configuration2.tree.CanonicalizationPool;
 import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.apache.commons.configuration2.tree.InMemoryNodeModel;
 import org.apache.commons.configuration2.tree.NodeTreeWalker;
 import org.apache.commons.configuration2.tree.ReferenceNodeHandler;
 import org.apache.commons.lang3.StringUtils;
@@ -166,6 +179,35 @@ import org.xml.sax.helpers.DefaultHandler;
  * configuration files from various sources like files, URLs, or streams.
  * </p>
  * <p>
+ * For large read-only documents the <em>streaming load</em> mode can be
+ * enabled using {@link #setStreamingLoad(boolean)}. The configuration nodes are
+ * then constructed directly from the events of a StAX parser; no DOM document
+ * is created or retained. Saving such a configuration is still possible, but
+ * the layout of the original document (e.g. comments or the DOCTYPE
+ * declaration) is lost.
+ * </p>
+ * <p>
+ * If many configurations load the same documents, a
+ * {@link CanonicalizationPool} can be set using
+ * {@link #setCanonicalizationPool(CanonicalizationPool)}. Identical node
+ * structures, names, and values are then shared between these configurations.
+ * </p>
+ * <p>
+ * Going one step further, with
+ * {@link #setParsedContentCache(ParsedContentCache)} a
+ * {@link ParsedContentCache} can be set. Then a document is parsed only once,
+ * and the resulting node structure is reused by all configurations loading the
+ * same document with compatible settings. Such configurations are loaded in
+ * the same way as in streaming load mode; no DOM document is retained.
+ * </p>
+ * <p>
+ * In a similar way, the <em>streaming write</em> mode can be enabled using
+ * {@link #setStreamingWrite(boolean)}. Then the tree of configuration nodes is
+ * written directly to the output using a StAX stream writer. The formatting of
+ * a document this configuration was loaded from is not preserved; but no DOM
+ * tree has to be updated and serialized.
+ * </p>
+ * <p>
  * Like other {@code Configuration} implementations, this class uses a
  * {@code Synchronizer} object to control concurrent access. By choosing a
  * suitable implementation of the {@code Synchronizer} interface, an instance
@@ -192,7 +234,8 @@ import org.xml.sax.helpers.DefaultHandler;
  * @version $Id$
  */
 public class XMLConfiguration extends BaseHierarchicalConfiguration implements
-        FileBasedConfiguration, FileLocatorAware, InputStreamSupport
+        FileBasedConfiguration, FileLocatorAware, InputStreamSupport,
+        ParsedContentSupport
 {
     /** Constant for the default root element name. */
     private static final String DEFAULT_ROOT_NAME = "configuration";
@@ -203,6 +246,18 @@ public class XMLConfiguration extends BaseHierarchicalConfiguration implements
     /** Constant for an internally used space attribute. */
     private static final String ATTR_SPACE_INTERNAL = "config-xml:space";
 
+    /** Constant for the XML version written in streaming mode. */
+    private static final String XML_VERSION = "1.0";
+
+    /** Constant for the line separator used in streaming mode. */
+    private static final String LINE_SEPARATOR = "\n";
+
+    /** Constant for the indentation of a level in streaming mode. */
+    private static final String INDENT = "  ";
+
+    /** Constant for the prefix of namespace declarations. */
+    private static final String ATTR_XMLNS = "xmlns";
+
     /** Constant for the xml:space value for preserving whitespace.*/
     private static final String VALUE_PRESERVE = "preserve";
 
@@ -232,6 +287,18 @@ public class XMLConfiguration extends BaseHierarchicalConfiguration implements
     /** Stores a flag whether DTD or Schema validation is used */
     private boolean schemaValidation;
 
+    /** Stores a flag whether documents are loaded in streaming mode. */
+    private boolean streamingLoad;
+
+    /** Stores a flag whether documents are written in streaming mode. */
+    private boolean streamingWrite;
+
+    /** The pool for canonicalizing loaded data. */
+    private CanonicalizationPool canonicalizationPool;
+
+    /** The cache for parsed documents. */
+    private ParsedContentCache parsedContentCache;
+
     /** The EntityResolver to use */
     private EntityResolver entityResolver = new DefaultEntityResolver();
 
@@ -488,6 +555,198 @@ public class XMLConfiguration extends BaseHierarchicalConfiguration implements
         }
     }
 
+    /**
+     * Returns the value of the streaming load flag.
+     *
+     * @return the streaming load flag
+     * @since 2.2
+     */
+    public boolean isStreamingLoad()
+    {
+        return streamingLoad;
+    }
+
+    /**
+     * Sets the value of the streaming load flag. If set to <b>true</b>, XML
+     * documents are not parsed into a DOM tree; rather, the nodes of this
+     * configuration are created directly from the events of a StAX stream
+     * reader. So only a single tree has to be kept in memory, which makes a
+     * significant difference for large documents. As no document is retained,
+     * {@link #getDocument()} returns <b>null</b> after a streaming load, and
+     * the original layout of the document is not preserved when this
+     * configuration is saved. Streaming load is not available for validating
+     * parsers; if the validating flag is set or a specific
+     * {@code DocumentBuilder} has been set, documents are always loaded into a
+     * DOM tree.
+     *
+     * @param streamingLoad the streaming load flag
+     * @since 2.2
+     */
+    public void setStreamingLoad(boolean streamingLoad)
+    {
+        this.streamingLoad = streamingLoad;
+    }
+
+    /**
+     * Returns the value of the streaming write flag.
+     *
+     * @return the streaming write flag
+     * @since 2.2
+     */
+    public boolean isStreamingWrite()
+    {
+        return streamingWrite;
+    }
+
+    /**
+     * Sets the value of the streaming write flag. If set to <b>true</b>, this
+     * configuration is saved by walking the tree of configuration nodes and
+     * emitting XML directly through a StAX stream writer. No DOM document is
+     * created or updated, and no {@code Transformer} is involved. This is
+     * considerably faster for large configurations, but the formatting of the
+     * document this configuration was loaded from (e.g. comments) is not
+     * preserved. The child elements are indented by two spaces; the DOCTYPE
+     * declaration is written if a system ID is set.
+     *
+     * @param streamingWrite the streaming write flag
+     * @since 2.2
+     */
+    public void setStreamingWrite(boolean streamingWrite)
+    {
+        this.streamingWrite = streamingWrite;
+    }
+
+    /**
+     * Returns the {@code CanonicalizationPool} used by this configuration.
+     *
+     * @return the {@code CanonicalizationPool} (can be <b>null</b>)
+     * @since 2.2
+     */
+    public CanonicalizationPool getCanonicalizationPool()
+    {
+        return canonicalizationPool;
+    }
+
+    /**
+     * Sets the {@code CanonicalizationPool} to be used when loading documents.
+     * If a pool is set, the node structure constructed for a document is
+     * passed to the pool, so that identical subtrees, names, and values are
+     * shared with other configurations using the same pool. This is useful if
+     * the same documents are loaded into many configuration objects. A value
+     * of <b>null</b> (which is the default) disables canonicalization.
+     *
+     * @param pool the {@code CanonicalizationPool}
+     * @since 2.2
+     */
+    public void setCanonicalizationPool(CanonicalizationPool pool)
+    {
+        canonicalizationPool = pool;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 2.2
+     */
+    @Override
+    public ParsedContentCache getParsedContentCache()
+    {
+        return parsedContentCache;
+    }
+
+    /**
+     * Sets the {@code ParsedContentCache} to be used when loading documents.
+     * If a cache is set, a document loaded by a {@code FileHandler} from a URL
+     * is obtained from the cache if it has already been parsed for another
+     * configuration with the same settings (list delimiter handler and entity
+     * resolver). The cache is not used if validation is enabled, if a custom
+     * {@code DocumentBuilder} is set, or if this configuration already
+     * contains data. Documents loaded from the cache are treated as in
+     * streaming load mode; no DOM document is retained. A
+     * {@code CanonicalizationPool} set for this configuration is applied to
+     * the structures obtained from the cache as well. A value of
+     * <b>null</b> (which is the default) disables the cache.
+     *
+     * @param cache the {@code ParsedContentCache}
+     * @since 2.2
+     */
+    public void setParsedContentCache(ParsedContentCache cache)
+    {
+        parsedContentCache = cache;
+    }
+
+    /**
+     * {@inheritDoc} This implementation returns a key based on the settings
+     * which influence the parsing of a document. Result is <b>null</b> if the
+     * cache cannot be used.
+     *
+     * @since 2.2
+     */
+    @Override
+    public Object getParsedContentKey()
+    {
+        ImmutableNode root = getModel().getNodeHandler().getRootNode();
+        if (getDocumentBuilder() != null || isValidating()
+                || !root.getChildren().isEmpty()
+                || !root.getAttributes().isEmpty() || root.getValue() != null)
+        {
+            return null;
+        }
+
+        EntityResolver resolver = getEntityResolver();
+        if (resolver instanceof DefaultEntityResolver
+                && ((DefaultEntityResolver) resolver).getRegisteredEntities()
+                        .isEmpty())
+        {
+            // the default resolver has no effect on the parsed document
+            resolver = null;
+        }
+        return Arrays.asList(getClass(), getListDelimiterHandler(), resolver);
+    }
+
+    /**
+     * {@inheritDoc} This implementation parses the document using a StAX
+     * parser analogously to the streaming load mode.
+     *
+     * @since 2.2
+     */
+    @Override
+    public ImmutableNode parseContent(InputStream in)
+            throws ConfigurationException, IOException
+    {
+        InputSource source = createInputSource(in);
+        try
+        {
+            XMLStreamReader reader = createStreamReader(source);
+            try
+            {
+                return constructStreamingTree(reader);
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        catch (XMLStreamException xsex)
+        {
+            throw new ConfigurationException("Error parsing "
+                    + source.getSystemId(), xsex);
+        }
+    }
+
+    /**
+     * {@inheritDoc} This implementation adds the structure to the node model
+     * of this configuration. If a {@code CanonicalizationPool} is set, it is
+     * applied to the structure obtained from the cache.
+     *
+     * @since 2.2
+     */
+    @Override
+    public void initParsedContent(ImmutableNode root)
+    {
+        initStreamingRoot(canonicalize(root, null));
+    }
+
     /**
      * Sets a new EntityResolver. Setting this will cause RegisterEntityId to have no
      * effect.
@@ -564,13 +823,54 @@ public class XMLConfiguration extends BaseHierarchicalConfiguration implements
                         document.getDocumentElement(), elemRefMap, true, 0);
         attributes.remove(ATTR_SPACE_INTERNAL);
         ImmutableNode top =
-                rootBuilder.value(rootValue.getValue())
-                        .addAttributes(attributes).create();
+                canonicalize(rootBuilder.value(rootValue.getValue())
+                        .addAttributes(attributes).create(), elemRefMap);
         getSubConfigurationParentModel().mergeRoot(top,
                 document.getDocumentElement().getTagName(), elemRefMap,
                 elemRefs ? docHelper : null, this);
     }
 
+    /**
+     * Passes the node structure constructed for a document to the
+     * {@code CanonicalizationPool} if one is set. If nodes are replaced,
+     * the map with references is updated accordingly.
+     *
+     * @param top the root node of the structure
+     * @param elemRefs the map with references (may be <b>null</b>)
+     * @return the node structure to be added to this configuration
+     */
+    private ImmutableNode canonicalize(ImmutableNode top,
+            Map<ImmutableNode, Object> elemRefs)
+    {
+        CanonicalizationPool pool = getCanonicalizationPool();
+        if (pool == null)
+        {
+            return top;
+        }
+
+        Map<ImmutableNode, ImmutableNode> replacements = null;
+        if (elemRefs != null)
+        {
+            replacements = new IdentityHashMap<ImmutableNode, ImmutableNode>();
+        }
+        ImmutableNode result =
+                pool.canonicalize(top, getSubConfigurationParentModel()
+                        .getRootNode(), replacements);
+        if (replacements != null)
+        {
+            for (Map.Entry<ImmutableNode, ImmutableNode> e : replacements
+                    .entrySet())
+            {
+                Object ref = elemRefs.remove(e.getKey());
+                if (ref != null)
+                {
+                    elemRefs.put(e.getValue(), ref);
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Helper method for building the internal storage hierarchy. The XML
      * elements are transformed into node objects.
@@ -591,8 +891,8 @@ public class XMLConfiguration extends BaseHierarchicalConfiguration implements
             MutableObject<String> refValue, Element element,
             Map<ImmutableNode, Object> elemRefs, boolean trim, int level)
     {
-        boolean trimFlag = shouldTrim(element, trim);
         Map<String, String> attributes = processAttributes(element);
+        boolean trimFlag = shouldTrim(attributes, trim);
         attributes.put(ATTR_SPACE_INTERNAL, String.valueOf(trimFlag));
         StringBuilder buffer = new StringBuilder();
         NodeList list = element.getChildNodes();
@@ -630,13 +930,167 @@ public class XMLConfiguration extends BaseHierarchicalConfiguration implements
             }
         }
 
+        initElementValue(refValue, buffer.toString(), attributes, hasChildren,
+                trimFlag, level);
+        return attributes;
+    }
+
+    /**
+     * Initializes this configuration from the given StAX stream reader. This
+     * method is used in streaming load mode. The configuration nodes are
+     * created directly while the document is parsed, no DOM tree is involved.
+     *
+     * @param reader the reader for the document to be parsed
+     * @throws XMLStreamException if an error occurs
+     */
+    private void initPropertiesStreaming(XMLStreamReader reader)
+            throws XMLStreamException
+    {
+        initStreamingRoot(canonicalize(constructStreamingTree(reader), null));
+    }
+
+    /**
+     * Constructs the node structure for a document from the given StAX stream
+     * reader. The name of the root node is set to the name of the document's
+     * root element.
+     *
+     * @param reader the reader for the document to be parsed
+     * @return the root node of the structure
+     * @throws XMLStreamException if an error occurs
+     */
+    private ImmutableNode constructStreamingTree(XMLStreamReader reader)
+            throws XMLStreamException
+    {
+        while (reader.next() != XMLStreamConstants.START_ELEMENT)
+        {
+            // skip prolog, e.g. comments or the DOCTYPE declaration
+        }
+        String rootName = qualifiedName(reader.getPrefix(),
+                reader.getLocalName());
+
+        ImmutableNode.Builder rootBuilder =
+                new ImmutableNode.Builder().name(rootName);
+        MutableObject<String> rootValue = new MutableObject<String>();
+        Map<String, String> attributes =
+                constructHierarchy(rootBuilder, rootValue, reader, true, 0);
+        attributes.remove(ATTR_SPACE_INTERNAL);
+        return rootBuilder.value(rootValue.getValue())
+                .addAttributes(attributes).create();
+    }
+
+    /**
+     * Adds a node structure created without a DOM document to this
+     * configuration. The name of the passed in root node is used as root
+     * element name. If this configuration has been loaded from a DOM document
+     * before, the document and all references to its elements are discarded;
+     * the existing data is kept, but it is treated like data which has been
+     * added manually.
+     *
+     * @param top the root node of the structure
+     */
+    private void initStreamingRoot(ImmutableNode top)
+    {
+        InMemoryNodeModel model = getSubConfigurationParentModel();
+        if (getDocument() != null)
+        {
+            // replacing the root drops all references
+            model.replaceRoot(model.getRootNode(), this);
+        }
+        String rootName = top.getNodeName();
+        rootElementName = rootName;
+        model.mergeRoot(top, rootName, null, null, this);
+    }
+
+    /**
+     * Helper method for building the internal storage hierarchy from a StAX
+     * stream reader. This method is analogous to the method processing DOM
+     * elements. When it is called, the reader has to be positioned on the
+     * start tag of the current element; when it returns, the reader has
+     * consumed the corresponding end tag.
+     *
+     * @param node a builder for the current node
+     * @param refValue stores the text value of the element
+     * @param reader the reader for the XML document
+     * @param trim a flag whether the text content of elements should be
+     *        trimmed; this controls the whitespace handling
+     * @param level the current level in the hierarchy
+     * @return a map with all attribute values extracted for the current node;
+     *         this map also contains the value of the trim flag for this node
+     *         under the key {@value #ATTR_SPACE}
+     * @throws XMLStreamException if an error occurs
+     */
+    private Map<String, String> constructHierarchy(ImmutableNode.Builder node,
+            MutableObject<String> refValue, XMLStreamReader reader,
+            boolean trim, int level) throws XMLStreamException
+    {
+        Map<String, String> attributes = processAttributes(reader);
+        boolean trimFlag = shouldTrim(attributes, trim);
+        attributes.put(ATTR_SPACE_INTERNAL, String.valueOf(trimFlag));
+        StringBuilder buffer = new StringBuilder();
+        boolean hasChildren = false;
+
+        int event = reader.next();
+        while (event != XMLStreamConstants.END_ELEMENT)
+        {
+            switch (event)
+            {
+            case XMLStreamConstants.START_ELEMENT:
+                ImmutableNode.Builder childNode = new ImmutableNode.Builder();
+                childNode.name(qualifiedName(reader.getPrefix(),
+                        reader.getLocalName()));
+                MutableObject<String> refChildValue =
+                        new MutableObject<String>();
+                Map<String, String> attrmap =
+                        constructHierarchy(childNode, refChildValue, reader,
+                                trimFlag, level + 1);
+                Boolean childTrim =
+                        Boolean.valueOf(attrmap.remove(ATTR_SPACE_INTERNAL));
+                childNode.addAttributes(attrmap);
+                createChildNodeWithValue(node, childNode,
+                        refChildValue.getValue(), childTrim.booleanValue(),
+                        attrmap);
+                hasChildren = true;
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+                buffer.append(reader.getText());
+                break;
+            default:
+                // comments and processing instructions are ignored
+                break;
+            }
+            event = reader.next();
+        }
+
+        initElementValue(refValue, buffer.toString(), attributes, hasChildren,
+                trimFlag, level);
+        return attributes;
+    }
+
+    /**
+     * Stores the text value of an element after all its content has been
+     * processed. The value is only set if it is not empty or if the element
+     * is a leaf element below the root.
+     *
+     * @param refValue stores the text value of the element
+     * @param content the text content of the element
+     * @param attributes the attributes of the element (including the internal
+     *        trim flag)
+     * @param hasChildren a flag whether the element has child elements
+     * @param trimFlag the trim flag
+     * @param level the current level in the hierarchy
+     */
+    private static void initElementValue(MutableObject<String> refValue,
+            String content, Map<String, String> attributes,
+            boolean hasChildren, boolean trimFlag, int level)
+    {
         boolean childrenFlag = hasChildren || attributes.size() > 1;
-        String text = determineValue(buffer.toString(), childrenFlag, trimFlag);
+        String text = determineValue(content, childrenFlag, trimFlag);
         if (text.length() > 0 || (!childrenFlag && level != 0))
         {
             refValue.setValue(text);
         }
-        return attributes;
     }
 
     /**
@@ -684,6 +1138,53 @@ public class XMLConfiguration extends BaseHierarchicalConfiguration implements
         return attrmap;
     }
 
+    /**
+     * Helper method for extracting the attributes of the current element of
+     * a StAX stream reader. In order to be compatible with the DOM-based
+     * processing, namespace declarations are treated as attributes, and the
+     * names of attributes contain their prefixes.
+     *
+     * @param reader the reader positioned on a start element
+     * @return a map with all attribute values of the current element
+     */
+    private static Map<String, String> processAttributes(XMLStreamReader reader)
+    {
+        Map<String, String> attrmap = new HashMap<String, String>();
+
+        for (int i = 0; i < reader.getNamespaceCount(); i++)
+        {
+            String prefix = reader.getNamespacePrefix(i);
+            String name =
+                    StringUtils.isEmpty(prefix) ? ATTR_XMLNS : qualifiedName(
+                            ATTR_XMLNS, prefix);
+            attrmap.put(name,
+                    StringUtils.defaultString(reader.getNamespaceURI(i)));
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++)
+        {
+            attrmap.put(
+                    qualifiedName(reader.getAttributePrefix(i),
+                            reader.getAttributeLocalName(i)),
+                    reader.getAttributeValue(i));
+        }
+
+        return attrmap;
+    }
+
+    /**
+     * Returns the qualified name of an element or attribute consisting of the
+     * given prefix and local name.
+     *
+     * @param prefix the prefix (may be <b>null</b> or empty)
+     * @param localName the local name
+     * @return the qualified name
+     */
+    private static String qualifiedName(String prefix, String localName)
+    {
+        return StringUtils.isEmpty(prefix) ? localName : prefix + ':'
+                + localName;
+    }
+
     /**
      * Creates a new child node, assigns its value, and adds it to its parent.
      * This method also deals with elements whose value is a list. In this case
@@ -755,21 +1256,22 @@ public class XMLConfiguration extends BaseHierarchicalConfiguration implements
      * href="http://www.w3.org/TR/REC-xml/#sec-white-space">
      * http://www.w3.org/TR/REC-xml/#sec-white-space</a> for more details.
      *
-     * @param element the current XML element
+     * @param attributes the attributes of the current XML element
      * @param currentTrim the current trim flag
      * @return a flag whether the content of this element should be trimmed
      */
-    private static boolean shouldTrim(Element element, boolean currentTrim)
+    private static boolean shouldTrim(Map<String, String> attributes,
+            boolean currentTrim)
     {
-        Attr attr = element.getAttributeNode(ATTR_SPACE);
+        String space = attributes.get(ATTR_SPACE);
 
-        if (attr == null)
+        if (space == null)
         {
             return currentTrim;
         }
         else
         {
-            return !VALUE_PRESERVE.equals(attr.getValue());
+            return !VALUE_PRESERVE.equals(space);
         }
     }
 
@@ -964,10 +1466,13 @@ public class XMLConfiguration extends BaseHierarchicalConfiguration implements
     {
         try
         {
-            URL sourceURL = locator.getSourceURL();
-            if (sourceURL != null)
+            initSystemId(source);
+
+            if (isStreamingLoad() && getDocumentBuilder() == null
+                    && !isValidating())
             {
-                source.setSystemId(sourceURL.toString());
+                loadStreaming(source);
+                return;
             }
 
             DocumentBuilder builder = createDocumentBuilder();
@@ -987,6 +1492,139 @@ public class XMLConfiguration extends BaseHierarchicalConfiguration implements
         }
     }
 
+    /**
+     * Loads a configuration file from the specified input source in streaming
+     * mode. A StAX stream reader is used to parse the document.
+     *
+     * @param source the input source
+     * @throws XMLStreamException if an error occurs
+     */
+    private void loadStreaming(InputSource source) throws XMLStreamException
+    {
+        XMLStreamReader reader = createStreamReader(source);
+        try
+        {
+            initPropertiesStreaming(reader);
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    /**
+     * Sets the system ID of the given input source to the URL of the current
+     * locator if it is available.
+     *
+     * @param source the input source
+     */
+    private void initSystemId(InputSource source)
+    {
+        URL sourceURL = locator.getSourceURL();
+        if (sourceURL != null)
+        {
+            source.setSystemId(sourceURL.toString());
+        }
+    }
+
+    /**
+     * Creates an input source for the given stream with the system ID of the
+     * current locator.
+     *
+     * @param in the input stream
+     * @return the input source
+     */
+    private InputSource createInputSource(InputStream in)
+    {
+        InputSource source = new InputSource(in);
+        initSystemId(source);
+        return source;
+    }
+
+    /**
+     * Creates a StAX stream reader for the given input source.
+     *
+     * @param source the input source
+     * @return the stream reader
+     * @throws XMLStreamException if an error occurs
+     */
+    private XMLStreamReader createStreamReader(InputSource source)
+            throws XMLStreamException
+    {
+        XMLInputFactory factory = createXMLInputFactory();
+        return (source.getCharacterStream() != null) ? factory
+                .createXMLStreamReader(source.getSystemId(),
+                        source.getCharacterStream()) : factory
+                .createXMLStreamReader(source.getSystemId(),
+                        source.getByteStream());
+    }
+
+    /**
+     * Creates the {@code XMLInputFactory} used for loading documents in
+     * streaming mode. The factory is configured to resolve entities using the
+     * {@code EntityResolver} of this configuration.
+     *
+     * @return the {@code XMLInputFactory}
+     */
+    private XMLInputFactory createXMLInputFactory()
+    {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        final EntityResolver resolver = getEntityResolver();
+        if (resolver != null)
+        {
+            factory.setXMLResolver(new XMLResolver()
+            {
+                @Override
+                public Object resolveEntity(String publicID, String systemID,
+                        String baseURI, String namespace)
+                        throws XMLStreamException
+                {
+                    return resolveStreamEntity(resolver, publicID, systemID);
+                }
+            });
+        }
+        return factory;
+    }
+
+    /**
+     * Resolves an entity encountered during a streaming load using the given
+     * {@code EntityResolver}. Result is <b>null</b> if the resolver cannot
+     * handle this entity; then the parser's default resolution is used.
+     *
+     * @param resolver the {@code EntityResolver}
+     * @param publicID the public ID of the entity
+     * @param systemID the system ID of the entity
+     * @return an input stream for the entity or <b>null</b>
+     * @throws XMLStreamException if an error occurs
+     */
+    private static Object resolveStreamEntity(EntityResolver resolver,
+            String publicID, String systemID) throws XMLStreamException
+    {
+        try
+        {
+            InputSource is = resolver.resolveEntity(publicID, systemID);
+            if (is == null)
+            {
+                return null;
+            }
+            if (is.getByteStream() != null)
+            {
+                return is.getByteStream();
+            }
+            return (is.getSystemId() != null) ? new URL(is.getSystemId())
+                    .openStream() : null;
+        }
+        catch (SAXException e)
+        {
+            throw new XMLStreamException(e);
+        }
+        catch (IOException e)
+        {
+            throw new XMLStreamException(e);
+        }
+    }
+
     /**
      * Saves the configuration to the specified writer.
      *
@@ -997,12 +1635,242 @@ public class XMLConfiguration extends BaseHierarchicalConfiguration implements
     @Override
     public void write(Writer writer) throws ConfigurationException, IOException
     {
+        if (isStreamingWrite())
+        {
+            writeStreaming(writer);
+            return;
+        }
+
         Transformer transformer = createTransformer();
         Source source = new DOMSource(createDocument());
         Result result = new StreamResult(writer);
         XMLDocumentHelper.transform(transformer, source, result);
     }
 
+    /**
+     * Saves the configuration to the specified writer in streaming mode. The
+     * node tree is written directly using a StAX stream writer.
+     *
+     * @param writer the writer used to save the configuration
+     * @throws ConfigurationException if an error occurs
+     */
+    private void writeStreaming(Writer writer) throws ConfigurationException
+    {
+        try
+        {
+            XMLStreamWriter out =
+                    XMLOutputFactory.newInstance().createXMLStreamWriter(writer);
+            try
+            {
+                String rootName = getRootElementName();
+                if (locator.getEncoding() != null)
+                {
+                    out.writeStartDocument(locator.getEncoding(), XML_VERSION);
+                }
+                else
+                {
+                    out.writeStartDocument(XML_VERSION);
+                }
+                if (systemID != null)
+                {
+                    out.writeCharacters(LINE_SEPARATOR);
+                    out.writeDTD(createDoctypeDeclaration(rootName));
+                }
+                out.writeCharacters(LINE_SEPARATOR);
+                ImmutableNode root = getReferenceHandler().getRootNode();
+                out.writeStartElement(checkXmlName(rootName));
+                writeNodeContent(out, root, true, 0);
+                out.writeEndElement();
+                out.writeCharacters(LINE_SEPARATOR);
+                out.writeEndDocument();
+                out.flush();
+            }
+            finally
+            {
+                out.close();
+            }
+        }
+        catch (XMLStreamException xex)
+        {
+            throw new ConfigurationException("Unable to save the configuration",
+                    xex);
+        }
+    }
+
+    /**
+     * Writes the attributes, the value, and the children of the given node
+     * using a StAX stream writer. The start tag of the corresponding element
+     * has already been written; the end tag is written by the caller. This
+     * method calls itself recursively to process the child nodes. Child
+     * elements are indented unless whitespace is to be preserved for the
+     * current element.
+     *
+     * @param out the stream writer
+     * @param node the current node
+     * @param root a flag whether the root node is processed
+     * @param level the current level in the hierarchy
+     * @throws XMLStreamException if an error occurs
+     * @throws ConfigurationException if a node or attribute name is invalid
+     */
+    private void writeNodeContent(XMLStreamWriter out, ImmutableNode node,
+            boolean root, int level) throws XMLStreamException,
+            ConfigurationException
+    {
+        for (Map.Entry<String, Object> e : node.getAttributes().entrySet())
+        {
+            if (e.getValue() != null)
+            {
+                out.writeAttribute(checkXmlName(e.getKey()), e.getValue()
+                        .toString());
+            }
+        }
+
+        if (node.getValue() != null)
+        {
+            // the text of the root element is not escaped; this is
+            // consistent with the DOM-based output
+            out.writeCharacters(root ? String.valueOf(node.getValue())
+                    : String.valueOf(getListDelimiterHandler().escape(
+                            node.getValue(),
+                            ListDelimiterHandler.NOOP_TRANSFORMER)));
+        }
+
+        boolean indent =
+                !VALUE_PRESERVE.equals(node.getAttributes().get(ATTR_SPACE));
+        for (ImmutableNode child : node.getChildren())
+        {
+            if (indent)
+            {
+                writeIndent(out, level + 1);
+            }
+            out.writeStartElement(checkXmlName(child.getNodeName()));
+            writeNodeContent(out, child, false, level + 1);
+            out.writeEndElement();
+        }
+        if (indent && !node.getChildren().isEmpty())
+        {
+            writeIndent(out, level);
+        }
+    }
+
+    /**
+     * Checks whether the given string is a valid XML name which can be used
+     * for an element or an attribute. Unlike the DOM API, a StAX stream writer
+     * does not check names; so the same rule is applied here explicitly.
+     *
+     * @param name the name to be checked
+     * @return the name
+     * @throws ConfigurationException if the name is not valid
+     */
+    private static String checkXmlName(String name)
+            throws ConfigurationException
+    {
+        if (!isXmlName(name))
+        {
+            throw new ConfigurationException("Invalid XML name: " + name);
+        }
+        return name;
+    }
+
+    /**
+     * Tests whether the given string matches the {@code Name} production of
+     * the XML specification.
+     *
+     * @param name the name to be checked
+     * @return a flag whether this is a valid XML name
+     */
+    private static boolean isXmlName(String name)
+    {
+        if (name == null || name.length() == 0)
+        {
+            return false;
+        }
+        for (int i = 0; i < name.length();)
+        {
+            int c = name.codePointAt(i);
+            if (!isXmlNameStartChar(c) && (i == 0 || !isXmlNameChar(c)))
+            {
+                return false;
+            }
+            i += Character.charCount(c);
+        }
+        return true;
+    }
+
+    /**
+     * Tests whether the given character can start an XML name.
+     *
+     * @param c the character
+     * @return a flag whether this is a valid start character
+     */
+    private static boolean isXmlNameStartChar(int c)
+    {
+        return c == ':' || c == '_' || (c >= 'A' && c <= 'Z')
+                || (c >= 'a' && c <= 'z') || (c >= 0xC0 && c <= 0xD6)
+                || (c >= 0xD8 && c <= 0xF6) || (c >= 0xF8 && c <= 0x2FF)
+                || (c >= 0x370 && c <= 0x37D) || (c >= 0x37F && c <= 0x1FFF)
+                || (c >= 0x200C && c <= 0x200D)
+                || (c >= 0x2070 && c <= 0x218F)
+                || (c >= 0x2C00 && c <= 0x2FEF)
+                || (c >= 0x3001 && c <= 0xD7FF)
+                || (c >= 0xF900 && c <= 0xFDCF)
+                || (c >= 0xFDF0 && c <= 0xFFFD)
+                || (c >= 0x10000 && c <= 0xEFFFF);
+    }
+
+    /**
+     * Tests whether the given character can be part of an XML name.
+     *
+     * @param c the character
+     * @return a flag whether this is a valid name character
+     */
+    private static boolean isXmlNameChar(int c)
+    {
+        return isXmlNameStartChar(c) || c == '-' || c == '.'
+                || (c >= '0' && c <= '9') || c == 0xB7
+                || (c >= 0x300 && c <= 0x36F) || (c >= 0x203F && c <= 0x2040);
+    }
+
+    /**
+     * Writes a line break followed by the indentation for the given level.
+     *
+     * @param out the stream writer
+     * @param level the level in the hierarchy
+     * @throws XMLStreamException if an error occurs
+     */
+    private static void writeIndent(XMLStreamWriter out, int level)
+            throws XMLStreamException
+    {
+        out.writeCharacters(LINE_SEPARATOR);
+        for (int i = 0; i < level; i++)
+        {
+            out.writeCharacters(INDENT);
+        }
+    }
+
+    /**
+     * Creates the DOCTYPE declaration written in streaming mode. This method
+     * is only called if a system ID is available.
+     *
+     * @param rootName the name of the root element
+     * @return the DOCTYPE declaration
+     */
+    private String createDoctypeDeclaration(String rootName)
+    {
+        StringBuilder buf = new StringBuilder("<!DOCTYPE ");
+        buf.append(rootName);
+        if (publicID != null)
+        {
+            buf.append(" PUBLIC \"").append(publicID).append('"');
+        }
+        else
+        {
+            buf.append(" SYSTEM");
+        }
+        buf.append(" \"").append(systemID).append("\">");
+        return buf.toString();
+    }
+
     /**
      * Validate the document against the Schema.
      * @throws ConfigurationException if the validation fails.
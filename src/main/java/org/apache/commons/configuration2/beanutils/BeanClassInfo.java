@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.beanutils;
+
+import java.beans.IndexedPropertyDescriptor;
+import java.beans.PropertyDescriptor;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.beanutils.MethodUtils;
+import org.apache.commons.beanutils.PropertyUtilsBean;
+
+/**
+ * <p>
+ * An internally used helper class which caches meta data about bean classes.
+ * </p>
+ * <p>
+ * When creating beans from bean declarations the same classes are processed
+ * over and over again. This class stores information which is expensive to
+ * obtain via introspection or reflection: the types and accessible write
+ * methods of bean properties and the constructors selected by
+ * {@link DefaultBeanFactory} for specific constructor argument types.
+ * </p>
+ * <p>
+ * Instances are obtained via the static {@link #forClass(Class)} method. The
+ * cache does not prevent bean classes from being garbage collected. This
+ * class is thread-safe.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.2
+ */
+final class BeanClassInfo
+{
+    /** The cache with the information about already processed classes. */
+    private static final Map<Class<?>, Reference<BeanClassInfo>> CACHE =
+            new WeakHashMap<Class<?>, Reference<BeanClassInfo>>();
+
+    /** The class described by this object. */
+    private final Class<?> beanClass;
+
+    /** A map with the constructors selected for constructor argument types. */
+    private final ConcurrentMap<List<String>, Constructor<?>> constructors;
+
+    /** A map with information about the properties of the bean class. */
+    private volatile Map<String, PropertyInfo> properties;
+
+    /**
+     * Creates a new instance of {@code BeanClassInfo} for the given class.
+     *
+     * @param cls the bean class
+     */
+    private BeanClassInfo(Class<?> cls)
+    {
+        beanClass = cls;
+        constructors = new ConcurrentHashMap<List<String>, Constructor<?>>();
+    }
+
+    /**
+     * Returns the {@code BeanClassInfo} object for the specified class. If no
+     * information about this class is cached yet, a new instance is created.
+     *
+     * @param cls the bean class
+     * @return the {@code BeanClassInfo} for this class
+     */
+    public static BeanClassInfo forClass(Class<?> cls)
+    {
+        synchronized (CACHE)
+        {
+            Reference<BeanClassInfo> ref = CACHE.get(cls);
+            BeanClassInfo info = (ref != null) ? ref.get() : null;
+            if (info == null)
+            {
+                info = new BeanClassInfo(cls);
+                CACHE.put(cls, new SoftReference<BeanClassInfo>(info));
+            }
+            return info;
+        }
+    }
+
+    /**
+     * Returns the class described by this object.
+     *
+     * @return the bean class
+     */
+    public Class<?> getBeanClass()
+    {
+        return beanClass;
+    }
+
+    /**
+     * Returns information about the property with the given name. The
+     * properties of the bean class are determined on first access using the
+     * specified {@code PropertyUtilsBean}. Only simple, non-array properties
+     * are taken into account. For all other property names result is
+     * <b>null</b>.
+     *
+     * @param propUtils the {@code PropertyUtilsBean} for introspection
+     * @param name the name of the property
+     * @return information about this property or <b>null</b>
+     */
+    public PropertyInfo getProperty(PropertyUtilsBean propUtils, String name)
+    {
+        Map<String, PropertyInfo> props = properties;
+        if (props == null)
+        {
+            props = introspect(propUtils);
+            properties = props;
+        }
+        return props.get(name);
+    }
+
+    /**
+     * Returns the constructor which was selected for the given list of
+     * constructor argument types. Result is <b>null</b> if no constructor has
+     * been stored for these types.
+     *
+     * @param argTypes the list with the types of constructor arguments
+     * @return the cached constructor or <b>null</b>
+     */
+    public Constructor<?> getConstructor(List<String> argTypes)
+    {
+        return constructors.get(argTypes);
+    }
+
+    /**
+     * Stores the constructor selected for the given list of constructor
+     * argument types.
+     *
+     * @param argTypes the list with the types of constructor arguments
+     * @param ctor the selected constructor
+     */
+    public void putConstructor(List<String> argTypes, Constructor<?> ctor)
+    {
+        constructors.put(argTypes, ctor);
+    }
+
+    /**
+     * Determines the properties of the bean class.
+     *
+     * @param propUtils the {@code PropertyUtilsBean} for introspection
+     * @return a map with information about all properties
+     */
+    private Map<String, PropertyInfo> introspect(PropertyUtilsBean propUtils)
+    {
+        Map<String, PropertyInfo> props = new HashMap<String, PropertyInfo>();
+        for (PropertyDescriptor desc : propUtils
+                .getPropertyDescriptors(beanClass))
+        {
+            if (desc instanceof IndexedPropertyDescriptor
+                    || desc.getPropertyType() == null
+                    || desc.getPropertyType().isArray())
+            {
+                continue;
+            }
+            Method writeMethod =
+                    (desc.getWriteMethod() != null) ? MethodUtils
+                            .getAccessibleMethod(beanClass,
+                                    desc.getWriteMethod()) : null;
+            props.put(desc.getName(),
+                    new PropertyInfo(desc.getPropertyType(), writeMethod));
+        }
+        return Collections.unmodifiableMap(props);
+    }
+
+    /**
+     * A simple data class storing information about a single bean property.
+     */
+    public static final class PropertyInfo
+    {
+        /** The type of the property. */
+        private final Class<?> type;
+
+        /** The accessible write method of the property. */
+        private final Method writeMethod;
+
+        /**
+         * Creates a new instance of {@code PropertyInfo}.
+         *
+         * @param propType the property type
+         * @param wrtMethod the write method (may be <b>null</b>)
+         */
+        private PropertyInfo(Class<?> propType, Method wrtMethod)
+        {
+            type = propType;
+            writeMethod = wrtMethod;
+        }
+
+        /**
+         * Returns the type of this property.
+         *
+         * @return the property type
+         */
+        public Class<?> getType()
+        {
+            return type;
+        }
+
+        /**
+         * Returns the accessible write method of this property or <b>null</b>
+         * if the property is read-only.
+         *
+         * @return the write method
+         */
+        public Method getWriteMethod()
+        {
+            return writeMethod;
+        }
+
+        /**
+         * Returns a flag whether this property can be written.
+         *
+         * @return <b>true</b> if this property is writeable, <b>false</b>
+         *         otherwise
+         */
+        public boolean isWriteable()
+        {
+            return writeMethod != null;
+        }
+    }
+}
@@ -29,6 +29,7 @@ import java.util.TreeSet;
 
 import org.apache.commons.beanutils.BeanUtilsBean;
 import org.apache.commons.beanutils.ConvertUtilsBean;
+import org.apache.commons.beanutils.Converter;
 import org.apache.commons.beanutils.DynaBean;
 import org.apache.commons.beanutils.FluentPropertyBeanIntrospector;
 import org.apache.commons.beanutils.PropertyUtilsBean;
@@ -326,6 +327,12 @@ public final class BeanHelper
      */
     private static Class<?> getDefaultClass(Object bean, String propName)
     {
+        BeanClassInfo.PropertyInfo info = fetchPropertyInfo(bean, propName);
+        if (info != null)
+        {
+            return info.getType();
+        }
+
         try
         {
             PropertyDescriptor desc =
@@ -362,7 +369,29 @@ public final class BeanHelper
 
         try
         {
-            BEAN_UTILS_BEAN.setProperty(bean, propName, value);
+            BeanClassInfo.PropertyInfo info = fetchPropertyInfo(bean, propName);
+            if (info != null)
+            {
+                Object convertedValue =
+                        convertPropertyValue(value, info.getType());
+                if (convertedValue == null && info.getType().isPrimitive())
+                {
+                    throw new ConfigurationRuntimeException("Property "
+                            + propName + " of primitive type "
+                            + info.getType().getName()
+                            + " cannot be set to null on "
+                            + bean.getClass().getName());
+                }
+                info.getWriteMethod().invoke(bean, convertedValue);
+            }
+            else
+            {
+                BEAN_UTILS_BEAN.setProperty(bean, propName, value);
+            }
+        }
+        catch (IllegalArgumentException iaex)
+        {
+            throw new ConfigurationRuntimeException(iaex);
         }
         catch (IllegalAccessException iaex)
         {
@@ -518,9 +547,82 @@ public final class BeanHelper
      */
     private static boolean isPropertyWriteable(Object bean, String propName)
     {
+        BeanClassInfo.PropertyInfo info = fetchPropertyInfo(bean, propName);
+        if (info != null)
+        {
+            return info.isWriteable();
+        }
         return BEAN_UTILS_BEAN.getPropertyUtils().isWriteable(bean, propName);
     }
 
+    /**
+     * Obtains cached information about a property of the given bean. This is
+     * possible for simple properties of normal bean classes. For other
+     * properties (e.g. nested or indexed properties or properties of dynamic
+     * beans) result is <b>null</b>; they have to be handled by
+     * <em>Commons BeanUtils</em> directly.
+     *
+     * @param bean the bean instance
+     * @param propName the name of the property in question
+     * @return the cached information about this property or <b>null</b>
+     */
+    private static BeanClassInfo.PropertyInfo fetchPropertyInfo(Object bean,
+            String propName)
+    {
+        if (bean == null || bean instanceof DynaBean || propName == null
+                || !isSimplePropertyName(propName))
+        {
+            return null;
+        }
+        return BeanClassInfo.forClass(bean.getClass()).getProperty(
+                BEAN_UTILS_BEAN.getPropertyUtils(), propName);
+    }
+
+    /**
+     * Checks whether the given property name refers to a simple property. It
+     * must not contain any of the special characters used by
+     * <em>Commons BeanUtils</em> for nested, indexed, or mapped properties.
+     *
+     * @param propName the property name
+     * @return a flag whether this is a simple property name
+     */
+    private static boolean isSimplePropertyName(String propName)
+    {
+        for (int i = 0; i < propName.length(); i++)
+        {
+            char c = propName.charAt(i);
+            if (c == '.' || c == '[' || c == '(')
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converts the value of a property to the type of this property. This
+     * method applies the same conversions as
+     * {@code BeanUtilsBean.setProperty()} does for simple properties.
+     *
+     * @param value the value to be converted
+     * @param type the target type
+     * @return the converted value
+     */
+    private static Object convertPropertyValue(Object value, Class<?> type)
+    {
+        ConvertUtilsBean convUtils = BEAN_UTILS_BEAN.getConvertUtils();
+        if (value instanceof String)
+        {
+            return convUtils.convert((String) value, type);
+        }
+        if (value instanceof String[])
+        {
+            return convUtils.convert(((String[]) value)[0], type);
+        }
+        Converter converter = convUtils.lookup(type);
+        return (converter != null) ? converter.convert(type, value) : value;
+    }
+
     /**
      * Determines the class of the bean to be created. If the bean declaration
      * contains a class name, this class is used. Otherwise it is checked
@@ -17,6 +17,7 @@
 package org.apache.commons.configuration2.beanutils;
 
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -180,10 +181,21 @@ public class DefaultBeanFactory implements BeanFactory
     protected static <T> Constructor<T> findMatchingConstructor(
             Class<T> beanClass, BeanDeclaration data)
     {
-        List<Constructor<T>> matchingConstructors =
-                findMatchingConstructors(beanClass, data);
-        checkSingleMatchingConstructor(beanClass, data, matchingConstructors);
-        return matchingConstructors.get(0);
+        BeanClassInfo info = BeanClassInfo.forClass(beanClass);
+        List<String> argTypes = getConstructorArgTypes(data);
+        // the cache only contains constructors of the bean class
+        @SuppressWarnings("unchecked")
+        Constructor<T> ctor = (Constructor<T>) info.getConstructor(argTypes);
+        if (ctor == null)
+        {
+            List<Constructor<T>> matchingConstructors =
+                    findMatchingConstructors(beanClass, data);
+            checkSingleMatchingConstructor(beanClass, data,
+                    matchingConstructors);
+            ctor = matchingConstructors.get(0);
+            info.putConstructor(argTypes, ctor);
+        }
+        return ctor;
     }
 
     /**
@@ -309,6 +321,25 @@ public class DefaultBeanFactory implements BeanFactory
         return args;
     }
 
+    /**
+     * Returns a list with the type names of the constructor arguments defined
+     * by the given bean declaration. This list determines the constructor to
+     * be selected; so it can be used as key for caching constructors.
+     *
+     * @param data the bean declaration
+     * @return a list with the types of the constructor arguments
+     */
+    private static List<String> getConstructorArgTypes(BeanDeclaration data)
+    {
+        Collection<ConstructorArg> args = getConstructorArgs(data);
+        List<String> types = new ArrayList<String>(args.size());
+        for (ConstructorArg arg : args)
+        {
+            types.add(arg.getTypeName());
+        }
+        return types;
+    }
+
     /**
      * Helper method for testing whether exactly one matching constructor was
      * found. Throws a meaningful exception if there is not a single matching
@@ -265,13 +265,20 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
      * {@inheritDoc} This implementation creates the result configuration on
      * first access. Later invocations return the same object until this builder
      * is reset. The double-check idiom for lazy initialization is used (Bloch,
-     * Effective Java, item 71).
+     * Effective Java, item 71). Event objects are only created if there are
+     * listeners for them; so if the result is available and no listener for
+     * {@code CONFIGURATION_REQUEST} events is registered, this method just
+     * reads a volatile field.
      */
     @Override
     public T getConfiguration() throws ConfigurationException
     {
-        fireBuilderEvent(new ConfigurationBuilderEvent(this,
-                ConfigurationBuilderEvent.CONFIGURATION_REQUEST));
+        if (eventListeners
+                .hasListeners(ConfigurationBuilderEvent.CONFIGURATION_REQUEST))
+        {
+            fireBuilderEvent(new ConfigurationBuilderEvent(this,
+                    ConfigurationBuilderEvent.CONFIGURATION_REQUEST));
+        }
 
         T resObj = result;
         boolean created = false;
@@ -288,7 +295,9 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
             }
         }
 
-        if (created)
+        if (created
+                && eventListeners
+                        .hasListeners(ConfigurationBuilderResultCreatedEvent.RESULT_CREATED))
         {
             fireBuilderEvent(new ConfigurationBuilderResultCreatedEvent(this,
                     ConfigurationBuilderResultCreatedEvent.RESULT_CREATED,
@@ -373,8 +382,8 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
      * builder with connect both objects:
      * <ul>
      * <li>When the reloading controller detects that a reload is required, the
-     * builder's {@link #resetResult()} method is called; so the managed result
-     * object is invalidated.</li>
+     * builder's {@link #reloadResult()} method is called; per default, the
+     * managed result object is invalidated.</li>
      * <li>When a new result object has been created the controller's reloading
      * state is reset, so that new changes can be detected again.</li>
      * </ul>
@@ -394,6 +403,36 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
         ReloadingBuilderSupportListener.connect(this, controller);
     }
 
+    /**
+     * Notifies this builder that its result object has to be reloaded. This
+     * method is called by a {@code ReloadingController} connected to this
+     * builder (see {@link #connectToReloadingController(ReloadingController)})
+     * when it detects a change in the underlying configuration source. This
+     * base implementation calls {@link #resetResult()}, so that a new result
+     * object is created the next time {@link #getConfiguration()} is called.
+     * Derived classes can override this method to update the existing result
+     * object instead.
+     *
+     * @since 2.2
+     */
+    protected void reloadResult()
+    {
+        resetResult();
+    }
+
+    /**
+     * Returns the current result object of this builder if it has already
+     * been created. In contrast to {@link #getConfiguration()}, this method
+     * neither creates a new result object nor fires any events.
+     *
+     * @return the current result object or <b>null</b> if there is none
+     * @since 2.2
+     */
+    protected final T getCurrentResult()
+    {
+        return result;
+    }
+
     /**
      * Creates a new, initialized result object. This method is called by
      * {@code getConfiguration()} if no valid result object exists. This base
@@ -20,9 +20,21 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 
+import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.ConfigurationUtils;
+import org.apache.commons.configuration2.DelegatingConfiguration;
+import org.apache.commons.configuration2.DelegatingHierarchicalConfiguration;
+import org.apache.commons.configuration2.DelegatingImmutableConfiguration;
+import org.apache.commons.configuration2.DelegatingImmutableHierarchicalConfiguration;
+import org.apache.commons.configuration2.HierarchicalConfiguration;
 import org.apache.commons.configuration2.ImmutableConfiguration;
+import org.apache.commons.configuration2.ImmutableHierarchicalConfiguration;
+import org.apache.commons.configuration2.event.Event;
+import org.apache.commons.configuration2.event.EventListener;
 import org.apache.commons.configuration2.event.EventSource;
+import org.apache.commons.configuration2.event.EventType;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
 
 /**
  * <p>
@@ -45,6 +57,14 @@ import org.apache.commons.configuration2.event.EventSource;
  * configuration (proxy) object, but the underlying builder may return a
  * different data object on each call.
  * </p>
+ * <p>
+ * For the standard configuration interfaces {@code ImmutableConfiguration},
+ * {@code Configuration}, {@code ImmutableHierarchicalConfiguration}, and
+ * {@code HierarchicalConfiguration} the wrappers are instances of specialized
+ * classes which call the builder directly. (Wrappers for the immutable
+ * interfaces which also support the {@code EventSource} interface are an
+ * exception.) For other interfaces a dynamic proxy is created.
+ * </p>
  *
  * @version $Id$
  * @since 2.0
@@ -142,6 +162,12 @@ public class BuilderConfigurationWrapperFactory
             throw new IllegalArgumentException("Builder must not be null!");
         }
 
+        ImmutableConfiguration wrapper =
+                createDelegatingWrapper(ifcClass, builder, evSrcSupport);
+        if (wrapper != null)
+        {
+            return ifcClass.cast(wrapper);
+        }
         return ifcClass.cast(Proxy.newProxyInstance(
                 BuilderConfigurationWrapperFactory.class.getClassLoader(),
                 fetchSupportedInterfaces(ifcClass, evSrcSupport),
@@ -149,6 +175,92 @@ public class BuilderConfigurationWrapperFactory
                         evSrcSupport)));
     }
 
+    /**
+     * Creates a wrapper for one of the standard configuration interfaces
+     * without using a proxy. Wrappers which also implement the
+     * {@code EventSource} interface are provided for the {@code Configuration}
+     * and {@code HierarchicalConfiguration} interfaces only; for the immutable
+     * interfaces such wrappers are rarely needed, so a proxy is used. If the
+     * interface class is not supported, result is <b>null</b>.
+     *
+     * @param ifcClass the interface class
+     * @param builder the wrapped builder
+     * @param evSrcSupport the level of {@code EventSource} support
+     * @return the wrapper configuration or <b>null</b>
+     */
+    private static ImmutableConfiguration createDelegatingWrapper(
+            Class<?> ifcClass,
+            ConfigurationBuilder<? extends ImmutableConfiguration> builder,
+            EventSourceSupport evSrcSupport)
+    {
+        EventSource eventSource = fetchEventSource(builder, evSrcSupport);
+        if (Configuration.class.equals(ifcClass))
+        {
+            return (eventSource == null) ? new ConfigurationWrapper(builder)
+                    : new EventSourceConfigurationWrapper(builder, eventSource);
+        }
+        if (HierarchicalConfiguration.class.equals(ifcClass))
+        {
+            return (eventSource == null) ? new HierarchicalConfigurationWrapper(
+                    builder) : new EventSourceHierarchicalConfigurationWrapper(
+                    builder, eventSource);
+        }
+        if (eventSource == null)
+        {
+            if (ImmutableConfiguration.class.equals(ifcClass))
+            {
+                return new ImmutableConfigurationWrapper(builder);
+            }
+            if (ImmutableHierarchicalConfiguration.class.equals(ifcClass))
+            {
+                return new ImmutableHierarchicalConfigurationWrapper(builder);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the target object for {@code EventSource} calls on a wrapper
+     * configuration. Result is <b>null</b> if the {@code EventSource}
+     * interface is not supported.
+     *
+     * @param builder the wrapped builder
+     * @param evSrcSupport the level of {@code EventSource} support
+     * @return the target {@code EventSource} or <b>null</b>
+     */
+    private static EventSource fetchEventSource(
+            ConfigurationBuilder<? extends ImmutableConfiguration> builder,
+            EventSourceSupport evSrcSupport)
+    {
+        if (EventSourceSupport.NONE == evSrcSupport)
+        {
+            return null;
+        }
+        return (EventSourceSupport.DUMMY == evSrcSupport) ? ConfigurationUtils
+                .asEventSource(null, true) : builder;
+    }
+
+    /**
+     * Obtains the current configuration from the given builder. Exceptions
+     * are wrapped in runtime exceptions.
+     *
+     * @param builder the builder
+     * @return the configuration managed by this builder
+     * @throws ConfigurationRuntimeException if the builder throws an exception
+     */
+    private static ImmutableConfiguration fetchConfiguration(
+            ConfigurationBuilder<? extends ImmutableConfiguration> builder)
+    {
+        try
+        {
+            return builder.getConfiguration();
+        }
+        catch (ConfigurationException cex)
+        {
+            throw new ConfigurationRuntimeException(cex);
+        }
+    }
+
     /**
      * Returns an array with the classes the generated proxy has to support.
      *
@@ -310,4 +422,200 @@ public class BuilderConfigurationWrapperFactory
             return method.invoke(target, args);
         }
     }
+
+    /**
+     * A wrapper for the {@code ImmutableConfiguration} interface delegating to
+     * the configuration of a builder.
+     */
+    private static class ImmutableConfigurationWrapper extends
+            DelegatingImmutableConfiguration<ImmutableConfiguration>
+    {
+        /** The wrapped builder. */
+        private final ConfigurationBuilder<? extends ImmutableConfiguration> builder;
+
+        /**
+         * Creates a new instance of {@code ImmutableConfigurationWrapper}.
+         *
+         * @param wrappedBuilder the wrapped builder
+         */
+        public ImmutableConfigurationWrapper(
+                ConfigurationBuilder<? extends ImmutableConfiguration> wrappedBuilder)
+        {
+            builder = wrappedBuilder;
+        }
+
+        @Override
+        protected ImmutableConfiguration getDelegate()
+        {
+            return fetchConfiguration(builder);
+        }
+    }
+
+    /**
+     * A wrapper for the {@code ImmutableHierarchicalConfiguration} interface
+     * delegating to the configuration of a builder.
+     */
+    private static class ImmutableHierarchicalConfigurationWrapper
+            extends
+            DelegatingImmutableHierarchicalConfiguration<ImmutableHierarchicalConfiguration>
+    {
+        /** The wrapped builder. */
+        private final ConfigurationBuilder<? extends ImmutableConfiguration> builder;
+
+        /**
+         * Creates a new instance of
+         * {@code ImmutableHierarchicalConfigurationWrapper}.
+         *
+         * @param wrappedBuilder the wrapped builder
+         */
+        public ImmutableHierarchicalConfigurationWrapper(
+                ConfigurationBuilder<? extends ImmutableConfiguration> wrappedBuilder)
+        {
+            builder = wrappedBuilder;
+        }
+
+        @Override
+        protected ImmutableHierarchicalConfiguration getDelegate()
+        {
+            return (ImmutableHierarchicalConfiguration) fetchConfiguration(builder);
+        }
+    }
+
+    /**
+     * A wrapper for the {@code Configuration} interface delegating to the
+     * configuration of a builder.
+     */
+    private static class ConfigurationWrapper extends
+            DelegatingConfiguration<Configuration>
+    {
+        /** The wrapped builder. */
+        private final ConfigurationBuilder<? extends ImmutableConfiguration> builder;
+
+        /**
+         * Creates a new instance of {@code ConfigurationWrapper}.
+         *
+         * @param wrappedBuilder the wrapped builder
+         */
+        public ConfigurationWrapper(
+                ConfigurationBuilder<? extends ImmutableConfiguration> wrappedBuilder)
+        {
+            builder = wrappedBuilder;
+        }
+
+        @Override
+        protected Configuration getDelegate()
+        {
+            return (Configuration) fetchConfiguration(builder);
+        }
+    }
+
+    /**
+     * A wrapper for the {@code HierarchicalConfiguration} interface delegating
+     * to the configuration of a builder.
+     */
+    private static class HierarchicalConfigurationWrapper
+            extends
+            DelegatingHierarchicalConfiguration<Object, HierarchicalConfiguration<Object>>
+    {
+        /** The wrapped builder. */
+        private final ConfigurationBuilder<? extends ImmutableConfiguration> builder;
+
+        /**
+         * Creates a new instance of {@code HierarchicalConfigurationWrapper}.
+         *
+         * @param wrappedBuilder the wrapped builder
+         */
+        public HierarchicalConfigurationWrapper(
+                ConfigurationBuilder<? extends ImmutableConfiguration> wrappedBuilder)
+        {
+            builder = wrappedBuilder;
+        }
+
+        // the type of the configuration has been checked by the factory
+        @SuppressWarnings("unchecked")
+        @Override
+        protected HierarchicalConfiguration<Object> getDelegate()
+        {
+            return (HierarchicalConfiguration<Object>) fetchConfiguration(builder);
+        }
+    }
+
+    /**
+     * A wrapper for the {@code Configuration} interface which also implements
+     * the {@code EventSource} interface.
+     */
+    private static class EventSourceConfigurationWrapper extends
+            ConfigurationWrapper implements EventSource
+    {
+        /** The target for event source calls. */
+        private final EventSource eventSource;
+
+        /**
+         * Creates a new instance of {@code EventSourceConfigurationWrapper}.
+         *
+         * @param wrappedBuilder the wrapped builder
+         * @param evSrc the target for event source calls
+         */
+        public EventSourceConfigurationWrapper(
+                ConfigurationBuilder<? extends ImmutableConfiguration> wrappedBuilder,
+                EventSource evSrc)
+        {
+            super(wrappedBuilder);
+            eventSource = evSrc;
+        }
+
+        @Override
+        public <T extends Event> void addEventListener(EventType<T> eventType,
+                EventListener<? super T> listener)
+        {
+            eventSource.addEventListener(eventType, listener);
+        }
+
+        @Override
+        public <T extends Event> boolean removeEventListener(
+                EventType<T> eventType, EventListener<? super T> listener)
+        {
+            return eventSource.removeEventListener(eventType, listener);
+        }
+    }
+
+    /**
+     * A wrapper for the {@code HierarchicalConfiguration} interface which also
+     * implements the {@code EventSource} interface.
+     */
+    private static class EventSourceHierarchicalConfigurationWrapper extends
+            HierarchicalConfigurationWrapper implements EventSource
+    {
+        /** The target for event source calls. */
+        private final EventSource eventSource;
+
+        /**
+         * Creates a new instance of
+         * {@code EventSourceHierarchicalConfigurationWrapper}.
+         *
+         * @param wrappedBuilder the wrapped builder
+         * @param evSrc the target for event source calls
+         */
+        public EventSourceHierarchicalConfigurationWrapper(
+                ConfigurationBuilder<? extends ImmutableConfiguration> wrappedBuilder,
+                EventSource evSrc)
+        {
+            super(wrappedBuilder);
+            eventSource = evSrc;
+        }
+
+        @Override
+        public <T extends Event> void addEventListener(EventType<T> eventType,
+                EventListener<? super T> listener)
+        {
+            eventSource.addEventListener(eventType, listener);
+        }
+
+        @Override
+        public <T extends Event> boolean removeEventListener(
+                EventType<T> eventType, EventListener<? super T> listener)
+        {
+            return eventSource.removeEventListener(eventType, listener);
+        }
+    }
 }
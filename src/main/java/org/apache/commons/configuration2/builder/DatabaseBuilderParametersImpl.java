@@ -60,6 +60,12 @@ public class DatabaseBuilderParametersImpl extends BasicBuilderParameters
     /** Constant for the auto commit property. */
     private static final String PROP_AUTO_COMMIT = "autoCommit";
 
+    /** Constant for the cached property. */
+    private static final String PROP_CACHED = "cached";
+
+    /** Constant for the cache timeout property. */
+    private static final String PROP_CACHE_TIMEOUT = "cacheTimeout";
+
     @Override
     public DatabaseBuilderParametersImpl setDataSource(DataSource src)
     {
@@ -108,4 +114,18 @@ public class DatabaseBuilderParametersImpl extends BasicBuilderParameters
         storeProperty(PROP_AUTO_COMMIT, Boolean.valueOf(f));
         return this;
     }
+
+    @Override
+    public DatabaseBuilderParametersImpl setCached(boolean f)
+    {
+        storeProperty(PROP_CACHED, Boolean.valueOf(f));
+        return this;
+    }
+
+    @Override
+    public DatabaseBuilderParametersImpl setCacheTimeout(long timeout)
+    {
+        storeProperty(PROP_CACHE_TIMEOUT, Long.valueOf(timeout));
+        return this;
+    }
 }
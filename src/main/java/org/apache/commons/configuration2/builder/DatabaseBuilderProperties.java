@@ -111,4 +111,25 @@ public interface DatabaseBuilderProperties<T>
      * @return a reference to this object for method chaining
      */
     T setAutoCommit(boolean f);
+
+    /**
+     * Enables or disables caching. If enabled, the database configuration
+     * instance loads all its properties in a single query and serves read
+     * operations from memory.
+     * @param f the value of the cached flag
+     * @return a reference to this object for method chaining
+     * @since 2.2
+     */
+    T setCached(boolean f);
+
+    /**
+     * Sets the time span (in milliseconds) after which the data cached by the
+     * database configuration is reloaded. This property is only evaluated if
+     * caching is enabled. A value less or equal 0 means that the cache does
+     * not expire.
+     * @param timeout the cache timeout
+     * @return a reference to this object for method chaining
+     * @since 2.2
+     */
+    T setCacheTimeout(long timeout);
 }
@@ -20,6 +20,7 @@ import java.util.Map;
 
 import org.apache.commons.configuration2.PropertiesConfiguration.IOFactory;
 import org.apache.commons.configuration2.PropertiesConfigurationLayout;
+import org.apache.commons.configuration2.tree.CanonicalizationPool;
 
 /**
  * <p>
@@ -54,6 +55,10 @@ public class PropertiesBuilderParametersImpl extends
     /** The key for the IO factory property. */
     private static final String PROP_IO_FACTORY = "iOFactory";
 
+    /** The key for the canonicalization pool. */
+    private static final String PROP_CANONICALIZATION_POOL =
+            "canonicalizationPool";
+
     @Override
     public PropertiesBuilderParametersImpl setIncludesAllowed(boolean f)
     {
@@ -69,7 +74,8 @@ public class PropertiesBuilderParametersImpl extends
     public void inheritFrom(Map<String, ?> source)
     {
         super.inheritFrom(source);
-        copyPropertiesFrom(source, PROP_INCLUDES_ALLOWED, PROP_IO_FACTORY);
+        copyPropertiesFrom(source, PROP_INCLUDES_ALLOWED, PROP_IO_FACTORY,
+                PROP_CANONICALIZATION_POOL);
     }
 
     @Override
@@ -86,4 +92,12 @@ public class PropertiesBuilderParametersImpl extends
         storeProperty(PROP_IO_FACTORY, factory);
         return this;
     }
+
+    @Override
+    public PropertiesBuilderParametersImpl setCanonicalizationPool(
+            CanonicalizationPool pool)
+    {
+        storeProperty(PROP_CANONICALIZATION_POOL, pool);
+        return this;
+    }
 }
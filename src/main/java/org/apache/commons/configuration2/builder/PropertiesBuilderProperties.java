@@ -18,6 +18,7 @@ package org.apache.commons.configuration2.builder;
 
 import org.apache.commons.configuration2.PropertiesConfiguration.IOFactory;
 import org.apache.commons.configuration2.PropertiesConfigurationLayout;
+import org.apache.commons.configuration2.tree.CanonicalizationPool;
 
 /**
  * <p>
@@ -71,4 +72,16 @@ public interface PropertiesBuilderProperties<T>
      * @return a reference to this object for method chaining
      */
     T setIOFactory(IOFactory factory);
+
+    /**
+     * Sets the {@code CanonicalizationPool} to be used when loading properties
+     * files. If a pool is set, the keys and values of the properties loaded
+     * are replaced by canonical instances from this pool. So configurations
+     * sharing a pool and loading the same files share their strings.
+     *
+     * @param pool the {@code CanonicalizationPool}
+     * @return a reference to this object for method chaining
+     * @since 2.2
+     */
+    T setCanonicalizationPool(CanonicalizationPool pool);
 }
@@ -32,7 +32,7 @@ import org.apache.commons.configuration2.reloading.ReloadingEvent;
  * <ul>
  * <li>An instance is registered as listener at a {@code ReloadingController}.
  * Whenever the controller indicates that a reload should happen, the associated
- * configuration builder's {@link BasicConfigurationBuilder#resetResult()}
+ * configuration builder's {@link BasicConfigurationBuilder#reloadResult()}
  * method is called.</li>
  * <li>When the builder fires a {@link ConfigurationBuilderResultCreatedEvent}
  * event the reloading controller's reloading state is reset. At that time the
@@ -95,7 +95,7 @@ final class ReloadingBuilderSupportListener implements EventListener<Event>
     /**
      * {@inheritDoc} This implementation resets the controller's reloading state
      * if an event about a newly created result was received. Otherwise, in case
-     * of a reloading event, the builder's result object is reset.
+     * of a reloading event, the builder is asked to reload its result object.
      */
     @Override
     public void onEvent(Event event)
@@ -107,7 +107,7 @@ final class ReloadingBuilderSupportListener implements EventListener<Event>
         }
         else
         {
-            builder.resetResult();
+            builder.reloadResult();
         }
     }
 }
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.builder;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.configuration2.event.EventListener;
+import org.apache.commons.configuration2.reloading.ReloadingController;
+
+/**
+ * <p>
+ * An event listener which triggers reloading checks when a configuration is
+ * requested from a builder, but not more often than a configurable interval.
+ * </p>
+ * <p>
+ * A common way to implement reloading is to register a listener for
+ * {@link ConfigurationBuilderEvent#CONFIGURATION_REQUEST} events at a
+ * reloading-aware builder and to call the
+ * {@link ReloadingController#checkForReloading(Object)} method in reaction on
+ * such events. Applications which call {@code getConfiguration()} very
+ * frequently, e.g. once per request, then perform a synchronized reloading
+ * check each time. An instance of this class performs a check only if the
+ * given interval has passed since the last one; in all other cases, the
+ * overhead is a single read of an atomic variable. If multiple threads request
+ * the configuration concurrently when the interval is over, only one of them
+ * performs the check.
+ * </p>
+ * <p>
+ * Usage example:
+ * </p>
+ * <pre>
+ * builder.addEventListener(ConfigurationBuilderEvent.CONFIGURATION_REQUEST,
+ *     new ReloadingCheckListener(builder.getReloadingController(), 1000));
+ * </pre>
+ *
+ * @version $Id$
+ * @since 2.2
+ */
+public class ReloadingCheckListener implements
+        EventListener<ConfigurationBuilderEvent>
+{
+    /** The reloading controller. */
+    private final ReloadingController reloadingController;
+
+    /** The minimum interval between two checks. */
+    private final long checkInterval;
+
+    /** The time of the last check. */
+    private final AtomicLong lastCheck;
+
+    /**
+     * Creates a new instance of {@code ReloadingCheckListener} and initializes
+     * it with the {@code ReloadingController} and the minimum interval between
+     * two reloading checks.
+     *
+     * @param controller the {@code ReloadingController} (must not be
+     *        <b>null</b>)
+     * @param interval the minimum interval between two checks in milliseconds;
+     *        a value &lt;= 0 means that every event causes a check
+     * @throws IllegalArgumentException if the controller is <b>null</b>
+     */
+    public ReloadingCheckListener(ReloadingController controller,
+            long interval)
+    {
+        if (controller == null)
+        {
+            throw new IllegalArgumentException(
+                    "ReloadingController must not be null!");
+        }
+
+        reloadingController = controller;
+        checkInterval = interval;
+        lastCheck = new AtomicLong(Long.MIN_VALUE);
+    }
+
+    /**
+     * Returns the {@code ReloadingController} used by this listener.
+     *
+     * @return the {@code ReloadingController}
+     */
+    public ReloadingController getReloadingController()
+    {
+        return reloadingController;
+    }
+
+    /**
+     * Returns the minimum interval between two reloading checks.
+     *
+     * @return the check interval in milliseconds
+     */
+    public long getCheckInterval()
+    {
+        return checkInterval;
+    }
+
+    /**
+     * {@inheritDoc} This implementation calls the controller's
+     * {@code checkForReloading()} method if the check interval has passed
+     * since the last check.
+     */
+    @Override
+    public void onEvent(ConfigurationBuilderEvent event)
+    {
+        long last = lastCheck.get();
+        long now = System.currentTimeMillis();
+        if (last == Long.MIN_VALUE || now - last >= checkInterval)
+        {
+            if (lastCheck.compareAndSet(last, now))
+            {
+                reloadingController.checkForReloading(null);
+            }
+        }
+    }
+}
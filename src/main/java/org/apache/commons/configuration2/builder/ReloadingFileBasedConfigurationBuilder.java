@@ -18,6 +18,7 @@ package org.apache.commons.configuration2.builder;
 
 import java.util.Map;
 
+import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
 import org.apache.commons.configuration2.FileBasedConfiguration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.io.FileHandler;
@@ -49,6 +50,20 @@ import org.apache.commons.configuration2.reloading.ReloadingDetector;
  * listener directly at the {@code ReloadingController}.
  * </p>
  * <p>
+ * Optionally, a reload can be performed <em>in place</em> (see
+ * {@link #setReloadInPlace(boolean)}). In this mode the result object is not
+ * reset; rather, the modified file is loaded into a temporary configuration,
+ * and the resulting nodes structure is swapped into the existing result
+ * object. So the identity of the result configuration, its event listeners,
+ * and its tracked nodes survive a reload operation; the event listeners are
+ * notified by an event of type
+ * {@link org.apache.commons.configuration2.event.ConfigurationEvent#REPLACE_CONTENT
+ * REPLACE_CONTENT}. In-place reloading is
+ * supported for result objects derived from
+ * {@link BaseHierarchicalConfiguration}; for other configurations the result
+ * object is always reset.
+ * </p>
+ * <p>
  * This builder does not actively trigger the {@code ReloadingController} to
  * perform a reload check. This has to be done by an external component, e.g. a
  * timer.
@@ -78,6 +93,9 @@ public class ReloadingFileBasedConfigurationBuilder<T extends FileBasedConfigura
      */
     private volatile ReloadingDetector resultReloadingDetector;
 
+    /** A flag whether reload operations are performed in place. */
+    private boolean reloadInPlace;
+
     /**
      * Creates a new instance of {@code ReloadingFileBasedConfigurationBuilder}
      * which produces result objects of the specified class and sets
@@ -149,6 +167,36 @@ public class ReloadingFileBasedConfigurationBuilder<T extends FileBasedConfigura
         return this;
     }
 
+    /**
+     * Returns a flag whether reload operations are performed in place.
+     *
+     * @return <b>true</b> if the result object is updated on a reload,
+     *         <b>false</b> if it is reset
+     * @since 2.2
+     */
+    public synchronized boolean isReloadInPlace()
+    {
+        return reloadInPlace;
+    }
+
+    /**
+     * Sets a flag whether reload operations are performed in place. If this
+     * flag is set, a change detected by the reloading controller does not
+     * cause the result object to be reset. Instead, the content of the
+     * modified file is loaded and replaces the data of the existing result
+     * object. This is only possible if the result object is a
+     * {@link BaseHierarchicalConfiguration}. If the in-place reload fails, the
+     * builder falls back to resetting its result; so the error is reported
+     * when the next result object is created.
+     *
+     * @param inPlace the flag whether reload operations are performed in place
+     * @since 2.2
+     */
+    public synchronized void setReloadInPlace(boolean inPlace)
+    {
+        reloadInPlace = inPlace;
+    }
+
     /**
      * Creates a {@code ReloadingDetector} which monitors the passed in
      * {@code FileHandler}. This method is called each time a new result object
@@ -190,6 +238,25 @@ public class ReloadingFileBasedConfigurationBuilder<T extends FileBasedConfigura
                                 getParameters(), true));
     }
 
+    /**
+     * {@inheritDoc} This implementation checks whether the result object can
+     * be reloaded in place. If this is the case, its content is replaced and
+     * the reloading controller's reloading state is reset. Otherwise, the
+     * result object is reset.
+     */
+    @Override
+    protected void reloadResult()
+    {
+        if (reloadResultInPlace())
+        {
+            getReloadingController().resetReloadingState();
+        }
+        else
+        {
+            resetResult();
+        }
+    }
+
     /**
      * Creates the {@code ReloadingController} associated with this object. The
      * controller is assigned a specialized reloading detector which delegates
@@ -239,6 +306,61 @@ public class ReloadingFileBasedConfigurationBuilder<T extends FileBasedConfigura
         };
     }
 
+    /**
+     * Tries to reload the current result object in place. Result is
+     * <b>false</b> if this is not possible or if an error occurs.
+     *
+     * @return a flag whether the result object could be reloaded in place
+     */
+    private synchronized boolean reloadResultInPlace()
+    {
+        T current = getCurrentResult();
+        if (!isReloadInPlace()
+                || !(current instanceof BaseHierarchicalConfiguration))
+        {
+            return false;
+        }
+        FileHandler handler = getFileHandler();
+        if (!handler.isLocationDefined())
+        {
+            return false;
+        }
+
+        try
+        {
+            reloadContent((BaseHierarchicalConfiguration) current, handler);
+            return true;
+        }
+        catch (ConfigurationException cex)
+        {
+            // the error is reported when a new result object is created
+            return false;
+        }
+    }
+
+    /**
+     * Loads the file referenced by the given {@code FileHandler} into a
+     * temporary copy of the specified configuration and swaps the resulting
+     * nodes structure into the configuration. The copy inherits all settings
+     * of the configuration, so the file is parsed in the same way. The swap is
+     * done while holding the configuration's write lock; it causes an event of
+     * type {@code REPLACE_CONTENT} to be fired at the configuration.
+     *
+     * @param config the configuration to be reloaded
+     * @param handler the {@code FileHandler} associated with this configuration
+     * @throws ConfigurationException if loading fails
+     */
+    private static void reloadContent(BaseHierarchicalConfiguration config,
+            FileHandler handler) throws ConfigurationException
+    {
+        BaseHierarchicalConfiguration temp =
+                (BaseHierarchicalConfiguration) config.clone();
+        temp.getNodeModel().setRootNode(null);
+        new FileHandler((FileBasedConfiguration) temp, handler).load();
+
+        config.replaceContent(temp);
+    }
+
     /**
      * Returns a {@code ReloadingDetectorFactory} either from the passed in
      * parameters or a default factory.
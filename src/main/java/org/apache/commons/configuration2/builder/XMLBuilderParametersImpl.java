@@ -20,6 +20,9 @@ import javax.xml.parsers.DocumentBuilder;
 
 import java.util.Map;
 
+import org.apache.commons.configuration2.io.ParsedContentCache;
+import org.apache.commons.configuration2.tree.CanonicalizationPool;
+
 import org.xml.sax.EntityResolver;
 
 /**
@@ -61,12 +64,28 @@ public class XMLBuilderParametersImpl extends HierarchicalBuilderParametersImpl
     /** The key for the schema validation flag. */
     private static final String PROP_SCHEMA_VALIDATION = "schemaValidation";
 
+    /** The key for the streaming load flag. */
+    private static final String PROP_STREAMING_LOAD = "streamingLoad";
+
+    /** The key for the streaming write flag. */
+    private static final String PROP_STREAMING_WRITE = "streamingWrite";
+
+    /** The key for the canonicalization pool. */
+    private static final String PROP_CANONICALIZATION_POOL =
+            "canonicalizationPool";
+
+    /** The key for the parsed content cache. */
+    private static final String PROP_PARSED_CONTENT_CACHE =
+            "parsedContentCache";
+
     @Override
     public void inheritFrom(Map<String, ?> source)
     {
         super.inheritFrom(source);
         copyPropertiesFrom(source, PROP_DOCUMENT_BUILDER, PROP_ENTITY_RESOLVER,
-                PROP_SCHEMA_VALIDATION, PROP_VALIDATING);
+                PROP_SCHEMA_VALIDATION, PROP_VALIDATING, PROP_STREAMING_LOAD,
+                PROP_STREAMING_WRITE, PROP_CANONICALIZATION_POOL,
+                PROP_PARSED_CONTENT_CACHE);
     }
 
     @Override
@@ -122,4 +141,34 @@ public class XMLBuilderParametersImpl extends HierarchicalBuilderParametersImpl
         storeProperty(PROP_SCHEMA_VALIDATION, Boolean.valueOf(f));
         return this;
     }
+
+    @Override
+    public XMLBuilderParametersImpl setStreamingLoad(boolean f)
+    {
+        storeProperty(PROP_STREAMING_LOAD, Boolean.valueOf(f));
+        return this;
+    }
+
+    @Override
+    public XMLBuilderParametersImpl setStreamingWrite(boolean f)
+    {
+        storeProperty(PROP_STREAMING_WRITE, Boolean.valueOf(f));
+        return this;
+    }
+
+    @Override
+    public XMLBuilderParametersImpl setCanonicalizationPool(
+            CanonicalizationPool pool)
+    {
+        storeProperty(PROP_CANONICALIZATION_POOL, pool);
+        return this;
+    }
+
+    @Override
+    public XMLBuilderParametersImpl setParsedContentCache(
+            ParsedContentCache cache)
+    {
+        storeProperty(PROP_PARSED_CONTENT_CACHE, cache);
+        return this;
+    }
 }
@@ -18,6 +18,9 @@ package org.apache.commons.configuration2.builder;
 
 import javax.xml.parsers.DocumentBuilder;
 
+import org.apache.commons.configuration2.io.ParsedContentCache;
+import org.apache.commons.configuration2.tree.CanonicalizationPool;
+
 import org.xml.sax.EntityResolver;
 
 /**
@@ -91,4 +94,54 @@ public interface XMLBuilderProperties<T>
      * @return a reference to this object for method chaining
      */
     T setSchemaValidation(boolean f);
+
+    /**
+     * Sets the value of the streaming load flag. If set to <b>true</b>, XML
+     * documents are parsed using a StAX reader, and no DOM document is
+     * retained. This reduces memory consumption for large read-only
+     * configurations.
+     *
+     * @param f the streaming load flag
+     * @return a reference to this object for method chaining
+     * @since 2.2
+     */
+    T setStreamingLoad(boolean f);
+
+    /**
+     * Sets the value of the streaming write flag. If set to <b>true</b>, the
+     * configuration is saved by writing its node tree directly through a StAX
+     * stream writer; the formatting of the original document is not
+     * preserved.
+     *
+     * @param f the streaming write flag
+     * @return a reference to this object for method chaining
+     * @since 2.2
+     */
+    T setStreamingWrite(boolean f);
+
+    /**
+     * Sets the {@code CanonicalizationPool} to be used when loading XML
+     * documents. If a pool is set, the nodes, names, and values created for
+     * the loaded document are replaced by canonical instances from this pool.
+     * So configurations sharing a pool and loading the same documents share
+     * their data.
+     *
+     * @param pool the {@code CanonicalizationPool}
+     * @return a reference to this object for method chaining
+     * @since 2.2
+     */
+    T setCanonicalizationPool(CanonicalizationPool pool);
+
+    /**
+     * Sets the {@code ParsedContentCache} to be used when loading XML
+     * documents. If a cache is set, a document which has already been parsed
+     * for another configuration with the same settings is obtained from the
+     * cache rather than being parsed again. A process-wide cache is available
+     * via {@link ParsedContentCache#getDefaultCache()}.
+     *
+     * @param cache the {@code ParsedContentCache}
+     * @return a reference to this object for method chaining
+     * @since 2.2
+     */
+    T setParsedContentCache(ParsedContentCache cache);
 }
@@ -22,6 +22,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.configuration2.ConfigurationUtils;
 import org.apache.commons.configuration2.HierarchicalConfiguration;
@@ -78,6 +79,9 @@ public class CombinedBuilderParametersImpl extends BasicBuilderParameters
     /** A flag whether settings should be inherited by child builders. */
     private boolean inheritSettings;
 
+    /** The executor for loading child configurations concurrently. */
+    private Executor childBuilderExecutor;
+
     /**
      * Creates a new instance of {@code CombinedBuilderParametersImpl}.
      */
@@ -334,6 +338,32 @@ public class CombinedBuilderParametersImpl extends BasicBuilderParameters
         return this;
     }
 
+    /**
+     * Returns the {@code Executor} for loading child configuration sources
+     * concurrently. Result is <b>null</b> if no executor has been set; then
+     * child configurations are loaded sequentially.
+     *
+     * @return the {@code Executor} for child configurations
+     * @since 2.2
+     */
+    public Executor getChildBuilderExecutor()
+    {
+        return childBuilderExecutor;
+    }
+
+    /**
+     * {@inheritDoc} This implementation just stores the passed in object.
+     *
+     * @since 2.2
+     */
+    @Override
+    public CombinedBuilderParametersImpl setChildBuilderExecutor(
+            Executor executor)
+    {
+        childBuilderExecutor = executor;
+        return this;
+    }
+
     /**
      * Returns the parameters object for the definition configuration builder if
      * present.
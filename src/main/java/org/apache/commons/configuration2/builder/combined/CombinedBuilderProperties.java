@@ -16,6 +16,8 @@
  */
 package org.apache.commons.configuration2.builder.combined;
 
+import java.util.concurrent.Executor;
+
 import org.apache.commons.configuration2.HierarchicalConfiguration;
 import org.apache.commons.configuration2.builder.BuilderParameters;
 import org.apache.commons.configuration2.builder.ConfigurationBuilder;
@@ -95,6 +97,26 @@ public interface CombinedBuilderProperties<T>
      */
     T setBasePath(String path);
 
+    /**
+     * Sets an {@code Executor} for loading child configuration sources
+     * concurrently. Per default, the configuration sources declared in the
+     * definition file are created and loaded one after the other. If an
+     * {@code Executor} is set, the configurations of all sources of a section
+     * are obtained in parallel tasks; they are then added to the resulting
+     * combined configuration in the order of their declaration, so that the
+     * result is the same as for sequential loading. This only makes sense if
+     * the sources are independent from each other, i.e. the declaration of a
+     * source must not reference properties defined by another source. Note
+     * that the {@code Executor} is not inherited by nested combined
+     * configuration sources.
+     *
+     * @param executor the {@code Executor} for loading child configurations
+     *        (<b>null</b> for sequential loading)
+     * @return a reference to this object for method chaining
+     * @since 2.2
+     */
+    T setChildBuilderExecutor(Executor executor);
+
     /**
      * Sets the parameters object for the definition configuration builder. This
      * property is evaluated only if the definition configuration builder is not
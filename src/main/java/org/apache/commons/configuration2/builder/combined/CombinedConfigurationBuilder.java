@@ -17,6 +17,7 @@
 package org.apache.commons.configuration2.builder.combined;
 
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -25,6 +26,11 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import org.apache.commons.configuration2.CombinedConfiguration;
 import org.apache.commons.configuration2.Configuration;
@@ -1419,6 +1425,14 @@ public class CombinedConfigurationBuilder extends BasicConfigurationBuilder<Comb
                 throws ConfigurationException
         {
             createBuilderChangeListener();
+            Executor executor = currentParameters.getChildBuilderExecutor();
+            if (executor != null)
+            {
+                createAndAddConfigurationsConcurrently(ccResult, srcDecl,
+                        executor);
+                return;
+            }
+
             for (HierarchicalConfiguration<?> src : srcDecl)
             {
                 ConfigurationDeclaration decl =
@@ -1565,6 +1579,144 @@ public class CombinedConfigurationBuilder extends BasicConfigurationBuilder<Comb
             }
         }
 
+        /**
+         * Processes the declarations of configuration sources using the
+         * specified {@code Executor}. The builders for all sources are
+         * created first. Then the configurations are obtained from the
+         * builders in parallel tasks. After all tasks have completed, the
+         * configurations are added to the result configuration in the order
+         * of their declaration.
+         *
+         * @param ccResult the result configuration
+         * @param srcDecl the collection with the declarations of configuration
+         *        sources to process
+         * @param executor the {@code Executor} for loading configurations
+         * @throws ConfigurationException if an error occurs
+         */
+        private void createAndAddConfigurationsConcurrently(
+                CombinedConfiguration ccResult,
+                Collection<HierarchicalConfiguration<?>> srcDecl,
+                Executor executor) throws ConfigurationException
+        {
+            List<ConfigurationDeclaration> decls =
+                    new ArrayList<ConfigurationDeclaration>(srcDecl.size());
+            List<Future<Configuration>> futures =
+                    new ArrayList<Future<Configuration>>(srcDecl.size());
+            for (HierarchicalConfiguration<?> src : srcDecl)
+            {
+                ConfigurationDeclaration decl =
+                        new ConfigurationDeclaration(
+                                CombinedConfigurationBuilder.this, src);
+                decls.add(decl);
+                futures.add(startChildConfigurationTask(executor,
+                        createConfigurationBuilder(src, decl)));
+            }
+
+            List<Configuration> configs =
+                    new ArrayList<Configuration>(futures.size());
+            try
+            {
+                for (int i = 0; i < futures.size(); i++)
+                {
+                    configs.add(fetchChildConfiguration(decls.get(i),
+                            futures.get(i)));
+                }
+            }
+            finally
+            {
+                for (Future<Configuration> future : futures)
+                {
+                    future.cancel(true);
+                }
+            }
+
+            for (int i = 0; i < configs.size(); i++)
+            {
+                if (configs.get(i) != null)
+                {
+                    ConfigurationDeclaration decl = decls.get(i);
+                    ccResult.addConfiguration(configs.get(i), decl.getName(),
+                            decl.getAt());
+                }
+            }
+        }
+
+        /**
+         * Starts a task which obtains the configuration of the given builder
+         * using the specified {@code Executor}.
+         *
+         * @param executor the {@code Executor}
+         * @param builder the configuration builder
+         * @return the {@code Future} for the builder's configuration
+         */
+        private Future<Configuration> startChildConfigurationTask(
+                Executor executor,
+                final ConfigurationBuilder<? extends Configuration> builder)
+        {
+            FutureTask<Configuration> task =
+                    new FutureTask<Configuration>(new Callable<Configuration>()
+                    {
+                        @Override
+                        public Configuration call()
+                                throws ConfigurationException
+                        {
+                            return builder.getConfiguration();
+                        }
+                    });
+            executor.execute(task);
+            return task;
+        }
+
+        /**
+         * Waits for the configuration of a child configuration source which
+         * is loaded in a background task. Exceptions thrown by the task are
+         * re-thrown. If the configuration source is optional, a
+         * {@code ConfigurationException} is ignored, and result is
+         * <b>null</b>.
+         *
+         * @param decl the current {@code ConfigurationDeclaration}
+         * @param future the {@code Future} for the configuration
+         * @return the child configuration or <b>null</b>
+         * @throws ConfigurationException if an error occurs
+         */
+        private Configuration fetchChildConfiguration(
+                ConfigurationDeclaration decl, Future<Configuration> future)
+                throws ConfigurationException
+        {
+            try
+            {
+                return future.get();
+            }
+            catch (InterruptedException iex)
+            {
+                Thread.currentThread().interrupt();
+                throw new ConfigurationException(
+                        "Interrupted while loading child configurations!", iex);
+            }
+            catch (ExecutionException eex)
+            {
+                Throwable cause = eex.getCause();
+                if (cause instanceof ConfigurationException)
+                {
+                    // ignore exceptions for optional configurations
+                    if (decl.isOptional())
+                    {
+                        return null;
+                    }
+                    throw (ConfigurationException) cause;
+                }
+                if (cause instanceof RuntimeException)
+                {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error)
+                {
+                    throw (Error) cause;
+                }
+                throw new ConfigurationException(cause);
+            }
+        }
+
         /**
          * Creates a listener for builder change events. This listener is
          * registered at all builders for child configurations.
@@ -67,6 +67,12 @@ public class MultiFileBuilderParametersImpl extends BasicBuilderParameters
     /** The file pattern. */
     private String filePattern;
 
+    /** The maximum number of cached managed builders. */
+    private int maxManagedBuilders;
+
+    /** The expiration time for managed builders. */
+    private long managedBuilderExpiration;
+
     /**
      * Obtains an instance of this class from the given map with parameters. If
      * this map does not contain an instance, result is <b>null</b>. This is
@@ -144,6 +150,45 @@ public class MultiFileBuilderParametersImpl extends BasicBuilderParameters
         return this;
     }
 
+    /**
+     * Returns the maximum number of managed builders to be cached. A value
+     * less than or equal to 0 means that there is no limit.
+     *
+     * @return the maximum number of cached managed builders
+     * @since 2.2
+     */
+    public int getMaxManagedBuilders()
+    {
+        return maxManagedBuilders;
+    }
+
+    @Override
+    public MultiFileBuilderParametersImpl setMaxManagedBuilders(int max)
+    {
+        maxManagedBuilders = max;
+        return this;
+    }
+
+    /**
+     * Returns the time (in milliseconds) after which unused managed builders
+     * expire. A value less than or equal to 0 means that managed builders do
+     * not expire.
+     *
+     * @return the expiration time for managed builders
+     * @since 2.2
+     */
+    public long getManagedBuilderExpiration()
+    {
+        return managedBuilderExpiration;
+    }
+
+    @Override
+    public MultiFileBuilderParametersImpl setManagedBuilderExpiration(long time)
+    {
+        managedBuilderExpiration = time;
+        return this;
+    }
+
     /**
      * {@inheritDoc} This implementation puts a reference to this object under a
      * reserved key in the resulting parameters map.
@@ -57,4 +57,30 @@ public interface MultiFileBuilderProperties<T>
      * @return a reference to this object for method chaining
      */
     T setManagedBuilderParameters(BuilderParameters p);
+
+    /**
+     * Sets the maximum number of managed builders to be cached. If a new
+     * managed builder has to be created and this limit is reached, the least
+     * recently used builder (together with its configuration) is evicted from
+     * the cache. A value less than or equal to 0 means that the number of
+     * managed builders is not limited; this is the default.
+     *
+     * @param max the maximum number of cached managed builders
+     * @return a reference to this object for method chaining
+     * @since 2.2
+     */
+    T setMaxManagedBuilders(int max);
+
+    /**
+     * Sets the time (in milliseconds) after which a managed builder which has
+     * not been accessed is evicted from the cache. Expired builders are
+     * detected when the {@code MultiFileConfigurationBuilder} is accessed. A
+     * value less than or equal to 0 means that managed builders never expire;
+     * this is the default.
+     *
+     * @param time the expiration time in milliseconds
+     * @return a reference to this object for method chaining
+     * @since 2.2
+     */
+    T setManagedBuilderExpiration(long time);
 }
@@ -17,9 +17,14 @@
 package org.apache.commons.configuration2.builder.combined;
 
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.configuration2.ConfigurationUtils;
@@ -65,6 +70,16 @@ import org.apache.commons.lang3.concurrent.ConcurrentUtils;
  * file-based configuration builder is created now and initialized.
  * </p>
  * <p>
+ * Per default, the map with managed builders grows without limit. If a large
+ * number of different configuration files can be selected, the cache can be
+ * bounded by setting a maximum number of managed builders and/or an
+ * expiration time in the parameters object. Then builders which have not been
+ * used for a while are evicted together with their configurations. Statistics
+ * about the usage of the cache can be queried using the
+ * {@link #getCacheHitCount()}, {@link #getCacheMissCount()}, and
+ * {@link #getEvictionCount()} methods.
+ * </p>
+ * <p>
  * Configuration of an instance happens in the usual way for configuration
  * builders. A {@link MultiFileBuilderParametersImpl} parameters object is
  * expected which must contain a file name pattern string and a
@@ -90,6 +105,22 @@ public class MultiFileConfigurationBuilder<T extends FileBasedConfiguration>
     private final ConcurrentMap<String, FileBasedConfigurationBuilder<T>> managedBuilders =
             new ConcurrentHashMap<String, FileBasedConfigurationBuilder<T>>();
 
+    /**
+     * Stores the last access times of managed builders in access order. This
+     * map is only used if the cache for managed builders is bounded.
+     */
+    private final Map<String, Long> builderAccessTimes =
+            new LinkedHashMap<String, Long>(16, 0.75f, true);
+
+    /** The counter for cache hits. */
+    private final AtomicLong cacheHitCount = new AtomicLong();
+
+    /** The counter for cache misses. */
+    private final AtomicLong cacheMissCount = new AtomicLong();
+
+    /** The counter for evicted managed builders. */
+    private final AtomicLong evictionCount = new AtomicLong();
+
     /** Stores the {@code ConfigurationInterpolator} object. */
     private final AtomicReference<ConfigurationInterpolator> interpolator =
             new AtomicReference<ConfigurationInterpolator>();
@@ -208,11 +239,39 @@ public class MultiFileConfigurationBuilder<T extends FileBasedConfiguration>
             throw new ConfigurationException("No file name pattern is set!");
         }
         String fileName = fetchFileName(multiParams);
+        boolean bounded =
+                multiParams.getMaxManagedBuilders() > 0
+                        || multiParams.getManagedBuilderExpiration() > 0;
 
+        FileBasedConfigurationBuilder<T> builder;
+        do
+        {
+            builder = fetchManagedBuilder(fileName, params, multiParams);
+        } while (bounded
+                && !evictManagedBuilders(fileName, builder, multiParams));
+        return builder;
+    }
+
+    /**
+     * Returns the managed builder for the given file name from the cache. If
+     * it does not exist yet, it is created and added to the cache.
+     *
+     * @param fileName the file name of the managed builder
+     * @param params the parameters of this builder
+     * @param multiParams the current builder parameters
+     * @return the managed builder
+     * @throws ConfigurationException if the builder cannot be created
+     */
+    private FileBasedConfigurationBuilder<T> fetchManagedBuilder(
+            String fileName, Map<String, Object> params,
+            MultiFileBuilderParametersImpl multiParams)
+            throws ConfigurationException
+    {
         FileBasedConfigurationBuilder<T> builder =
                 getManagedBuilders().get(fileName);
         if (builder == null)
         {
+            cacheMissCount.incrementAndGet();
             builder =
                     createInitializedManagedBuilder(fileName,
                             createManagedBuilderParameters(params, multiParams));
@@ -228,9 +287,50 @@ public class MultiFileConfigurationBuilder<T extends FileBasedConfiguration>
                 builder = newBuilder;
             }
         }
+        else
+        {
+            cacheHitCount.incrementAndGet();
+        }
         return builder;
     }
 
+    /**
+     * Returns the number of requests for which a managed builder could be
+     * found in the cache.
+     *
+     * @return the number of cache hits
+     * @since 2.2
+     */
+    public long getCacheHitCount()
+    {
+        return cacheHitCount.get();
+    }
+
+    /**
+     * Returns the number of requests for which a new managed builder had to
+     * be created.
+     *
+     * @return the number of cache misses
+     * @since 2.2
+     */
+    public long getCacheMissCount()
+    {
+        return cacheMissCount.get();
+    }
+
+    /**
+     * Returns the number of managed builders which have been evicted from the
+     * cache because the maximum number of managed builders was reached or
+     * because they expired.
+     *
+     * @return the number of evicted managed builders
+     * @since 2.2
+     */
+    public long getEvictionCount()
+    {
+        return evictionCount.get();
+    }
+
     /**
      * {@inheritDoc} This implementation ensures that the listener is also added
      * to managed configuration builders if necessary. Listeners for the builder-related
@@ -287,6 +387,10 @@ public class MultiFileConfigurationBuilder<T extends FileBasedConfiguration>
                     managedBuilderDelegationListener);
         }
         getManagedBuilders().clear();
+        synchronized (builderAccessTimes)
+        {
+            builderAccessTimes.clear();
+        }
         interpolator.set(null);
         super.resetParameters();
     }
@@ -414,6 +518,75 @@ public class MultiFileConfigurationBuilder<T extends FileBasedConfiguration>
         return managedBuilders;
     }
 
+    /**
+     * Records an access to the managed builder with the given file name and
+     * evicts builders from the cache if necessary. The least recently used
+     * builders are removed until the maximum number of managed builders is
+     * no longer exceeded and no expired builders remain. The builder just
+     * accessed is never evicted. Access times are recorded and builders are
+     * removed while holding the same lock; so a builder which is accessed
+     * concurrently is either not evicted, or its eviction is detected by this
+     * method. In the latter case, result is <b>false</b>, and the caller has
+     * to obtain the builder again.
+     *
+     * @param fileName the file name of the managed builder accessed
+     * @param builder the managed builder accessed
+     * @param multiParams the current builder parameters
+     * @return a flag whether the builder accessed is still managed
+     */
+    private boolean evictManagedBuilders(String fileName,
+            FileBasedConfigurationBuilder<T> builder,
+            MultiFileBuilderParametersImpl multiParams)
+    {
+        int maxBuilders = multiParams.getMaxManagedBuilders();
+        long expiration = multiParams.getManagedBuilderExpiration();
+        long now = System.currentTimeMillis();
+        List<FileBasedConfigurationBuilder<T>> evicted =
+                new LinkedList<FileBasedConfigurationBuilder<T>>();
+
+        synchronized (builderAccessTimes)
+        {
+            if (getManagedBuilders().get(fileName) != builder)
+            {
+                // evicted after it has been obtained
+                return false;
+            }
+            builderAccessTimes.put(fileName, now);
+            Iterator<Map.Entry<String, Long>> it =
+                    builderAccessTimes.entrySet().iterator();
+            while (it.hasNext())
+            {
+                Map.Entry<String, Long> e = it.next();
+                boolean tooMany =
+                        maxBuilders > 0
+                                && builderAccessTimes.size() > maxBuilders;
+                boolean expired =
+                        expiration > 0 && now - e.getValue() > expiration;
+                if ((!tooMany && !expired) || fileName.equals(e.getKey()))
+                {
+                    break;
+                }
+                it.remove();
+                FileBasedConfigurationBuilder<T> evictedBuilder =
+                        getManagedBuilders().get(e.getKey());
+                if (evictedBuilder != null
+                        && getManagedBuilders().remove(e.getKey(),
+                                evictedBuilder))
+                {
+                    evicted.add(evictedBuilder);
+                }
+            }
+        }
+
+        for (FileBasedConfigurationBuilder<T> evictedBuilder : evicted)
+        {
+            evictedBuilder.removeEventListener(ConfigurationBuilderEvent.ANY,
+                    managedBuilderDelegationListener);
+            evictionCount.incrementAndGet();
+        }
+        return true;
+    }
+
     /**
      * Registers event listeners at the passed in newly created managed builder.
      * This method registers a special {@code EventListener} which propagates
@@ -101,6 +101,42 @@ public class DefaultListDelimiterHandler extends AbstractListDelimiterHandler
         return delimiter;
     }
 
+    /**
+     * Compares this object with another one. Two instances of
+     * {@code DefaultListDelimiterHandler} are equal if they use the same list
+     * delimiter character.
+     *
+     * @param obj the object to compare to
+     * @return a flag whether these objects are equal
+     * @since 2.2
+     */
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+        {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass())
+        {
+            return false;
+        }
+        return getDelimiter() == ((DefaultListDelimiterHandler) obj)
+                .getDelimiter();
+    }
+
+    /**
+     * Returns a hash code for this object.
+     *
+     * @return a hash code
+     * @since 2.2
+     */
+    @Override
+    public int hashCode()
+    {
+        return getDelimiter();
+    }
+
     @Override
     public Object escapeList(List<?> values, ValueTransformer transformer)
     {
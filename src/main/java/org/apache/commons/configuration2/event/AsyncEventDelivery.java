@@ -0,0 +1,518 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.event;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * A class implementing asynchronous delivery of events to event listeners.
+ * </p>
+ * <p>
+ * Per default, event listeners are invoked synchronously by the thread which
+ * fires an event. For configurations, this is typically the thread updating a
+ * property, and it may even hold the configuration's write lock. So a slow
+ * event listener slows down all threads accessing the configuration. An
+ * instance of this class can be set for an {@link EventListenerList} (or a
+ * {@link BaseEventSource}); then events are no longer passed to listeners
+ * directly, but put into queues and delivered by an {@code Executor}.
+ * </p>
+ * <p>
+ * Each event listener has its own queue. Events are delivered to a listener
+ * in the order in which they have been fired, and a listener is never called
+ * concurrently by multiple threads. The size of the queues is limited; if a
+ * queue is full, further events for this listener are discarded. The number
+ * of dropped events can be queried using {@link #getDroppedEventCount()}.
+ * </p>
+ * <p>
+ * Optionally, events of type {@link ConfigurationEvent#SET_PROPERTY} can be
+ * coalesced: if such an event for a property is fired while there is still a
+ * pending event of the same kind (i.e. with the same property name and before
+ * update flag) in a listener's queue which was queued not longer ago than the
+ * coalescing window, the pending event is replaced by the new one. So a
+ * listener only sees the most recent change of a property which is updated
+ * frequently. Events are only coalesced if no other event affecting this
+ * property has been queued in the meantime; so the order of updates as seen
+ * by the listener is preserved.
+ * </p>
+ * <p>
+ * Note that with asynchronous delivery, listeners can no longer rely on the
+ * state of the event source when they are invoked; they also cannot veto an
+ * operation by throwing an exception. Exceptions thrown by a listener are
+ * passed to the executor; delivery of further events is not affected.
+ * </p>
+ * <p>
+ * Implementation note: This class is thread-safe. An instance can be shared
+ * between multiple event sources.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.2
+ */
+public class AsyncEventDelivery
+{
+    /** The executor for delivering events. */
+    private final Executor executor;
+
+    /** The maximum number of pending events per listener. */
+    private final int capacity;
+
+    /** The coalescing window in milliseconds. */
+    private final long coalescingWindow;
+
+    /** A map with the queues of the single listeners. */
+    private final Map<EventListener<?>, ListenerQueue> queues;
+
+    /** A counter for the events that had to be dropped. */
+    private final AtomicLong droppedEvents;
+
+    /**
+     * Creates a new instance of {@code AsyncEventDelivery} and initializes it
+     * with the executor, the capacity of the event queues, and the coalescing
+     * window.
+     *
+     * @param exec the {@code Executor} for delivering events (must not be
+     *        <b>null</b>)
+     * @param queueCapacity the maximum number of pending events per listener
+     * @param window the time in milliseconds within which
+     *        {@code SET_PROPERTY} events for the same property are coalesced; a
+     *        value &lt;= 0 disables coalescing
+     * @throws IllegalArgumentException if the executor is <b>null</b> or the
+     *         capacity is not positive
+     */
+    public AsyncEventDelivery(Executor exec, int queueCapacity, long window)
+    {
+        if (exec == null)
+        {
+            throw new IllegalArgumentException("Executor must not be null!");
+        }
+        if (queueCapacity <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Queue capacity must be greater than 0: " + queueCapacity);
+        }
+
+        executor = exec;
+        capacity = queueCapacity;
+        coalescingWindow = window;
+        queues = new IdentityHashMap<EventListener<?>, ListenerQueue>();
+        droppedEvents = new AtomicLong();
+    }
+
+    /**
+     * Creates a new instance of {@code AsyncEventDelivery} which does not
+     * coalesce events.
+     *
+     * @param exec the {@code Executor} for delivering events (must not be
+     *        <b>null</b>)
+     * @param queueCapacity the maximum number of pending events per listener
+     * @throws IllegalArgumentException if the executor is <b>null</b> or the
+     *         capacity is not positive
+     */
+    public AsyncEventDelivery(Executor exec, int queueCapacity)
+    {
+        this(exec, queueCapacity, 0);
+    }
+
+    /**
+     * Returns the {@code Executor} used for delivering events.
+     *
+     * @return the {@code Executor}
+     */
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * Returns the maximum number of pending events per event listener.
+     *
+     * @return the queue capacity
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Returns the coalescing window in milliseconds. A value &lt;= 0 means
+     * that events are not coalesced.
+     *
+     * @return the coalescing window
+     */
+    public long getCoalescingWindow()
+    {
+        return coalescingWindow;
+    }
+
+    /**
+     * Returns the number of events which have been discarded because the
+     * queue of the receiving listener was full. Coalesced events are not
+     * counted.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedEventCount()
+    {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Schedules the delivery of an event to an event listener. This method is
+     * called by {@link EventListenerList} for all listeners which have to
+     * receive an event.
+     *
+     * @param listener the event listener
+     * @param event the event
+     */
+    void deliver(EventListener<?> listener, Event event)
+    {
+        ListenerQueue queue;
+        boolean schedule;
+        synchronized (this)
+        {
+            queue = queues.get(listener);
+            if (queue == null)
+            {
+                queue = new ListenerQueue(listener);
+                queues.put(listener, queue);
+            }
+            schedule = queue.enqueue(event);
+        }
+
+        if (schedule)
+        {
+            try
+            {
+                executor.execute(queue);
+            }
+            catch (RuntimeException rex)
+            {
+                queueDone(queue, true);
+                throw rex;
+            }
+        }
+    }
+
+    /**
+     * Returns the next event to be delivered from the given queue. If the
+     * queue is empty, it is removed, and result is <b>null</b>.
+     *
+     * @param queue the queue
+     * @return the next event or <b>null</b>
+     */
+    private synchronized Event nextEvent(ListenerQueue queue)
+    {
+        Event event = queue.poll();
+        if (event == null)
+        {
+            queues.remove(queue.listener);
+        }
+        return event;
+    }
+
+    /**
+     * Notifies this object that the processing of a queue was interrupted.
+     * Remaining events have to be processed by a new task. Optionally, the
+     * queue is discarded together with its events.
+     *
+     * @param queue the queue
+     * @param discard a flag whether the queue is to be discarded
+     */
+    private void queueDone(ListenerQueue queue, boolean discard)
+    {
+        synchronized (this)
+        {
+            if (discard || queue.isEmpty())
+            {
+                droppedEvents.addAndGet(queue.size());
+                queues.remove(queue.listener);
+                return;
+            }
+        }
+        executor.execute(queue);
+    }
+
+    /**
+     * Returns the key for coalescing an event or <b>null</b> if the event
+     * cannot be coalesced.
+     *
+     * @param event the event
+     * @return the coalescing key
+     */
+    private String coalescingKey(Event event)
+    {
+        if (coalescingWindow > 0
+                && ConfigurationEvent.SET_PROPERTY.equals(event.getEventType()))
+        {
+            ConfigurationEvent ce = (ConfigurationEvent) event;
+            if (ce.getPropertyName() != null)
+            {
+                return coalescingKey(ce.getPropertyName(), ce.isBeforeUpdate());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Generates the key for coalescing events for the given property.
+     *
+     * @param propertyName the property name
+     * @param before the before update flag
+     * @return the coalescing key
+     */
+    private static String coalescingKey(String propertyName, boolean before)
+    {
+        return (before ? "B:" : "A:") + propertyName;
+    }
+
+    /**
+     * Checks whether the given event type is for an update of a single
+     * property, so that no other properties are affected.
+     *
+     * @param type the event type
+     * @return a flag whether this is a single property update
+     */
+    private static boolean isPropertyUpdate(EventType<?> type)
+    {
+        return ConfigurationEvent.ADD_PROPERTY.equals(type)
+                || ConfigurationEvent.SET_PROPERTY.equals(type)
+                || ConfigurationEvent.CLEAR_PROPERTY.equals(type);
+    }
+
+    /**
+     * Helper method for calling an event listener with an event. Type safety
+     * is guaranteed by the way listeners are registered.
+     *
+     * @param listener the event listener to be called
+     * @param event the event to be fired
+     */
+    @SuppressWarnings("unchecked")
+    private static void callListener(EventListener<?> listener, Event event)
+    {
+        @SuppressWarnings("rawtypes")
+        EventListener rawListener = listener;
+        rawListener.onEvent(event);
+    }
+
+    /**
+     * A class representing an event in a listener's queue.
+     */
+    private static class QueueEntry
+    {
+        /** The time when the entry was queued. */
+        private final long time;
+
+        /** The coalescing key. */
+        private final String key;
+
+        /** The event to be delivered. */
+        private Event event;
+
+        /**
+         * Creates a new instance of {@code QueueEntry}.
+         *
+         * @param evt the event
+         * @param coalescingKey the coalescing key
+         */
+        public QueueEntry(Event evt, String coalescingKey)
+        {
+            event = evt;
+            key = coalescingKey;
+            time = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * A class managing the pending events of a single event listener. An
+     * instance is also the task which delivers these events. All fields are
+     * guarded by the monitor of the owning {@code AsyncEventDelivery}.
+     */
+    private class ListenerQueue implements Runnable
+    {
+        /** The event listener. */
+        private final EventListener<?> listener;
+
+        /** The pending events. */
+        private final LinkedList<QueueEntry> entries;
+
+        /** A map with pending events which can be coalesced. */
+        private final Map<String, QueueEntry> coalescingEntries;
+
+        /** A flag whether a task for this queue is scheduled. */
+        private boolean scheduled;
+
+        /**
+         * Creates a new instance of {@code ListenerQueue}.
+         *
+         * @param l the event listener
+         */
+        public ListenerQueue(EventListener<?> l)
+        {
+            listener = l;
+            entries = new LinkedList<QueueEntry>();
+            coalescingEntries = new HashMap<String, QueueEntry>();
+        }
+
+        /**
+         * Delivers all pending events to the listener.
+         */
+        @Override
+        public void run()
+        {
+            boolean done = false;
+            try
+            {
+                Event event = nextEvent(this);
+                while (event != null)
+                {
+                    callListener(listener, event);
+                    event = nextEvent(this);
+                }
+                done = true;
+            }
+            finally
+            {
+                if (!done)
+                {
+                    queueDone(this, false);
+                }
+            }
+        }
+
+        /**
+         * Adds an event to this queue. Result is <b>true</b> if a task has to
+         * be scheduled for delivering it.
+         *
+         * @param event the event
+         * @return a flag whether this queue has to be scheduled
+         */
+        public boolean enqueue(Event event)
+        {
+            String key = coalescingKey(event);
+            if (key != null)
+            {
+                QueueEntry pending = coalescingEntries.get(key);
+                if (pending != null
+                        && System.currentTimeMillis() - pending.time <= coalescingWindow)
+                {
+                    pending.event = event;
+                    return false;
+                }
+            }
+            else
+            {
+                stopCoalescing(event);
+            }
+
+            if (entries.size() >= capacity)
+            {
+                droppedEvents.incrementAndGet();
+                return false;
+            }
+            QueueEntry entry = new QueueEntry(event, key);
+            entries.addLast(entry);
+            if (key != null)
+            {
+                coalescingEntries.put(key, entry);
+            }
+
+            boolean schedule = !scheduled;
+            scheduled = true;
+            return schedule;
+        }
+
+        /**
+         * Prevents pending events from being coalesced which are affected by
+         * the given event. A new event for the same property must not replace
+         * an event queued before this one; otherwise, the listener would see
+         * the updates in the wrong order. For updates of a single property,
+         * only the pending events for this property are affected; other
+         * configuration events (e.g. clear or hierarchical operations) may
+         * affect arbitrary properties, so coalescing is stopped for all
+         * pending events.
+         *
+         * @param event the event which is queued
+         */
+        private void stopCoalescing(Event event)
+        {
+            if (event instanceof ConfigurationEvent
+                    && !coalescingEntries.isEmpty())
+            {
+                ConfigurationEvent ce = (ConfigurationEvent) event;
+                if (ce.getPropertyName() != null
+                        && isPropertyUpdate(ce.getEventType()))
+                {
+                    coalescingEntries.remove(coalescingKey(
+                            ce.getPropertyName(), true));
+                    coalescingEntries.remove(coalescingKey(
+                            ce.getPropertyName(), false));
+                }
+                else
+                {
+                    coalescingEntries.clear();
+                }
+            }
+        }
+
+        /**
+         * Removes the next event from this queue. If the queue is empty, the
+         * scheduled flag is reset, and result is <b>null</b>.
+         *
+         * @return the next event or <b>null</b>
+         */
+        public Event poll()
+        {
+            QueueEntry entry = entries.poll();
+            if (entry == null)
+            {
+                scheduled = false;
+                return null;
+            }
+            if (entry.key != null && coalescingEntries.get(entry.key) == entry)
+            {
+                coalescingEntries.remove(entry.key);
+            }
+            return entry.event;
+        }
+
+        /**
+         * Returns a flag whether this queue is empty.
+         *
+         * @return a flag whether there are no pending events
+         */
+        public boolean isEmpty()
+        {
+            return entries.isEmpty();
+        }
+
+        /**
+         * Returns the number of pending events.
+         *
+         * @return the size of this queue
+         */
+        public int size()
+        {
+            return entries.size();
+        }
+    }
+}
@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <p>
@@ -69,11 +70,8 @@ public class BaseEventSource implements EventSource
     /** The list for managing registered event listeners. */
     private EventListenerList eventListeners;
 
-    /** A lock object for guarding access to the detail events counter. */
-    private final Object lockDetailEventsCount = new Object();
-
     /** A counter for the detail events. */
-    private int detailEvents;
+    private final AtomicInteger detailEvents = new AtomicInteger();
 
     /**
      * Creates a new instance of {@code BaseEventSource}.
@@ -139,19 +137,46 @@ public class BaseEventSource implements EventSource
      */
     public void setDetailEvents(boolean enable)
     {
-        synchronized (lockDetailEventsCount)
+        if (enable)
+        {
+            detailEvents.incrementAndGet();
+        }
+        else
         {
-            if (enable)
-            {
-                detailEvents++;
-            }
-            else
-            {
-                detailEvents--;
-            }
+            detailEvents.decrementAndGet();
         }
     }
 
+    /**
+     * Returns the object responsible for asynchronous event delivery. Result
+     * is <b>null</b> if event listeners are invoked synchronously (which is
+     * the default).
+     *
+     * @return the {@code AsyncEventDelivery} object
+     * @since 2.2
+     */
+    public AsyncEventDelivery getAsyncEventDelivery()
+    {
+        return eventListeners.getAsyncEventDelivery();
+    }
+
+    /**
+     * Enables asynchronous delivery of events. If an
+     * {@code AsyncEventDelivery} object is set, all events fired by this
+     * object are passed to it, and event listeners are invoked asynchronously
+     * by its executor. Passing <b>null</b> switches back to synchronous
+     * delivery. Note that this setting is not copied when this object is
+     * cloned.
+     *
+     * @param delivery the {@code AsyncEventDelivery} object (may be
+     *        <b>null</b>)
+     * @since 2.2
+     */
+    public void setAsyncEventDelivery(AsyncEventDelivery delivery)
+    {
+        eventListeners.setAsyncEventDelivery(delivery);
+    }
+
     @Override
     public <T extends Event> void addEventListener(EventType<T> eventType,
             EventListener<? super T> listener)
@@ -211,7 +236,8 @@ public class BaseEventSource implements EventSource
      * Creates an event object and delivers it to all registered event
      * listeners. The method checks first if sending an event is allowed (making
      * use of the {@code detailEvents} property), and if listeners are
-     * registered.
+     * registered for this event type. If this is not the case, the method
+     * returns without creating any objects.
      *
      * @param type the event's type
      * @param propName the name of the affected property (can be <b>null</b>)
@@ -222,19 +248,9 @@ public class BaseEventSource implements EventSource
     protected <T extends ConfigurationEvent> void fireEvent(EventType<T> type,
             String propName, Object propValue, boolean before)
     {
-        if (checkDetailEvents(-1))
+        if (checkDetailEvents(-1) && eventListeners.hasListeners(type))
         {
-            EventListenerList.EventListenerIterator<T> it =
-                    eventListeners.getEventListenerIterator(type);
-            if (it.hasNext())
-            {
-                ConfigurationEvent event =
-                        createEvent(type, propName, propValue, before);
-                while (it.hasNext())
-                {
-                    it.invokeNext(event);
-                }
-            }
+            eventListeners.fire(createEvent(type, propName, propValue, before));
         }
     }
 
@@ -273,17 +289,10 @@ public class BaseEventSource implements EventSource
             EventType<T> eventType, EventType<?> operationType,
             String propertyName, Object propertyValue, Throwable cause)
     {
-        EventListenerList.EventListenerIterator<T> iterator =
-                eventListeners.getEventListenerIterator(eventType);
-        if (iterator.hasNext())
+        if (eventListeners.hasListeners(eventType))
         {
-            ConfigurationErrorEvent event =
-                    createErrorEvent(eventType, operationType, propertyName,
-                            propertyValue, cause);
-            while (iterator.hasNext())
-            {
-                iterator.invokeNext(event);
-            }
+            eventListeners.fire(createErrorEvent(eventType, operationType,
+                    propertyName, propertyValue, cause));
         }
     }
 
@@ -343,9 +352,6 @@ public class BaseEventSource implements EventSource
      */
     private boolean checkDetailEvents(int limit)
     {
-        synchronized (lockDetailEventsCount)
-        {
-            return detailEvents > limit;
-        }
+        return detailEvents.get() > limit;
     }
 }
@@ -147,6 +147,16 @@ public class ConfigurationEvent extends Event
             new EventType<ConfigurationEvent>(ANY_HIERARCHICAL,
                     "SUBNODE_CHANGED");
 
+    /**
+     * Constant for the event type indicating that the whole content of a
+     * hierarchical configuration was replaced, e.g. by a reload operation.
+     *
+     * @since 2.2
+     */
+    public static final EventType<ConfigurationEvent> REPLACE_CONTENT =
+            new EventType<ConfigurationEvent>(ANY_HIERARCHICAL,
+                    "REPLACE_CONTENT");
+
     /**
      * The serial version UID.
      */
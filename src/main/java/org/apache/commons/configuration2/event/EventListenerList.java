@@ -24,6 +24,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
@@ -47,7 +49,11 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * register a listener multiple times for different event types.
  * </p>
  * <p>
- * Implementation note: This class is thread-safe.
+ * Implementation note: This class is thread-safe. For firing events, it
+ * maintains a dispatch table which stores the listeners matching a specific
+ * event type in an array. The table is populated on demand and discarded
+ * whenever the registered listeners change. So firing an event typically
+ * requires only a lookup of this array.
  * </p>
  *
  * @version $Id$
@@ -55,9 +61,19 @@ import java.util.concurrent.CopyOnWriteArrayList;
  */
 public class EventListenerList
 {
+    /** Constant for an empty array of event listeners. */
+    private static final EventListener<?>[] NO_LISTENERS =
+            new EventListener<?>[0];
+
     /** A list with the listeners added to this object. */
     private final List<EventListenerRegistrationData<?>> listeners;
 
+    /** The dispatch table with the listeners for specific event types. */
+    private volatile ConcurrentMap<EventType<?>, EventListener<?>[]> dispatchTable;
+
+    /** The object for asynchronous event delivery. */
+    private volatile AsyncEventDelivery asyncEventDelivery;
+
     /**
      * Creates a new instance of {@code EventListenerList}.
      */
@@ -65,6 +81,7 @@ public class EventListenerList
     {
         listeners =
                 new CopyOnWriteArrayList<EventListenerRegistrationData<?>>();
+        invalidateDispatchTable();
     }
 
     /**
@@ -80,6 +97,7 @@ public class EventListenerList
             EventListener<? super T> listener)
     {
         listeners.add(new EventListenerRegistrationData<T>(type, listener));
+        invalidateDispatchTable();
     }
 
     /**
@@ -101,6 +119,7 @@ public class EventListenerList
                     "EventListenerRegistrationData must not be null!");
         }
         listeners.add(regData);
+        invalidateDispatchTable();
     }
 
     /**
@@ -137,11 +156,45 @@ public class EventListenerList
     public <T extends Event> boolean removeEventListener(
             EventListenerRegistrationData<T> regData)
     {
-        return listeners.remove(regData);
+        boolean removed = listeners.remove(regData);
+        if (removed)
+        {
+            invalidateDispatchTable();
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the object responsible for asynchronous event delivery. Result
+     * is <b>null</b> if events are delivered synchronously.
+     *
+     * @return the {@code AsyncEventDelivery} object
+     * @since 2.2
+     */
+    public AsyncEventDelivery getAsyncEventDelivery()
+    {
+        return asyncEventDelivery;
+    }
+
+    /**
+     * Sets the object responsible for asynchronous event delivery. If an
+     * {@code AsyncEventDelivery} is set, the {@code fire()} method does not
+     * invoke event listeners directly, but passes the event to this object.
+     * Passing <b>null</b> switches back to synchronous delivery.
+     *
+     * @param delivery the {@code AsyncEventDelivery} object (may be
+     *        <b>null</b>)
+     * @since 2.2
+     */
+    public void setAsyncEventDelivery(AsyncEventDelivery delivery)
+    {
+        asyncEventDelivery = delivery;
     }
 
     /**
-     * Fires an event to all registered listeners matching the event type.
+     * Fires an event to all registered listeners matching the event type. If
+     * an {@link AsyncEventDelivery} object is set, the listeners are invoked
+     * asynchronously.
      *
      * @param event the event to be fired (must not be <b>null</b>)
      * @throws IllegalArgumentException if the event is <b>null</b>
@@ -154,14 +207,37 @@ public class EventListenerList
                     "Event to be fired must not be null!");
         }
 
-        for (EventListenerIterator<? extends Event> iterator =
-                getEventListenerIterator(event.getEventType()); iterator
-                .hasNext();)
+        AsyncEventDelivery delivery = getAsyncEventDelivery();
+        for (EventListener<?> listener : fetchListeners(event.getEventType()))
         {
-            iterator.invokeNextListenerUnchecked(event);
+            if (delivery != null)
+            {
+                delivery.deliver(listener, event);
+            }
+            else
+            {
+                callListener(listener, event);
+            }
         }
     }
 
+    /**
+     * Checks whether there are event listeners which would receive an event of
+     * the specified type. This is a cheap check which can be used by event
+     * sources to avoid the creation of event objects if nobody is interested
+     * in them.
+     *
+     * @param eventType the event type (may be <b>null</b>, then result is
+     *        <b>false</b>)
+     * @return a flag whether there are listeners for this event type
+     * @since 2.2
+     */
+    public boolean hasListeners(EventType<?> eventType)
+    {
+        return eventType != null && !listeners.isEmpty()
+                && fetchListeners(eventType).length > 0;
+    }
+
     /**
      * Returns an {@code Iterable} allowing access to all event listeners stored
      * in this list which are compatible with the specified event type.
@@ -256,6 +332,7 @@ public class EventListenerList
     public void clear()
     {
         listeners.clear();
+        invalidateDispatchTable();
     }
 
     /**
@@ -279,6 +356,62 @@ public class EventListenerList
         }
     }
 
+    /**
+     * Returns an array with all event listeners which have to be notified
+     * about an event of the specified type. The array is obtained from the
+     * dispatch table; if it is not yet contained, it is computed now and
+     * stored in the table. The array must not be modified.
+     *
+     * @param eventType the event type
+     * @return an array with the listeners for this event type
+     */
+    private EventListener<?>[] fetchListeners(EventType<?> eventType)
+    {
+        ConcurrentMap<EventType<?>, EventListener<?>[]> table = dispatchTable;
+        EventListener<?>[] result = table.get(eventType);
+        if (result == null)
+        {
+            result = createListenerArray(eventType);
+            table.put(eventType, result);
+        }
+        return result;
+    }
+
+    /**
+     * Determines all event listeners matching the specified event type and
+     * returns them as an array.
+     *
+     * @param eventType the event type
+     * @return an array with the listeners for this event type
+     */
+    private EventListener<?>[] createListenerArray(EventType<?> eventType)
+    {
+        Set<EventType<?>> acceptedTypes =
+                EventType.fetchSuperEventTypes(eventType);
+        List<EventListener<?>> matches = new LinkedList<EventListener<?>>();
+        for (EventListenerRegistrationData<?> regData : listeners)
+        {
+            if (acceptedTypes.contains(regData.getEventType()))
+            {
+                matches.add(regData.getListener());
+            }
+        }
+        return matches.isEmpty() ? NO_LISTENERS : matches
+                .toArray(new EventListener<?>[matches.size()]);
+    }
+
+    /**
+     * Discards the current dispatch table. This method is called after a
+     * change of the registered event listeners. Because the table is replaced
+     * after the list of listeners has been updated, a concurrent fire
+     * operation can at most store outdated data in the old table.
+     */
+    private void invalidateDispatchTable()
+    {
+        dispatchTable =
+                new ConcurrentHashMap<EventType<?>, EventListener<?>[]>();
+    }
+
     /**
      * Helper method for calling an event listener with an event. We have to
      * operate on raw types to make this code compile. However, this is safe
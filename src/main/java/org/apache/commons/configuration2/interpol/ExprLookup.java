@@ -17,6 +17,9 @@
 package org.apache.commons.configuration2.interpol;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.configuration2.io.ConfigurationLogger;
 import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
@@ -59,6 +62,17 @@ import org.apache.commons.lang3.text.StrSubstitutor;
  * This lookup uses Apache Commons Jexl and requires that the dependency be added to any
  * projects which use this.
  *
+ * <p>
+ * Compiled expressions are stored in a cache keyed by the expression text
+ * (after subordinate lookups have been replaced), so that frequently used
+ * expressions are not parsed again on each lookup. The size of this cache can
+ * be set using {@link #setExpressionCacheSize(int)}; if it is exceeded, the
+ * least recently used expressions are removed. The context used for evaluating
+ * expressions is created once when the variables are set; it cannot be
+ * modified by expressions. Statistics about the cache are available via
+ * {@link #getCacheHitCount()} and {@link #getCacheMissCount()}.
+ * </p>
+ *
  * @since 1.7
  * @author <a
  * href="http://commons.apache.org/configuration/team-list.html">Commons Configuration team</a>
@@ -75,6 +89,9 @@ public class ExprLookup implements Lookup
     /** The default suffix for subordinate lookup expressions */
     private static final String DEFAULT_SUFFIX = "]";
 
+    /** The default size of the cache for compiled expressions. */
+    public static final int DEFAULT_EXPRESSION_CACHE_SIZE = 256;
+
     /** The ConfigurationInterpolator used by this object. */
     private ConfigurationInterpolator interpolator;
 
@@ -96,6 +113,22 @@ public class ExprLookup implements Lookup
     /** The String to use to terminate subordinate lookup expressions */
     private String suffixMatcher = DEFAULT_SUFFIX;
 
+    /** The cache for compiled expressions. */
+    private final Map<String, Expression> expressionCache =
+            new LinkedHashMap<String, Expression>(16, 0.75f, true);
+
+    /** The maximum size of the expression cache. */
+    private int expressionCacheSize = DEFAULT_EXPRESSION_CACHE_SIZE;
+
+    /** The context for evaluating expressions. */
+    private volatile JexlContext context;
+
+    /** The number of lookups which found a compiled expression in the cache. */
+    private final AtomicLong cacheHitCount = new AtomicLong();
+
+    /** The number of lookups which had to compile their expression. */
+    private final AtomicLong cacheMissCount = new AtomicLong();
+
     /**
      * The default constructor. Will get used when the Lookup is constructed via
      * configuration.
@@ -153,6 +186,7 @@ public class ExprLookup implements Lookup
     public void setVariables(Variables list)
     {
         variables = new Variables(list);
+        context = createContext();
     }
 
     /**
@@ -164,6 +198,67 @@ public class ExprLookup implements Lookup
         return null;
     }
 
+    /**
+     * Returns the maximum number of compiled expressions stored in the cache.
+     *
+     * @return the size of the expression cache
+     * @since 2.2
+     */
+    public int getExpressionCacheSize()
+    {
+        synchronized (expressionCache)
+        {
+            return expressionCacheSize;
+        }
+    }
+
+    /**
+     * Sets the maximum number of compiled expressions stored in the cache. A
+     * value of 0 disables caching; then each expression is compiled anew on
+     * every lookup. Changing the size clears the cache.
+     *
+     * @param size the size of the expression cache
+     * @throws IllegalArgumentException if the size is negative
+     * @since 2.2
+     */
+    public void setExpressionCacheSize(int size)
+    {
+        if (size < 0)
+        {
+            throw new IllegalArgumentException(
+                    "Expression cache size must not be negative!");
+        }
+        synchronized (expressionCache)
+        {
+            expressionCacheSize = size;
+            expressionCache.clear();
+        }
+    }
+
+    /**
+     * Returns the number of lookups for which a compiled expression could be
+     * found in the cache.
+     *
+     * @return the number of cache hits
+     * @since 2.2
+     */
+    public long getCacheHitCount()
+    {
+        return cacheHitCount.get();
+    }
+
+    /**
+     * Returns the number of lookups for which the expression had to be
+     * compiled.
+     *
+     * @return the number of cache misses
+     * @since 2.2
+     */
+    public long getCacheMissCount()
+    {
+        return cacheMissCount.get();
+    }
+
     /**
      * Returns the logger used by this object.
      *
@@ -227,8 +322,8 @@ public class ExprLookup implements Lookup
         String result = substitutor.replace(var);
         try
         {
-            Expression exp = engine.createExpression(result);
-            result = (String) exp.evaluate(createContext());
+            Expression exp = fetchExpression(result);
+            result = (String) exp.evaluate(fetchContext());
         }
         catch (Exception e)
         {
@@ -271,9 +366,64 @@ public class ExprLookup implements Lookup
         }
     }
 
+    /**
+     * Returns the compiled expression for the given text. The expression is
+     * obtained from the cache if possible; otherwise, it is compiled and
+     * stored in the cache.
+     *
+     * @param text the text of the expression
+     * @return the compiled expression
+     */
+    private Expression fetchExpression(String text)
+    {
+        synchronized (expressionCache)
+        {
+            Expression exp = expressionCache.get(text);
+            if (exp != null)
+            {
+                cacheHitCount.incrementAndGet();
+                return exp;
+            }
+        }
+
+        cacheMissCount.incrementAndGet();
+        Expression exp = engine.createExpression(text);
+        synchronized (expressionCache)
+        {
+            if (expressionCacheSize > 0)
+            {
+                expressionCache.put(text, exp);
+                if (expressionCache.size() > expressionCacheSize)
+                {
+                    expressionCache.remove(expressionCache.keySet().iterator()
+                            .next());
+                }
+            }
+        }
+        return exp;
+    }
+
+    /**
+     * Returns the context for evaluating expressions. The context is created
+     * when the variables are set.
+     *
+     * @return the {@code JexlContext}
+     * @throws IllegalStateException if no variables have been set
+     */
+    private JexlContext fetchContext()
+    {
+        JexlContext ctx = context;
+        if (ctx == null)
+        {
+            throw new IllegalStateException("No variables have been set!");
+        }
+        return ctx;
+    }
+
     /**
      * Creates a new {@code JexlContext} and initializes it with the variables
-     * managed by this Lookup object.
+     * managed by this Lookup object. The context is read-only, so that it can
+     * be shared between multiple lookup operations.
      *
      * @return the newly created context
      */
@@ -281,7 +431,7 @@ public class ExprLookup implements Lookup
     {
         JexlContext ctx = new MapContext();
         initializeContext(ctx);
-        return ctx;
+        return new ReadOnlyContext(ctx);
     }
 
     /**
@@ -298,6 +448,48 @@ public class ExprLookup implements Lookup
         }
     }
 
+    /**
+     * A read-only {@code JexlContext} implementation. An instance wraps the
+     * context populated with the variables of this lookup. Attempts to set
+     * variables cause an exception, so that evaluations of expressions cannot
+     * influence each other.
+     */
+    private static class ReadOnlyContext implements JexlContext
+    {
+        /** The wrapped context. */
+        private final JexlContext context;
+
+        /**
+         * Creates a new instance of {@code ReadOnlyContext} wrapping the given
+         * context.
+         *
+         * @param ctx the context to be wrapped
+         */
+        public ReadOnlyContext(JexlContext ctx)
+        {
+            context = ctx;
+        }
+
+        @Override
+        public Object get(String name)
+        {
+            return context.get(name);
+        }
+
+        @Override
+        public boolean has(String name)
+        {
+            return context.has(name);
+        }
+
+        @Override
+        public void set(String name, Object value)
+        {
+            throw new UnsupportedOperationException(
+                    "Variables of the expression context cannot be changed!");
+        }
+    }
+
     /**
      * List wrapper used to allow the Variables list to be created as beans in
      * DefaultConfigurationBuilder.
@@ -0,0 +1,282 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.io;
+
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * A specialized implementation of a {@code FileLocationStrategy} which caches
+ * the results of another {@code FileLocationStrategy}.
+ * </p>
+ * <p>
+ * Locating a file can be expensive: the default strategy probes multiple
+ * locations in the file system and on the class path. If the same files are
+ * located again and again - e.g. by reloading builders or by a
+ * {@code MultiFileConfigurationBuilder} creating configurations for many
+ * tenants - these probes can be avoided by wrapping the strategy in a
+ * {@code CachingLocationStrategy}. The wrapped strategy is then only called
+ * if there is no valid cache entry for the {@link FileLocator} to be resolved.
+ * </p>
+ * <p>
+ * Cache entries are keyed by the properties of the {@code FileLocator} which
+ * are relevant for locating a file: the file name, the base path, the source
+ * URL, and the {@code FileSystem}. Successful results are cached until they are
+ * evicted. Failed location attempts are cached as well, but only for a
+ * configurable period of time (the <em>negative TTL</em>); so a file which is
+ * created later is eventually found. The number of entries is limited; if the
+ * limit is reached, the entry which has not been accessed for the longest time
+ * is removed. The cache can be cleared explicitly using {@link #clear()}, e.g.
+ * if files have been moved.
+ * </p>
+ * <p>
+ * A single instance can be shared by all builders of an application, for
+ * instance by setting it as location strategy in the file-based builder
+ * parameters. Implementation note: This class is thread-safe.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.2
+ */
+public class CachingLocationStrategy implements FileLocationStrategy
+{
+    /** The default time (in milliseconds) failed locate results are cached. */
+    public static final long DEFAULT_NEGATIVE_TTL = 5000;
+
+    /** The default maximum number of cache entries. */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    /** The wrapped strategy. */
+    private final FileLocationStrategy wrappedStrategy;
+
+    /** The time failed results are cached. */
+    private final long negativeTTL;
+
+    /** The maximum number of entries. */
+    private final int maxSize;
+
+    /** The map with cache entries in access order. */
+    private final Map<FileLocator, CacheEntry> entries;
+
+    /**
+     * Creates a new instance of {@code CachingLocationStrategy} which wraps
+     * the given strategy and uses default settings.
+     *
+     * @param wrapped the strategy to be wrapped (must not be <b>null</b>)
+     * @throws IllegalArgumentException if the wrapped strategy is <b>null</b>
+     */
+    public CachingLocationStrategy(FileLocationStrategy wrapped)
+    {
+        this(wrapped, DEFAULT_NEGATIVE_TTL, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a new instance of {@code CachingLocationStrategy} and
+     * initializes all properties.
+     *
+     * @param wrapped the strategy to be wrapped (must not be <b>null</b>)
+     * @param negTTL the time (in milliseconds) failed results are cached; a
+     *        value of 0 disables caching of failed results
+     * @param maxSize the maximum number of cache entries
+     * @throws IllegalArgumentException if a parameter is invalid
+     */
+    public CachingLocationStrategy(FileLocationStrategy wrapped, long negTTL,
+            final int maxSize)
+    {
+        if (wrapped == null)
+        {
+            throw new IllegalArgumentException(
+                    "Wrapped strategy must not be null!");
+        }
+        if (negTTL < 0)
+        {
+            throw new IllegalArgumentException(
+                    "Negative TTL must not be less than 0: " + negTTL);
+        }
+        if (maxSize < 1)
+        {
+            throw new IllegalArgumentException(
+                    "Maximum size must be greater than 0: " + maxSize);
+        }
+
+        wrappedStrategy = wrapped;
+        negativeTTL = negTTL;
+        this.maxSize = maxSize;
+        entries = new LinkedHashMap<FileLocator, CacheEntry>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<FileLocator, CacheEntry> eldest)
+            {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the strategy wrapped by this object.
+     *
+     * @return the wrapped {@code FileLocationStrategy}
+     */
+    public FileLocationStrategy getWrappedStrategy()
+    {
+        return wrappedStrategy;
+    }
+
+    /**
+     * Returns the time (in milliseconds) failed results are cached.
+     *
+     * @return the negative TTL
+     */
+    public long getNegativeTTL()
+    {
+        return negativeTTL;
+    }
+
+    /**
+     * Returns the maximum number of cache entries.
+     *
+     * @return the maximum size
+     */
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * {@inheritDoc} This implementation checks whether a valid result for the
+     * passed in locator is cached. If not, the wrapped strategy is invoked,
+     * and its result is stored in the cache.
+     */
+    @Override
+    public URL locate(FileSystem fileSystem, FileLocator locator)
+    {
+        FileLocator key = createKey(fileSystem, locator);
+        long now = getCurrentTime();
+        synchronized (this)
+        {
+            CacheEntry entry = entries.get(key);
+            if (entry != null && entry.isValid(now))
+            {
+                return entry.getURL();
+            }
+        }
+
+        URL url = getWrappedStrategy().locate(fileSystem, locator);
+        if (url != null || negativeTTL > 0)
+        {
+            synchronized (this)
+            {
+                entries.put(key, new CacheEntry(url, now + negativeTTL));
+            }
+        }
+        return url;
+    }
+
+    /**
+     * Returns the number of entries in this cache.
+     *
+     * @return the number of cache entries
+     */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Removes all entries from this cache. Afterwards all locators are
+     * resolved again by the wrapped strategy.
+     */
+    public synchronized void clear()
+    {
+        entries.clear();
+    }
+
+    /**
+     * Returns the current time in milliseconds. This is used to determine
+     * whether cached failed results are expired. This implementation returns
+     * the system time.
+     *
+     * @return the current time
+     */
+    protected long getCurrentTime()
+    {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Creates the key for the cache. This is a {@code FileLocator} containing
+     * only the properties relevant for locating a file.
+     *
+     * @param fileSystem the {@code FileSystem}
+     * @param locator the locator to be resolved
+     * @return the key
+     */
+    private static FileLocator createKey(FileSystem fileSystem,
+            FileLocator locator)
+    {
+        return FileLocatorUtils.fileLocator()
+                .fileName(locator.getFileName())
+                .basePath(locator.getBasePath())
+                .sourceURL(locator.getSourceURL()).fileSystem(fileSystem)
+                .create();
+    }
+
+    /**
+     * A class representing an entry of the cache.
+     */
+    private static final class CacheEntry
+    {
+        /** The URL; <b>null</b> for a failed result. */
+        private final URL url;
+
+        /** The expiration time for a failed result. */
+        private final long expirationTime;
+
+        /**
+         * Creates a new instance of {@code CacheEntry}.
+         *
+         * @param url the URL
+         * @param expirationTime the expiration time if the URL is <b>null</b>
+         */
+        public CacheEntry(URL url, long expirationTime)
+        {
+            this.url = url;
+            this.expirationTime = expirationTime;
+        }
+
+        public URL getURL()
+        {
+            return url;
+        }
+
+        /**
+         * Checks whether this entry can still be used.
+         *
+         * @param now the current time
+         * @return a flag whether this entry is valid
+         */
+        public boolean isValid(long now)
+        {
+            return url != null || now < expirationTime;
+        }
+    }
+}
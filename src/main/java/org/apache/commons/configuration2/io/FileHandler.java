@@ -109,6 +109,10 @@ import org.apache.commons.logging.LogFactory;
  * sufficient, but because of the possible injection of a {@link FileLocator}
  * object it is not allowed to perform multiple save operations in parallel;
  * therefore, by obtaining a write lock, we are on the safe side.)</li>
+ * <li>{@code ParsedContentSupport}: If such an object provides a
+ * {@link ParsedContentCache}, a load operation from a URL obtains the parsed
+ * node structure from this cache; so a file loaded by many objects is parsed
+ * only once.</li>
  * </ul>
  * <p>
  * This class is thread-safe.
@@ -982,6 +986,10 @@ public class FileHandler
      */
     private void load(URL url, FileLocator locator) throws ConfigurationException
     {
+        if (loadFromCache(url, locator))
+        {
+            return;
+        }
         InputStream in = null;
 
         try
@@ -1004,6 +1012,52 @@ public class FileHandler
         }
     }
 
+    /**
+     * Tries to load the content from a {@code ParsedContentCache}. This is
+     * possible if the content implements the {@code ParsedContentSupport}
+     * interface, provides a cache, and allows caching for the current load
+     * operation.
+     *
+     * @param url the URL
+     * @param locator the current {@code FileLocator}
+     * @return a flag whether the content could be loaded from the cache
+     * @throws ConfigurationException if an error occurs
+     */
+    private boolean loadFromCache(URL url, FileLocator locator)
+            throws ConfigurationException
+    {
+        checkContent();
+        if (!(getContent() instanceof ParsedContentSupport))
+        {
+            return false;
+        }
+        ParsedContentSupport support = (ParsedContentSupport) getContent();
+        ParsedContentCache cache = support.getParsedContentCache();
+        if (cache == null)
+        {
+            return false;
+        }
+
+        SynchronizerSupport syncSupport = fetchSynchronizerSupport();
+        syncSupport.lock(LockMode.WRITE);
+        try
+        {
+            injectFileLocator(url);
+            Object key = support.getParsedContentKey();
+            if (key == null)
+            {
+                return false;
+            }
+            support.initParsedContent(cache.getContent(url, key,
+                    FileLocatorUtils.obtainFileSystem(locator), support));
+            return true;
+        }
+        finally
+        {
+            syncSupport.unlock(LockMode.WRITE);
+        }
+    }
+
     /**
      * Internal helper method for loading a file from a file name.
      *
@@ -0,0 +1,651 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.commons.configuration2.tree.ImmutableNode;
+
+/**
+ * <p>
+ * A cache for the node structures created when parsing configuration files.
+ * </p>
+ * <p>
+ * In some scenarios the same file is loaded many times, e.g. if a file with
+ * default settings is referenced by the definition files of many combined
+ * configurations. Typically, each load operation locates, opens, and parses
+ * the file again. Objects implementing the {@link ParsedContentSupport}
+ * interface can avoid this by using a {@code ParsedContentCache}: when such an
+ * object is loaded by a {@link FileHandler}, the cache is asked for the node
+ * structure of the file. It is parsed only if it has not been cached yet or if
+ * it has been changed. As {@link ImmutableNode} objects cannot be changed, the
+ * cached structures can be shared by all objects loading the same file.
+ * </p>
+ * <p>
+ * Entries are identified by the URL of the file and the key returned by
+ * {@link ParsedContentSupport#getParsedContentKey()}. In order to detect
+ * changes, files in the local file system are checked for their last
+ * modification date and their size; so they are not opened if a cached entry
+ * is valid. Because many file systems store modification dates with a
+ * resolution of one second or worse, this check is not reliable for files
+ * which have been modified very recently; such files are treated like other
+ * URLs: the content is read and compared with the cached entry based on a
+ * hash value; here only parsing is avoided. If multiple
+ * threads request the same file concurrently, it is parsed only once.
+ * </p>
+ * <p>
+ * The number of entries in the cache is limited. If the limit is reached, the
+ * entry which has not been accessed for the longest time is removed. A cache
+ * instance for the whole application can be obtained using the
+ * {@link #getDefaultCache()} method. Implementation note: This class is
+ * thread-safe.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.2
+ */
+public class ParsedContentCache
+{
+    /** The default maximum number of entries. */
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    /** The algorithm for calculating hash values of content. */
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+
+    /**
+     * The time span (in milliseconds) in which a modification date is
+     * considered too recent to detect further changes reliably.
+     */
+    private static final long MODIFICATION_TOLERANCE = 2000;
+
+    /** The size of the buffer for reading content. */
+    private static final int BUF_SIZE = 4096;
+
+    /** The shared default instance. */
+    private static final ParsedContentCache DEFAULT_CACHE =
+            new ParsedContentCache();
+
+    /** The map with the cache entries in access order. */
+    private final Map<CacheKey, CacheEntry> entries;
+
+    /** The maximum number of entries. */
+    private final int maxSize;
+
+    /** The number of requests which could be served from the cache. */
+    private long hitCount;
+
+    /** The number of requests which caused a file to be parsed. */
+    private long missCount;
+
+    /**
+     * Creates a new instance of {@code ParsedContentCache} with the default
+     * maximum size.
+     */
+    public ParsedContentCache()
+    {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a new instance of {@code ParsedContentCache} with the given
+     * maximum number of entries.
+     *
+     * @param maxSize the maximum number of entries
+     * @throws IllegalArgumentException if the maximum size is less than 1
+     */
+    public ParsedContentCache(final int maxSize)
+    {
+        if (maxSize < 1)
+        {
+            throw new IllegalArgumentException(
+                    "Maximum size must be greater than 0: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        entries = new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<CacheKey, CacheEntry> eldest)
+            {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the default {@code ParsedContentCache} instance. This instance
+     * can be shared by all components of an application.
+     *
+     * @return the default {@code ParsedContentCache}
+     */
+    public static ParsedContentCache getDefaultCache()
+    {
+        return DEFAULT_CACHE;
+    }
+
+    /**
+     * Returns the maximum number of entries of this cache.
+     *
+     * @return the maximum size
+     */
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * Returns the node structure for the file with the given URL. If the cache
+     * contains a valid entry for this URL and the given key, it is returned.
+     * Otherwise, the file is opened using the given {@code FileSystem} and
+     * parsed by the {@code ParsedContentSupport} object. The result is stored
+     * in the cache.
+     *
+     * @param url the URL of the file
+     * @param key the key describing how the file is parsed (must not be
+     *        <b>null</b>)
+     * @param fileSystem the {@code FileSystem} for reading the file
+     * @param parser the object for parsing the file
+     * @return the root node of the parsed structure
+     * @throws ConfigurationException if the file cannot be read or parsed
+     * @throws IllegalArgumentException if a required parameter is missing
+     */
+    public ImmutableNode getContent(URL url, Object key,
+            FileSystem fileSystem, ParsedContentSupport parser)
+            throws ConfigurationException
+    {
+        if (url == null)
+        {
+            throw new IllegalArgumentException("URL must not be null!");
+        }
+        if (key == null)
+        {
+            throw new IllegalArgumentException("Key must not be null!");
+        }
+        if (fileSystem == null)
+        {
+            throw new IllegalArgumentException("FileSystem must not be null!");
+        }
+        if (parser == null)
+        {
+            throw new IllegalArgumentException("Parser must not be null!");
+        }
+
+        ContentSource source = createSource(url, fileSystem);
+        CacheKey cacheKey = new CacheKey(url.toExternalForm(), key);
+        CacheEntry entry;
+        boolean owner = false;
+        synchronized (this)
+        {
+            entry = entries.get(cacheKey);
+            if (entry == null || !entry.getStamp().equals(source.getStamp()))
+            {
+                entry = new CacheEntry(source.getStamp(),
+                        new FutureTask<ImmutableNode>(new ParseTask(source,
+                                parser)));
+                entries.put(cacheKey, entry);
+                owner = true;
+                missCount++;
+            }
+            else
+            {
+                hitCount++;
+            }
+        }
+
+        if (owner)
+        {
+            entry.getTask().run();
+        }
+        return fetchResult(cacheKey, entry);
+    }
+
+    /**
+     * Removes all entries for the file with the given URL from this cache.
+     *
+     * @param url the URL
+     */
+    public synchronized void invalidate(URL url)
+    {
+        if (url != null)
+        {
+            String urlStr = url.toExternalForm();
+            for (Iterator<CacheKey> it = entries.keySet().iterator(); it
+                    .hasNext();)
+            {
+                if (urlStr.equals(it.next().getUrl()))
+                {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all entries from this cache.
+     */
+    public synchronized void clear()
+    {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of entries contained in this cache.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of requests which have been served from this cache
+     * without parsing.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getHitCount()
+    {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of requests which caused a file to be parsed.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getMissCount()
+    {
+        return missCount;
+    }
+
+    /**
+     * Obtains the result of a parse operation. If parsing failed, the entry is
+     * removed from the cache, and the exception is rethrown.
+     *
+     * @param cacheKey the key of the entry
+     * @param entry the entry
+     * @return the parsed node structure
+     * @throws ConfigurationException if parsing failed
+     */
+    private ImmutableNode fetchResult(CacheKey cacheKey, CacheEntry entry)
+            throws ConfigurationException
+    {
+        try
+        {
+            return entry.getTask().get();
+        }
+        catch (InterruptedException iex)
+        {
+            Thread.currentThread().interrupt();
+            throw new ConfigurationException(
+                    "Interrupted while waiting for parsed content", iex);
+        }
+        catch (ExecutionException eex)
+        {
+            synchronized (this)
+            {
+                if (entries.get(cacheKey) == entry)
+                {
+                    entries.remove(cacheKey);
+                }
+            }
+            throw unwrap(eex.getCause());
+        }
+    }
+
+    /**
+     * Converts an exception thrown while parsing to a
+     * {@code ConfigurationException}. Runtime exceptions and errors are
+     * rethrown directly.
+     *
+     * @param cause the exception
+     * @return the {@code ConfigurationException} to be thrown
+     */
+    private static ConfigurationException unwrap(Throwable cause)
+    {
+        if (cause instanceof ConfigurationException)
+        {
+            return (ConfigurationException) cause;
+        }
+        if (cause instanceof RuntimeException)
+        {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error)
+        {
+            throw (Error) cause;
+        }
+        return new ConfigurationException(cause);
+    }
+
+    /**
+     * Creates a {@code ContentSource} for the given URL. For files of the
+     * default file system the stamp is derived from the file's meta data.
+     * Otherwise, the content is read, and a hash value is calculated.
+     *
+     * @param url the URL
+     * @param fileSystem the {@code FileSystem}
+     * @return the {@code ContentSource}
+     * @throws ConfigurationException if the content cannot be read
+     */
+    private static ContentSource createSource(URL url, FileSystem fileSystem)
+            throws ConfigurationException
+    {
+        if (fileSystem.getClass() == DefaultFileSystem.class)
+        {
+            File file = FileLocatorUtils.fileFromURL(url);
+            if (file != null && file.isFile()
+                    && !isRecentlyModified(file.lastModified()))
+            {
+                return new ContentSource(url, fileSystem, "file:"
+                        + file.lastModified() + ":" + file.length(), null);
+            }
+        }
+
+        byte[] content = readContent(url, fileSystem);
+        return new ContentSource(url, fileSystem, "hash:"
+                + calculateHash(content), content);
+    }
+
+    /**
+     * Checks whether the given modification date is so recent that a further
+     * modification could have happened without changing it.
+     *
+     * @param lastModified the modification date of a file
+     * @return a flag whether this date is too recent to be used as stamp
+     */
+    private static boolean isRecentlyModified(long lastModified)
+    {
+        return Math.abs(System.currentTimeMillis() - lastModified)
+                < MODIFICATION_TOLERANCE;
+    }
+
+    /**
+     * Reads the whole content of the given URL.
+     *
+     * @param url the URL
+     * @param fileSystem the {@code FileSystem}
+     * @return the content
+     * @throws ConfigurationException if an error occurs
+     */
+    private static byte[] readContent(URL url, FileSystem fileSystem)
+            throws ConfigurationException
+    {
+        InputStream in = fileSystem.getInputStream(url);
+        try
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[BUF_SIZE];
+            int count;
+            while ((count = in.read(buf)) >= 0)
+            {
+                out.write(buf, 0, count);
+            }
+            return out.toByteArray();
+        }
+        catch (IOException ioex)
+        {
+            throw new ConfigurationException("Unable to read " + url, ioex);
+        }
+        finally
+        {
+            closeSilent(in);
+        }
+    }
+
+    /**
+     * Calculates a hash value for the given content.
+     *
+     * @param content the content
+     * @return the hash value as string
+     */
+    private static String calculateHash(byte[] content)
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            StringBuilder buf = new StringBuilder();
+            for (byte b : digest.digest(content))
+            {
+                buf.append(Character.forDigit((b >> 4) & 0xF, 16));
+                buf.append(Character.forDigit(b & 0xF, 16));
+            }
+            return buf.append(':').append(content.length).toString();
+        }
+        catch (NoSuchAlgorithmException nsaex)
+        {
+            // SHA-1 is available on every Java platform
+            throw new IllegalStateException(nsaex);
+        }
+    }
+
+    /**
+     * Closes the given stream ignoring exceptions.
+     *
+     * @param in the stream
+     */
+    private static void closeSilent(InputStream in)
+    {
+        try
+        {
+            in.close();
+        }
+        catch (IOException ioex)
+        {
+            // ignore
+        }
+    }
+
+    /**
+     * A class representing the key of a cache entry.
+     */
+    private static final class CacheKey
+    {
+        /** The URL of the file as string. */
+        private final String url;
+
+        /** The key provided by the parser. */
+        private final Object parserKey;
+
+        /**
+         * Creates a new instance of {@code CacheKey}.
+         *
+         * @param url the URL
+         * @param parserKey the parser key
+         */
+        public CacheKey(String url, Object parserKey)
+        {
+            this.url = url;
+            this.parserKey = parserKey;
+        }
+
+        /**
+         * Returns the URL of this key.
+         *
+         * @return the URL
+         */
+        public String getUrl()
+        {
+            return url;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return url.hashCode() ^ parserKey.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+            {
+                return true;
+            }
+            if (!(obj instanceof CacheKey))
+            {
+                return false;
+            }
+
+            CacheKey c = (CacheKey) obj;
+            return url.equals(c.url) && parserKey.equals(c.parserKey);
+        }
+    }
+
+    /**
+     * A class representing an entry of the cache. It stores a stamp for
+     * detecting changes and the task producing the parsed content.
+     */
+    private static final class CacheEntry
+    {
+        /** The stamp of the parsed content. */
+        private final String stamp;
+
+        /** The task for parsing the content. */
+        private final FutureTask<ImmutableNode> task;
+
+        /**
+         * Creates a new instance of {@code CacheEntry}.
+         *
+         * @param stamp the stamp
+         * @param task the parse task
+         */
+        public CacheEntry(String stamp, FutureTask<ImmutableNode> task)
+        {
+            this.stamp = stamp;
+            this.task = task;
+        }
+
+        public String getStamp()
+        {
+            return stamp;
+        }
+
+        public FutureTask<ImmutableNode> getTask()
+        {
+            return task;
+        }
+    }
+
+    /**
+     * A class describing the content of a file to be parsed. If the content
+     * has already been read, it is stored directly.
+     */
+    private static final class ContentSource
+    {
+        /** The URL. */
+        private final URL url;
+
+        /** The file system. */
+        private final FileSystem fileSystem;
+
+        /** The stamp for detecting changes. */
+        private final String stamp;
+
+        /** The content if it has already been read. */
+        private final byte[] content;
+
+        /**
+         * Creates a new instance of {@code ContentSource}.
+         *
+         * @param url the URL
+         * @param fs the file system
+         * @param stamp the stamp
+         * @param content the content (may be <b>null</b>)
+         */
+        public ContentSource(URL url, FileSystem fs, String stamp,
+                byte[] content)
+        {
+            this.url = url;
+            fileSystem = fs;
+            this.stamp = stamp;
+            this.content = content;
+        }
+
+        public String getStamp()
+        {
+            return stamp;
+        }
+
+        /**
+         * Opens a stream for reading the content.
+         *
+         * @return the stream
+         * @throws ConfigurationException if an error occurs
+         */
+        public InputStream open() throws ConfigurationException
+        {
+            return (content != null) ? new ByteArrayInputStream(content)
+                    : fileSystem.getInputStream(url);
+        }
+    }
+
+    /**
+     * The task for parsing a file.
+     */
+    private static final class ParseTask implements Callable<ImmutableNode>
+    {
+        /** The source to be parsed. */
+        private final ContentSource source;
+
+        /** The parser. */
+        private final ParsedContentSupport parser;
+
+        /**
+         * Creates a new instance of {@code ParseTask}.
+         *
+         * @param source the source
+         * @param parser the parser
+         */
+        public ParseTask(ContentSource source, ParsedContentSupport parser)
+        {
+            this.source = source;
+            this.parser = parser;
+        }
+
+        @Override
+        public ImmutableNode call() throws Exception
+        {
+            InputStream in = source.open();
+            try
+            {
+                return parser.parseContent(in);
+            }
+            finally
+            {
+                closeSilent(in);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.commons.configuration2.tree.ImmutableNode;
+
+/**
+ * <p>
+ * Definition of an interface to be implemented by objects whose content can be
+ * obtained from a {@link ParsedContentCache}.
+ * </p>
+ * <p>
+ * If a {@link FileHandler} loads data from a URL, and its associated
+ * {@link FileBased} object implements this interface and provides a
+ * {@code ParsedContentCache}, the file is not necessarily parsed again.
+ * Rather, the cache is queried for a node structure created for the same file
+ * before. Only if there is no such structure or the file has been changed, the
+ * {@link #parseContent(InputStream)} method is called. The resulting structure
+ * - either parsed or obtained from the cache - is then passed to
+ * {@link #initParsedContent(ImmutableNode)}.
+ * </p>
+ * <p>
+ * Node structures stored in the cache are shared by all objects loading the
+ * same file. This is possible because {@link ImmutableNode} objects cannot be
+ * changed. Implementations must not retain any other state from parsing a
+ * file; everything needed to initialize an object has to be contained in the
+ * node structure.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.2
+ */
+public interface ParsedContentSupport
+{
+    /**
+     * Returns the {@code ParsedContentCache} to be used when loading this
+     * object. If result is <b>null</b>, no cache is used, and the data is read
+     * in the normal way.
+     *
+     * @return the {@code ParsedContentCache} (may be <b>null</b>)
+     */
+    ParsedContentCache getParsedContentCache();
+
+    /**
+     * Returns a key describing how this object parses its content. The result
+     * of parsing a file typically depends on some settings of the object.
+     * Therefore, a cached node structure is only reused for objects which
+     * return equal keys. An implementation can return <b>null</b> to indicate
+     * that the cache cannot be used for the current load operation.
+     *
+     * @return the key for the parsed content (may be <b>null</b>)
+     */
+    Object getParsedContentKey();
+
+    /**
+     * Parses the data from the specified stream and returns the resulting node
+     * structure. This method must not change the state of this object.
+     *
+     * @param in the input stream
+     * @return the root node of the parsed structure
+     * @throws ConfigurationException if a non-I/O related problem occurs, e.g.
+     *         the data read does not have the expected format
+     * @throws IOException if an I/O error occurs
+     */
+    ImmutableNode parseContent(InputStream in) throws ConfigurationException,
+            IOException;
+
+    /**
+     * Initializes this object from the given node structure. The structure
+     * has been created by {@link #parseContent(InputStream)}, either by this
+     * object or by another object which returned an equal key.
+     *
+     * @param root the root node of the parsed structure
+     * @throws ConfigurationException if an error occurs
+     */
+    void initParsedContent(ImmutableNode root) throws ConfigurationException;
+}
@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.reloading;
+
+import org.apache.commons.configuration2.DatabaseConfiguration;
+
+/**
+ * <p>
+ * A specialized implementation of {@code ReloadingDetector} which monitors the
+ * data of a {@link DatabaseConfiguration}.
+ * </p>
+ * <p>
+ * Rather than loading the whole configuration, this class evaluates a cheap
+ * SQL aggregate expression on the rows belonging to the monitored
+ * configuration, i.e. the configured table restricted to the configuration
+ * name if one is set. Typical expressions are {@code MAX(version)} or
+ * {@code MAX(updated_at)} if the table contains a column which is updated on
+ * each change, or {@code COUNT(*)} (the default) which detects only added or
+ * removed rows. If the value of the expression differs from the last stored
+ * value, a reload operation should be performed. The expression is passed to
+ * the database as is, so it must be valid SQL for the database in use.
+ * </p>
+ * <p>
+ * As with {@link FileHandlerReloadingDetector} a refresh delay can be
+ * configured; this is the minimum interval between two database queries. The
+ * first call of {@code isReloadingRequired()} does not report a change, but
+ * obtains the initial value of the expression. {@code reloadingPerformed()}
+ * always queries the current value and stores it internally.
+ * </p>
+ * <p>
+ * A query which fails - e.g. because the database is not available - yields
+ * a <b>null</b> value. Such values are ignored: the last known value is kept,
+ * and no change is reported, so that an unavailable database does not cause
+ * reload operations on each check. Therefore, the check expression should
+ * not evaluate to <b>null</b> for valid data; for instance, an expression
+ * like {@code COALESCE(MAX(version), 0)} can be used to handle an empty
+ * table.
+ * </p>
+ * <p>
+ * This detector is typically used together with a {@link ReloadingController}
+ * which is connected to a {@code DatabaseConfiguration} in cached mode using
+ * {@link DatabaseConfiguration#connectToReloadingController(ReloadingController)}
+ * and triggered by a {@link PeriodicReloadingTrigger}. Then the cache of the
+ * configuration is reloaded only when the data has actually changed.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.2
+ */
+public class DatabaseReloadingDetector implements ReloadingDetector
+{
+    /** Constant for the default check expression. */
+    public static final String DEFAULT_CHECK_EXPRESSION = "COUNT(*)";
+
+    /** Constant for the default refresh delay. */
+    private static final int DEFAULT_REFRESH_DELAY = 5000;
+
+    /** The monitored configuration. */
+    private final DatabaseConfiguration configuration;
+
+    /** The SQL expression to be evaluated. */
+    private final String checkExpression;
+
+    /** The refresh delay. */
+    private final long refreshDelay;
+
+    /** The last value of the check expression. */
+    private Object lastValue;
+
+    /** A flag whether the last value has been initialized. */
+    private boolean initialized;
+
+    /** The last time the database was checked for changes. */
+    private long lastChecked;
+
+    /**
+     * Creates a new instance of {@code DatabaseReloadingDetector} and
+     * initializes it with the configuration to monitor, the SQL expression to
+     * evaluate, and the refresh delay.
+     *
+     * @param config the {@code DatabaseConfiguration} to monitor (must not be
+     *        <b>null</b>)
+     * @param expression the SQL expression to evaluate; if <b>null</b>, the
+     *        default expression {@code COUNT(*)} is used
+     * @param refreshDelay the refresh delay; a value of 0 means that a check is
+     *        performed in all cases
+     * @throws IllegalArgumentException if the configuration is <b>null</b>
+     */
+    public DatabaseReloadingDetector(DatabaseConfiguration config,
+            String expression, long refreshDelay)
+    {
+        if (config == null)
+        {
+            throw new IllegalArgumentException(
+                    "Configuration must not be null!");
+        }
+
+        configuration = config;
+        checkExpression =
+                (expression != null) ? expression : DEFAULT_CHECK_EXPRESSION;
+        this.refreshDelay = refreshDelay;
+    }
+
+    /**
+     * Creates a new instance of {@code DatabaseReloadingDetector} with the
+     * configuration to monitor and the SQL expression to evaluate using a
+     * default refresh delay.
+     *
+     * @param config the {@code DatabaseConfiguration} to monitor (must not be
+     *        <b>null</b>)
+     * @param expression the SQL expression to evaluate; if <b>null</b>, the
+     *        default expression {@code COUNT(*)} is used
+     * @throws IllegalArgumentException if the configuration is <b>null</b>
+     */
+    public DatabaseReloadingDetector(DatabaseConfiguration config,
+            String expression)
+    {
+        this(config, expression, DEFAULT_REFRESH_DELAY);
+    }
+
+    /**
+     * Creates a new instance of {@code DatabaseReloadingDetector} which
+     * monitors the number of rows of the given configuration using a default
+     * refresh delay.
+     *
+     * @param config the {@code DatabaseConfiguration} to monitor (must not be
+     *        <b>null</b>)
+     * @throws IllegalArgumentException if the configuration is <b>null</b>
+     */
+    public DatabaseReloadingDetector(DatabaseConfiguration config)
+    {
+        this(config, null);
+    }
+
+    /**
+     * Returns the {@code DatabaseConfiguration} monitored by this detector.
+     *
+     * @return the monitored configuration
+     */
+    public DatabaseConfiguration getConfiguration()
+    {
+        return configuration;
+    }
+
+    /**
+     * Returns the SQL expression which is evaluated to detect changes.
+     *
+     * @return the check expression
+     */
+    public String getCheckExpression()
+    {
+        return checkExpression;
+    }
+
+    /**
+     * Returns the refresh delay. This is a time in milliseconds. The
+     * {@code isReloadingRequired()} method only queries the database if at
+     * least this time has passed since the previous check.
+     *
+     * @return the refresh delay used by this object
+     */
+    public long getRefreshDelay()
+    {
+        return refreshDelay;
+    }
+
+    /**
+     * {@inheritDoc} This implementation evaluates the check expression on the
+     * monitored configuration and compares the result with the value obtained
+     * before. The refresh delay is taken into account; a query is only
+     * performed if at least this time has passed since the last check.
+     */
+    @Override
+    public boolean isReloadingRequired()
+    {
+        long now = System.currentTimeMillis();
+        if (now >= lastChecked + getRefreshDelay())
+        {
+            lastChecked = now;
+
+            Object value = fetchCheckValue();
+            if (!initialized)
+            {
+                updateLastValue(value);
+            }
+            else if (value != null && !value.equals(lastValue))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * {@inheritDoc} This implementation queries the current value of the check
+     * expression and stores it internally. So the next change is detected
+     * when the data of the configuration changes again.
+     */
+    @Override
+    public void reloadingPerformed()
+    {
+        updateLastValue(fetchCheckValue());
+    }
+
+    /**
+     * Obtains the current value of the check expression from the monitored
+     * configuration. Database errors are reported by the configuration as
+     * error events; in this case, result is <b>null</b>, and the value is
+     * ignored.
+     *
+     * @return the current value of the check expression
+     */
+    protected Object fetchCheckValue()
+    {
+        return getConfiguration().queryChangeIndicator(getCheckExpression());
+    }
+
+    /**
+     * Stores the passed in value of the check expression. A <b>null</b> value
+     * indicates a failed query; it is ignored.
+     *
+     * @param value the value
+     */
+    private void updateLastValue(Object value)
+    {
+        if (value != null)
+        {
+            lastValue = value;
+            initialized = true;
+        }
+    }
+}
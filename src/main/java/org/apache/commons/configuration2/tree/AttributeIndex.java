@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * <p>
+ * An internally used helper class implementing an index for child nodes based
+ * on the values of their attributes.
+ * </p>
+ * <p>
+ * An instance is owned by an {@link InMemoryNodeModel} and shared by all
+ * {@link TreeData} objects created by this model. Because
+ * {@link ImmutableNode} objects cannot be changed, the children of a specific
+ * parent node instance never change. Therefore, index data is stored per
+ * parent node instance and remains valid across updates of the model: when
+ * a node is changed by a transaction, it is replaced by a new instance for
+ * which index data is created on demand; unchanged parts of the tree keep
+ * their index data. The index uses weak references to parent nodes, so data
+ * for nodes which are no longer part of the tree is discarded automatically.
+ * </p>
+ * <p>
+ * The index is disabled per default. In this state, queries are answered by
+ * a linear scan over the children of the parent node.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.2
+ */
+class AttributeIndex
+{
+    /**
+     * The map with index data. For each parent node, there is a map which
+     * assigns a list with the names of the child nodes and the attribute to
+     * a map from attribute values to child nodes.
+     */
+    private final Map<ImmutableNode, Map<List<String>, Map<String, List<ImmutableNode>>>> index =
+            new WeakHashMap<ImmutableNode, Map<List<String>, Map<String, List<ImmutableNode>>>>();
+
+    /** The enabled flag. */
+    private volatile boolean enabled;
+
+    /**
+     * Returns a flag whether this index is enabled.
+     *
+     * @return the enabled flag
+     */
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables this index. Disabling the index discards all data
+     * collected so far.
+     *
+     * @param f the enabled flag
+     */
+    public void setEnabled(boolean f)
+    {
+        enabled = f;
+        if (!f)
+        {
+            synchronized (index)
+            {
+                index.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns a list with all child nodes of the given parent with the
+     * specified name which have an attribute with the given name and value.
+     * If the index is enabled, the data for the parent node is created on
+     * first access and then reused.
+     *
+     * @param parent the parent node
+     * @param childName the name of the child nodes
+     * @param attrName the name of the attribute
+     * @param value the expected attribute value
+     * @return a list with the matching child nodes
+     */
+    public List<ImmutableNode> getChildrenByAttribute(ImmutableNode parent,
+            String childName, String attrName, Object value)
+    {
+        String strValue = String.valueOf(value);
+        if (!isEnabled())
+        {
+            return scanChildren(parent, childName, attrName, strValue);
+        }
+
+        List<ImmutableNode> children =
+                fetchValueMap(parent, childName, attrName).get(strValue);
+        return (children != null) ? children : Collections
+                .<ImmutableNode> emptyList();
+    }
+
+    /**
+     * Returns the map from attribute values to child nodes for the given
+     * parameters. If it does not exist yet, it is created now.
+     *
+     * @param parent the parent node
+     * @param childName the name of the child nodes
+     * @param attrName the name of the attribute
+     * @return the map with index data
+     */
+    private Map<String, List<ImmutableNode>> fetchValueMap(
+            ImmutableNode parent, String childName, String attrName)
+    {
+        List<String> key = Arrays.asList(childName, attrName);
+        synchronized (index)
+        {
+            Map<List<String>, Map<String, List<ImmutableNode>>> parentData =
+                    index.get(parent);
+            if (parentData == null)
+            {
+                parentData =
+                        new HashMap<List<String>, Map<String, List<ImmutableNode>>>();
+                index.put(parent, parentData);
+            }
+
+            Map<String, List<ImmutableNode>> valueMap = parentData.get(key);
+            if (valueMap == null)
+            {
+                valueMap = createValueMap(parent, childName, attrName);
+                parentData.put(key, valueMap);
+            }
+            return valueMap;
+        }
+    }
+
+    /**
+     * Creates the index data for the children of a parent node with the
+     * given name and attribute.
+     *
+     * @param parent the parent node
+     * @param childName the name of the child nodes
+     * @param attrName the name of the attribute
+     * @return the map with index data
+     */
+    private static Map<String, List<ImmutableNode>> createValueMap(
+            ImmutableNode parent, String childName, String attrName)
+    {
+        Map<String, List<ImmutableNode>> valueMap =
+                new HashMap<String, List<ImmutableNode>>();
+        for (ImmutableNode child : parent.getChildren())
+        {
+            if (childName.equals(child.getNodeName()))
+            {
+                Object attrValue = child.getAttributes().get(attrName);
+                if (attrValue != null)
+                {
+                    String strValue = String.valueOf(attrValue);
+                    List<ImmutableNode> nodes = valueMap.get(strValue);
+                    if (nodes == null)
+                    {
+                        nodes = new ArrayList<ImmutableNode>(1);
+                        valueMap.put(strValue, nodes);
+                    }
+                    nodes.add(child);
+                }
+            }
+        }
+
+        for (Map.Entry<String, List<ImmutableNode>> e : valueMap.entrySet())
+        {
+            e.setValue(Collections.unmodifiableList(e.getValue()));
+        }
+        return valueMap;
+    }
+
+    /**
+     * Determines the matching child nodes by iterating over all children of
+     * the parent node. This method is used if the index is disabled.
+     *
+     * @param parent the parent node
+     * @param childName the name of the child nodes
+     * @param attrName the name of the attribute
+     * @param value the expected attribute value
+     * @return a list with the matching child nodes
+     */
+    private static List<ImmutableNode> scanChildren(ImmutableNode parent,
+            String childName, String attrName, String value)
+    {
+        List<ImmutableNode> result = new ArrayList<ImmutableNode>();
+        for (ImmutableNode child : parent.getChildren())
+        {
+            if (childName.equals(child.getNodeName()))
+            {
+                Object attrValue = child.getAttributes().get(attrName);
+                if (attrValue != null
+                        && value.equals(String.valueOf(attrValue)))
+                {
+                    result.add(child);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,436 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * A pool for sharing equal strings and node structures between
+ * configurations.
+ * </p>
+ * <p>
+ * If the same configuration sources are loaded into many configuration
+ * objects, each of these objects holds its own copies of identical data. An
+ * instance of this class can be used to avoid this duplication: it can be
+ * passed to a configuration (for instance via the builder parameters for XML
+ * or properties configurations); then the data loaded by the configuration is
+ * replaced by canonical instances stored in this pool. Configurations sharing
+ * the same pool therefore share the same objects.
+ * </p>
+ * <p>
+ * For strings - node names, keys, and string values - this works similar to
+ * {@link String#intern()}. For {@link ImmutableNode} structures, a technique
+ * called <em>hash-consing</em> is applied: a node is considered equal to a
+ * pooled node if it has the same name, value, and attributes, and if its
+ * children are the same canonical instances. Nodes are processed bottom up;
+ * so whole subtrees which are identical are represented by a single shared
+ * structure.
+ * </p>
+ * <p>
+ * Because nodes in a node model must be unique, a canonical node is used at
+ * most once in a node structure. If a structure contains multiple identical
+ * subtrees, the pool stores multiple equivalent instances; so further
+ * structures with the same content can again be shared completely.
+ * </p>
+ * <p>
+ * A pool keeps strong references to all the objects it contains. So it should
+ * be used for a limited set of sources, and an application should drop or
+ * {@link #clear()} it when the data is no longer needed. Implementation note:
+ * This class is thread-safe; a pool can be shared by configurations loaded
+ * concurrently. Locks are only held for single lookups, so multiple
+ * structures can be canonicalized in parallel.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.2
+ */
+public class CanonicalizationPool
+{
+    /** The map with canonical strings. */
+    private final ConcurrentMap<String, String> strings;
+
+    /**
+     * The map with canonical nodes; equivalent nodes are stored in a list.
+     * Access to this map and to the node count is guarded by the map's
+     * monitor.
+     */
+    private final Map<NodeKey, List<ImmutableNode>> nodes;
+
+    /** The number of pooled nodes. */
+    private int nodeCount;
+
+    /**
+     * Creates a new, empty instance of {@code CanonicalizationPool}.
+     */
+    public CanonicalizationPool()
+    {
+        strings = new ConcurrentHashMap<String, String>();
+        nodes = new HashMap<NodeKey, List<ImmutableNode>>();
+    }
+
+    /**
+     * Returns the canonical instance of the given string. If this pool does
+     * not yet contain an equal string, the passed in string is added.
+     *
+     * @param s the string (may be <b>null</b>)
+     * @return the canonical instance of this string
+     */
+    public String canonicalize(String s)
+    {
+        if (s == null)
+        {
+            return null;
+        }
+        String canonical = strings.putIfAbsent(s, s);
+        return (canonical != null) ? canonical : s;
+    }
+
+    /**
+     * Returns the canonical instance of the given value. Only strings are
+     * pooled; other objects are returned unchanged.
+     *
+     * @param value the value (may be <b>null</b>)
+     * @return the canonical instance of this value
+     */
+    public Object canonicalizeValue(Object value)
+    {
+        return (value instanceof String) ? canonicalize((String) value) : value;
+    }
+
+    /**
+     * Returns a node structure equivalent to the given one which uses canonical
+     * instances of nodes, names, and values where possible. This is a short
+     * cut for {@code canonicalize(root, null, null)}.
+     *
+     * @param root the root node of the structure (must not be <b>null</b>)
+     * @return the canonical structure
+     * @throws IllegalArgumentException if the root node is <b>null</b>
+     */
+    public ImmutableNode canonicalize(ImmutableNode root)
+    {
+        return canonicalize(root, null, null);
+    }
+
+    /**
+     * Returns a node structure equivalent to the given one which uses canonical
+     * instances of nodes, names, and values where possible. The resulting
+     * structure is going to be added to an existing node structure which can
+     * be passed as second argument; canonical nodes already used in this
+     * structure are not used again. If a map for the replaced nodes is
+     * provided, it is populated with the nodes of the passed in structure
+     * which have been replaced and their replacements. This is needed if the
+     * caller has to maintain data associated with nodes, e.g. references.
+     *
+     * @param root the root node of the structure (must not be <b>null</b>)
+     * @param existingRoot the root node of a structure the result is added to
+     *        (may be <b>null</b>)
+     * @param replacements a map for storing replaced nodes (may be
+     *        <b>null</b>)
+     * @return the canonical structure
+     * @throws IllegalArgumentException if the root node is <b>null</b>
+     */
+    public ImmutableNode canonicalize(ImmutableNode root,
+            ImmutableNode existingRoot,
+            Map<ImmutableNode, ImmutableNode> replacements)
+    {
+        if (root == null)
+        {
+            throw new IllegalArgumentException("Root node must not be null!");
+        }
+
+        Map<ImmutableNode, Boolean> usedNodes =
+                new IdentityHashMap<ImmutableNode, Boolean>();
+        if (existingRoot != null)
+        {
+            markUsed(existingRoot, usedNodes);
+        }
+        return canonicalizeNode(root, usedNodes, replacements);
+    }
+
+    /**
+     * Returns the number of nodes contained in this pool.
+     *
+     * @return the number of pooled nodes
+     */
+    public int getNodeCount()
+    {
+        synchronized (nodes)
+        {
+            return nodeCount;
+        }
+    }
+
+    /**
+     * Returns the number of strings contained in this pool.
+     *
+     * @return the number of pooled strings
+     */
+    public int getStringCount()
+    {
+        return strings.size();
+    }
+
+    /**
+     * Removes all objects from this pool. Configurations using objects from
+     * this pool are not affected.
+     */
+    public void clear()
+    {
+        strings.clear();
+        synchronized (nodes)
+        {
+            nodes.clear();
+            nodeCount = 0;
+        }
+    }
+
+    /**
+     * Recursively canonicalizes the given node. The children are processed
+     * first. Then the node is looked up in the pool; the first equivalent node
+     * not yet used in the current structure is selected. If there is none, the
+     * node is added to the pool.
+     *
+     * @param node the node
+     * @param usedNodes a map with the nodes used in the current structure
+     * @param replacements the map for replaced nodes (may be <b>null</b>)
+     * @return the canonical node
+     */
+    private ImmutableNode canonicalizeNode(ImmutableNode node,
+            Map<ImmutableNode, Boolean> usedNodes,
+            Map<ImmutableNode, ImmutableNode> replacements)
+    {
+        List<ImmutableNode> children =
+                new ArrayList<ImmutableNode>(node.getChildren().size());
+        boolean changed = false;
+        for (ImmutableNode child : node.getChildren())
+        {
+            ImmutableNode canonicalChild =
+                    canonicalizeNode(child, usedNodes, replacements);
+            children.add(canonicalChild);
+            changed |= canonicalChild != child;
+        }
+
+        Object value = canonicalizeValue(node.getValue());
+        Map<String, Object> attributes =
+                new HashMap<String, Object>(node.getAttributes().size());
+        for (Map.Entry<String, Object> e : node.getAttributes().entrySet())
+        {
+            String attrName = canonicalize(e.getKey());
+            Object attrValue = canonicalizeValue(e.getValue());
+            attributes.put(attrName, attrValue);
+            changed |= attrName != e.getKey() || attrValue != e.getValue();
+        }
+
+        ImmutableNode candidate = node;
+        if (changed || value != node.getValue())
+        {
+            candidate =
+                    new ImmutableNode.Builder(children.size())
+                            .name(node.getNodeName()).value(value)
+                            .addChildren(children).addAttributes(attributes)
+                            .create();
+        }
+
+        ImmutableNode result = fetchUnusedNode(candidate, usedNodes);
+
+        usedNodes.put(result, Boolean.TRUE);
+        if (replacements != null && result != node)
+        {
+            replacements.put(node, result);
+        }
+        return result;
+    }
+
+    /**
+     * Obtains a pooled node equivalent to the given one which is not yet used
+     * in the current structure. If no such node exists, the passed in node is
+     * added to the pool and returned.
+     *
+     * @param candidate the node to be looked up
+     * @param usedNodes a map with the nodes used in the current structure
+     * @return the canonical node
+     */
+    private ImmutableNode fetchUnusedNode(ImmutableNode candidate,
+            Map<ImmutableNode, Boolean> usedNodes)
+    {
+        NodeKey key = new NodeKey(candidate);
+        synchronized (nodes)
+        {
+            List<ImmutableNode> equivalents = nodes.get(key);
+            if (equivalents == null)
+            {
+                equivalents = new ArrayList<ImmutableNode>(1);
+                nodes.put(key, equivalents);
+            }
+            else
+            {
+                // a node must not occur multiple times in a structure
+                for (ImmutableNode node : equivalents)
+                {
+                    if (!usedNodes.containsKey(node))
+                    {
+                        return node;
+                    }
+                }
+            }
+
+            equivalents.add(candidate);
+            nodeCount++;
+            return candidate;
+        }
+    }
+
+    /**
+     * Marks all nodes of the given structure as used.
+     *
+     * @param node the root node of the structure
+     * @param usedNodes the map with used nodes
+     */
+    private static void markUsed(ImmutableNode node,
+            Map<ImmutableNode, Boolean> usedNodes)
+    {
+        usedNodes.put(node, Boolean.TRUE);
+        for (ImmutableNode child : node.getChildren())
+        {
+            markUsed(child, usedNodes);
+        }
+    }
+
+    /**
+     * A key class for looking up nodes in the pool. Two keys are equal if the
+     * nodes they wrap have equal names, values, and attributes, and the same
+     * child node instances.
+     */
+    private static final class NodeKey
+    {
+        /** The wrapped node. */
+        private final ImmutableNode node;
+
+        /** The hash code. */
+        private final int hash;
+
+        /**
+         * Creates a new instance of {@code NodeKey} for the given node.
+         *
+         * @param node the node
+         */
+        public NodeKey(ImmutableNode node)
+        {
+            this.node = node;
+            hash = calculateHash(node);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+            {
+                return true;
+            }
+            if (!(obj instanceof NodeKey))
+            {
+                return false;
+            }
+
+            NodeKey c = (NodeKey) obj;
+            return hash == c.hash
+                    && equalObjects(node.getNodeName(), c.node.getNodeName())
+                    && equalObjects(node.getValue(), c.node.getValue())
+                    && node.getAttributes().equals(c.node.getAttributes())
+                    && sameChildren(node.getChildren(), c.node.getChildren());
+        }
+
+        /**
+         * Calculates the hash code for the given node.
+         *
+         * @param node the node
+         * @return the hash code
+         */
+        private static int calculateHash(ImmutableNode node)
+        {
+            final int factor = 31;
+            int result = hashObject(node.getNodeName());
+            result = factor * result + hashObject(node.getValue());
+            result = factor * result + node.getAttributes().hashCode();
+            for (ImmutableNode child : node.getChildren())
+            {
+                result = factor * result + System.identityHashCode(child);
+            }
+            return result;
+        }
+
+        /**
+         * Null-safe check whether the given objects are equal.
+         *
+         * @param o1 the first object (may be <b>null</b>)
+         * @param o2 the second object (may be <b>null</b>)
+         * @return a flag whether the objects are equal
+         */
+        private static boolean equalObjects(Object o1, Object o2)
+        {
+            return (o1 == null) ? o2 == null : o1.equals(o2);
+        }
+
+        /**
+         * Null-safe calculation of the hash code of the given object.
+         *
+         * @param obj the object (may be <b>null</b>)
+         * @return the hash code of this object or 0 for <b>null</b>
+         */
+        private static int hashObject(Object obj)
+        {
+            return (obj == null) ? 0 : obj.hashCode();
+        }
+
+        /**
+         * Checks whether the given lists contain the same node instances.
+         *
+         * @param children1 the first list
+         * @param children2 the second list
+         * @return a flag whether the lists contain the same instances
+         */
+        private static boolean sameChildren(List<ImmutableNode> children1,
+                List<ImmutableNode> children2)
+        {
+            if (children1.size() != children2.size())
+            {
+                return false;
+            }
+            for (int i = 0; i < children1.size(); i++)
+            {
+                if (children1.get(i) != children2.get(i))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
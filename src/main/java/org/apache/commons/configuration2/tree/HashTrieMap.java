@@ -0,0 +1,560 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * An internally used immutable map implementation based on a hash trie.
+ * </p>
+ * <p>
+ * This class is used by {@link NodeTracker} to store the data about tracked
+ * nodes. Because {@code NodeTracker} objects are immutable, each change of the
+ * tracking state requires a new map. With a conventional map implementation
+ * all entries would have to be copied. A hash trie in contrast shares the
+ * major part of its structure with its predecessor; an update operation only
+ * has to copy the nodes on the path to the affected entry. Thus, its cost does
+ * not depend on the number of entries stored in the map.
+ * </p>
+ * <p>
+ * The trie consists of arrays with 32 elements. An element is either
+ * <b>null</b>, a sub array, or a {@code Leaf} representing a single entry (or
+ * a chain of entries whose keys have the same hash code). The index into an
+ * array is determined by 5 bits of the hash code of a key, starting with the
+ * least significant bits on the top level.
+ * </p>
+ * <p>
+ * Implementation note: Instances of this class are immutable and can be
+ * shared between multiple threads.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.2
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+final class HashTrieMap<K, V>
+{
+    /** Constant for the number of hash bits consumed per level. */
+    private static final int BITS = 5;
+
+    /** Constant for the size of the arrays of the trie. */
+    private static final int WIDTH = 1 << BITS;
+
+    /** Constant for the mask to extract an array index from a hash code. */
+    private static final int MASK = WIDTH - 1;
+
+    /** The empty instance. */
+    @SuppressWarnings("rawtypes")
+    private static final HashTrieMap EMPTY = new HashTrieMap(null, 0);
+
+    /** The root array of the trie; <b>null</b> for an empty map. */
+    private final Object[] root;
+
+    /** The number of entries in this map. */
+    private final int size;
+
+    /**
+     * Creates a new instance of {@code HashTrieMap}.
+     *
+     * @param root the root array
+     * @param size the number of entries
+     */
+    private HashTrieMap(Object[] root, int size)
+    {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns an empty instance of {@code HashTrieMap}.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     * @return the empty map
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> HashTrieMap<K, V> empty()
+    {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the number of entries stored in this map.
+     *
+     * @return the size of this map
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns a flag whether this map is empty.
+     *
+     * @return a flag whether this map contains no entries
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value associated with the given key.
+     *
+     * @param key the key
+     * @return the value of this key or <b>null</b> if it cannot be found
+     */
+    public V get(Object key)
+    {
+        int hash = hash(key);
+        Object[] node = root;
+        int shift = 0;
+        while (node != null)
+        {
+            Object slot = node[index(hash, shift)];
+            if (slot instanceof Leaf)
+            {
+                Leaf<K, V> leaf = leaf(slot);
+                return (leaf.hash == hash) ? leaf.find(key) : null;
+            }
+            node = (Object[]) slot;
+            shift += BITS;
+        }
+        return null;
+    }
+
+    /**
+     * Returns a map which contains all entries of this map plus the given
+     * mapping. An existing value of this key is replaced.
+     *
+     * @param key the key (must not be <b>null</b>)
+     * @param value the value (must not be <b>null</b>)
+     * @return the updated map
+     */
+    public HashTrieMap<K, V> put(K key, V value)
+    {
+        boolean[] added = new boolean[1];
+        Object[] newRoot =
+                put(root, 0, new Leaf<K, V>(hash(key), key, value, null),
+                        added);
+        return new HashTrieMap<K, V>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Returns a map which contains all entries of this map except for the one
+     * with the given key. If the key is not contained, this instance is
+     * returned.
+     *
+     * @param key the key to be removed
+     * @return the updated map
+     */
+    public HashTrieMap<K, V> remove(Object key)
+    {
+        if (get(key) == null)
+        {
+            return this;
+        }
+        Object[] newRoot = remove(root, 0, hash(key), key);
+        return (newRoot == null) ? HashTrieMap.<K, V> empty()
+                : new HashTrieMap<K, V>(newRoot, size - 1);
+    }
+
+    /**
+     * Returns a list with all entries contained in this map. The order of the
+     * entries is not specified.
+     *
+     * @return a list with the entries of this map
+     */
+    public List<Map.Entry<K, V>> entries()
+    {
+        List<Map.Entry<K, V>> entries = new ArrayList<Map.Entry<K, V>>(size);
+        collectEntries(root, entries);
+        return entries;
+    }
+
+    /**
+     * Returns a map with the same keys as this map whose values are obtained
+     * by applying the given {@code ValueTransformer} on the values of this
+     * map. The transformer is invoked for each entry, so the cost of this
+     * operation is linear in the size of the map. However, only the parts of
+     * the trie containing changed values are copied; if the transformer
+     * returns the same instance for a value, the corresponding structure is
+     * shared. If no value is changed, this instance is returned.
+     *
+     * @param transformer the {@code ValueTransformer}
+     * @return the transformed map
+     */
+    public HashTrieMap<K, V> transformValues(
+            ValueTransformer<K, V> transformer)
+    {
+        if (isEmpty())
+        {
+            return this;
+        }
+        Object[] newRoot = transform(root, transformer);
+        return (newRoot == root) ? this : new HashTrieMap<K, V>(newRoot, size);
+    }
+
+    /**
+     * Adds a leaf to the given array of the trie. A modified copy of the
+     * array is returned.
+     *
+     * @param node the array (may be <b>null</b>)
+     * @param shift the current hash shift
+     * @param newLeaf the leaf to be added
+     * @param added an array for returning a flag whether a new key was added
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     * @return the updated array
+     */
+    private static <K, V> Object[] put(Object[] node, int shift,
+            Leaf<K, V> newLeaf, boolean[] added)
+    {
+        Object[] result = (node == null) ? new Object[WIDTH] : node.clone();
+        int idx = index(newLeaf.hash, shift);
+        Object slot = result[idx];
+        if (slot == null)
+        {
+            result[idx] = newLeaf;
+            added[0] = true;
+        }
+        else if (slot instanceof Leaf)
+        {
+            Leaf<K, V> leaf = leaf(slot);
+            if (leaf.hash == newLeaf.hash)
+            {
+                result[idx] = leaf.put(newLeaf, added);
+            }
+            else
+            {
+                // hash codes differ, so they are split at a deeper level
+                Object[] sub = new Object[WIDTH];
+                sub[index(leaf.hash, shift + BITS)] = leaf;
+                result[idx] = put(sub, shift + BITS, newLeaf, added);
+            }
+        }
+        else
+        {
+            result[idx] = put((Object[]) slot, shift + BITS, newLeaf, added);
+        }
+        return result;
+    }
+
+    /**
+     * Removes the entry with the given key from an array of the trie. The key
+     * must be contained. Result is the updated copy of the array or
+     * <b>null</b> if it becomes empty.
+     *
+     * @param node the array
+     * @param shift the current hash shift
+     * @param hash the hash code of the key
+     * @param key the key
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     * @return the updated array
+     */
+    private static <K, V> Object[] remove(Object[] node, int shift, int hash,
+            Object key)
+    {
+        Object[] result = node.clone();
+        int idx = index(hash, shift);
+        Object slot = result[idx];
+        if (slot instanceof Leaf)
+        {
+            result[idx] = HashTrieMap.<K, V> leaf(slot).remove(key);
+        }
+        else
+        {
+            result[idx] = remove((Object[]) slot, shift + BITS, hash, key);
+        }
+
+        for (Object o : result)
+        {
+            if (o != null)
+            {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Recursively adds all entries stored in the given array to a list.
+     *
+     * @param node the array (may be <b>null</b>)
+     * @param entries the target list
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     */
+    private static <K, V> void collectEntries(Object[] node,
+            List<Map.Entry<K, V>> entries)
+    {
+        if (node == null)
+        {
+            return;
+        }
+        for (Object slot : node)
+        {
+            if (slot instanceof Leaf)
+            {
+                for (Leaf<K, V> leaf = leaf(slot); leaf != null; leaf =
+                        leaf.next)
+                {
+                    entries.add(leaf);
+                }
+            }
+            else
+            {
+                collectEntries((Object[]) slot, entries);
+            }
+        }
+    }
+
+    /**
+     * Recursively transforms the values stored in the given array. The array
+     * is only copied if one of its elements changes; otherwise, it is
+     * returned unchanged.
+     *
+     * @param node the array
+     * @param transformer the {@code ValueTransformer}
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     * @return the transformed array
+     */
+    private static <K, V> Object[] transform(Object[] node,
+            ValueTransformer<K, V> transformer)
+    {
+        Object[] result = node;
+        for (int i = 0; i < WIDTH; i++)
+        {
+            Object slot = node[i];
+            Object newSlot;
+            if (slot instanceof Leaf)
+            {
+                newSlot = HashTrieMap.<K, V> leaf(slot).transform(transformer);
+            }
+            else if (slot != null)
+            {
+                newSlot = transform((Object[]) slot, transformer);
+            }
+            else
+            {
+                continue;
+            }
+
+            if (newSlot != slot)
+            {
+                if (result == node)
+                {
+                    result = node.clone();
+                }
+                result[i] = newSlot;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Casts the given object to a leaf.
+     *
+     * @param slot the object
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     * @return the leaf
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> Leaf<K, V> leaf(Object slot)
+    {
+        return (Leaf<K, V>) slot;
+    }
+
+    /**
+     * Calculates the hash code of a key. The bits of the hash code are spread
+     * in the same way as done by {@code HashMap}.
+     *
+     * @param key the key
+     * @return the hash code
+     */
+    private static int hash(Object key)
+    {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Determines the index into an array of the trie on the level with the
+     * given shift.
+     *
+     * @param hash the hash code
+     * @param shift the shift
+     * @return the index
+     */
+    private static int index(int hash, int shift)
+    {
+        return (hash >>> shift) & MASK;
+    }
+
+    /**
+     * Definition of an interface for transforming the values of a
+     * {@code HashTrieMap}.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     */
+    public interface ValueTransformer<K, V>
+    {
+        /**
+         * Returns the new value for the given entry.
+         *
+         * @param entry the entry
+         * @return the new value for this entry
+         */
+        V transform(Map.Entry<K, V> entry);
+    }
+
+    /**
+     * A class representing an entry of the map. Entries whose keys have the
+     * same hash code are stored in a linked list.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     */
+    private static final class Leaf<K, V> implements Map.Entry<K, V>
+    {
+        /** The hash code of the key. */
+        private final int hash;
+
+        /** The key. */
+        private final K key;
+
+        /** The value. */
+        private final V value;
+
+        /** The next entry with the same hash code. */
+        private final Leaf<K, V> next;
+
+        /**
+         * Creates a new instance of {@code Leaf}.
+         *
+         * @param h the hash code
+         * @param k the key
+         * @param v the value
+         * @param nxt the next leaf
+         */
+        public Leaf(int h, K k, V v, Leaf<K, V> nxt)
+        {
+            hash = h;
+            key = k;
+            value = v;
+            next = nxt;
+        }
+
+        public K getKey()
+        {
+            return key;
+        }
+
+        public V getValue()
+        {
+            return value;
+        }
+
+        /**
+         * {@inheritDoc} Entries are immutable, so this operation is not
+         * supported.
+         */
+        public V setValue(V value)
+        {
+            throw new UnsupportedOperationException("Map is immutable!");
+        }
+
+        /**
+         * Searches the chain starting with this leaf for the given key.
+         *
+         * @param k the key
+         * @return the value of this key or <b>null</b>
+         */
+        public V find(Object k)
+        {
+            for (Leaf<K, V> leaf = this; leaf != null; leaf = leaf.next)
+            {
+                if (leaf.key.equals(k))
+                {
+                    return leaf.value;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns a chain with the given leaf added. An existing entry with
+         * the same key is replaced.
+         *
+         * @param newLeaf the leaf to be added
+         * @param added an array for returning a flag whether a new key was
+         *        added
+         * @return the new chain
+         */
+        public Leaf<K, V> put(Leaf<K, V> newLeaf, boolean[] added)
+        {
+            Leaf<K, V> rest = remove(newLeaf.key);
+            added[0] = rest == this;
+            return new Leaf<K, V>(hash, newLeaf.key, newLeaf.value, rest);
+        }
+
+        /**
+         * Returns a chain with the given key removed.
+         *
+         * @param k the key to be removed
+         * @return the new chain (may be <b>null</b>)
+         */
+        public Leaf<K, V> remove(Object k)
+        {
+            if (key.equals(k))
+            {
+                return next;
+            }
+            if (next == null)
+            {
+                return this;
+            }
+            Leaf<K, V> newNext = next.remove(k);
+            return (newNext == next) ? this : new Leaf<K, V>(hash, key,
+                    value, newNext);
+        }
+
+        /**
+         * Returns a chain with the values of all entries transformed. If no
+         * value is changed, this instance is returned.
+         *
+         * @param transformer the {@code ValueTransformer}
+         * @return the new chain
+         */
+        public Leaf<K, V> transform(ValueTransformer<K, V> transformer)
+        {
+            Leaf<K, V> newNext =
+                    (next != null) ? next.transform(transformer) : null;
+            V newValue = transformer.transform(this);
+            return (newNext == next && newValue == value) ? this
+                    : new Leaf<K, V>(hash, key, newValue, newNext);
+        }
+    }
+}
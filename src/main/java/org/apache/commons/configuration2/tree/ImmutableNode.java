@@ -16,13 +16,20 @@
  */
 package org.apache.commons.configuration2.tree;
 
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
 
 /**
  * <p>
@@ -38,12 +45,29 @@ import java.util.Map;
  * updating properties, but these methods return new {@code ImmutableNode}
  * instances. Instances are created using the nested {@code Builder} class.
  * </p>
+ * <p>
+ * Configurations may consist of a large number of nodes, most of them leaf
+ * nodes with few or no attributes. Therefore, this class uses a compact
+ * internal representation: nodes without children or attributes share
+ * singleton empty collections; child nodes are stored in an array of the exact
+ * size; a small number of attributes is stored in an array rather than in a
+ * hash map; and node names are interned, so that the many nodes with the same
+ * name share a single string instance. These details are not visible through
+ * the public API: {@code getChildren()} and {@code getAttributes()} return
+ * unmodifiable collections in all cases.
+ * </p>
  *
  * @version $Id$
  * @since 2.0
  */
 public final class ImmutableNode
 {
+    /**
+     * Constant for the maximum number of attributes which are stored in an
+     * array. If a node has more attributes, a hash map is used.
+     */
+    private static final int MAX_COMPACT_ATTRIBUTES = 4;
+
     /** The name of this node. */
     private final String nodeName;
 
@@ -134,8 +158,8 @@ public final class ImmutableNode
      */
     public ImmutableNode setValue(Object newValue)
     {
-        return new Builder(children, attributes).name(nodeName).value(newValue)
-                .create();
+        return new Builder(children, attributes).internedName(nodeName)
+                .value(newValue).create();
     }
 
     /**
@@ -299,7 +323,7 @@ public final class ImmutableNode
      */
     private ImmutableNode createWithBasicProperties(Builder builder)
     {
-        return builder.name(nodeName).value(value).create();
+        return builder.internedName(nodeName).value(value).create();
     }
 
     /**
@@ -436,6 +460,20 @@ public final class ImmutableNode
          * @return a reference to this object for method chaining
          */
         public Builder name(String n)
+        {
+            name = (n != null) ? n.intern() : null;
+            return this;
+        }
+
+        /**
+         * Sets the name of the node to be created without interning it. This
+         * method is used by {@code ImmutableNode} if the name is copied from
+         * an existing node; then it has already been interned.
+         *
+         * @param n the interned node name
+         * @return a reference to this object for method chaining
+         */
+        private Builder internedName(String n)
         {
             name = n;
             return this;
@@ -552,14 +590,16 @@ public final class ImmutableNode
             }
             else
             {
-                if (children != null)
+                if (children == null || children.isEmpty())
                 {
-                    return Collections.unmodifiableList(children);
+                    return Collections.emptyList();
                 }
-                else
+                if (children.size() == 1)
                 {
-                    return Collections.emptyList();
+                    return Collections.singletonList(children.get(0));
                 }
+                return new ChildList(children.toArray(new ImmutableNode[children
+                        .size()]));
             }
         }
 
@@ -579,14 +619,15 @@ public final class ImmutableNode
             }
             else
             {
-                if (attributes != null)
+                if (attributes == null || attributes.isEmpty())
                 {
-                    return Collections.unmodifiableMap(attributes);
+                    return Collections.emptyMap();
                 }
-                else
+                if (attributes.size() <= MAX_COMPACT_ATTRIBUTES)
                 {
-                    return Collections.emptyMap();
+                    return new CompactAttributeMap(attributes);
                 }
+                return Collections.unmodifiableMap(attributes);
             }
         }
 
@@ -650,4 +691,159 @@ public final class ImmutableNode
             return result;
         }
     }
+
+    /**
+     * An unmodifiable list implementation for the children of a node which is
+     * backed by an array of the exact size.
+     */
+    private static final class ChildList extends AbstractList<ImmutableNode>
+            implements RandomAccess
+    {
+        /** The array with the child nodes. */
+        private final ImmutableNode[] nodes;
+
+        /**
+         * Creates a new instance of {@code ChildList}.
+         *
+         * @param nodes the array with the child nodes
+         */
+        public ChildList(ImmutableNode[] nodes)
+        {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public ImmutableNode get(int index)
+        {
+            return nodes[index];
+        }
+
+        @Override
+        public int size()
+        {
+            return nodes.length;
+        }
+    }
+
+    /**
+     * An unmodifiable map implementation for a small number of attributes. The
+     * keys and values are stored alternating in a single array; lookups are
+     * done by a linear search, which is efficient for the few entries
+     * supported. The iteration order is the one of the map passed to the
+     * constructor.
+     */
+    private static final class CompactAttributeMap extends
+            AbstractMap<String, Object>
+    {
+        /** The array with attribute names and values. */
+        private final Object[] data;
+
+        /**
+         * Creates a new instance of {@code CompactAttributeMap} with the
+         * content of the given map.
+         *
+         * @param attrs the map with the attributes
+         */
+        public CompactAttributeMap(Map<String, Object> attrs)
+        {
+            data = new Object[2 * attrs.size()];
+            int idx = 0;
+            for (Map.Entry<String, Object> e : attrs.entrySet())
+            {
+                data[idx++] = e.getKey();
+                data[idx++] = e.getValue();
+            }
+        }
+
+        @Override
+        public int size()
+        {
+            return data.length / 2;
+        }
+
+        @Override
+        public boolean containsKey(Object key)
+        {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public Object get(Object key)
+        {
+            int idx = indexOf(key);
+            return (idx >= 0) ? data[idx + 1] : null;
+        }
+
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet()
+        {
+            return new AbstractSet<Map.Entry<String, Object>>()
+            {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator()
+                {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size()
+                {
+                    return CompactAttributeMap.this.size();
+                }
+            };
+        }
+
+        /**
+         * Returns the index of the given key in the data array or -1 if it
+         * cannot be found.
+         *
+         * @param key the key
+         * @return the index of this key
+         */
+        private int indexOf(Object key)
+        {
+            for (int i = 0; i < data.length; i += 2)
+            {
+                if (data[i] == null ? key == null : data[i].equals(key))
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * An iterator over the entries of the map.
+         */
+        private class EntryIterator implements
+                Iterator<Map.Entry<String, Object>>
+        {
+            /** The index of the next entry in the data array. */
+            private int index;
+
+            public boolean hasNext()
+            {
+                return index < data.length;
+            }
+
+            public Map.Entry<String, Object> next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                Map.Entry<String, Object> entry =
+                        new SimpleImmutableEntry<String, Object>(
+                                (String) data[index], data[index + 1]);
+                index += 2;
+                return entry;
+            }
+
+            public void remove()
+            {
+                throw new UnsupportedOperationException(
+                        "Attributes cannot be modified!");
+            }
+        }
+    }
 }
@@ -46,6 +46,13 @@ import org.apache.commons.lang3.mutable.MutableObject;
  * operation. If this fails, the manipulation has to be done anew on the updated
  * structure.
  * </p>
+ * <p>
+ * Optionally, an index can be enabled which speeds up searches for child nodes
+ * with a specific attribute value (see
+ * {@link #setAttributeIndexEnabled(boolean)}). The {@code NodeHandler}
+ * returned by this model then implements the {@link IndexedNodeHandler}
+ * interface in an efficient way.
+ * </p>
  *
  * @version $Id$
  * @since 2.0
@@ -59,7 +66,11 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode>
     private static final NodeHandler<ImmutableNode> DUMMY_HANDLER =
             new TreeData(null,
                     Collections.<ImmutableNode, ImmutableNode> emptyMap(),
-                    Collections.<ImmutableNode, ImmutableNode> emptyMap(), null, new ReferenceTracker());
+                    Collections.<ImmutableNode, ImmutableNode> emptyMap(), null, new ReferenceTracker(),
+                    new AttributeIndex());
+
+    /** The index for searching nodes by attribute values. */
+    private final AttributeIndex attributeIndex = new AttributeIndex();
 
     /** Stores information about the current nodes structure. */
     private final AtomicReference<TreeData> structure;
@@ -104,6 +115,36 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode>
         return getTreeData().getRootNode();
     }
 
+    /**
+     * Returns a flag whether the attribute index is enabled.
+     *
+     * @return the attribute index flag
+     * @since 2.2
+     */
+    public boolean isAttributeIndexEnabled()
+    {
+        return attributeIndex.isEnabled();
+    }
+
+    /**
+     * Enables or disables the attribute index. If enabled, searches for child
+     * nodes with specific attribute values via the {@link IndexedNodeHandler}
+     * interface implemented by this model's {@code NodeHandler} are answered
+     * using an index. Index data for a parent node is created when it is
+     * accessed for the first time and then kept until the parent node is
+     * replaced by an update of this model. So the index is most efficient for
+     * configurations which are mainly read. If disabled (which is the
+     * default), such searches are done by iterating over all children of the
+     * parent node.
+     *
+     * @param f the attribute index flag
+     * @since 2.2
+     */
+    public void setAttributeIndexEnabled(boolean f)
+    {
+        attributeIndex.setEnabled(f);
+    }
+
     /**
      * {@inheritDoc} {@code InMemoryNodeModel} implements the
      * {@code NodeHandler} interface itself. So this implementation just returns
@@ -453,6 +494,45 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode>
                 newRoot, null, resolver, temp)));
     }
 
+    /**
+     * Replaces the content of this model by the content of another model. This
+     * method works like {@link #replaceRoot(ImmutableNode, NodeKeyResolver)};
+     * but in addition to the root node, the reference objects stored in the
+     * source model are taken over. So this model becomes a copy of the source
+     * model, while its tracked nodes are kept and re-evaluated on the new
+     * nodes hierarchy. A typical use case is a reload operation: the new data
+     * is loaded into a temporary model which is then swapped into the model
+     * actually used by a configuration in a single step.
+     *
+     * @param source the model whose content is to be taken over (must not be
+     *        <b>null</b>)
+     * @param resolver the {@code NodeKeyResolver}
+     * @throws IllegalArgumentException if the source model is <b>null</b>
+     * @since 2.2
+     */
+    public void replaceContent(InMemoryNodeModel source,
+            NodeKeyResolver<ImmutableNode> resolver)
+    {
+        if (source == null)
+        {
+            throw new IllegalArgumentException(
+                    "Source model must not be null!");
+        }
+
+        TreeData sourceData = source.getTreeData();
+        boolean done;
+        do
+        {
+            TreeData current = structure.get();
+            TreeData temp =
+                    sourceData.updateNodeTracker(current.getNodeTracker());
+            done =
+                    structure.compareAndSet(current, temp.updateNodeTracker(temp
+                            .getNodeTracker().update(sourceData.getRootNode(),
+                                    null, resolver, temp)));
+        } while (!done);
+    }
+
     /**
      * Merges the root node of this model with the specified node. This method
      * is typically caused by configuration implementations when a configuration
@@ -892,7 +972,7 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode>
     {
         return new TreeData(root, createParentMapping(root),
                 Collections.<ImmutableNode, ImmutableNode> emptyMap(),
-                newTracker, new ReferenceTracker());
+                newTracker, new ReferenceTracker(), attributeIndex);
     }
 
     /**
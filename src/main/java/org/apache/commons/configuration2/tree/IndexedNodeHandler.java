@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree;
+
+import java.util.List;
+
+/**
+ * <p>
+ * An extension of the {@code NodeHandler} interface which supports efficient
+ * searches for child nodes based on the values of their attributes.
+ * </p>
+ * <p>
+ * Queries like <em>the {@code server} element whose {@code name} attribute
+ * has the value {@code db7}</em> normally require a linear scan over all
+ * children of the parent node. A {@code NodeHandler} implementing this
+ * interface may use an index to answer such queries faster. Components
+ * evaluating queries (e.g. expression engines) can check whether the
+ * {@code NodeHandler} they operate on implements this interface and use it if
+ * this is the case.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.2
+ * @param <T> the type of the nodes supported by this handler
+ */
+public interface IndexedNodeHandler<T> extends NodeHandler<T>
+{
+    /**
+     * Returns a list with all child nodes of the given parent node which have
+     * the specified name and an attribute with the given name and value.
+     * Attribute values are compared based on their string representation.
+     * The child nodes are returned in the order in which they appear below
+     * the parent node. If there are no matching children, result is an empty
+     * list.
+     *
+     * @param parent the parent node
+     * @param childName the name of the child nodes
+     * @param attrName the name of the attribute
+     * @param value the expected value of the attribute
+     * @return a list with the matching child nodes
+     */
+    List<T> getChildrenByAttribute(T parent, String childName,
+            String attrName, Object value);
+}
@@ -323,8 +323,8 @@ class ModelTransaction
         updateParentMapping();
         return new TreeData(newRoot, parentMapping, replacementMapping,
                 currentData.getNodeTracker().update(newRoot, rootNodeSelector,
-                        getResolver(), getCurrentData()), updateReferenceTracker()
-        );
+                        getResolver(), getCurrentData()), updateReferenceTracker(),
+                currentData.getAttributeIndex());
     }
 
     /**
@@ -16,9 +16,19 @@
  */
 package org.apache.commons.configuration2.tree;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
 
 /**
  * <p>
@@ -43,6 +53,17 @@ import java.util.Set;
  * nodes. For this purpose the {@code addListNode()} method exists. It
  * can be passed the name of a node, which should be considered a list node.
  * </p>
+ * <p>
+ * Combining large node structures can be expensive. Therefore, a combiner can
+ * be configured with an {@code Executor}. If one is set, child nodes whose
+ * subtrees contain at least a configurable number of nodes (the
+ * <em>parallel threshold</em>) are combined as separate tasks using this
+ * executor. The thread which triggered such tasks executes pending tasks
+ * itself while waiting for their results; so a bounded thread pool can be
+ * used without the risk of a deadlock. Concrete sub classes make use of this
+ * mechanism by passing the pairs of child nodes to be combined to the
+ * {@link #combineChildren(List, List)} method.
+ * </p>
  *
  * @version $Id$
  * @since 1.3
@@ -58,9 +79,30 @@ public abstract class NodeCombiner
     protected static final NodeHandler<ImmutableNode> HANDLER =
             createNodeHandler();
 
+    /**
+     * Constant for the default parallel threshold. This is the minimum number
+     * of nodes in a pair of subtrees to be combined in a separate task.
+     *
+     * @since 2.2
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 10000;
+
+    /**
+     * Stores a flag whether the current thread combines a subtree which is too
+     * small to be split into parallel tasks.
+     */
+    private static final ThreadLocal<Boolean> SEQUENTIAL =
+            new ThreadLocal<Boolean>();
+
     /** Stores a list with node names that are known to be list nodes. */
     private final Set<String> listNodes;
 
+    /** The executor for parallel combination. */
+    private volatile Executor executor;
+
+    /** The minimum size of subtrees to be combined in parallel. */
+    private volatile int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
     /**
      * Creates a new instance of {@code NodeCombiner}.
      */
@@ -103,6 +145,81 @@ public abstract class NodeCombiner
         return listNodes.contains(node.getNodeName());
     }
 
+    /**
+     * Returns the {@code Executor} used for combining subtrees in parallel.
+     * Result is <b>null</b> if parallel combination is disabled.
+     *
+     * @return the {@code Executor}
+     * @since 2.2
+     */
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * Sets the {@code Executor} for combining subtrees in parallel. If set,
+     * subtrees above the parallel threshold are combined in tasks passed to
+     * this executor. A value of <b>null</b> (which is the default) disables
+     * parallel combination.
+     *
+     * @param executor the {@code Executor}
+     * @since 2.2
+     */
+    public void setExecutor(Executor executor)
+    {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the parallel threshold. This is the minimum number of nodes
+     * contained in two subtrees which causes them to be combined in a separate
+     * task.
+     *
+     * @return the parallel threshold
+     * @since 2.2
+     */
+    public int getParallelThreshold()
+    {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets the parallel threshold. This value has only an effect if an
+     * {@code Executor} is set.
+     *
+     * @param parallelThreshold the parallel threshold (must be greater than 0)
+     * @throws IllegalArgumentException if the threshold is not positive
+     * @since 2.2
+     */
+    public void setParallelThreshold(int parallelThreshold)
+    {
+        if (parallelThreshold <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Parallel threshold must be greater than 0!");
+        }
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Returns a flag whether the combination operation implemented by this
+     * object is associative. If this is the case, multiple node structures
+     * can be combined in arbitrary groups. {@link #combineAll(List)} then
+     * performs a tree reduction instead of combining the structures one after
+     * the other, which allows further parallelism. This base implementation
+     * returns <b>false</b>. The combiners shipped with this library are not
+     * associative: for instance, whether a node is a list node may depend on
+     * the number of equally named nodes in the structures combined so far.
+     *
+     * @return a flag whether this combiner is associative
+     * @since 2.2
+     */
+    public boolean isAssociative()
+    {
+        return false;
+    }
+
     /**
      * Combines the hierarchies represented by the given root nodes. This method
      * must be defined in concrete sub classes with the implementation of a
@@ -115,6 +232,270 @@ public abstract class NodeCombiner
     public abstract ImmutableNode combine(ImmutableNode node1,
             ImmutableNode node2);
 
+    /**
+     * Combines all the node structures in the given list. The list must not
+     * be empty. The nodes are combined from left to right, i.e. the first node
+     * takes the role of {@code node1} when calling
+     * {@link #combine(ImmutableNode, ImmutableNode)} with the second one; the
+     * result is then combined with the third node and so on. If this combiner
+     * is associative and an {@code Executor} is set, pairs of structures are
+     * combined in parallel in a tree reduction.
+     *
+     * @param roots the list with the root nodes to be combined
+     * @return the root node of the resulting combined node structure
+     * @throws IllegalArgumentException if the list is <b>null</b> or empty
+     * @since 2.2
+     */
+    public ImmutableNode combineAll(List<ImmutableNode> roots)
+    {
+        if (roots == null || roots.isEmpty())
+        {
+            throw new IllegalArgumentException(
+                    "List with nodes must not be empty!");
+        }
+
+        if (isAssociative() && getExecutor() != null)
+        {
+            return reduceParallel(roots);
+        }
+
+        Iterator<ImmutableNode> it = roots.iterator();
+        ImmutableNode node = it.next();
+        while (it.hasNext())
+        {
+            node = combine(node, it.next());
+        }
+        return node;
+    }
+
+    /**
+     * Combines pairs of child nodes. This method can be called by concrete
+     * implementations after they have determined which child nodes are to be
+     * combined. The passed in lists must have the same size. For each element
+     * of the first list, the corresponding element in the second list is
+     * checked: if it is <b>null</b>, the child node is not combined and added
+     * unchanged to the resulting list. Otherwise, the result of a recursive
+     * call of {@link #combine(ImmutableNode, ImmutableNode)} is added. If an
+     * {@code Executor} is set, large subtrees are combined in parallel. The
+     * order of the resulting list is not affected by this.
+     *
+     * @param children1 the list with child nodes of the first node
+     * @param children2 the list with the corresponding children of the second
+     *        node (elements may be <b>null</b>)
+     * @return the list with the resulting child nodes
+     * @since 2.2
+     */
+    protected List<ImmutableNode> combineChildren(
+            List<ImmutableNode> children1, List<ImmutableNode> children2)
+    {
+        List<ImmutableNode> result =
+                new ArrayList<ImmutableNode>(children1.size());
+        Executor exec = getExecutor();
+        if (exec == null || Boolean.TRUE.equals(SEQUENTIAL.get()))
+        {
+            for (int i = 0; i < children1.size(); i++)
+            {
+                ImmutableNode child2 = children2.get(i);
+                result.add((child2 == null) ? children1.get(i) : combine(
+                        children1.get(i), child2));
+            }
+            return result;
+        }
+
+        List<FutureTask<ImmutableNode>> tasks =
+                new ArrayList<FutureTask<ImmutableNode>>(children1.size());
+        int threshold = getParallelThreshold();
+        for (int i = 0; i < children1.size(); i++)
+        {
+            ImmutableNode child1 = children1.get(i);
+            ImmutableNode child2 = children2.get(i);
+            FutureTask<ImmutableNode> task = null;
+            if (child2 == null)
+            {
+                result.add(child1);
+            }
+            else if (countNodes(child1, threshold)
+                    + countNodes(child2, threshold) < threshold)
+            {
+                result.add(combineSequentially(child1, child2));
+            }
+            else
+            {
+                task = fork(exec, createCombineTask(child1, child2));
+                result.add(null);
+            }
+            tasks.add(task);
+        }
+
+        for (int i = 0; i < tasks.size(); i++)
+        {
+            if (tasks.get(i) != null)
+            {
+                result.set(i, join(tasks.get(i)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Combines a list of node structures in parallel in a tree reduction. On
+     * each level, adjacent pairs of nodes are combined by separate tasks.
+     *
+     * @param roots the list with root nodes
+     * @return the combined root node
+     */
+    private ImmutableNode reduceParallel(List<ImmutableNode> roots)
+    {
+        List<ImmutableNode> level = roots;
+        while (level.size() > 1)
+        {
+            List<FutureTask<ImmutableNode>> tasks =
+                    new ArrayList<FutureTask<ImmutableNode>>();
+            for (int i = 0; i + 1 < level.size(); i += 2)
+            {
+                tasks.add(fork(getExecutor(),
+                        createCombineTask(level.get(i), level.get(i + 1))));
+            }
+
+            List<ImmutableNode> nextLevel =
+                    new ArrayList<ImmutableNode>((level.size() + 1) / 2);
+            for (FutureTask<ImmutableNode> task : tasks)
+            {
+                nextLevel.add(join(task));
+            }
+            if (level.size() % 2 != 0)
+            {
+                nextLevel.add(level.get(level.size() - 1));
+            }
+            level = nextLevel;
+        }
+        return level.get(0);
+    }
+
+    /**
+     * Combines the given nodes in the current thread without creating
+     * further parallel tasks.
+     *
+     * @param node1 the first node
+     * @param node2 the second node
+     * @return the combined node
+     */
+    private ImmutableNode combineSequentially(ImmutableNode node1,
+            ImmutableNode node2)
+    {
+        SEQUENTIAL.set(Boolean.TRUE);
+        try
+        {
+            return combine(node1, node2);
+        }
+        finally
+        {
+            SEQUENTIAL.remove();
+        }
+    }
+
+    /**
+     * Creates a task which combines the given nodes.
+     *
+     * @param node1 the first node
+     * @param node2 the second node
+     * @return the task
+     */
+    private FutureTask<ImmutableNode> createCombineTask(
+            final ImmutableNode node1, final ImmutableNode node2)
+    {
+        return new FutureTask<ImmutableNode>(new Callable<ImmutableNode>()
+        {
+            public ImmutableNode call() throws Exception
+            {
+                return combine(node1, node2);
+            }
+        });
+    }
+
+    /**
+     * Passes the given task to the executor. If the executor rejects the
+     * task, it is executed later by the thread waiting for its result.
+     *
+     * @param exec the {@code Executor}
+     * @param task the task
+     * @return the task
+     */
+    private static FutureTask<ImmutableNode> fork(Executor exec,
+            FutureTask<ImmutableNode> task)
+    {
+        try
+        {
+            exec.execute(task);
+        }
+        catch (RejectedExecutionException rex)
+        {
+            // the task is executed by join()
+        }
+        return task;
+    }
+
+    /**
+     * Waits for the result of the given task. If the task has not yet been
+     * started by the executor, it is executed in the current thread. So the
+     * current thread never blocks on a task which is waiting for a free
+     * thread.
+     *
+     * @param task the task
+     * @return the result of the task
+     * @throws ConfigurationRuntimeException if the task failed with a checked
+     *         exception or the thread was interrupted
+     */
+    private static ImmutableNode join(FutureTask<ImmutableNode> task)
+    {
+        task.run(); // has no effect if the task is already running or done
+        try
+        {
+            return task.get();
+        }
+        catch (InterruptedException iex)
+        {
+            Thread.currentThread().interrupt();
+            throw new ConfigurationRuntimeException(
+                    "Interrupted while combining nodes", iex);
+        }
+        catch (ExecutionException eex)
+        {
+            Throwable cause = eex.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new ConfigurationRuntimeException(cause);
+        }
+    }
+
+    /**
+     * Counts the nodes in the given subtree. Counting stops when the given
+     * limit is reached.
+     *
+     * @param node the root node of the subtree
+     * @param limit the limit
+     * @return the number of nodes (at most the limit)
+     */
+    private static int countNodes(ImmutableNode node, int limit)
+    {
+        int count = 1;
+        for (ImmutableNode child : node.getChildren())
+        {
+            if (count >= limit)
+            {
+                break;
+            }
+            count += countNodes(child, limit - count);
+        }
+        return count;
+    }
+
     /**
      * Creates a node handler object for immutable nodes which can be used by
      * sub classes to perform advanced operations on nodes.
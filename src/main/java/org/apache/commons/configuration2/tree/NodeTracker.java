@@ -17,8 +17,6 @@
 package org.apache.commons.configuration2.tree;
 
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -55,7 +53,10 @@ import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
  * <p>
  * Implementation note: This class is intended to work in a concurrent
  * environment. Instances are immutable. The represented state can be updated by
- * creating new instances which are then stored by the owning node model.
+ * creating new instances which are then stored by the owning node model. The
+ * data about tracked nodes is stored in a {@link HashTrieMap}; so the costs of
+ * adding or removing a tracked node do not depend on the number of nodes
+ * which are currently tracked.
  * </p>
  *
  * @version $Id$
@@ -64,7 +65,7 @@ import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
 class NodeTracker
 {
     /** A map with data about tracked nodes. */
-    private final Map<NodeSelector, TrackedNodeData> trackedNodes;
+    private final HashTrieMap<NodeSelector, TrackedNodeData> trackedNodes;
 
     /**
      * Creates a new instance of {@code NodeTracker}. This instance does not yet
@@ -72,7 +73,7 @@ class NodeTracker
      */
     public NodeTracker()
     {
-        this(Collections.<NodeSelector, TrackedNodeData> emptyMap());
+        this(HashTrieMap.<NodeSelector, TrackedNodeData> empty());
     }
 
     /**
@@ -82,7 +83,7 @@ class NodeTracker
      *
      * @param map the map with tracked nodes
      */
-    private NodeTracker(Map<NodeSelector, TrackedNodeData> map)
+    private NodeTracker(HashTrieMap<NodeSelector, TrackedNodeData> map)
     {
         trackedNodes = map;
     }
@@ -104,14 +105,11 @@ class NodeTracker
             NodeKeyResolver<ImmutableNode> resolver,
             NodeHandler<ImmutableNode> handler)
     {
-        Map<NodeSelector, TrackedNodeData> newState =
-                new HashMap<NodeSelector, TrackedNodeData>(trackedNodes);
-        TrackedNodeData trackData = newState.get(selector);
-        newState.put(
+        TrackedNodeData trackData = trackedNodes.get(selector);
+        return new NodeTracker(trackedNodes.put(
                 selector,
                 trackDataForAddedObserver(root, selector, resolver, handler,
-                        trackData));
-        return new NodeTracker(newState);
+                        trackData)));
     }
 
     /**
@@ -125,8 +123,7 @@ class NodeTracker
     public NodeTracker trackNodes(Collection<NodeSelector> selectors,
             Collection<ImmutableNode> nodes)
     {
-        Map<NodeSelector, TrackedNodeData> newState =
-                new HashMap<NodeSelector, TrackedNodeData>(trackedNodes);
+        HashTrieMap<NodeSelector, TrackedNodeData> newState = trackedNodes;
         Iterator<ImmutableNode> itNodes = nodes.iterator();
         for (NodeSelector selector : selectors)
         {
@@ -140,7 +137,7 @@ class NodeTracker
             {
                 trackData = trackData.observerAdded();
             }
-            newState.put(selector, trackData);
+            newState = newState.put(selector, trackData);
         }
 
         return new NodeTracker(newState);
@@ -160,18 +157,9 @@ class NodeTracker
     {
         TrackedNodeData trackData = getTrackedNodeData(selector);
 
-        Map<NodeSelector, TrackedNodeData> newState =
-                new HashMap<NodeSelector, TrackedNodeData>(trackedNodes);
         TrackedNodeData newTrackData = trackData.observerRemoved();
-        if (newTrackData == null)
-        {
-            newState.remove(selector);
-        }
-        else
-        {
-            newState.put(selector, newTrackData);
-        }
-        return new NodeTracker(newState);
+        return new NodeTracker((newTrackData == null) ? trackedNodes
+                .remove(selector) : trackedNodes.put(selector, newTrackData));
     }
 
     /**
@@ -229,7 +217,9 @@ class NodeTracker
      * case: if the tracked node becomes detached by an operation targeting
      * itself, this means that the node has been cleared by this operation. In
      * this case, the previous node instance is not used, but an empty node is
-     * created.
+     * created. Note that the cost of this method is linear in the number of
+     * tracked nodes because all selectors have to be evaluated; only the data
+     * of tracked nodes which actually changed is copied.
      *
      * @param root the root node
      * @param txTarget the {@code NodeSelector} referencing the target node of
@@ -238,9 +228,10 @@ class NodeTracker
      * @param handler the {@code NodeHandler}
      * @return the updated instance
      */
-    public NodeTracker update(ImmutableNode root, NodeSelector txTarget,
-            NodeKeyResolver<ImmutableNode> resolver,
-            NodeHandler<ImmutableNode> handler)
+    public NodeTracker update(final ImmutableNode root,
+            final NodeSelector txTarget,
+            final NodeKeyResolver<ImmutableNode> resolver,
+            final NodeHandler<ImmutableNode> handler)
     {
         if (trackedNodes.isEmpty())
         {
@@ -248,18 +239,17 @@ class NodeTracker
             return this;
         }
 
-        Map<NodeSelector, TrackedNodeData> newState =
-                new HashMap<NodeSelector, TrackedNodeData>();
-        for (Map.Entry<NodeSelector, TrackedNodeData> e : trackedNodes
-                .entrySet())
-        {
-            newState.put(
-                    e.getKey(),
-                    determineUpdatedTrackedNodeData(root, txTarget, resolver,
-                            handler, e));
-        }
-
-        return new NodeTracker(newState);
+        HashTrieMap.ValueTransformer<NodeSelector, TrackedNodeData> updater =
+                new HashTrieMap.ValueTransformer<NodeSelector, TrackedNodeData>()
+                {
+                    public TrackedNodeData transform(
+                            Map.Entry<NodeSelector, TrackedNodeData> e)
+                    {
+                        return determineUpdatedTrackedNodeData(root, txTarget,
+                                resolver, handler, e);
+                    }
+                };
+        return new NodeTracker(trackedNodes.transformValues(updater));
     }
 
     /**
@@ -277,18 +267,17 @@ class NodeTracker
             return this;
         }
 
-        Map<NodeSelector, TrackedNodeData> newState =
-                new HashMap<NodeSelector, TrackedNodeData>();
-        for (Map.Entry<NodeSelector, TrackedNodeData> e : trackedNodes
-                .entrySet())
-        {
-            TrackedNodeData newData =
-                    e.getValue().isDetached() ? e.getValue() : e.getValue()
-                            .detach(null);
-            newState.put(e.getKey(), newData);
-        }
-
-        return new NodeTracker(newState);
+        HashTrieMap.ValueTransformer<NodeSelector, TrackedNodeData> detacher =
+                new HashTrieMap.ValueTransformer<NodeSelector, TrackedNodeData>()
+                {
+                    public TrackedNodeData transform(
+                            Map.Entry<NodeSelector, TrackedNodeData> e)
+                    {
+                        return e.getValue().isDetached() ? e.getValue() : e
+                                .getValue().detach(null);
+                    }
+                };
+        return new NodeTracker(trackedNodes.transformValues(detacher));
     }
 
     /**
@@ -303,10 +292,8 @@ class NodeTracker
     public NodeTracker replaceAndDetachTrackedNode(NodeSelector selector,
             ImmutableNode newNode)
     {
-        Map<NodeSelector, TrackedNodeData> newState =
-                new HashMap<NodeSelector, TrackedNodeData>(trackedNodes);
-        newState.put(selector, getTrackedNodeData(selector).detach(newNode));
-        return new NodeTracker(newState);
+        return new NodeTracker(trackedNodes.put(selector,
+                getTrackedNodeData(selector).detach(newNode)));
     }
 
     /**
@@ -542,15 +529,16 @@ class NodeTracker
 
         /**
          * Updates the node reference. This method is called after an update of
-         * the underlying node structure if the tracked node was replaced by
-         * another instance.
+         * the underlying node structure. If the tracked node has not been
+         * replaced by another instance, this object is returned.
          *
          * @param newNode the new tracked node instance
          * @return the updated instance
          */
         public TrackedNodeData updateNode(ImmutableNode newNode)
         {
-            return new TrackedNodeData(newNode, observerCount, getDetachedModel());
+            return (newNode == node) ? this : new TrackedNodeData(newNode,
+                    observerCount, getDetachedModel());
         }
 
         /**
@@ -29,7 +29,8 @@ import java.util.Map;
  * @version $Id$
  * @since 2.0
  */
-class TreeData extends AbstractImmutableNodeHandler implements ReferenceNodeHandler
+class TreeData extends AbstractImmutableNodeHandler implements
+        ReferenceNodeHandler, IndexedNodeHandler<ImmutableNode>
 {
     /** The root node of the tree. */
     private final ImmutableNode root;
@@ -53,6 +54,9 @@ class TreeData extends AbstractImmutableNodeHandler implements ReferenceNodeHand
     /** The reference tracker. */
     private final ReferenceTracker referenceTracker;
 
+    /** The index for searching nodes by attribute values. */
+    private final AttributeIndex attributeIndex;
+
     /**
      * Creates a new instance of {@code TreeData} and initializes it with all
      * data to be stored.
@@ -62,11 +66,13 @@ class TreeData extends AbstractImmutableNodeHandler implements ReferenceNodeHand
      * @param replacements the map with the nodes that have been replaced
      * @param tracker the {@code NodeTracker}
      * @param refTracker the {@code ReferenceTracker}
+     * @param index the {@code AttributeIndex}
      */
     public TreeData(ImmutableNode root,
             Map<ImmutableNode, ImmutableNode> parentMapping,
             Map<ImmutableNode, ImmutableNode> replacements,
-            NodeTracker tracker, ReferenceTracker refTracker)
+            NodeTracker tracker, ReferenceTracker refTracker,
+            AttributeIndex index)
     {
         this.root = root;
         this.parentMapping = parentMapping;
@@ -74,6 +80,7 @@ class TreeData extends AbstractImmutableNodeHandler implements ReferenceNodeHand
         inverseReplacementMapping = createInverseMapping(replacements);
         nodeTracker = tracker;
         referenceTracker = refTracker;
+        attributeIndex = index;
     }
 
     @Override
@@ -102,6 +109,28 @@ class TreeData extends AbstractImmutableNodeHandler implements ReferenceNodeHand
         return referenceTracker;
     }
 
+    /**
+     * Returns the {@code AttributeIndex}.
+     *
+     * @return the {@code AttributeIndex}
+     */
+    public AttributeIndex getAttributeIndex()
+    {
+        return attributeIndex;
+    }
+
+    /**
+     * {@inheritDoc} This implementation delegates to the
+     * {@code AttributeIndex}.
+     */
+    @Override
+    public List<ImmutableNode> getChildrenByAttribute(ImmutableNode parent,
+            String childName, String attrName, Object value)
+    {
+        return attributeIndex.getChildrenByAttribute(parent, childName,
+                attrName, value);
+    }
+
     /**
      * Returns the parent node of the specified node. Result is <b>null</b>
      * for the root node. If the passed in node cannot be resolved, an
@@ -160,7 +189,7 @@ class TreeData extends AbstractImmutableNodeHandler implements ReferenceNodeHand
     public TreeData updateNodeTracker(NodeTracker newTracker)
     {
         return new TreeData(root, parentMapping, replacementMapping,
-                newTracker, referenceTracker);
+                newTracker, referenceTracker, attributeIndex);
     }
 
     /**
@@ -174,7 +203,7 @@ class TreeData extends AbstractImmutableNodeHandler implements ReferenceNodeHand
     public TreeData updateReferenceTracker(ReferenceTracker newTracker)
     {
         return new TreeData(root, parentMapping, replacementMapping,
-                nodeTracker, newTracker);
+                nodeTracker, newTracker, attributeIndex);
     }
 
     /**
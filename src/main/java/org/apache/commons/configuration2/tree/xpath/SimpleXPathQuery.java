@@ -0,0 +1,448 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree.xpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.configuration2.tree.IndexedNodeHandler;
+import org.apache.commons.configuration2.tree.NodeHandler;
+import org.apache.commons.configuration2.tree.QueryResult;
+
+/**
+ * <p>
+ * An internally used helper class representing a simple XPath expression
+ * which can be evaluated by directly navigating through a node structure.
+ * </p>
+ * <p>
+ * Many keys passed to {@link XPathExpressionEngine} consist only of a sequence
+ * of child steps, optionally with a numeric index or a predicate comparing an
+ * attribute with a string literal, and an optional attribute step at the end,
+ * for instance {@code tables/table[2]/@name} or
+ * {@code servers/server[@name='db7']/port}. For such keys the overhead of
+ * JXPath is not necessary; they can be resolved using the methods of a
+ * {@code NodeHandler}. This class checks whether a key has this simple form
+ * and, if so, evaluates it with the same results as JXPath.
+ * </p>
+ * <p>
+ * If the {@code NodeHandler} implements the {@link IndexedNodeHandler}
+ * interface, attribute predicates are evaluated using its
+ * {@code getChildrenByAttribute()} method, which may be backed by an index.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.2
+ */
+final class SimpleXPathQuery
+{
+    /** Constant for the path delimiter. */
+    private static final char PATH_DELIMITER = '/';
+
+    /** Constant for the attribute prefix. */
+    private static final char ATTR_PREFIX = '@';
+
+    /** Constant for the start of an index. */
+    private static final char START_INDEX = '[';
+
+    /** Constant for the end of an index. */
+    private static final char END_INDEX = ']';
+
+    /** Constant for the single quote character. */
+    private static final char QUOTE = '\'';
+
+    /** Constant for the double quote character. */
+    private static final char DOUBLE_QUOTE = '"';
+
+    /** Constant for the operator of an attribute predicate. */
+    private static final char EQUALS = '=';
+
+    /** Constant for the maximum number of digits of an index. */
+    private static final int MAX_INDEX_DIGITS = 9;
+
+    /** The steps of this query. */
+    private final List<Step> steps;
+
+    /**
+     * Creates a new instance of {@code SimpleXPathQuery} with the given steps.
+     *
+     * @param steps the list of steps
+     */
+    private SimpleXPathQuery(List<Step> steps)
+    {
+        this.steps = steps;
+    }
+
+    /**
+     * Parses the given key. If it is a simple path, a corresponding query
+     * object is returned. Otherwise, result is <b>null</b>; then the key has to
+     * be evaluated by JXPath.
+     *
+     * @param key the key to be parsed
+     * @return the query object for this key or <b>null</b>
+     */
+    public static SimpleXPathQuery parse(String key)
+    {
+        List<Step> steps = new ArrayList<Step>();
+        int pos = 0;
+        while (true)
+        {
+            int end = key.indexOf(PATH_DELIMITER, pos);
+            boolean last = end < 0;
+            if (last)
+            {
+                end = key.length();
+            }
+            Step step = parseStep(key.substring(pos, end), last);
+            if (step == null)
+            {
+                return null;
+            }
+            steps.add(step);
+            if (last)
+            {
+                return new SimpleXPathQuery(steps);
+            }
+            pos = end + 1;
+        }
+    }
+
+    /**
+     * Evaluates this query on the given node structure.
+     *
+     * @param root the root node
+     * @param handler the node handler
+     * @param <T> the type of the nodes involved
+     * @return a list with the results of this query
+     */
+    public <T> List<QueryResult<T>> execute(T root, NodeHandler<T> handler)
+    {
+        List<T> nodes = Collections.singletonList(root);
+        for (Step step : steps)
+        {
+            if (step.isAttribute())
+            {
+                return selectAttributes(nodes, step.getName(), handler);
+            }
+            nodes = selectChildren(nodes, step, handler);
+        }
+
+        List<QueryResult<T>> results =
+                new ArrayList<QueryResult<T>>(nodes.size());
+        for (T node : nodes)
+        {
+            results.add(QueryResult.createNodeResult(node));
+        }
+        return results;
+    }
+
+    /**
+     * Selects the children of the given nodes matching the specified step.
+     *
+     * @param nodes the current list of nodes
+     * @param step the step
+     * @param handler the node handler
+     * @param <T> the type of the nodes involved
+     * @return the list with the selected child nodes
+     */
+    private static <T> List<T> selectChildren(List<T> nodes, Step step,
+            NodeHandler<T> handler)
+    {
+        List<T> children = new ArrayList<T>();
+        for (T node : nodes)
+        {
+            if (step.getPredicateAttribute() != null)
+            {
+                children.addAll(selectChildrenByAttribute(node, step, handler));
+                continue;
+            }
+
+            List<T> namedChildren = handler.getChildren(node, step.getName());
+            if (step.getIndex() > 0)
+            {
+                if (step.getIndex() <= namedChildren.size())
+                {
+                    children.add(namedChildren.get(step.getIndex() - 1));
+                }
+            }
+            else
+            {
+                children.addAll(namedChildren);
+            }
+        }
+        return children;
+    }
+
+    /**
+     * Selects the children of the given node matching a step with an
+     * attribute predicate. If supported by the node handler, an index is used.
+     *
+     * @param node the parent node
+     * @param step the step
+     * @param handler the node handler
+     * @param <T> the type of the nodes involved
+     * @return the list with the selected child nodes
+     */
+    private static <T> List<T> selectChildrenByAttribute(T node, Step step,
+            NodeHandler<T> handler)
+    {
+        if (handler instanceof IndexedNodeHandler)
+        {
+            @SuppressWarnings("unchecked")
+            IndexedNodeHandler<T> indexedHandler =
+                    (IndexedNodeHandler<T>) handler;
+            return indexedHandler.getChildrenByAttribute(node, step.getName(),
+                    step.getPredicateAttribute(), step.getPredicateValue());
+        }
+
+        List<T> children = new ArrayList<T>();
+        for (T child : handler.getChildren(node, step.getName()))
+        {
+            Object value =
+                    handler.getAttributeValue(child,
+                            step.getPredicateAttribute());
+            if (value != null
+                    && step.getPredicateValue().equals(String.valueOf(value)))
+            {
+                children.add(child);
+            }
+        }
+        return children;
+    }
+
+    /**
+     * Selects the attribute with the given name from the specified nodes.
+     * Only nodes which actually have this attribute produce a result.
+     *
+     * @param nodes the current list of nodes
+     * @param name the name of the attribute
+     * @param handler the node handler
+     * @param <T> the type of the nodes involved
+     * @return the list with the attribute results
+     */
+    private static <T> List<QueryResult<T>> selectAttributes(List<T> nodes,
+            String name, NodeHandler<T> handler)
+    {
+        List<QueryResult<T>> results = new ArrayList<QueryResult<T>>();
+        for (T node : nodes)
+        {
+            if (handler.getAttributeValue(node, name) != null)
+            {
+                results.add(QueryResult.createAttributeResult(node, name));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Parses a single component of a key. Result is <b>null</b> if the
+     * component is not simple.
+     *
+     * @param component the component to be parsed
+     * @param last a flag whether this is the last component
+     * @return the corresponding step or <b>null</b>
+     */
+    private static Step parseStep(String component, boolean last)
+    {
+        if (component.length() > 0 && component.charAt(0) == ATTR_PREFIX)
+        {
+            String name = component.substring(1);
+            return (last && isSimpleName(name)) ? new Step(name, 0, true,
+                    null, null) : null;
+        }
+
+        int indexPos = component.indexOf(START_INDEX);
+        if (indexPos < 0)
+        {
+            return isSimpleName(component) ? new Step(component, 0, false,
+                    null, null) : null;
+        }
+
+        String name = component.substring(0, indexPos);
+        if (!isSimpleName(name))
+        {
+            return null;
+        }
+        String predicate = component.substring(indexPos + 1);
+        if (predicate.length() > 0 && predicate.charAt(0) == ATTR_PREFIX)
+        {
+            return parseAttributePredicate(name, predicate.substring(1));
+        }
+        int index = parseIndex(predicate);
+        return (index > 0) ? new Step(name, index, false, null, null) : null;
+    }
+
+    /**
+     * Parses an attribute predicate of the form
+     * {@code attr='value'}. The passed in string must contain the part after
+     * the attribute prefix up to and including the end index character. The
+     * value can be enclosed in single or double quotes; it must not contain
+     * the quote character used. Result is <b>null</b> if the predicate does
+     * not have this form.
+     *
+     * @param name the name of the child nodes
+     * @param s the string to be parsed
+     * @return the corresponding step or <b>null</b>
+     */
+    private static Step parseAttributePredicate(String name, String s)
+    {
+        int eqPos = s.indexOf(EQUALS);
+        int len = s.length() - 1;
+        if (eqPos < 0 || eqPos + 2 >= len || s.charAt(len) != END_INDEX)
+        {
+            return null;
+        }
+
+        String attrName = s.substring(0, eqPos);
+        char quote = s.charAt(eqPos + 1);
+        if (!isSimpleName(attrName)
+                || (quote != QUOTE && quote != DOUBLE_QUOTE)
+                || s.charAt(len - 1) != quote)
+        {
+            return null;
+        }
+        String value = s.substring(eqPos + 2, len - 1);
+        return (value.indexOf(quote) < 0) ? new Step(name, 0, false,
+                attrName, value) : null;
+    }
+
+    /**
+     * Parses the index of a step. The passed in string must consist of
+     * digits followed by the end index character. Result is 0 if it does not
+     * have this form.
+     *
+     * @param s the string to be parsed
+     * @return the index or 0
+     */
+    private static int parseIndex(String s)
+    {
+        int len = s.length() - 1;
+        if (len < 1 || len > MAX_INDEX_DIGITS || s.charAt(len) != END_INDEX)
+        {
+            return 0;
+        }
+
+        int index = 0;
+        for (int i = 0; i < len; i++)
+        {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9')
+            {
+                return 0;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+    /**
+     * Checks whether the given string is a simple name which can be matched
+     * directly against node names. Such a name must start with a letter or an
+     * underscore and can contain letters, digits, underscores, hyphens, and
+     * dots. Names with a namespace prefix are not considered simple.
+     *
+     * @param name the name to be checked
+     * @return a flag whether this is a simple name
+     */
+    private static boolean isSimpleName(String name)
+    {
+        if (name.length() == 0)
+        {
+            return false;
+        }
+        char first = name.charAt(0);
+        if (!Character.isLetter(first) && first != '_')
+        {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++)
+        {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-'
+                    && c != '.')
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A class representing a single step of a simple query.
+     */
+    private static final class Step
+    {
+        /** The name of the node or attribute. */
+        private final String name;
+
+        /** The index; 0 for all nodes. */
+        private final int index;
+
+        /** A flag whether an attribute is selected. */
+        private final boolean attribute;
+
+        /** The name of the attribute in a predicate. */
+        private final String predicateAttribute;
+
+        /** The expected value of the attribute in a predicate. */
+        private final String predicateValue;
+
+        /**
+         * Creates a new instance of {@code Step}.
+         *
+         * @param name the name
+         * @param index the index
+         * @param attribute the attribute flag
+         * @param predAttr the name of the attribute of a predicate
+         * @param predValue the value of the attribute of a predicate
+         */
+        public Step(String name, int index, boolean attribute,
+                String predAttr, String predValue)
+        {
+            this.name = name;
+            this.index = index;
+            this.attribute = attribute;
+            predicateAttribute = predAttr;
+            predicateValue = predValue;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public int getIndex()
+        {
+            return index;
+        }
+
+        public boolean isAttribute()
+        {
+            return attribute;
+        }
+
+        public String getPredicateAttribute()
+        {
+            return predicateAttribute;
+        }
+
+        public String getPredicateValue()
+        {
+            return predicateValue;
+        }
+    }
+}
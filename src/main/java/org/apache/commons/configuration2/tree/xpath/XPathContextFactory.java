@@ -17,6 +17,7 @@
 package org.apache.commons.configuration2.tree.xpath;
 
 import org.apache.commons.configuration2.tree.NodeHandler;
+import org.apache.commons.jxpath.CompiledExpression;
 import org.apache.commons.jxpath.JXPathContext;
 
 /**
@@ -47,4 +48,17 @@ class XPathContextFactory
         context.setLenient(true);
         return context;
     }
+
+    /**
+     * Compiles the given XPath expression. The resulting object can be
+     * evaluated on arbitrary contexts.
+     *
+     * @param xpath the XPath expression
+     * @return the compiled expression
+     * @since 2.2
+     */
+    public CompiledExpression compile(String xpath)
+    {
+        return JXPathContext.compile(xpath);
+    }
 }
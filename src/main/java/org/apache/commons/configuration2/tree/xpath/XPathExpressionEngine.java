@@ -18,15 +18,20 @@ package org.apache.commons.configuration2.tree.xpath;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.configuration2.tree.ExpressionEngine;
 import org.apache.commons.configuration2.tree.NodeAddData;
 import org.apache.commons.configuration2.tree.NodeHandler;
 import org.apache.commons.configuration2.tree.QueryResult;
+import org.apache.commons.jxpath.CompiledExpression;
 import org.apache.commons.jxpath.JXPathContext;
+import org.apache.commons.jxpath.Pointer;
 import org.apache.commons.jxpath.ri.JXPathContextReferenceImpl;
 import org.apache.commons.lang3.StringUtils;
 
@@ -133,6 +138,14 @@ import org.apache.commons.lang3.StringUtils;
  * should be added. For keys without a whitespace delimiter there may be
  * ambiguities.
  * </p>
+ * <p>
+ * Queries are compiled once and stored in a cache keyed by the query string.
+ * Simple keys consisting only of child steps with optional numeric indices and
+ * an optional trailing attribute step, e.g. {@code tables/table[2]/@name}, are
+ * not passed to JXPath at all; they are resolved by navigating directly
+ * through the node structure. JXPath is used only for complex expressions
+ * with other predicates, functions, or axes.
+ * </p>
  *
  * @since 1.3
  * @version $Id$
@@ -164,9 +177,19 @@ public class XPathExpressionEngine implements ExpressionEngine
     /** Constant for the end of an index expression. */
     private static final char END_INDEX = ']';
 
+    /** Constant for the maximum number of compiled queries to be cached. */
+    private static final int QUERY_CACHE_SIZE = 256;
+
     /** The internally used context factory. */
     private final XPathContextFactory contextFactory;
 
+    /**
+     * A cache for compiled queries. If it grows beyond its maximum size, it
+     * is cleared.
+     */
+    private final ConcurrentMap<String, CompiledQuery> queryCache =
+            new ConcurrentHashMap<String, CompiledQuery>();
+
     /**
      * Creates a new instance of {@code XPathExpressionEngine} with default
      * settings.
@@ -189,7 +212,8 @@ public class XPathExpressionEngine implements ExpressionEngine
 
     /**
      * {@inheritDoc} This implementation interprets the passed in key as an XPATH
-     * expression.
+     * expression. Simple keys are evaluated directly on the node structure;
+     * all other keys are evaluated by JXPath.
      */
     @Override
     public <T> List<QueryResult<T>> query(T root, String key,
@@ -202,13 +226,14 @@ public class XPathExpressionEngine implements ExpressionEngine
         }
         else
         {
-            JXPathContext context = createContext(root, handler);
-            List<?> results = context.selectNodes(key);
-            if (results == null)
+            CompiledQuery query = fetchCompiledQuery(key);
+            if (query.getSimpleQuery() != null)
             {
-                results = Collections.emptyList();
+                return query.getSimpleQuery().execute(root, handler);
             }
-            return convertResults(results);
+
+            JXPathContext context = createContext(root, handler);
+            return convertResults(selectNodes(context, query.getExpression()));
         }
     }
 
@@ -343,6 +368,60 @@ public class XPathExpressionEngine implements ExpressionEngine
         return getContextFactory().createContext(root, handler);
     }
 
+    /**
+     * Returns the compiled form of the given query key. The compiled query is
+     * obtained from the cache if possible; otherwise, it is created and stored
+     * in the cache. Cache hits do not require any locking. If the cache is
+     * full, it is cleared before a new query is added; so the set of cached
+     * queries adapts to the keys in use. If multiple threads compile the same
+     * query concurrently, one of the results is cached.
+     *
+     * @param key the query key
+     * @return the compiled query
+     */
+    private CompiledQuery fetchCompiledQuery(String key)
+    {
+        CompiledQuery query = queryCache.get(key);
+        if (query == null)
+        {
+            SimpleXPathQuery simpleQuery = SimpleXPathQuery.parse(key);
+            query =
+                    (simpleQuery != null) ? new CompiledQuery(simpleQuery,
+                            null) : new CompiledQuery(null,
+                            getContextFactory().compile(key));
+            if (queryCache.size() >= QUERY_CACHE_SIZE)
+            {
+                queryCache.clear();
+            }
+            CompiledQuery existing = queryCache.putIfAbsent(key, query);
+            if (existing != null)
+            {
+                query = existing;
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Evaluates a compiled JXPath expression on the given context and returns
+     * the list of selected nodes.
+     *
+     * @param context the context
+     * @param expression the compiled expression
+     * @return the list of selected nodes
+     */
+    private static List<Object> selectNodes(JXPathContext context,
+            CompiledExpression expression)
+    {
+        List<Object> nodes = new ArrayList<Object>();
+        Iterator<?> it = expression.iteratePointers(context);
+        while (it.hasNext())
+        {
+            nodes.add(((Pointer) it.next()).getNode());
+        }
+        return nodes;
+    }
+
     /**
      * Creates a {@code NodeAddData} object as a result of a
      * {@code prepareAdd()} operation. This method interprets the passed in path
@@ -558,6 +637,54 @@ public class XPathExpressionEngine implements ExpressionEngine
         }
     }
 
+    /**
+     * A class representing a compiled query. A query is either a simple query
+     * evaluated directly on the node structure or a compiled JXPath
+     * expression.
+     */
+    private static class CompiledQuery
+    {
+        /** The simple query. */
+        private final SimpleXPathQuery simpleQuery;
+
+        /** The compiled JXPath expression. */
+        private final CompiledExpression expression;
+
+        /**
+         * Creates a new instance of {@code CompiledQuery}. Exactly one of the
+         * parameters is not <b>null</b>.
+         *
+         * @param simple the simple query
+         * @param expr the compiled JXPath expression
+         */
+        public CompiledQuery(SimpleXPathQuery simple, CompiledExpression expr)
+        {
+            simpleQuery = simple;
+            expression = expr;
+        }
+
+        /**
+         * Returns the simple query. Result is <b>null</b> if this query has to
+         * be evaluated by JXPath.
+         *
+         * @return the simple query
+         */
+        public SimpleXPathQuery getSimpleQuery()
+        {
+            return simpleQuery;
+        }
+
+        /**
+         * Returns the compiled JXPath expression.
+         *
+         * @return the compiled expression
+         */
+        public CompiledExpression getExpression()
+        {
+            return expression;
+        }
+    }
+
     // static initializer: registers the configuration node pointer factory
     static
     {
@@ -19,6 +19,7 @@ package org.apache.commons.configuration2;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import javax.sql.DataSource;
@@ -27,6 +28,10 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.configuration2.builder.fluent.DatabaseBuilderParameters;
 import org.apache.commons.configuration2.convert.DefaultListDelimiterHandler;
@@ -35,6 +40,8 @@ import org.apache.commons.configuration2.event.ConfigurationEvent;
 import org.apache.commons.configuration2.event.ErrorListenerTestImpl;
 import org.apache.commons.configuration2.event.EventType;
 import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.commons.configuration2.reloading.DatabaseReloadingDetector;
+import org.apache.commons.configuration2.reloading.ReloadingController;
 import org.easymock.EasyMock;
 import org.junit.After;
 import org.junit.Before;
@@ -554,6 +561,489 @@ public class TestDatabaseConfiguration
         EasyMock.verify(rs, clob);
     }
 
+    /**
+     * Creates a database configuration with caching enabled.
+     *
+     * @param params the parameters for the configuration
+     * @return the configuration
+     * @throws ConfigurationException if an error occurs
+     */
+    private DatabaseConfiguration setUpCachedConfig(
+            DatabaseBuilderParameters params) throws ConfigurationException
+    {
+        return helper.createConfig(DatabaseConfiguration.class,
+                params.setCached(true));
+    }
+
+    /**
+     * Tests that a cached configuration does not query the database again
+     * after its data has been loaded.
+     */
+    @Test
+    public void testCachedGetProperty() throws ConfigurationException
+    {
+        DatabaseConfiguration config =
+                setUpCachedConfig(helper.setUpDefaultParameters());
+        DatabaseConfiguration config2 = helper.setUpConfig();
+        assertEquals("Wrong value", "value1", config.getProperty("key1"));
+        config2.setProperty("key1", "newValue");
+        assertEquals("Value not cached", "value1", config.getProperty("key1"));
+        assertNull("Unknown property found", config.getProperty("key3"));
+    }
+
+    /**
+     * Tests whether the cache can be invalidated.
+     */
+    @Test
+    public void testCachedInvalidate() throws ConfigurationException
+    {
+        DatabaseConfiguration config =
+                setUpCachedConfig(helper.setUpDefaultParameters());
+        DatabaseConfiguration config2 = helper.setUpConfig();
+        config.getProperty("key1");
+        config2.setProperty("key1", "newValue");
+        config.invalidateCache();
+        assertEquals("Cache not reloaded", "newValue",
+                config.getProperty("key1"));
+    }
+
+    /**
+     * Tests whether the cache expires after the timeout.
+     */
+    @Test
+    public void testCachedTimeout() throws ConfigurationException,
+            InterruptedException
+    {
+        DatabaseConfiguration config =
+                setUpCachedConfig(helper.setUpDefaultParameters()
+                        .setCacheTimeout(1));
+        DatabaseConfiguration config2 = helper.setUpConfig();
+        config.getProperty("key1");
+        config2.setProperty("key1", "newValue");
+        Thread.sleep(10);
+        assertEquals("Cache not reloaded", "newValue",
+                config.getProperty("key1"));
+    }
+
+    /**
+     * Tests that updates of a cached configuration are written to the database
+     * and to the cache.
+     */
+    @Test
+    public void testCachedWriteThrough() throws ConfigurationException
+    {
+        DatabaseConfiguration config =
+                setUpCachedConfig(helper.setUpMultiParameters(null));
+        DatabaseConfiguration config2 = helper.setUpMultiConfig();
+        config.getKeys();
+        config.setProperty("key2", "newValue");
+        config.addProperty("key3", "value3");
+        assertEquals("Wrong new value in cache", "value3",
+                config.getString("key3"));
+        assertEquals("Wrong updated value in cache", "newValue",
+                config.getString("key2"));
+        assertEquals("Wrong updated value in database", "newValue",
+                config2.getString("key2"));
+        assertEquals("Wrong new value in database", "value3",
+                config2.getString("key3"));
+    }
+
+    /**
+     * Tests that properties removed from a cached configuration are removed
+     * from the database and from the cache.
+     */
+    @Test
+    public void testCachedClearProperty() throws ConfigurationException
+    {
+        DatabaseConfiguration config =
+                setUpCachedConfig(helper.setUpDefaultParameters());
+        DatabaseConfiguration config2 = helper.setUpConfig();
+        assertTrue("Key not found", config.containsKey("key1"));
+        config.clearProperty("key1");
+        assertFalse("Key still in cache", config.containsKey("key1"));
+        assertFalse("Key still in database", config2.containsKey("key1"));
+    }
+
+    /**
+     * Tests a clear() operation on a cached configuration.
+     */
+    @Test
+    public void testCachedClear() throws ConfigurationException
+    {
+        DatabaseConfiguration config =
+                setUpCachedConfig(helper.setUpMultiParameters(null));
+        DatabaseConfiguration config2 = helper.setUpMultiConfig();
+        assertFalse("Cached configuration is empty", config.isEmpty());
+        config.clear();
+        assertTrue("Cache not cleared", config.isEmpty());
+        assertTrue("Database not cleared", config2.isEmpty());
+    }
+
+    /**
+     * Starts a thread which adds a property to the given configuration. The
+     * configuration is prepared to block when it obtains a connection for
+     * this update.
+     *
+     * @param config the configuration
+     * @param error a reference for storing an exception
+     * @return the thread
+     * @throws InterruptedException if waiting for the thread is interrupted
+     */
+    private static Thread startBlockingWrite(
+            final BlockingDatabaseConfiguration config,
+            final AtomicReference<Throwable> error) throws InterruptedException
+    {
+        config.blockNext.set(true);
+        Thread writer = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    config.addProperty("key3", "value3");
+                }
+                catch (Throwable t)
+                {
+                    error.set(t);
+                }
+            }
+        };
+        writer.start();
+        assertTrue("Write not started",
+                config.blocked.await(10, TimeUnit.SECONDS));
+        return writer;
+    }
+
+    /**
+     * Tests that read access to the cache is not blocked by a database update
+     * in progress.
+     */
+    @Test
+    public void testCachedReadDuringWrite() throws Exception
+    {
+        final BlockingDatabaseConfiguration config =
+                helper.createConfig(BlockingDatabaseConfiguration.class, helper
+                        .setUpDefaultParameters().setCached(true));
+        assertEquals("Wrong value", "value1", config.getString("key1"));
+        AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        Thread writer = startBlockingWrite(config, error);
+
+        final AtomicReference<Object> value = new AtomicReference<Object>();
+        Thread reader = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                value.set(config.getString("key1"));
+            }
+        };
+        reader.start();
+        reader.join(10000);
+        boolean readDone = !reader.isAlive();
+        config.proceed.countDown();
+        writer.join();
+        assertTrue("Read blocked by write", readDone);
+        assertEquals("Wrong value read", "value1", value.get());
+        assertNull("Got an exception", error.get());
+        assertEquals("Cache not updated", "value3", config.getString("key3"));
+    }
+
+    /**
+     * Tests that the cache is invalidated if it is reloaded while a database
+     * update is in progress.
+     */
+    @Test
+    public void testCachedReloadDuringWrite() throws Exception
+    {
+        BlockingDatabaseConfiguration config =
+                helper.createConfig(BlockingDatabaseConfiguration.class, helper
+                        .setUpDefaultParameters().setCached(true));
+        config.getString("key1");
+        AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        Thread writer = startBlockingWrite(config, error);
+        config.invalidateCache();
+        assertNull("Key already found", config.getString("key3"));
+        config.proceed.countDown();
+        writer.join();
+        assertNull("Got an exception", error.get());
+        assertEquals("Wrong value", "value3", config.getString("key3"));
+        assertEquals("Wrong number of values", 1, config.getList("key3")
+                .size());
+    }
+
+    /**
+     * Tests the keys of a cached configuration.
+     */
+    @Test
+    public void testCachedGetKeys() throws ConfigurationException
+    {
+        DatabaseConfiguration config =
+                setUpCachedConfig(helper.setUpMultiParameters(null));
+        Iterator<String> it = config.getKeys();
+        assertEquals("1st key", "key1", it.next());
+        assertEquals("2nd key", "key2", it.next());
+        assertFalse("Too many keys", it.hasNext());
+    }
+
+    /**
+     * Tests a cached configuration containing properties with multiple values.
+     */
+    @Test
+    public void testCachedGetList() throws ConfigurationException
+    {
+        DatabaseConfiguration config =
+                setUpCachedConfig(helper.setUpDefaultParameters().setTable(
+                        "configurationList"));
+        List<Object> list = config.getList("key3");
+        assertEquals("Wrong number of values", 3, list.size());
+    }
+
+    /**
+     * Tests the error handling when the cache cannot be loaded.
+     */
+    @Test
+    public void testCachedLoadError() throws ConfigurationException
+    {
+        PotentialErrorDatabaseConfiguration config = setUpErrorConfig();
+        config.setCached(true);
+        assertNull("Got a value", config.getProperty("key1"));
+        checkErrorListener(ConfigurationErrorEvent.READ,
+                ConfigurationErrorEvent.READ, null, null);
+    }
+
+    /**
+     * Creates a configuration with some test properties to be copied into a
+     * database configuration.
+     *
+     * @return the source configuration
+     */
+    private static Configuration createCopySource()
+    {
+        Configuration source = new BaseConfiguration();
+        source.addProperty("key1", "newValue1");
+        source.addProperty("key4", "value4");
+        source.addProperty("key5", "value5");
+        return source;
+    }
+
+    /**
+     * Checks whether the properties of the copy source have been written into
+     * the database.
+     *
+     * @throws ConfigurationException if an error occurs
+     */
+    private void checkCopiedProperties() throws ConfigurationException
+    {
+        DatabaseConfiguration config = helper.setUpConfig();
+        assertEquals("Wrong value for key1", "newValue1",
+                config.getString("key1"));
+        assertEquals("Wrong value for key2", "value2",
+                config.getString("key2"));
+        assertEquals("Wrong value for key4", "value4",
+                config.getString("key4"));
+        assertEquals("Wrong value for key5", "value5",
+                config.getString("key5"));
+    }
+
+    /**
+     * Tests that copy() writes all properties using a single connection.
+     */
+    @Test
+    public void testCopyBatch() throws ConfigurationException
+    {
+        ConnectionCountingDatabaseConfiguration config =
+                helper.setUpConfig(ConnectionCountingDatabaseConfiguration.class);
+        config.copy(createCopySource());
+        assertEquals("Wrong number of connections", 1, config.connectionCount);
+        checkCopiedProperties();
+    }
+
+    /**
+     * Tests a batched copy operation if the configuration performs commits.
+     */
+    @Test
+    public void testCopyBatchCommit() throws ConfigurationException
+    {
+        helper.setAutoCommit(true);
+        DatabaseConfiguration config = helper.setUpConfig();
+        config.copy(createCopySource());
+        checkCopiedProperties();
+    }
+
+    /**
+     * Tests that append() writes all properties using a single connection.
+     */
+    @Test
+    public void testAppendBatch() throws ConfigurationException
+    {
+        ConnectionCountingDatabaseConfiguration config =
+                helper.setUpConfig(ConnectionCountingDatabaseConfiguration.class);
+        Configuration source = createCopySource();
+        source.clearProperty("key1");
+        config.append(source);
+        assertEquals("Wrong number of connections", 1, config.connectionCount);
+        DatabaseConfiguration config2 = helper.setUpConfig();
+        assertEquals("Wrong value for key1", "value1",
+                config2.getString("key1"));
+        assertEquals("Wrong value for key4", "value4",
+                config2.getString("key4"));
+        assertEquals("Wrong value for key5", "value5",
+                config2.getString("key5"));
+    }
+
+    /**
+     * Tests that a batched copy operation updates the cache.
+     */
+    @Test
+    public void testCopyBatchCached() throws ConfigurationException
+    {
+        DatabaseConfiguration config =
+                setUpCachedConfig(helper.setUpDefaultParameters());
+        assertEquals("Wrong initial value", "value1", config.getString("key1"));
+        config.copy(createCopySource());
+        assertEquals("Cache not updated", "newValue1",
+                config.getString("key1"));
+        assertEquals("New key not cached", "value4", config.getString("key4"));
+    }
+
+    /**
+     * Tests that batched copy operations in multiple threads do not interfere
+     * with each other or with updates of other threads.
+     */
+    @Test
+    public void testCopyBatchConcurrently() throws Exception
+    {
+        final DatabaseConfiguration config = helper.setUpConfig();
+        final CountDownLatch copyStarted = new CountDownLatch(2);
+        final CountDownLatch proceed = new CountDownLatch(1);
+        final AtomicReference<Throwable> error =
+                new AtomicReference<Throwable>();
+        Thread[] threads = new Thread[2];
+        for (int i = 0; i < threads.length; i++)
+        {
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        config.copy(new BlockingCopySource(copyStarted,
+                                proceed));
+                    }
+                    catch (Throwable t)
+                    {
+                        error.set(t);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+
+        assertTrue("Copy not started",
+                copyStarted.await(10, TimeUnit.SECONDS));
+        config.addProperty("threadKey", "threadValue");
+        assertEquals("Property not written directly", "threadValue", helper
+                .setUpConfig().getString("threadKey"));
+        proceed.countDown();
+        for (Thread t : threads)
+        {
+            t.join();
+        }
+        assertNull("Got an exception", error.get());
+        checkCopiedProperties();
+    }
+
+    /**
+     * Tests the error handling of a batched copy operation.
+     */
+    @Test
+    public void testCopyBatchError() throws ConfigurationException
+    {
+        setUpErrorConfig().copy(createCopySource());
+        checkErrorListener(ConfigurationErrorEvent.WRITE,
+                ConfigurationEvent.ANY, null, null);
+    }
+
+
+    /**
+     * Tests whether a change indicator expression can be evaluated.
+     */
+    @Test
+    public void testQueryChangeIndicator() throws ConfigurationException
+    {
+        DatabaseConfiguration config = helper.setUpMultiConfig();
+        assertEquals("Wrong count", 2, ((Number) config
+                .queryChangeIndicator("COUNT(*)")).intValue());
+        assertEquals("Wrong max", "key2",
+                config.queryChangeIndicator("MAX(key)"));
+    }
+
+    /**
+     * Tests whether queryChangeIndicator() takes the configuration name into
+     * account.
+     */
+    @Test
+    public void testQueryChangeIndicatorOtherName()
+            throws ConfigurationException
+    {
+        DatabaseConfiguration config = helper.setUpMultiConfig(
+                DatabaseConfiguration.class, CONFIG_NAME2);
+        assertEquals("Wrong count", 0, ((Number) config
+                .queryChangeIndicator("COUNT(*)")).intValue());
+    }
+
+    /**
+     * Tests handling of errors in queryChangeIndicator().
+     */
+    @Test
+    public void testQueryChangeIndicatorError() throws ConfigurationException
+    {
+        assertNull("Got a result",
+                setUpErrorConfig().queryChangeIndicator("COUNT(*)"));
+        checkErrorListener(ConfigurationErrorEvent.READ,
+                ConfigurationErrorEvent.READ, null, null);
+    }
+
+    /**
+     * Tries to connect to a null reloading controller.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConnectToReloadingControllerNull()
+            throws ConfigurationException
+    {
+        helper.setUpConfig().connectToReloadingController(null);
+    }
+
+    /**
+     * Tests whether a cached configuration is refreshed by a connected
+     * reloading controller when the data in the database changes.
+     */
+    @Test
+    public void testConnectToReloadingController()
+            throws ConfigurationException
+    {
+        DatabaseConfiguration config =
+                setUpCachedConfig(helper.setUpDefaultParameters());
+        DatabaseConfiguration config2 = helper.setUpConfig();
+        ReloadingController controller = new ReloadingController(
+                new DatabaseReloadingDetector(config, null, 0));
+        config.connectToReloadingController(controller);
+        controller.checkForReloading(null);
+        assertEquals("Wrong value", "value1", config.getString("key1"));
+
+        config2.setProperty("key1", "newValue");
+        assertFalse("Reloading for update", controller.checkForReloading(null));
+        assertEquals("Value not cached", "value1", config.getString("key1"));
+        config2.addProperty("key3", "value3");
+        assertTrue("No reloading", controller.checkForReloading(null));
+        assertFalse("Still in reloading state", controller.isInReloadingState());
+        assertEquals("Cache not reloaded", "newValue",
+                config.getString("key1"));
+        assertEquals("New key not found", "value3", config.getString("key3"));
+        assertFalse("Reloading again", controller.checkForReloading(null));
+    }
     /**
      * A specialized database configuration implementation that can be
      * configured to throw an exception when obtaining a connection. This way
@@ -586,4 +1076,95 @@ public class TestDatabaseConfiguration
             return super.getDatasource();
         }
     }
+
+    /**
+     * A specialized database configuration implementation that counts the
+     * number of times a connection is requested.
+     */
+    public static class ConnectionCountingDatabaseConfiguration extends
+            DatabaseConfiguration
+    {
+        /** The number of connections obtained from the data source. */
+        int connectionCount;
+
+        @Override
+        public DataSource getDatasource()
+        {
+            connectionCount++;
+            return super.getDatasource();
+        }
+    }
+
+    /**
+     * A test configuration class which can be told to block when it obtains
+     * the data source for the next database access.
+     */
+    public static class BlockingDatabaseConfiguration extends
+            DatabaseConfiguration
+    {
+        /** A flag whether the next access should block. */
+        final AtomicBoolean blockNext = new AtomicBoolean();
+
+        /** The latch for signaling that an access is blocked. */
+        final CountDownLatch blocked = new CountDownLatch(1);
+
+        /** The latch to wait for. */
+        final CountDownLatch proceed = new CountDownLatch(1);
+
+        @Override
+        public DataSource getDatasource()
+        {
+            if (blockNext.compareAndSet(true, false))
+            {
+                blocked.countDown();
+                try
+                {
+                    proceed.await(10, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.getDatasource();
+        }
+    }
+
+    /**
+     * A source configuration for copy operations which blocks when its keys
+     * are requested until it is allowed to proceed.
+     */
+    private static class BlockingCopySource extends BaseConfiguration
+    {
+        /** The latch for signaling that the copy operation has started. */
+        private final CountDownLatch started;
+
+        /** The latch to wait for. */
+        private final CountDownLatch proceed;
+
+        public BlockingCopySource(CountDownLatch startLatch,
+                CountDownLatch proceedLatch)
+        {
+            started = startLatch;
+            proceed = proceedLatch;
+            addProperty("key1", "newValue1");
+            addProperty("key4", "value4");
+            addProperty("key5", "value5");
+        }
+
+        @Override
+        protected Iterator<String> getKeysInternal()
+        {
+            started.countDown();
+            try
+            {
+                proceed.await(10, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            return super.getKeysInternal();
+        }
+    }
 }
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.configuration2.TestDatabaseConfiguration.ConnectionCountingDatabaseConfiguration;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code DatabaseConfigurationLoader}.
+ *
+ * @version $Id$
+ */
+public class TestDatabaseConfigurationLoader
+{
+    /** Constant for the name of another configuration. */
+    private static final String CONFIG_NAME2 = "anotherConfig";
+
+    /** The test helper. */
+    private DatabaseConfigurationTestHelper helper;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        helper = new DatabaseConfigurationTestHelper();
+        helper.setUp();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        helper.tearDown();
+    }
+
+    /**
+     * Creates a loader for the multi configuration table which produces
+     * configurations of the given class.
+     *
+     * @param <T> the type of the configurations
+     * @param cls the configuration class
+     * @return the loader
+     */
+    private <T extends DatabaseConfiguration> DatabaseConfigurationLoader<T> createLoader(
+            Class<T> cls)
+    {
+        return new DatabaseConfigurationLoader<T>(cls,
+                helper.setUpMultiParameters(null));
+    }
+
+    /**
+     * Adds the data of a second configuration to the multi configuration
+     * table.
+     */
+    private void addSecondConfiguration() throws ConfigurationException
+    {
+        DatabaseConfiguration config =
+                helper.setUpMultiConfig(DatabaseConfiguration.class,
+                        CONFIG_NAME2);
+        config.addProperty("key1", "otherValue1");
+        config.addProperty("key3", "otherValue3");
+    }
+
+    /**
+     * Returns a list with the keys of the given configuration.
+     *
+     * @param config the configuration
+     * @return a list with its keys
+     */
+    private static List<String> keys(Configuration config)
+    {
+        List<String> keys = new ArrayList<String>();
+        for (Iterator<String> it = config.getKeys(); it.hasNext();)
+        {
+            keys.add(it.next());
+        }
+        return keys;
+    }
+
+    /**
+     * Tries to create an instance without a result class.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitNoResultClass()
+    {
+        new DatabaseConfigurationLoader<DatabaseConfiguration>(null,
+                helper.setUpMultiParameters(null));
+    }
+
+    /**
+     * Tests whether all configurations stored in the table are loaded.
+     */
+    @Test
+    public void testLoad() throws ConfigurationException
+    {
+        addSecondConfiguration();
+        Map<String, DatabaseConfiguration> configs =
+                createLoader(DatabaseConfiguration.class).load();
+        assertEquals("Wrong names", Arrays.asList(CONFIG_NAME2,
+                DatabaseConfigurationTestHelper.CONFIG_NAME),
+                new ArrayList<String>(configs.keySet()));
+
+        DatabaseConfiguration config =
+                configs.get(DatabaseConfigurationTestHelper.CONFIG_NAME);
+        assertEquals("Wrong name",
+                DatabaseConfigurationTestHelper.CONFIG_NAME,
+                config.getConfigurationName());
+        assertTrue("Not cached", config.isCached());
+        assertEquals("Wrong keys", Arrays.asList("key1", "key2"), keys(config));
+        assertEquals("Wrong value 1", "value1", config.getString("key1"));
+        assertEquals("Wrong value 2", "value2", config.getString("key2"));
+
+        DatabaseConfiguration config2 = configs.get(CONFIG_NAME2);
+        assertEquals("Wrong other value 1", "otherValue1",
+                config2.getString("key1"));
+        assertEquals("Wrong other value 3", "otherValue3",
+                config2.getString("key3"));
+        assertEquals("Wrong number of other keys", 2, keys(config2).size());
+    }
+
+    /**
+     * Tests that the loaded configurations do not query the database for
+     * read operations.
+     */
+    @Test
+    public void testLoadNoFurtherQueries() throws ConfigurationException
+    {
+        ConnectionCountingDatabaseConfiguration config =
+                createLoader(ConnectionCountingDatabaseConfiguration.class)
+                        .load().get(DatabaseConfigurationTestHelper.CONFIG_NAME);
+        assertEquals("Wrong value", "value1", config.getString("key1"));
+        assertTrue("Wrong keys", keys(config).contains("key2"));
+        assertEquals("Database accessed", 0, config.connectionCount);
+    }
+
+    /**
+     * Tests that the loaded configurations can be updated.
+     */
+    @Test
+    public void testLoadAndUpdate() throws ConfigurationException
+    {
+        DatabaseConfiguration config =
+                createLoader(DatabaseConfiguration.class).load().get(
+                        DatabaseConfigurationTestHelper.CONFIG_NAME);
+        config.setProperty("key1", "newValue");
+        assertEquals("Wrong cached value", "newValue",
+                config.getString("key1"));
+        assertEquals("Not written to database", "newValue", helper
+                .setUpMultiConfig().getString("key1"));
+    }
+
+    /**
+     * Tests loading from an empty table.
+     */
+    @Test
+    public void testLoadEmptyTable() throws ConfigurationException
+    {
+        helper.setUpMultiConfig().clear();
+        assertTrue("Got configurations",
+                createLoader(DatabaseConfiguration.class).load().isEmpty());
+    }
+
+    /**
+     * Tests that a configuration name column is required.
+     */
+    @Test(expected = ConfigurationException.class)
+    public void testLoadNoNameColumn() throws ConfigurationException
+    {
+        new DatabaseConfigurationLoader<DatabaseConfiguration>(
+                DatabaseConfiguration.class, helper.setUpDefaultParameters())
+                .load();
+    }
+
+    /**
+     * Tests whether a database error causes an exception.
+     */
+    @Test(expected = ConfigurationException.class)
+    public void testLoadDatabaseError() throws ConfigurationException
+    {
+        new DatabaseConfigurationLoader<DatabaseConfiguration>(
+                DatabaseConfiguration.class, helper.setUpMultiParameters(null)
+                        .setTable("nonExistingTable")).load();
+    }
+
+    /**
+     * Tests that the rows of a configuration are collected even if they are
+     * not adjacent in the result set. This is the case for a case-insensitive
+     * configuration name column.
+     */
+    @Test
+    public void testLoadNonAdjacentRows() throws ConfigurationException,
+            SQLException
+    {
+        Connection conn = helper.getDatasource().getConnection();
+        Statement stmt = conn.createStatement();
+        try
+        {
+            stmt.execute("DROP TABLE CONFIGURATIONS_CI IF EXISTS");
+            stmt.execute("CREATE TABLE CONFIGURATIONS_CI("
+                    + "NAME VARCHAR_IGNORECASE(256) NOT NULL,"
+                    + "KEY VARCHAR(256) NOT NULL, VALUE VARCHAR(256))");
+            String insert = "INSERT INTO CONFIGURATIONS_CI VALUES ";
+            stmt.execute(insert + "('cfg', 'key1', 'v1')");
+            stmt.execute(insert + "('CFG', 'key2', 'v2')");
+            stmt.execute(insert + "('cfg', 'key3', 'v3')");
+        }
+        finally
+        {
+            stmt.close();
+        }
+
+        Map<String, DatabaseConfiguration> configs =
+                new DatabaseConfigurationLoader<DatabaseConfiguration>(
+                        DatabaseConfiguration.class, helper
+                                .setUpMultiParameters(null).setTable(
+                                        "CONFIGURATIONS_CI")).load();
+        assertEquals("Wrong number of configurations", 2, configs.size());
+        DatabaseConfiguration config = configs.get("cfg");
+        assertEquals("Wrong number of keys", 2, keys(config).size());
+        assertEquals("Wrong value 1", "v1", config.getString("key1"));
+        assertEquals("Wrong value 3", "v3", config.getString("key3"));
+        assertEquals("Wrong value", "v2", configs.get("CFG").getString("key2"));
+    }
+}
@@ -43,6 +43,7 @@ import org.apache.commons.configuration2.builder.combined.MultiFileConfiguration
 import org.apache.commons.configuration2.builder.combined.ReloadingCombinedConfigurationBuilder;
 import org.apache.commons.configuration2.builder.fluent.Parameters;
 import org.apache.commons.configuration2.convert.DefaultListDelimiterHandler;
+import org.apache.commons.configuration2.event.ConfigurationEvent;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.interpol.ConfigurationInterpolator;
 import org.apache.commons.configuration2.interpol.Lookup;
@@ -526,6 +527,225 @@ public class TestDynamicCombinedConfiguration
 
     }
 
+    /**
+     * Creates a configuration whose key pattern is resolved by the given
+     * lookup.
+     *
+     * @param lookup the lookup for the key pattern
+     * @return the test configuration
+     */
+    private static DynamicCombinedConfiguration createKeyLookupConfig(
+            KeyLookup lookup)
+    {
+        DynamicCombinedConfiguration config =
+                new DynamicCombinedConfiguration();
+        config.getInterpolator().registerLookup("test", lookup);
+        config.setKeyPattern("${test:key}");
+        BaseHierarchicalConfiguration child =
+                new BaseHierarchicalConfiguration();
+        child.addProperty("prop", "value");
+        config.addConfiguration(child, "child");
+        return config;
+    }
+
+    /**
+     * Tests whether a key can be bound to the current thread.
+     */
+    @Test
+    public void testBindCurrentKey()
+    {
+        KeyLookup lookup = new KeyLookup();
+        DynamicCombinedConfiguration config = createKeyLookupConfig(lookup);
+        lookup.setKey("A");
+        assertNull("Got a bound key", config.getBoundKey());
+        assertEquals("Wrong bound key", "A", config.bindCurrentKey());
+        assertEquals("Key not bound", "A", config.getBoundKey());
+        int count = lookup.getLookupCount();
+        config.addProperty("tenant", "A");
+        for (int i = 0; i < 10; i++)
+        {
+            assertEquals("Wrong property", "value", config.getString("prop"));
+        }
+        lookup.setKey("B");
+        assertEquals("Wrong tenant", "A", config.getString("tenant"));
+        assertEquals("Key pattern evaluated", count, lookup.getLookupCount());
+
+        config.unbindCurrentKey();
+        assertNull("Key still bound", config.getBoundKey());
+        assertNull("Wrong configuration after unbind",
+                config.getString("tenant"));
+        assertTrue("Key pattern not evaluated",
+                lookup.getLookupCount() > count);
+    }
+
+    /**
+     * Tests that a key bound to one thread does not affect other threads.
+     */
+    @Test
+    public void testBindCurrentKeyOtherThread() throws InterruptedException
+    {
+        KeyLookup lookup = new KeyLookup();
+        final DynamicCombinedConfiguration config =
+                createKeyLookupConfig(lookup);
+        lookup.setKey("A");
+        config.bindCurrentKey();
+        final String[] result = new String[1];
+        Thread t = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                result[0] = config.getBoundKey();
+            }
+        };
+        t.start();
+        t.join();
+        assertNull("Key bound in other thread", result[0]);
+        config.unbindCurrentKey();
+    }
+
+    /**
+     * Tests that child configurations are cached per default.
+     */
+    @Test
+    public void testChildConfigurationsCached()
+    {
+        KeyLookup lookup = new KeyLookup();
+        DynamicCombinedConfiguration config = createKeyLookupConfig(lookup);
+        lookup.setKey("A");
+        config.addProperty("tenant", "A");
+        lookup.setKey("B");
+        config.addProperty("tenant", "B");
+        lookup.setKey("C");
+        config.addProperty("tenant", "C");
+        lookup.setKey("A");
+        assertEquals("Wrong tenant", "A", config.getString("tenant"));
+    }
+
+    /**
+     * Tests whether the least recently used child configuration is removed
+     * if the maximum number of child configurations is exceeded.
+     */
+    @Test
+    public void testMaxConfigurations()
+    {
+        KeyLookup lookup = new KeyLookup();
+        DynamicCombinedConfiguration config = createKeyLookupConfig(lookup);
+        config.setMaxConfigurations(2);
+        assertEquals("Wrong maximum", 2, config.getMaxConfigurations());
+        lookup.setKey("A");
+        config.addProperty("tenant", "A");
+        lookup.setKey("B");
+        config.addProperty("tenant", "B");
+        lookup.setKey("A");
+        assertEquals("Wrong tenant (1)", "A", config.getString("tenant"));
+        lookup.setKey("C");
+        config.addProperty("tenant", "C");
+
+        lookup.setKey("A");
+        assertEquals("Wrong tenant (2)", "A", config.getString("tenant"));
+        lookup.setKey("B");
+        assertNull("Configuration not evicted", config.getString("tenant"));
+    }
+
+    /**
+     * Tests that a child configuration which is evicted while it is in use
+     * by another thread is not changed.
+     */
+    @Test
+    public void testMaxConfigurationsEvictedInUse() throws InterruptedException
+    {
+        final KeyLookup lookup = new KeyLookup();
+        final DynamicCombinedConfiguration config =
+                createKeyLookupConfig(lookup);
+        config.setMaxConfigurations(2);
+        lookup.setKey("A");
+        config.addProperty("tenant", "A");
+        config.lock(LockMode.READ);
+        try
+        {
+            Thread t = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    lookup.setKey("B");
+                    config.addProperty("tenant", "B");
+                    lookup.setKey("C");
+                    config.addProperty("tenant", "C");
+                }
+            };
+            t.start();
+            t.join();
+            assertEquals("Wrong tenant", "A", config.getString("tenant"));
+            assertEquals("Wrong property", "value", config.getString("prop"));
+        }
+        finally
+        {
+            config.unlock(LockMode.READ);
+        }
+        lookup.setKey("A");
+        assertNull("Configuration not evicted", config.getString("tenant"));
+    }
+
+    /**
+     * Tests that existing child configurations are taken into account when
+     * the maximum number of child configurations is set later.
+     */
+    @Test
+    public void testMaxConfigurationsSetLater()
+    {
+        KeyLookup lookup = new KeyLookup();
+        DynamicCombinedConfiguration config = createKeyLookupConfig(lookup);
+        lookup.setKey("A");
+        config.addProperty("tenant", "A");
+        lookup.setKey("B");
+        config.addProperty("tenant", "B");
+        config.setMaxConfigurations(1);
+        lookup.setKey("C");
+        config.addProperty("tenant", "C");
+
+        assertEquals("Wrong tenant", "C", config.getString("tenant"));
+        lookup.setKey("A");
+        assertNull("Configuration A not evicted", config.getString("tenant"));
+        lookup.setKey("B");
+        assertNull("Configuration B not evicted", config.getString("tenant"));
+    }
+
+    /**
+     * Tests that evicted child configurations are removed as event listeners
+     * from the shared configurations.
+     */
+    @Test
+    public void testMaxConfigurationsListenersRemoved()
+    {
+        KeyLookup lookup = new KeyLookup();
+        DynamicCombinedConfiguration config =
+                new DynamicCombinedConfiguration();
+        config.getInterpolator().registerLookup("test", lookup);
+        config.setKeyPattern("${test:key}");
+        config.setMaxConfigurations(2);
+        BaseHierarchicalConfiguration child =
+                new BaseHierarchicalConfiguration();
+        child.addProperty("prop", "value");
+        config.addConfiguration(child, "child");
+        int listenerCount =
+                child.getEventListeners(ConfigurationEvent.ANY).size();
+
+        String[] keys = {
+                "A", "B", "C", "D", "A", "B"
+        };
+        for (int i = 0; i < keys.length; i++)
+        {
+            lookup.setKey(keys[i]);
+            assertEquals("Wrong value for " + keys[i], "value",
+                    config.getString("prop"));
+            assertEquals("Wrong number of listeners after " + keys[i],
+                    listenerCount + Math.min(2, i + 1), child
+                            .getEventListeners(ConfigurationEvent.ANY).size());
+        }
+    }
+
     private void verify(String key, DynamicCombinedConfiguration config, int rows)
     {
         System.setProperty("Id", key);
@@ -575,4 +795,34 @@ public class TestDynamicCombinedConfiguration
 
         }
     }
+
+    /**
+     * A test lookup which returns a configurable key and counts its
+     * invocations.
+     */
+    private static class KeyLookup implements Lookup
+    {
+        /** The key to be returned. */
+        private volatile String key;
+
+        /** The number of lookups. */
+        private int lookupCount;
+
+        public void setKey(String key)
+        {
+            this.key = key;
+        }
+
+        public synchronized int getLookupCount()
+        {
+            return lookupCount;
+        }
+
+        @Override
+        public synchronized Object lookup(String variable)
+        {
+            lookupCount++;
+            return key;
+        }
+    }
 }
@@ -640,6 +640,109 @@ public class TestHierarchicalConfiguration
                 config.childConfigurationsAt("not.existing.key").isEmpty());
     }
 
+    /**
+     * Adds type attributes to the tables of the test configuration.
+     */
+    private void addTableTypes()
+    {
+        config.addProperty("tables.table(0)[@type]", "system");
+        config.addProperty("tables.table(1)[@type]", "user");
+    }
+
+    /**
+     * Checks the result of a findByAttribute() query for the tables with a
+     * given type.
+     *
+     * @param type the type
+     * @param expectedTables the indices of the expected tables
+     */
+    private void checkFindTablesByType(String type, int... expectedTables)
+    {
+        List<HierarchicalConfiguration<ImmutableNode>> subs =
+                config.findByAttribute("tables", "table", "type", type);
+        assertEquals("Wrong number of results", expectedTables.length,
+                subs.size());
+        for (int i = 0; i < expectedTables.length; i++)
+        {
+            assertEquals("Wrong table at " + i,
+                    NodeStructureHelper.table(expectedTables[i]), subs.get(i)
+                            .getString("name"));
+        }
+    }
+
+    /**
+     * Tests whether child configurations can be selected based on an
+     * attribute value.
+     */
+    @Test
+    public void testFindByAttribute()
+    {
+        addTableTypes();
+        checkFindTablesByType("system", 0);
+        checkFindTablesByType("user", 1);
+        checkFindTablesByType("unknown");
+    }
+
+    /**
+     * Tests findByAttribute() if the attribute index of the model is enabled
+     * and the configuration is changed afterwards.
+     */
+    @Test
+    public void testFindByAttributeIndexedWithUpdate()
+    {
+        config.getNodeModel().setAttributeIndexEnabled(true);
+        addTableTypes();
+        checkFindTablesByType("system", 0);
+        config.setProperty("tables.table(1)[@type]", "system");
+        checkFindTablesByType("system", 0, 1);
+        checkFindTablesByType("user");
+    }
+
+    /**
+     * Tests findByAttribute() if the root node is the parent node.
+     */
+    @Test
+    public void testFindByAttributeRootNode()
+    {
+        config.addProperty("entry(-1)[@key]", "k1");
+        config.addProperty("entry(-1)[@key]", "k2");
+        config.setProperty("entry(1)", "value");
+        List<HierarchicalConfiguration<ImmutableNode>> subs =
+                config.findByAttribute(null, "entry", "key", "k2");
+        assertEquals("Wrong number of results", 1, subs.size());
+        assertEquals("Wrong value", "value", subs.get(0).getString(""));
+    }
+
+    /**
+     * Tests findByAttribute() with a non-string attribute value.
+     */
+    @Test
+    public void testFindByAttributeNonStringValue()
+    {
+        config.addProperty("tables.table(1)[@size]", 100);
+        assertEquals("Wrong number of results", 1,
+                config.findByAttribute("tables", "table", "size", "100")
+                        .size());
+    }
+
+    /**
+     * Tries to call findByAttribute() without a child name.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindByAttributeNoChildName()
+    {
+        config.findByAttribute("tables", null, "type", "system");
+    }
+
+    /**
+     * Tries to call findByAttribute() without an attribute name.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindByAttributeNoAttributeName()
+    {
+        config.findByAttribute("tables", "table", null, "system");
+    }
+
     /**
      * Checks the content of the passed in configuration object. Used by some
      * tests that copy a configuration.
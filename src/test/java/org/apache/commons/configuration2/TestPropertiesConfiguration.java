@@ -65,6 +65,7 @@ import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.io.DefaultFileSystem;
 import org.apache.commons.configuration2.io.FileHandler;
 import org.apache.commons.configuration2.io.FileSystem;
+import org.apache.commons.configuration2.tree.CanonicalizationPool;
 import org.apache.commons.lang3.mutable.MutableObject;
 import org.junit.Before;
 import org.junit.Test;
@@ -1178,6 +1179,60 @@ public class TestPropertiesConfiguration
         assertEquals("success", configuration.getString("test.outcome"));
     }
 
+    /**
+     * Creates a configuration for the test file which uses the given
+     * canonicalization pool.
+     *
+     * @param pool the pool
+     * @return the configuration
+     * @throws ConfigurationException if an error occurs
+     */
+    private static PropertiesConfiguration createWithPool(
+            CanonicalizationPool pool) throws ConfigurationException
+    {
+        PropertiesConfiguration config = new PropertiesConfiguration();
+        config.setCanonicalizationPool(pool);
+        load(config, testProperties);
+        return config;
+    }
+
+    /**
+     * Tests whether configurations loaded with a canonicalization pool share
+     * their keys and values.
+     */
+    @Test
+    public void testCanonicalizationPoolSharedKeysAndValues()
+            throws ConfigurationException
+    {
+        CanonicalizationPool pool = new CanonicalizationPool();
+        PropertiesConfiguration c1 = createWithPool(pool);
+        PropertiesConfiguration c2 = createWithPool(pool);
+        assertSame("Pool not set", pool, c1.getCanonicalizationPool());
+        assertSame("Value not shared", c1.getProperty("propertyInOrder"),
+                c2.getProperty("propertyInOrder"));
+        Iterator<String> it2 = c2.getKeys();
+        for (Iterator<String> it1 = c1.getKeys(); it1.hasNext();)
+        {
+            assertSame("Key not shared", it1.next(), it2.next());
+        }
+        assertFalse("Too many keys", it2.hasNext());
+    }
+
+    /**
+     * Tests that properties added programmatically are not canonicalized.
+     */
+    @Test
+    public void testCanonicalizationPoolNotUsedForAddProperty()
+            throws ConfigurationException
+    {
+        CanonicalizationPool pool = new CanonicalizationPool();
+        PropertiesConfiguration c1 = createWithPool(pool);
+        String value = new String("test.properties");
+        c1.addProperty("another.key", value);
+        assertSame("Value was replaced", value,
+                c1.getProperty("another.key"));
+    }
+
     /**
      * Helper method for testing the content of a list with elements that
      * contain backslashes.
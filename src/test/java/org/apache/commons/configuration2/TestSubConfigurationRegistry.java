@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
+import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.apache.commons.configuration2.tree.NodeSelector;
+import org.apache.commons.configuration2.tree.NodeStructureHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code SubConfigurationRegistry}.
+ *
+ * @version $Id$
+ */
+public class TestSubConfigurationRegistry
+{
+    /** Constant for the key of the test sub configuration. */
+    private static final String KEY = "tables.table(1)";
+
+    /** The parent configuration. */
+    private BaseHierarchicalConfiguration config;
+
+    /** The registry to be tested. */
+    private SubConfigurationRegistry registry;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        ImmutableNode root =
+                new ImmutableNode.Builder(1).addChild(
+                        NodeStructureHelper.ROOT_TABLES_TREE).create();
+        config = new BaseHierarchicalConfiguration();
+        config.getNodeModel().setRootNode(root);
+        registry = new SubConfigurationRegistry(config);
+    }
+
+    /**
+     * Checks whether the given selector is tracked by the parent model.
+     *
+     * @param selector the selector
+     * @return a flag whether this node is tracked
+     */
+    private boolean isTracked(NodeSelector selector)
+    {
+        try
+        {
+            config.getNodeModel().getTrackedNode(selector);
+            return true;
+        }
+        catch (ConfigurationRuntimeException crex)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Tries to create an instance without a parent configuration.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitNoParent()
+    {
+        new SubConfigurationRegistry(null);
+    }
+
+    /**
+     * Tests whether a sub configuration can be acquired.
+     */
+    @Test
+    public void testAcquire()
+    {
+        SubnodeConfiguration sub = registry.acquire(KEY);
+        assertSame("Wrong parent", config, sub.getParent());
+        assertEquals("Wrong content", NodeStructureHelper.table(1),
+                sub.getString("name"));
+        assertEquals("Wrong reference count", 1,
+                registry.getReferenceCount(KEY));
+        assertEquals("Wrong size", 1, registry.size());
+    }
+
+    /**
+     * Tests that the same sub configuration is returned for a key.
+     */
+    @Test
+    public void testAcquireCached()
+    {
+        SubnodeConfiguration sub = registry.acquire(KEY);
+        assertSame("Not cached", sub, registry.acquire(KEY));
+        assertEquals("Wrong reference count", 2,
+                registry.getReferenceCount(KEY));
+        assertNotSame("Same sub configuration for other key", sub,
+                registry.acquire("tables.table(0)"));
+        assertEquals("Wrong size", 2, registry.size());
+    }
+
+    /**
+     * Tests that a cached sub configuration is still connected to its parent.
+     */
+    @Test
+    public void testAcquireConnected()
+    {
+        SubnodeConfiguration sub = registry.acquire(KEY);
+        config.setProperty(KEY + ".name", "newTable");
+        assertEquals("Change not visible", "newTable",
+                registry.acquire(KEY).getString("name"));
+        assertSame("Different instance", sub, registry.acquire(KEY));
+    }
+
+    /**
+     * Tests the reference count of an unknown key.
+     */
+    @Test
+    public void testGetReferenceCountUnknown()
+    {
+        assertEquals("Wrong reference count", 0,
+                registry.getReferenceCount(KEY));
+    }
+
+    /**
+     * Tests that a sub configuration is closed when it is no longer
+     * referenced.
+     */
+    @Test
+    public void testRelease()
+    {
+        SubnodeConfiguration sub = registry.acquire(KEY);
+        registry.acquire(KEY);
+        assertFalse("Closed", registry.release(KEY));
+        assertTrue("Not tracked", isTracked(sub.getRootSelector()));
+        assertTrue("Not closed", registry.release(KEY));
+        assertFalse("Still tracked", isTracked(sub.getRootSelector()));
+        assertEquals("Wrong size", 0, registry.size());
+        assertNotSame("Same instance", sub, registry.acquire(KEY));
+    }
+
+    /**
+     * Tries to release a key which has not been acquired.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testReleaseUnknown()
+    {
+        registry.release(KEY);
+    }
+
+    /**
+     * Tests whether all sub configurations can be closed.
+     */
+    @Test
+    public void testClear()
+    {
+        SubnodeConfiguration sub1 = registry.acquire(KEY);
+        registry.acquire(KEY);
+        SubnodeConfiguration sub2 = registry.acquire("tables.table(0)");
+        registry.clear();
+        assertEquals("Wrong size", 0, registry.size());
+        assertFalse("Sub 1 still tracked", isTracked(sub1.getRootSelector()));
+        assertFalse("Sub 2 still tracked", isTracked(sub2.getRootSelector()));
+    }
+
+    /**
+     * Tests that a new sub configuration is created if the tracked node of the
+     * cached one has been detached.
+     */
+    @Test
+    public void testAcquireDetached()
+    {
+        SubnodeConfiguration sub1 = registry.acquire(KEY);
+        config.clearTree(KEY);
+        config.addProperty("tables.table(-1).name", "newTable");
+        SubnodeConfiguration sub2 = registry.acquire(KEY);
+        assertNotSame("Detached instance returned", sub1, sub2);
+        assertEquals("Wrong content", "newTable", sub2.getString("name"));
+        assertSame("Not cached", sub2, registry.acquire(KEY));
+        assertEquals("Wrong reference count", 3,
+                registry.getReferenceCount(KEY));
+        assertFalse("Still detached",
+                config.getNodeModel().isTrackedNodeDetached(
+                        sub2.getRootSelector()));
+
+        assertFalse("Closed (1)", registry.release(KEY));
+        assertFalse("Closed (2)", registry.release(KEY));
+        assertTrue("Not tracked", isTracked(sub2.getRootSelector()));
+        assertTrue("Not closed", registry.release(KEY));
+        assertFalse("Still tracked", isTracked(sub2.getRootSelector()));
+    }
+
+    /**
+     * Tests that an entry with a detached node is kept if its key does no
+     * longer select a single node.
+     */
+    @Test
+    public void testAcquireDetachedInvalidKey()
+    {
+        SubnodeConfiguration sub = registry.acquire(KEY);
+        config.clearTree(KEY);
+        try
+        {
+            registry.acquire(KEY);
+            fail("Invalid key not detected!");
+        }
+        catch (ConfigurationRuntimeException crex)
+        {
+            assertEquals("Wrong reference count", 1,
+                    registry.getReferenceCount(KEY));
+            assertTrue("Not closed", registry.release(KEY));
+            assertFalse("Still tracked", isTracked(sub.getRootSelector()));
+        }
+    }
+
+    /**
+     * Tests the behavior for a key that does not select a single node.
+     */
+    @Test
+    public void testAcquireInvalidKey()
+    {
+        try
+        {
+            registry.acquire("tables.table");
+            fail("Invalid key not detected!");
+        }
+        catch (ConfigurationRuntimeException crex)
+        {
+            assertEquals("Got an entry", 0, registry.size());
+        }
+    }
+}
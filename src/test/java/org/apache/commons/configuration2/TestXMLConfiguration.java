@@ -22,6 +22,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -44,11 +45,14 @@ import java.util.List;
 import org.apache.commons.configuration2.SynchronizerTestImpl.Methods;
 import org.apache.commons.configuration2.builder.FileBasedBuilderParametersImpl;
 import org.apache.commons.configuration2.builder.FileBasedConfigurationBuilder;
+import org.apache.commons.configuration2.builder.XMLBuilderParametersImpl;
 import org.apache.commons.configuration2.convert.DefaultListDelimiterHandler;
 import org.apache.commons.configuration2.convert.DisabledListDelimiterHandler;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.io.FileHandler;
+import org.apache.commons.configuration2.io.ParsedContentCache;
 import org.apache.commons.configuration2.resolver.CatalogResolver;
+import org.apache.commons.configuration2.tree.CanonicalizationPool;
 import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.commons.configuration2.tree.NodeStructureHelper;
 import org.apache.commons.configuration2.tree.xpath.XPathExpressionEngine;
@@ -1621,6 +1625,472 @@ public class TestXMLConfiguration
                 Methods.END_READ);
     }
 
+    /**
+     * Creates a new XMLConfiguration in streaming load mode and loads the
+     * specified file.
+     *
+     * @param fileName the name of the file to be loaded
+     * @return the newly created configuration instance
+     * @throws ConfigurationException if an error occurs
+     */
+    private static XMLConfiguration createStreamingFromFile(String fileName)
+            throws ConfigurationException
+    {
+        XMLConfiguration config = new XMLConfiguration();
+        config.setListDelimiterHandler(new DefaultListDelimiterHandler(','));
+        config.setStreamingLoad(true);
+        load(config, fileName);
+        return config;
+    }
+
+    /**
+     * Tests whether a streaming load produces the same data as a load based on
+     * a DOM document.
+     */
+    @Test
+    public void testStreamingLoad() throws ConfigurationException
+    {
+        XMLConfiguration config = createStreamingFromFile(testProperties);
+        ConfigurationAssert.assertConfigurationEquals(conf, config);
+        assertEquals("Wrong root element name", conf.getRootElementName(),
+                config.getRootElementName());
+        assertEquals("Wrong preserved space", " preserved ",
+                config.getString("spaceElement"));
+    }
+
+    /**
+     * Tests that no document is retained after a streaming load.
+     */
+    @Test
+    public void testStreamingLoadNoDocument() throws ConfigurationException
+    {
+        XMLConfiguration config = createStreamingFromFile(testProperties);
+        assertNull("Got a document", config.getDocument());
+    }
+
+    /**
+     * Tests a streaming load into a configuration which has been loaded from a
+     * DOM document before. The old document must be discarded.
+     */
+    @Test
+    public void testStreamingLoadAfterDomLoad() throws ConfigurationException
+    {
+        conf.setStreamingLoad(true);
+        load(conf, "testDtdPublic.xml");
+        assertNull("Got a document", conf.getDocument());
+        assertEquals("Wrong root element name", "properties",
+                conf.getRootElementName());
+        saveTestConfig();
+        XMLConfiguration config =
+                createFromFile(testSaveConf.getAbsolutePath());
+        assertEquals("Wrong root element name (saved)", "properties",
+                config.getRootElementName());
+        assertEquals("Old data lost", "value", config.getString("element"));
+        assertEquals("New data not saved", "value",
+                config.getString("entry"));
+    }
+
+    /**
+     * Tests whether a configuration loaded in streaming mode can be saved.
+     */
+    @Test
+    public void testStreamingLoadSave() throws ConfigurationException
+    {
+        conf = createStreamingFromFile(testProperties);
+        saveTestConfig();
+        XMLConfiguration config = checkSavedConfig();
+        assertEquals("Wrong root element name", "testconfig",
+                config.getRootElementName());
+    }
+
+    /**
+     * Tests whether namespace declarations and prefixes are handled by a
+     * streaming load in the same way as by the DOM-based load.
+     */
+    @Test
+    public void testStreamingLoadNamespaces() throws ConfigurationException
+    {
+        final String xml =
+                "<config xmlns=\"urn:default\" xmlns:t=\"urn:test\">"
+                        + "<t:element t:attr=\"a\">value</t:element>"
+                        + "<plain><![CDATA[<text>]]></plain></config>";
+        XMLConfiguration domConfig = new XMLConfiguration();
+        new FileHandler(domConfig).load(new StringReader(xml));
+        XMLConfiguration streamConfig = new XMLConfiguration();
+        streamConfig.setStreamingLoad(true);
+        new FileHandler(streamConfig).load(new StringReader(xml));
+
+        ConfigurationAssert.assertConfigurationEquals(domConfig, streamConfig);
+        assertEquals("Wrong namespace attribute", "urn:test",
+                streamConfig.getString("[@xmlns:t]"));
+        assertEquals("Wrong prefixed attribute", "a",
+                streamConfig.getString("t:element[@t:attr]"));
+        assertEquals("Wrong CDATA", "<text>", streamConfig.getString("plain"));
+    }
+
+    /**
+     * Tests a streaming load of a document with a DOCTYPE declaration.
+     */
+    @Test
+    public void testStreamingLoadWithDoctype() throws ConfigurationException
+    {
+        conf = createStreamingFromFile("testDtdPublic.xml");
+        assertEquals("Wrong value", "value", conf.getString("entry"));
+        assertEquals("Wrong attribute", "test", conf.getString("entry[@key]"));
+    }
+
+    /**
+     * Tests that a DOM document is created even in streaming mode if a
+     * specific document builder is set.
+     */
+    @Test
+    public void testStreamingLoadWithDocumentBuilder() throws Exception
+    {
+        XMLConfiguration config = new XMLConfiguration();
+        config.setStreamingLoad(true);
+        config.setDocumentBuilder(DocumentBuilderFactory.newInstance()
+                .newDocumentBuilder());
+        load(config, testProperties);
+        assertNotNull("No document", config.getDocument());
+    }
+
+    /**
+     * Tests whether the streaming load flag can be set through a builder.
+     */
+    @Test
+    public void testStreamingLoadFromBuilder() throws ConfigurationException
+    {
+        FileBasedConfigurationBuilder<XMLConfiguration> builder =
+                new FileBasedConfigurationBuilder<XMLConfiguration>(
+                        XMLConfiguration.class);
+        builder.configure(new XMLBuilderParametersImpl().setStreamingLoad(
+                true).setFileName(testProperties));
+        XMLConfiguration config = builder.getConfiguration();
+        assertTrue("Flag not set", config.isStreamingLoad());
+        assertNull("Got a document", config.getDocument());
+        assertEquals("Wrong value", "value", config.getString("element"));
+    }
+
+    /**
+     * Tests whether a loaded configuration can be saved in streaming mode.
+     */
+    @Test
+    public void testStreamingWrite() throws ConfigurationException
+    {
+        conf.setStreamingWrite(true);
+        conf.addProperty("split.list5", "a\\,b\\,c");
+        conf.addProperty("test.array", "value1");
+        conf.addProperty("test.array", "value2");
+        saveTestConfig();
+        XMLConfiguration config = checkSavedConfig();
+        assertEquals("Wrong root element name", "testconfig",
+                config.getRootElementName());
+        assertEquals("Wrong preserved space", " preserved ",
+                config.getString("spaceElement"));
+    }
+
+    /**
+     * Tests whether a newly created configuration can be saved in streaming
+     * mode.
+     */
+    @Test
+    public void testStreamingWriteNewConfiguration()
+            throws ConfigurationException
+    {
+        conf = new XMLConfiguration();
+        conf.setListDelimiterHandler(new DefaultListDelimiterHandler(','));
+        conf.setRootElementName("myconfig");
+        conf.setStreamingWrite(true);
+        conf.addProperty("[@version]", "1.0");
+        conf.addProperty("db.connection[@type]", "<jdbc>");
+        conf.addProperty("db.connection", "url & more");
+        conf.addProperty("db.users", "a,b,c");
+        StringWriter out = new StringWriter();
+        new FileHandler(conf).save(out);
+
+        XMLConfiguration config = new XMLConfiguration();
+        config.setListDelimiterHandler(new DefaultListDelimiterHandler(','));
+        new FileHandler(config).load(new StringReader(out.toString()));
+        ConfigurationAssert.assertConfigurationEquals(conf, config);
+        assertEquals("Wrong root element name", "myconfig",
+                config.getRootElementName());
+        assertThat("No indentation", out.toString(),
+                containsString("\n    <connection"));
+    }
+
+    /**
+     * Tests that an invalid element name causes an exception in streaming
+     * write mode.
+     */
+    @Test(expected = ConfigurationException.class)
+    public void testStreamingWriteInvalidElementName()
+            throws ConfigurationException
+    {
+        conf.setStreamingWrite(true);
+        conf.addProperty("element2.1invalid", "value");
+        new FileHandler(conf).save(new StringWriter());
+    }
+
+    /**
+     * Tests that an invalid attribute name causes an exception in streaming
+     * write mode.
+     */
+    @Test(expected = ConfigurationException.class)
+    public void testStreamingWriteInvalidAttributeName()
+            throws ConfigurationException
+    {
+        conf.setStreamingWrite(true);
+        conf.addProperty("element2[@in<valid]", "value");
+        new FileHandler(conf).save(new StringWriter());
+    }
+
+    /**
+     * Tests whether the DOCTYPE declaration and the encoding are written in
+     * streaming mode.
+     */
+    @Test
+    public void testStreamingWriteDoctypeAndEncoding()
+            throws ConfigurationException
+    {
+        conf = new XMLConfiguration();
+        conf.setStreamingWrite(true);
+        conf.setPublicID(PUBLIC_ID);
+        conf.setSystemID(SYSTEM_ID);
+        conf.addProperty("test", "a value");
+        FileHandler handler = new FileHandler(conf);
+        handler.setEncoding(ENCODING);
+        StringWriter out = new StringWriter();
+        handler.save(out);
+
+        assertThat("Encoding was not written", out.toString(),
+                containsString("encoding=\"" + ENCODING + "\""));
+        assertThat("Did not find DOCTYPE", out.toString(),
+                containsString(DOCTYPE + "configuration" + DOCTYPE_DECL));
+    }
+
+    /**
+     * Tests whether the streaming write flag can be set through a builder.
+     */
+    @Test
+    public void testStreamingWriteFromBuilder() throws ConfigurationException
+    {
+        FileBasedConfigurationBuilder<XMLConfiguration> builder =
+                new FileBasedConfigurationBuilder<XMLConfiguration>(
+                        XMLConfiguration.class);
+        builder.configure(new XMLBuilderParametersImpl().setStreamingWrite(
+                true).setFileName(testProperties));
+        assertTrue("Flag not set", builder.getConfiguration()
+                .isStreamingWrite());
+    }
+
+    /**
+     * Creates a configuration for the test file which uses the given
+     * canonicalization pool.
+     *
+     * @param pool the pool
+     * @param streaming the streaming load flag
+     * @return the configuration
+     * @throws ConfigurationException if an error occurs
+     */
+    private XMLConfiguration createWithPool(CanonicalizationPool pool,
+            boolean streaming) throws ConfigurationException
+    {
+        FileBasedConfigurationBuilder<XMLConfiguration> builder =
+                new FileBasedConfigurationBuilder<XMLConfiguration>(
+                        XMLConfiguration.class);
+        builder.configure(new XMLBuilderParametersImpl()
+                .setCanonicalizationPool(pool).setStreamingLoad(streaming)
+                .setFileName(testProperties)
+                .setListDelimiterHandler(new DefaultListDelimiterHandler(',')));
+        return builder.getConfiguration();
+    }
+
+    /**
+     * Checks whether two configurations share their node structures.
+     *
+     * @param c1 configuration 1
+     * @param c2 configuration 2
+     */
+    private static void checkSharedNodes(XMLConfiguration c1,
+            XMLConfiguration c2)
+    {
+        List<ImmutableNode> children1 =
+                c1.getNodeModel().getNodeHandler().getRootNode().getChildren();
+        List<ImmutableNode> children2 =
+                c2.getNodeModel().getNodeHandler().getRootNode().getChildren();
+        assertEquals("Different children", children1.size(), children2.size());
+        for (int i = 0; i < children1.size(); i++)
+        {
+            assertSame("Child not shared: " + i, children1.get(i),
+                    children2.get(i));
+        }
+    }
+
+    /**
+     * Tests whether configurations loaded with a canonicalization pool share
+     * their nodes.
+     */
+    @Test
+    public void testCanonicalizationPoolSharedNodes()
+            throws ConfigurationException
+    {
+        CanonicalizationPool pool = new CanonicalizationPool();
+        XMLConfiguration c1 = createWithPool(pool, false);
+        XMLConfiguration c2 = createWithPool(pool, false);
+        assertSame("Pool not set", pool, c1.getCanonicalizationPool());
+        checkSharedNodes(c1, c2);
+        ConfigurationAssert.assertConfigurationEquals(conf, c2);
+    }
+
+    /**
+     * Tests whether a configuration using shared nodes can be modified and
+     * saved without affecting other configurations.
+     */
+    @Test
+    public void testCanonicalizationPoolModifyAndSave()
+            throws ConfigurationException
+    {
+        CanonicalizationPool pool = new CanonicalizationPool();
+        XMLConfiguration c1 = createWithPool(pool, false);
+        conf = createWithPool(pool, false);
+        conf.setProperty("element", "newValue");
+        conf.addProperty("pooled.key", "42");
+        saveTestConfig();
+        XMLConfiguration saved = checkSavedConfig();
+        assertEquals("Wrong new value", "newValue", saved.getString("element"));
+        assertEquals("Wrong complex value", "I'm complex!",
+                saved.getString("element2.subelement.subsubelement"));
+        assertEquals("Wrong added value", 42, saved.getInt("pooled.key"));
+        assertEquals("Other config modified", "value", c1.getString("element"));
+    }
+
+    /**
+     * Tests whether a canonicalization pool is also used in streaming mode.
+     */
+    @Test
+    public void testCanonicalizationPoolStreamingLoad()
+            throws ConfigurationException
+    {
+        CanonicalizationPool pool = new CanonicalizationPool();
+        XMLConfiguration c1 = createWithPool(pool, true);
+        XMLConfiguration c2 = createWithPool(pool, false);
+        checkSharedNodes(c1, c2);
+    }
+
+    /**
+     * Creates a configuration for the test file which uses the given parsed
+     * content cache.
+     *
+     * @param cache the cache
+     * @param delimiter the list delimiter character
+     * @return the configuration
+     * @throws ConfigurationException if an error occurs
+     */
+    private XMLConfiguration createWithCache(ParsedContentCache cache,
+            char delimiter) throws ConfigurationException
+    {
+        FileBasedConfigurationBuilder<XMLConfiguration> builder =
+                new FileBasedConfigurationBuilder<XMLConfiguration>(
+                        XMLConfiguration.class);
+        builder.configure(new XMLBuilderParametersImpl()
+                .setParsedContentCache(cache).setFileName(testProperties)
+                .setListDelimiterHandler(
+                        new DefaultListDelimiterHandler(delimiter)));
+        return builder.getConfiguration();
+    }
+
+    /**
+     * Tests whether configurations loaded with a parsed content cache share
+     * the parsed document.
+     */
+    @Test
+    public void testParsedContentCacheSharedNodes()
+            throws ConfigurationException
+    {
+        ParsedContentCache cache = new ParsedContentCache();
+        XMLConfiguration c1 = createWithCache(cache, ',');
+        XMLConfiguration c2 = createWithCache(cache, ',');
+        assertSame("Cache not set", cache, c1.getParsedContentCache());
+        checkSharedNodes(c1, c2);
+        assertEquals("Wrong miss count", 1, cache.getMissCount());
+        assertEquals("Wrong hit count", 1, cache.getHitCount());
+        assertNull("Got a document", c2.getDocument());
+        assertEquals("Wrong root element name", "testconfig",
+                c2.getRootElementName());
+        ConfigurationAssert.assertConfigurationEquals(conf, c2);
+    }
+
+    /**
+     * Tests that the list delimiter handler is taken into account by the
+     * parsed content cache.
+     */
+    @Test
+    public void testParsedContentCacheDifferentListDelimiterHandlers()
+            throws ConfigurationException
+    {
+        ParsedContentCache cache = new ParsedContentCache();
+        createWithCache(cache, ',');
+        XMLConfiguration c2 = createWithCache(cache, ';');
+        assertEquals("Wrong number of entries", 2, cache.size());
+        assertEquals("Wrong list value", "a,b,c", c2.getString("split.list1"));
+    }
+
+    /**
+     * Tests that the parsed content cache is not used if the configuration
+     * already contains data.
+     */
+    @Test
+    public void testParsedContentCacheNonEmptyConfiguration()
+            throws ConfigurationException
+    {
+        ParsedContentCache cache = new ParsedContentCache();
+        XMLConfiguration config = new XMLConfiguration();
+        config.setParsedContentCache(cache);
+        config.addProperty("existing", Boolean.TRUE);
+        load(config, testProperties);
+        assertEquals("Cache was used", 0, cache.size());
+        assertTrue("Existing data lost", config.getBoolean("existing"));
+        assertEquals("Wrong value", "value", config.getString("element"));
+    }
+
+    /**
+     * Tests whether a configuration loaded from the parsed content cache can
+     * be modified and saved.
+     */
+    @Test
+    public void testParsedContentCacheModifyAndSave()
+            throws ConfigurationException
+    {
+        ParsedContentCache cache = new ParsedContentCache();
+        XMLConfiguration c1 = createWithCache(cache, ',');
+        conf = createWithCache(cache, ',');
+        conf.setProperty("element", "newValue");
+        saveTestConfig();
+        XMLConfiguration saved = checkSavedConfig();
+        assertEquals("Wrong new value", "newValue", saved.getString("element"));
+        assertEquals("Other config modified", "value", c1.getString("element"));
+    }
+
+    /**
+     * Tests that a canonicalization pool is applied to a document obtained
+     * from the parsed content cache.
+     */
+    @Test
+    public void testParsedContentCacheWithCanonicalizationPool()
+            throws ConfigurationException
+    {
+        CanonicalizationPool pool = new CanonicalizationPool();
+        XMLConfiguration c1 = createWithPool(pool, false);
+        FileBasedConfigurationBuilder<XMLConfiguration> builder =
+                new FileBasedConfigurationBuilder<XMLConfiguration>(
+                        XMLConfiguration.class);
+        builder.configure(new XMLBuilderParametersImpl()
+                .setParsedContentCache(new ParsedContentCache())
+                .setCanonicalizationPool(pool).setFileName(testProperties)
+                .setListDelimiterHandler(new DefaultListDelimiterHandler(',')));
+        checkSharedNodes(c1, builder.getConfiguration());
+    }
+
     /**
      * Removes the test output file if it exists.
      */
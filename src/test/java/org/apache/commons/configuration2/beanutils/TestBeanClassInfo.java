@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.beanutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.beanutils.PropertyUtilsBean;
+import org.junit.Test;
+
+/**
+ * Test class for {@code BeanClassInfo}.
+ *
+ * @version $Id$
+ */
+public class TestBeanClassInfo
+{
+    /** The object for bean introspection. */
+    private static final PropertyUtilsBean PROP_UTILS = new PropertyUtilsBean();
+
+    /**
+     * Tests whether the same instance is returned for a class.
+     */
+    @Test
+    public void testForClassCached()
+    {
+        BeanClassInfo info = BeanClassInfo.forClass(BeanCreationTestBean.class);
+        assertEquals("Wrong class", BeanCreationTestBean.class,
+                info.getBeanClass());
+        assertSame("Not cached", info,
+                BeanClassInfo.forClass(BeanCreationTestBean.class));
+    }
+
+    /**
+     * Tests whether information about a simple property can be queried.
+     */
+    @Test
+    public void testGetProperty() throws Exception
+    {
+        BeanClassInfo.PropertyInfo prop =
+                BeanClassInfo.forClass(BeanCreationTestBean.class).getProperty(
+                        PROP_UTILS, "intValue");
+        assertNotNull("No property info", prop);
+        assertEquals("Wrong type", Integer.TYPE, prop.getType());
+        assertTrue("Not writeable", prop.isWriteable());
+        assertEquals("Wrong write method",
+                BeanCreationTestBean.class.getMethod("setIntValue",
+                        Integer.TYPE), prop.getWriteMethod());
+    }
+
+    /**
+     * Tests whether a read-only property is detected.
+     */
+    @Test
+    public void testGetPropertyReadOnly()
+    {
+        BeanClassInfo.PropertyInfo prop =
+                BeanClassInfo.forClass(BeanCreationTestBean.class).getProperty(
+                        PROP_UTILS, "class");
+        assertEquals("Wrong type", Class.class, prop.getType());
+        assertFalse("Writeable", prop.isWriteable());
+        assertNull("Got a write method", prop.getWriteMethod());
+    }
+
+    /**
+     * Tests a query for an unknown property.
+     */
+    @Test
+    public void testGetPropertyUnknown()
+    {
+        assertNull("Got a property",
+                BeanClassInfo.forClass(BeanCreationTestBean.class)
+                        .getProperty(PROP_UTILS, "unknownProperty"));
+    }
+
+    /**
+     * Tests that array properties are not handled.
+     */
+    @Test
+    public void testGetPropertyArray()
+    {
+        assertNull("Got an array property",
+                BeanClassInfo.forClass(ArrayBean.class).getProperty(
+                        PROP_UTILS, "values"));
+    }
+
+    /**
+     * Tests whether constructors can be cached.
+     */
+    @Test
+    public void testConstructors() throws Exception
+    {
+        BeanClassInfo info =
+                BeanClassInfo.forClass(BeanCreationTestCtorBean.class);
+        List<String> types = Arrays.asList(String.class.getName(), null);
+        assertNull("Got a constructor", info.getConstructor(types));
+        Constructor<?> ctor =
+                BeanCreationTestCtorBean.class.getConstructor(String.class,
+                        Integer.TYPE);
+        info.putConstructor(types, ctor);
+        assertSame("Wrong constructor", ctor, info.getConstructor(Arrays
+                .asList(String.class.getName(), null)));
+    }
+
+    /**
+     * A test bean class with an array property.
+     */
+    public static class ArrayBean
+    {
+        private String[] values;
+
+        public String[] getValues()
+        {
+            return values;
+        }
+
+        public void setValues(String[] values)
+        {
+            this.values = values;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import java.util.Map;
 import org.apache.commons.beanutils.DynaBean;
 import org.apache.commons.beanutils.LazyDynaBean;
 import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.apache.commons.configuration2.builder.BasicBuilderParameters;
 import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
 import org.easymock.EasyMock;
 import org.junit.Before;
@@ -405,6 +406,113 @@ public class TestBeanHelper
         assertEquals("Wrong header property", "TestHeader", dest.get("header"));
     }
 
+    /**
+     * Tests whether a property can be set repeatedly on beans of the same
+     * class.
+     */
+    @Test
+    public void testInitBeanMultipleTimes()
+    {
+        for (int i = 0; i < 3; i++)
+        {
+            BeanCreationTestBean bean = new BeanCreationTestBean();
+            helper.initBean(bean, setUpBeanDeclaration());
+            checkBean(bean);
+        }
+    }
+
+    /**
+     * Tests whether nested properties can be set.
+     */
+    @Test
+    public void testSetPropertyNested()
+    {
+        BeanCreationTestBean bean = new BeanCreationTestBean();
+        bean.setBuddy(new BeanCreationTestBean());
+        BeanHelper.setProperty(bean, "buddy.intValue", String.valueOf(TEST_INT));
+        assertEquals("Nested property not set", TEST_INT, bean.getBuddy()
+                .getIntValue());
+    }
+
+    /**
+     * Tests whether a null value can be passed for a property of a primitive
+     * type.
+     */
+    @Test
+    public void testSetPropertyNullPrimitive()
+    {
+        BeanCreationTestBean bean = new BeanCreationTestBean();
+        bean.setIntValue(TEST_INT);
+        BeanHelper.setProperty(bean, "intValue", null);
+        assertEquals("Wrong value", 0, bean.getIntValue());
+    }
+
+    /**
+     * Tests that a value which cannot be converted to the type of the
+     * property causes a ConfigurationRuntimeException.
+     */
+    @Test(expected = ConfigurationRuntimeException.class)
+    public void testSetPropertyIncompatibleValue()
+    {
+        BeanHelper.setProperty(new BeanCreationTestBean(), "buddy",
+                Integer.valueOf(TEST_INT));
+    }
+
+    /**
+     * Tests that setProperty() ignores unknown properties.
+     */
+    @Test
+    public void testSetPropertyUnknown()
+    {
+        BeanCreationTestBean bean = new BeanCreationTestBean();
+        BeanHelper.setProperty(bean, "unknownProperty", TEST_STRING);
+        assertNull("Property was set", bean.getStringValue());
+    }
+
+    /**
+     * Tries to set a read-only property.
+     */
+    @Test(expected = ConfigurationRuntimeException.class)
+    public void testInitBeanReadOnlyProperty()
+    {
+        BeanDeclarationTestImpl data = new BeanDeclarationTestImpl();
+        Map<String, Object> properties = new HashMap<String, Object>();
+        properties.put("class", String.class);
+        data.setBeanProperties(properties);
+        helper.initBean(new BeanCreationTestBean(), data);
+    }
+
+    /**
+     * Tests whether properties with fluent setter methods can be set.
+     */
+    @Test
+    public void testInitBeanFluentProperty()
+    {
+        BeanDeclarationTestImpl data = new BeanDeclarationTestImpl();
+        Map<String, Object> properties = new HashMap<String, Object>();
+        properties.put("throwExceptionOnMissing", "true");
+        data.setBeanProperties(properties);
+        BasicBuilderParameters params = new BasicBuilderParameters();
+        helper.initBean(params, data);
+        assertEquals("Property not set", Boolean.TRUE, params.getParameters()
+                .get("throwExceptionOnMissing"));
+    }
+
+    /**
+     * Tests whether the properties of a DynaBean can be initialized.
+     */
+    @Test
+    public void testInitDynaBean()
+    {
+        LazyDynaBean bean = new LazyDynaBean();
+        BeanDeclarationTestImpl data = new BeanDeclarationTestImpl();
+        Map<String, Object> properties = new HashMap<String, Object>();
+        properties.put("stringValue", TEST_STRING);
+        data.setBeanProperties(properties);
+        helper.initBean(bean, data);
+        assertEquals("Property not set", TEST_STRING, bean.get("stringValue"));
+    }
+
     /**
      * Returns an initialized bean declaration.
      *
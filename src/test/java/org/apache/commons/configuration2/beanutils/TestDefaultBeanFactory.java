@@ -239,6 +239,36 @@ public class TestDefaultBeanFactory
         assertEquals("Wrong parameter type 2", Integer.TYPE, paramTypes[1]);
     }
 
+    /**
+     * Tests whether the constructor found for specific argument types is
+     * cached.
+     */
+    @Test
+    public void testFindMatchingConstructorCached()
+    {
+        BeanDeclarationTestImpl decl = new BeanDeclarationTestImpl();
+        Collection<ConstructorArg> args = new ArrayList<ConstructorArg>();
+        args.add(ConstructorArg.forValue(TEST_STRING));
+        args.add(ConstructorArg.forValue(String.valueOf(TEST_INT)));
+        decl.setConstructorArgs(args);
+        Constructor<BeanCreationTestCtorBean> ctor =
+                DefaultBeanFactory.findMatchingConstructor(BeanCreationTestCtorBean.class, decl);
+        assertSame("Different constructor", ctor,
+                DefaultBeanFactory.findMatchingConstructor(
+                        BeanCreationTestCtorBean.class, decl));
+
+        BeanDeclarationTestImpl decl2 = new BeanDeclarationTestImpl();
+        Collection<ConstructorArg> args2 = new ArrayList<ConstructorArg>();
+        args2.add(ConstructorArg.forValue(TEST_STRING, String.class.getName()));
+        decl2.setConstructorArgs(args2);
+        Class<?>[] paramTypes =
+                DefaultBeanFactory.findMatchingConstructor(
+                        BeanCreationTestCtorBean.class, decl2)
+                        .getParameterTypes();
+        assertEquals("Wrong number of parameters", 1, paramTypes.length);
+        assertEquals("Wrong parameter type", String.class, paramTypes[0]);
+    }
+
     /**
      * Tests whether ambiguous constructor arguments are detected.
      */
@@ -227,4 +227,32 @@ public class TestBasicConfigurationBuilderEvents
         assertSame("Wrong configuration", configuration,
                 event.getConfiguration());
     }
+
+    /**
+     * Tests that no events are fired by getConfiguration() if there are no
+     * listeners for them.
+     */
+    @Test
+    public void testGetConfigurationNoListeners() throws ConfigurationException
+    {
+        final int[] eventCount = new int[1];
+        BasicConfigurationBuilder<PropertiesConfiguration> builder =
+                new BasicConfigurationBuilder<PropertiesConfiguration>(
+                        PropertiesConfiguration.class)
+                {
+                    @Override
+                    protected void fireBuilderEvent(
+                            ConfigurationBuilderEvent event)
+                    {
+                        eventCount[0]++;
+                        super.fireBuilderEvent(event);
+                    }
+                };
+        builder.addEventListener(ConfigurationBuilderEvent.RESET,
+                new BuilderEventListenerImpl());
+
+        builder.getConfiguration();
+        builder.getConfiguration();
+        assertEquals("Events fired", 0, eventCount[0]);
+    }
 }
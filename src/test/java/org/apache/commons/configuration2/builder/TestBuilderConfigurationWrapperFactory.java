@@ -22,11 +22,15 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
 import java.util.Collection;
 
 import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.HierarchicalConfiguration;
+import org.apache.commons.configuration2.ImmutableConfiguration;
+import org.apache.commons.configuration2.ImmutableHierarchicalConfiguration;
 import org.apache.commons.configuration2.PropertiesConfiguration;
 import org.apache.commons.configuration2.builder.BuilderConfigurationWrapperFactory.EventSourceSupport;
 import org.apache.commons.configuration2.event.ConfigurationEvent;
@@ -34,6 +38,7 @@ import org.apache.commons.configuration2.event.EventListener;
 import org.apache.commons.configuration2.event.EventListenerTestImpl;
 import org.apache.commons.configuration2.event.EventSource;
 import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
 import org.easymock.EasyMock;
 import org.junit.Test;
 
@@ -224,4 +229,93 @@ public class TestBuilderConfigurationWrapperFactory
                 new BuilderConfigurationWrapperFactory();
         factory.createBuilderConfigurationWrapper(Configuration.class, null);
     }
+
+    /**
+     * Tests that no proxies are created for the standard configuration
+     * interfaces. Only the immutable interfaces with EventSource support are
+     * handled by a proxy.
+     */
+    @Test
+    public void testStandardInterfacesProxies()
+    {
+        BaseHierarchicalConfiguration conf = new BaseHierarchicalConfiguration();
+        conf.addProperty("test", Boolean.TRUE);
+        ConfigurationBuilder<BaseHierarchicalConfiguration> builder =
+                createBuilderMock(conf);
+        EasyMock.replay(builder);
+        for (EventSourceSupport support : EventSourceSupport.values())
+        {
+            BuilderConfigurationWrapperFactory factory =
+                    new BuilderConfigurationWrapperFactory(support);
+            for (Class<?> ifc : Arrays.asList(ImmutableConfiguration.class,
+                    Configuration.class,
+                    ImmutableHierarchicalConfiguration.class,
+                    HierarchicalConfiguration.class))
+            {
+                @SuppressWarnings("unchecked")
+                ImmutableConfiguration wrapper =
+                        factory.createBuilderConfigurationWrapper(
+                                (Class<ImmutableConfiguration>) ifc, builder);
+                boolean proxyExpected =
+                        support != EventSourceSupport.NONE
+                                && !Configuration.class.isAssignableFrom(ifc);
+                assertEquals("Wrong proxy state for " + ifc, proxyExpected,
+                        Proxy.isProxyClass(wrapper.getClass()));
+                assertTrue("Wrong interface", ifc.isInstance(wrapper));
+                assertEquals("Wrong event source support for " + ifc,
+                        support != EventSourceSupport.NONE,
+                        wrapper instanceof EventSource);
+                assertTrue("Wrong property", wrapper.getBoolean("test"));
+            }
+        }
+    }
+
+    /**
+     * Tests that updates on a wrapper are passed to the builder's
+     * configuration.
+     */
+    @Test
+    public void testConfigurationWrapperUpdate()
+    {
+        BaseHierarchicalConfiguration conf = new BaseHierarchicalConfiguration();
+        ConfigurationBuilder<BaseHierarchicalConfiguration> builder =
+                createBuilderMock(conf);
+        EasyMock.replay(builder);
+        BuilderConfigurationWrapperFactory factory =
+                new BuilderConfigurationWrapperFactory();
+        Configuration wrapper =
+                factory.createBuilderConfigurationWrapper(Configuration.class,
+                        builder);
+        wrapper.setProperty("key", "value");
+        assertEquals("Property not set", "value", conf.getString("key"));
+    }
+
+    /**
+     * Tests whether an exception thrown by the builder is converted to a
+     * runtime exception.
+     */
+    @Test
+    public void testWrapperBuilderException() throws ConfigurationException
+    {
+        @SuppressWarnings("unchecked")
+        ConfigurationBuilder<Configuration> builder =
+                EasyMock.createMock(ConfigurationBuilder.class);
+        ConfigurationException cex = new ConfigurationException("Test");
+        EasyMock.expect(builder.getConfiguration()).andThrow(cex);
+        EasyMock.replay(builder);
+        BuilderConfigurationWrapperFactory factory =
+                new BuilderConfigurationWrapperFactory();
+        Configuration wrapper =
+                factory.createBuilderConfigurationWrapper(Configuration.class,
+                        builder);
+        try
+        {
+            wrapper.getString("key");
+            fail("Exception not thrown!");
+        }
+        catch (ConfigurationRuntimeException crex)
+        {
+            assertSame("Wrong cause", cex, crex.getCause());
+        }
+    }
 }
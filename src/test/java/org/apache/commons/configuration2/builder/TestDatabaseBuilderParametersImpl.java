@@ -130,6 +130,28 @@ public class TestDatabaseBuilderParametersImpl
                 .getParameters().get("autoCommit"));
     }
 
+    /**
+     * Tests whether the cached flag can be set.
+     */
+    @Test
+    public void testSetCached()
+    {
+        assertSame("Wrong result", params, params.setCached(true));
+        assertEquals("Wrong cached flag", Boolean.TRUE, params.getParameters()
+                .get("cached"));
+    }
+
+    /**
+     * Tests whether the cache timeout can be set.
+     */
+    @Test
+    public void testSetCacheTimeout()
+    {
+        assertSame("Wrong result", params, params.setCacheTimeout(60000L));
+        assertEquals("Wrong cache timeout", Long.valueOf(60000L), params
+                .getParameters().get("cacheTimeout"));
+    }
+
     /**
      * Tests whether properties can be set through BeanUtils.
      */
@@ -25,6 +25,7 @@ import java.util.Map;
 import org.apache.commons.configuration2.PropertiesConfiguration;
 import org.apache.commons.configuration2.PropertiesConfigurationLayout;
 import org.apache.commons.configuration2.beanutils.BeanHelper;
+import org.apache.commons.configuration2.tree.CanonicalizationPool;
 import org.easymock.EasyMock;
 import org.junit.Before;
 import org.junit.Test;
@@ -69,6 +70,19 @@ public class TestPropertiesBuilderParametersImpl
                 params.getParameters().get("layout"));
     }
 
+    /**
+     * Tests whether a canonicalization pool can be set.
+     */
+    @Test
+    public void testSetCanonicalizationPool()
+    {
+        CanonicalizationPool pool = new CanonicalizationPool();
+        assertSame("Wrong result", params,
+                params.setCanonicalizationPool(pool));
+        assertSame("Pool not set", pool,
+                params.getParameters().get("canonicalizationPool"));
+    }
+
     /**
      * Tests whether the IO factory can be set.
      */
@@ -113,8 +127,10 @@ public class TestPropertiesBuilderParametersImpl
     {
         PropertiesConfiguration.IOFactory factory =
                 EasyMock.createMock(PropertiesConfiguration.IOFactory.class);
+        CanonicalizationPool pool = new CanonicalizationPool();
         params.setIOFactory(factory).setIncludesAllowed(false)
-                .setLayout(new PropertiesConfigurationLayout());
+                .setLayout(new PropertiesConfigurationLayout())
+                .setCanonicalizationPool(pool);
         params.setThrowExceptionOnMissing(true);
         PropertiesBuilderParametersImpl params2 =
                 new PropertiesBuilderParametersImpl();
@@ -127,5 +143,7 @@ public class TestPropertiesBuilderParametersImpl
         assertEquals("Include flag not set", Boolean.FALSE,
                 parameters.get("includesAllowed"));
         assertNull("Layout was copied", parameters.get("layout"));
+        assertSame("Pool not set", pool,
+                parameters.get("canonicalizationPool"));
     }
 }
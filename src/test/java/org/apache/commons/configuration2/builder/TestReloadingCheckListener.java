@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.builder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.apache.commons.configuration2.reloading.ReloadingController;
+import org.apache.commons.configuration2.reloading.ReloadingDetector;
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code ReloadingCheckListener}.
+ *
+ * @version $Id$
+ */
+public class TestReloadingCheckListener
+{
+    /** A mock for the reloading detector. */
+    private ReloadingDetector detector;
+
+    /** The reloading controller. */
+    private ReloadingController controller;
+
+    /** A test builder event. */
+    private ConfigurationBuilderEvent event;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        detector = EasyMock.createMock(ReloadingDetector.class);
+        controller = new ReloadingController(detector);
+        event = new ConfigurationBuilderEvent(
+                new BasicConfigurationBuilder<PropertiesConfiguration>(
+                        PropertiesConfiguration.class),
+                ConfigurationBuilderEvent.CONFIGURATION_REQUEST);
+    }
+
+    /**
+     * Tries to create an instance without a controller.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitNoController()
+    {
+        new ReloadingCheckListener(null, 1000);
+    }
+
+    /**
+     * Tests the properties of a new instance.
+     */
+    @Test
+    public void testInit()
+    {
+        ReloadingCheckListener listener =
+                new ReloadingCheckListener(controller, 1000);
+        assertSame("Wrong controller", controller,
+                listener.getReloadingController());
+        assertEquals("Wrong interval", 1000, listener.getCheckInterval());
+    }
+
+    /**
+     * Tests that only a single check is performed within the interval.
+     */
+    @Test
+    public void testCheckInterval()
+    {
+        EasyMock.expect(detector.isReloadingRequired()).andReturn(
+                Boolean.FALSE).once();
+        EasyMock.replay(detector);
+        ReloadingCheckListener listener =
+                new ReloadingCheckListener(controller, 60000);
+        listener.onEvent(event);
+        listener.onEvent(event);
+        listener.onEvent(event);
+        EasyMock.verify(detector);
+    }
+
+    /**
+     * Tests that every event causes a check if the interval is 0.
+     */
+    @Test
+    public void testNoCheckInterval()
+    {
+        EasyMock.expect(detector.isReloadingRequired()).andReturn(
+                Boolean.FALSE).times(3);
+        EasyMock.replay(detector);
+        ReloadingCheckListener listener =
+                new ReloadingCheckListener(controller, 0);
+        listener.onEvent(event);
+        listener.onEvent(event);
+        listener.onEvent(event);
+        EasyMock.verify(detector);
+    }
+
+    /**
+     * Tests that a new check is performed after the interval has passed.
+     */
+    @Test
+    public void testCheckAfterInterval() throws InterruptedException
+    {
+        EasyMock.expect(detector.isReloadingRequired()).andReturn(
+                Boolean.FALSE).times(2);
+        EasyMock.replay(detector);
+        ReloadingCheckListener listener =
+                new ReloadingCheckListener(controller, 5);
+        listener.onEvent(event);
+        Thread.sleep(20);
+        listener.onEvent(event);
+        EasyMock.verify(detector);
+    }
+
+    /**
+     * Tests the listener together with a reloading builder.
+     */
+    @Test
+    public void testWithBuilder() throws Exception
+    {
+        EasyMock.expect(detector.isReloadingRequired()).andReturn(
+                Boolean.TRUE);
+        detector.reloadingPerformed();
+        EasyMock.replay(detector);
+        BasicConfigurationBuilder<PropertiesConfiguration> builder =
+                new BasicConfigurationBuilder<PropertiesConfiguration>(
+                        PropertiesConfiguration.class);
+        builder.connectToReloadingController(controller);
+        builder.addEventListener(
+                ConfigurationBuilderEvent.CONFIGURATION_REQUEST,
+                new ReloadingCheckListener(controller, 60000));
+
+        PropertiesConfiguration config = builder.getConfiguration();
+        assertSame("Builder reset again", config, builder.getConfiguration());
+        assertSame("Builder reset again (2)", config,
+                builder.getConfiguration());
+        EasyMock.verify(detector);
+    }
+}
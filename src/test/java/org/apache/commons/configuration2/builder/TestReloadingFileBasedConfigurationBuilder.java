@@ -22,16 +22,28 @@ import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.commons.configuration2.HierarchicalConfiguration;
 import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.apache.commons.configuration2.XMLConfiguration;
+import org.apache.commons.configuration2.event.ConfigurationEvent;
+import org.apache.commons.configuration2.event.EventListenerTestImpl;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.io.FileHandler;
+import org.apache.commons.configuration2.reloading.AlwaysReloadingDetector;
 import org.apache.commons.configuration2.reloading.FileHandlerReloadingDetector;
 import org.apache.commons.configuration2.reloading.ReloadingDetector;
+import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.easymock.EasyMock;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * Test class for {@code ReloadingFileBasedConfigurationBuilder}.
@@ -40,6 +52,58 @@ import org.junit.Test;
  */
 public class TestReloadingFileBasedConfigurationBuilder
 {
+    /** A helper object for creating temporary files. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Writes the specified content into the given file.
+     *
+     * @param file the file
+     * @param content the content to be written
+     * @throws IOException if an error occurs
+     */
+    private static void writeFile(File file, String content) throws IOException
+    {
+        Writer out = new FileWriter(file);
+        try
+        {
+            out.write(content);
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    /**
+     * Creates a builder for an XML configuration which is reloaded in place
+     * whenever the reloading controller performs a check.
+     *
+     * @param file the file to be loaded
+     * @return the builder
+     */
+    private static ReloadingFileBasedConfigurationBuilder<XMLConfiguration> createInPlaceBuilder(
+            File file)
+    {
+        ReloadingDetectorFactory factory = new ReloadingDetectorFactory()
+        {
+            @Override
+            public ReloadingDetector createReloadingDetector(
+                    FileHandler handler, FileBasedBuilderParametersImpl params)
+            {
+                return new AlwaysReloadingDetector();
+            }
+        };
+        ReloadingFileBasedConfigurationBuilder<XMLConfiguration> builder =
+                new ReloadingFileBasedConfigurationBuilder<XMLConfiguration>(
+                        XMLConfiguration.class)
+                        .configure(new FileBasedBuilderParametersImpl()
+                                .setFile(file).setReloadingDetectorFactory(
+                                        factory));
+        builder.setReloadInPlace(true);
+        return builder;
+    }
     /**
      * Tests whether a configuration can be created if no location is set. This
      * tests also ensures that the super constructor is called correctly.
@@ -214,6 +278,120 @@ public class TestReloadingFileBasedConfigurationBuilder
         EasyMock.verify(detector);
     }
 
+    /**
+     * Tests the default value of the reloadInPlace flag.
+     */
+    @Test
+    public void testReloadInPlaceDefault()
+    {
+        ReloadingFileBasedConfigurationBuilder<PropertiesConfiguration> builder =
+                new ReloadingFileBasedConfigurationBuilder<PropertiesConfiguration>(
+                        PropertiesConfiguration.class);
+        assertFalse("Wrong default", builder.isReloadInPlace());
+    }
+
+    /**
+     * Tests whether a reload operation can update the existing result object.
+     */
+    @Test
+    public void testReloadInPlace() throws ConfigurationException, IOException
+    {
+        File file = folder.newFile();
+        writeFile(file, "<config><test>1</test></config>");
+        ReloadingFileBasedConfigurationBuilder<XMLConfiguration> builder =
+                createInPlaceBuilder(file);
+        BuilderEventListenerImpl builderListener =
+                new BuilderEventListenerImpl();
+        builder.addEventListener(ConfigurationBuilderEvent.RESET,
+                builderListener);
+        XMLConfiguration config = builder.getConfiguration();
+        EventListenerTestImpl configListener = new EventListenerTestImpl(config);
+        config.addEventListener(ConfigurationEvent.ANY, configListener);
+
+        writeFile(file, "<config><test>2</test><other>true</other></config>");
+        builder.getReloadingController().checkForReloading(null);
+        assertSame("Result object was replaced", config,
+                builder.getConfiguration());
+        assertEquals("Wrong value", 2, config.getInt("test"));
+        assertTrue("New property not found", config.getBoolean("other"));
+        assertFalse("Still in reloading state", builder
+                .getReloadingController().isInReloadingState());
+        builderListener.assertNoMoreEvents();
+        configListener.checkEvent(ConfigurationEvent.REPLACE_CONTENT, null,
+                null, true);
+        configListener.checkEvent(ConfigurationEvent.REPLACE_CONTENT, null,
+                null, false);
+        configListener.done();
+    }
+
+    /**
+     * Tests whether sub configurations connected to a result object are
+     * updated by an in-place reload operation.
+     */
+    @Test
+    public void testReloadInPlaceSubConfiguration()
+            throws ConfigurationException, IOException
+    {
+        File file = folder.newFile();
+        writeFile(file, "<config><db><pool>5</pool></db></config>");
+        ReloadingFileBasedConfigurationBuilder<XMLConfiguration> builder =
+                createInPlaceBuilder(file);
+        XMLConfiguration config = builder.getConfiguration();
+        HierarchicalConfiguration<ImmutableNode> sub =
+                config.configurationAt("db", true);
+
+        writeFile(file, "<config><db><pool>10</pool></db></config>");
+        builder.getReloadingController().checkForReloading(null);
+        assertEquals("Wrong value in sub configuration", 10,
+                sub.getInt("pool"));
+    }
+
+    /**
+     * Tests that the result object is reset if it does not support in-place
+     * reloading.
+     */
+    @Test
+    public void testReloadInPlaceNotSupported() throws ConfigurationException
+    {
+        ReloadingDetector detector =
+                EasyMock.createMock(ReloadingDetector.class);
+        EasyMock.expect(detector.isReloadingRequired()).andReturn(Boolean.TRUE);
+        detector.reloadingPerformed();
+        EasyMock.replay(detector);
+        ReloadingFileBasedConfigurationBuilderTestImpl builder =
+                new ReloadingFileBasedConfigurationBuilderTestImpl(detector);
+        builder.setReloadInPlace(true);
+        PropertiesConfiguration config1 = builder.getConfiguration();
+        builder.getReloadingController().checkForReloading(null);
+        PropertiesConfiguration config2 = builder.getConfiguration();
+        assertNotSame("No new configuration instance", config1, config2);
+        EasyMock.verify(detector);
+    }
+
+    /**
+     * Tests that the result object is reset if an in-place reload operation
+     * fails.
+     */
+    @Test
+    public void testReloadInPlaceError() throws ConfigurationException,
+            IOException
+    {
+        File file = folder.newFile();
+        writeFile(file, "<config><test>1</test></config>");
+        ReloadingFileBasedConfigurationBuilder<XMLConfiguration> builder =
+                createInPlaceBuilder(file);
+        BuilderEventListenerImpl builderListener =
+                new BuilderEventListenerImpl();
+        XMLConfiguration config = builder.getConfiguration();
+        builder.addEventListener(ConfigurationBuilderEvent.RESET,
+                builderListener);
+
+        writeFile(file, "<config><test>");
+        builder.getReloadingController().checkForReloading(null);
+        builderListener.nextEvent(ConfigurationBuilderEvent.RESET);
+        assertEquals("Old data was changed", 1, config.getInt("test"));
+    }
+
     /**
      * Tests whether the allowFailOnInit flag is correctly initialized.
      */
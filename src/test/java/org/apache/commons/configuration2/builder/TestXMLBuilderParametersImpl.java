@@ -23,6 +23,8 @@ import javax.xml.parsers.DocumentBuilder;
 import java.util.Map;
 
 import org.apache.commons.configuration2.beanutils.BeanHelper;
+import org.apache.commons.configuration2.io.ParsedContentCache;
+import org.apache.commons.configuration2.tree.CanonicalizationPool;
 import org.easymock.EasyMock;
 import org.junit.Before;
 import org.junit.Test;
@@ -117,6 +119,53 @@ public class TestXMLBuilderParametersImpl
                 .getParameters().get("schemaValidation"));
     }
 
+    /**
+     * Tests whether the streaming load flag can be set.
+     */
+    @Test
+    public void testSetStreamingLoad()
+    {
+        assertSame("Wrong result", params, params.setStreamingLoad(true));
+        assertEquals("Flag not in parameters", Boolean.TRUE, params
+                .getParameters().get("streamingLoad"));
+    }
+
+    /**
+     * Tests whether the streaming write flag can be set.
+     */
+    @Test
+    public void testSetStreamingWrite()
+    {
+        assertSame("Wrong result", params, params.setStreamingWrite(true));
+        assertEquals("Flag not in parameters", Boolean.TRUE, params
+                .getParameters().get("streamingWrite"));
+    }
+
+    /**
+     * Tests whether a canonicalization pool can be set.
+     */
+    @Test
+    public void testSetCanonicalizationPool()
+    {
+        CanonicalizationPool pool = new CanonicalizationPool();
+        assertSame("Wrong result", params,
+                params.setCanonicalizationPool(pool));
+        assertSame("Pool not in parameters", pool, params.getParameters()
+                .get("canonicalizationPool"));
+    }
+
+    /**
+     * Tests whether a parsed content cache can be set.
+     */
+    @Test
+    public void testSetParsedContentCache()
+    {
+        ParsedContentCache cache = new ParsedContentCache();
+        assertSame("Wrong result", params, params.setParsedContentCache(cache));
+        assertSame("Cache not in parameters", cache, params.getParameters()
+                .get("parsedContentCache"));
+    }
+
     /**
      * Tests whether properties can be set through BeanUtils.
      */
@@ -148,8 +197,12 @@ public class TestXMLBuilderParametersImpl
     {
         EntityResolver resolver = EasyMock.createMock(EntityResolver.class);
         DocumentBuilder builder = EasyMock.createMock(DocumentBuilder.class);
+        CanonicalizationPool pool = new CanonicalizationPool();
         params.setDocumentBuilder(builder).setEntityResolver(resolver)
-                .setSchemaValidation(true).setValidating(true);
+                .setSchemaValidation(true).setValidating(true)
+                .setStreamingLoad(true).setStreamingWrite(true)
+                .setCanonicalizationPool(pool)
+                .setParsedContentCache(ParsedContentCache.getDefaultCache());
         params.setThrowExceptionOnMissing(true);
         XMLBuilderParametersImpl params2 = new XMLBuilderParametersImpl();
 
@@ -165,5 +218,13 @@ public class TestXMLBuilderParametersImpl
                 parameters.get("validating"));
         assertEquals("Schema flag not set", Boolean.TRUE,
                 parameters.get("schemaValidation"));
+        assertEquals("Streaming flag not set", Boolean.TRUE,
+                parameters.get("streamingLoad"));
+        assertEquals("Streaming write flag not set", Boolean.TRUE,
+                parameters.get("streamingWrite"));
+        assertSame("Pool not set", pool,
+                parameters.get("canonicalizationPool"));
+        assertSame("Cache not set", ParsedContentCache.getDefaultCache(),
+                parameters.get("parsedContentCache"));
     }
 }
@@ -26,6 +26,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.configuration2.ConfigurationAssert;
 import org.apache.commons.configuration2.XMLConfiguration;
@@ -302,6 +303,22 @@ public class TestCombinedBuilderParametersImpl
         assertEquals("Wrong base path", basePath, params.getBasePath());
     }
 
+    /**
+     * Tests whether an executor for child configurations can be set.
+     */
+    @Test
+    public void testSetChildBuilderExecutor()
+    {
+        CombinedBuilderParametersImpl params =
+                new CombinedBuilderParametersImpl();
+        assertNull("Got an executor", params.getChildBuilderExecutor());
+        Executor executor = EasyMock.createMock(Executor.class);
+        assertSame("Wrong result", params,
+                params.setChildBuilderExecutor(executor));
+        assertSame("Wrong executor", executor,
+                params.getChildBuilderExecutor());
+    }
+
     /**
      * Tests whether a parameters object for the definition builder can be set.
      */
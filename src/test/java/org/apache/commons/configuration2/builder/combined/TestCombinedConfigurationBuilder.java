@@ -35,6 +35,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
 import org.apache.commons.configuration2.CombinedConfiguration;
@@ -1389,6 +1393,107 @@ public class TestCombinedConfigurationBuilder
         assertEquals("Wrong number of elements in XML list", 1, list.size());
     }
 
+    /**
+     * Loads the configuration defined by the given definition file using a
+     * {@code CountingExecutor}.
+     *
+     * @param defFile the definition file
+     * @param executor the executor
+     * @return the resulting configuration
+     * @throws ConfigurationException if an error occurs
+     */
+    private CombinedConfiguration loadWithExecutor(File defFile,
+            CountingExecutor executor) throws ConfigurationException
+    {
+        builder.configure(new CombinedBuilderParametersImpl()
+                .setChildBuilderExecutor(executor)
+                .setDefinitionBuilderParameters(
+                        createParameters().setFile(defFile)));
+        try
+        {
+            return builder.getConfiguration();
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests whether child configurations can be loaded concurrently and are
+     * added to the result in the order of their declaration.
+     */
+    @Test
+    public void testLoadConfigurationWithExecutor()
+            throws ConfigurationException
+    {
+        CountingExecutor executor = new CountingExecutor();
+        builder.configure(new CombinedBuilderParametersImpl()
+                .setChildBuilderExecutor(executor)
+                .setDefinitionBuilderParameters(
+                        createParameters().setFile(TEST_FILE)));
+        try
+        {
+            checkConfiguration();
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        assertEquals("Wrong number of tasks", 3, executor.getTaskCount());
+    }
+
+    /**
+     * Tests concurrent loading of a definition file with an additional
+     * section.
+     */
+    @Test
+    public void testLoadAdditionalWithExecutor() throws ConfigurationException
+    {
+        CountingExecutor executor = new CountingExecutor();
+        CombinedConfiguration config =
+                loadWithExecutor(ConfigurationAssert
+                        .getTestFile("testDigesterConfiguration2.xml"),
+                        executor);
+        assertEquals("Wrong number of configurations", 2,
+                config.getNumberOfConfigurations());
+        assertEquals("Wrong table", "documents",
+                config.getString("tables.table(1).name"));
+        assertEquals("Wrong overridden property", "masterOfPost",
+                config.getString("mail.account.user"));
+        assertEquals("Wrong overridden property (2)", "enhanced factory",
+                config.getString("test.configuration"));
+        assertTrue("No tasks executed", executor.getTaskCount() > 0);
+    }
+
+    /**
+     * Tests that failures of optional configurations are ignored when
+     * loading concurrently.
+     */
+    @Test
+    public void testLoadOptionalWithExecutor() throws ConfigurationException
+    {
+        Configuration config =
+                loadWithExecutor(ConfigurationAssert
+                        .getTestFile("testDigesterOptionalConfiguration.xml"),
+                        new CountingExecutor());
+        assertTrue("Wrong boolean", config.getBoolean("test.boolean"));
+        assertEquals("Wrong element", "value", config.getProperty("element"));
+    }
+
+    /**
+     * Tests that an exception for a non optional configuration is propagated
+     * when loading concurrently.
+     */
+    @Test(expected = ConfigurationException.class)
+    public void testLoadOptionalWithExceptionWithExecutor()
+            throws ConfigurationException
+    {
+        loadWithExecutor(ConfigurationAssert
+                .getTestFile("testDigesterOptionalConfigurationEx.xml"),
+                new CountingExecutor());
+    }
+
     /**
      * A test builder provider implementation for testing whether providers can
      * be defined in the definition file.
@@ -1586,4 +1691,43 @@ public class TestCombinedConfigurationBuilder
             assertEquals("Wrong value read", Boolean.TRUE, value);
         }
     }
+
+    /**
+     * A test executor which counts the tasks passed to it and executes them
+     * in a thread pool.
+     */
+    private static class CountingExecutor implements Executor
+    {
+        /** The thread pool for executing tasks. */
+        private final ExecutorService service = Executors
+                .newFixedThreadPool(4);
+
+        /** The counter for tasks. */
+        private final AtomicInteger taskCount = new AtomicInteger();
+
+        @Override
+        public void execute(Runnable command)
+        {
+            taskCount.incrementAndGet();
+            service.execute(command);
+        }
+
+        /**
+         * Returns the number of tasks passed to this executor.
+         *
+         * @return the number of tasks
+         */
+        public int getTaskCount()
+        {
+            return taskCount.get();
+        }
+
+        /**
+         * Shuts down the thread pool.
+         */
+        public void shutdown()
+        {
+            service.shutdown();
+        }
+    }
 }
@@ -108,6 +108,30 @@ public class TestMultiFileBuilderParametersImpl
                 params.getManagedBuilderParameters());
     }
 
+    /**
+     * Tests whether the maximum number of managed builders can be set.
+     */
+    @Test
+    public void testSetMaxManagedBuilders()
+    {
+        assertEquals("Wrong default", 0, params.getMaxManagedBuilders());
+        assertSame("Wrong result", params, params.setMaxManagedBuilders(100));
+        assertEquals("Maximum not set", 100, params.getMaxManagedBuilders());
+    }
+
+    /**
+     * Tests whether the expiration time for managed builders can be set.
+     */
+    @Test
+    public void testSetManagedBuilderExpiration()
+    {
+        assertEquals("Wrong default", 0, params.getManagedBuilderExpiration());
+        assertSame("Wrong result", params,
+                params.setManagedBuilderExpiration(60000));
+        assertEquals("Expiration not set", 60000,
+                params.getManagedBuilderExpiration());
+    }
+
     /**
      * Tests whether bean property access is possible.
      */
@@ -307,6 +307,114 @@ public class TestMultiFileConfigurationBuilder extends AbstractMultiFileConfigur
                 managedBuilders.size());
     }
 
+    /**
+     * Tests the statistics about the cache of managed builders.
+     */
+    @Test
+    public void testCacheStatistics() throws ConfigurationException
+    {
+        MultiFileConfigurationBuilder<XMLConfiguration> builder =
+                createTestBuilder(null);
+        switchToConfig(1);
+        builder.getConfiguration();
+        builder.getConfiguration();
+        switchToConfig(2);
+        builder.getConfiguration();
+        assertEquals("Wrong number of hits", 1, builder.getCacheHitCount());
+        assertEquals("Wrong number of misses", 2, builder.getCacheMissCount());
+        assertEquals("Wrong number of evictions", 0,
+                builder.getEvictionCount());
+    }
+
+    /**
+     * Tests whether the least recently used managed builder is evicted if the
+     * maximum number of managed builders is reached.
+     */
+    @Test
+    public void testCachingMaxManagedBuilders() throws ConfigurationException
+    {
+        Collection<FileBasedConfigurationBuilder<XMLConfiguration>> managedBuilders =
+                new ArrayList<FileBasedConfigurationBuilder<XMLConfiguration>>();
+        MultiFileConfigurationBuilder<XMLConfiguration> builder =
+                createBuilderWithAccessToManagedBuilders(managedBuilders);
+        builder.configure(new MultiFileBuilderParametersImpl()
+                .setFilePattern(PATTERN).setMaxManagedBuilders(2)
+                .setInterpolator(createInterpolator()));
+        switchToConfig(1);
+        XMLConfiguration config1 = builder.getConfiguration();
+        switchToConfig(2);
+        builder.getConfiguration();
+        switchToConfig(1);
+        assertSame("Wrong cached configuration", config1,
+                builder.getConfiguration());
+        switchToConfig(3);
+        builder.getConfiguration();
+        assertEquals("Wrong number of cached builders", 2, builder
+                .getManagedBuilders().size());
+        assertEquals("Wrong number of evictions", 1,
+                builder.getEvictionCount());
+
+        switchToConfig(1);
+        assertSame("Wrong configuration after eviction", config1,
+                builder.getConfiguration());
+        switchToConfig(2);
+        builder.getConfiguration();
+        assertEquals("Wrong number of managed builders", 4,
+                managedBuilders.size());
+        assertEquals("Wrong number of evictions (2)", 2,
+                builder.getEvictionCount());
+    }
+
+    /**
+     * Tests whether managed builders expire if they are not accessed.
+     */
+    @Test
+    public void testCachingExpiration() throws ConfigurationException,
+            InterruptedException
+    {
+        MultiFileConfigurationBuilder<XMLConfiguration> builder =
+                createTestBuilder(null);
+        builder.configure(new MultiFileBuilderParametersImpl()
+                .setFilePattern(PATTERN).setManagedBuilderExpiration(10)
+                .setInterpolator(createInterpolator()));
+        switchToConfig(1);
+        XMLConfiguration config1 = builder.getConfiguration();
+        Thread.sleep(50);
+        switchToConfig(2);
+        builder.getConfiguration();
+        assertEquals("Wrong number of cached builders", 1, builder
+                .getManagedBuilders().size());
+        assertEquals("Wrong number of evictions", 1,
+                builder.getEvictionCount());
+        switchToConfig(1);
+        assertNotSame("Configuration not evicted", config1,
+                builder.getConfiguration());
+    }
+
+    /**
+     * Tests that an evicted managed builder no longer propagates events.
+     */
+    @Test
+    public void testEvictedBuilderListenerRemoved()
+            throws ConfigurationException
+    {
+        Collection<FileBasedConfigurationBuilder<XMLConfiguration>> managedBuilders =
+                new ArrayList<FileBasedConfigurationBuilder<XMLConfiguration>>();
+        MultiFileConfigurationBuilder<XMLConfiguration> builder =
+                createBuilderWithAccessToManagedBuilders(managedBuilders);
+        builder.configure(new MultiFileBuilderParametersImpl()
+                .setFilePattern(PATTERN).setMaxManagedBuilders(1)
+                .setInterpolator(createInterpolator()));
+        switchToConfig(1);
+        builder.getConfiguration();
+        switchToConfig(2);
+        builder.getConfiguration();
+        BuilderEventListenerImpl listener = new BuilderEventListenerImpl();
+        builder.addEventListener(ConfigurationBuilderEvent.ANY, listener);
+        managedBuilders.iterator().next().resetResult();
+        listener.assertNoMoreEvents();
+    }
+
     /**
      * Tests whether a reset of the builder configuration also flushes the
      * cache.
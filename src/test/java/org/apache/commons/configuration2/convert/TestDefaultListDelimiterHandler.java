@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
+import org.apache.commons.configuration2.ConfigurationAssert;
 import org.easymock.EasyMock;
 import org.junit.Before;
 import org.junit.Test;
@@ -204,4 +205,27 @@ public class TestDefaultListDelimiterHandler
     {
         checkSplit("\\x, \\,y, \\", true, "\\x", ",y", "\\");
     }
+
+    /**
+     * Tests equals() if the expected result is true.
+     */
+    @Test
+    public void testEqualsTrue()
+    {
+        ConfigurationAssert.checkEquals(handler, handler, true);
+        ConfigurationAssert.checkEquals(handler,
+                new DefaultListDelimiterHandler(','), true);
+    }
+
+    /**
+     * Tests equals() if the expected result is false.
+     */
+    @Test
+    public void testEqualsFalse()
+    {
+        ConfigurationAssert.checkEquals(handler,
+                new DefaultListDelimiterHandler(';'), false);
+        ConfigurationAssert.checkEquals(handler, null, false);
+        ConfigurationAssert.checkEquals(handler, this, false);
+    }
 }
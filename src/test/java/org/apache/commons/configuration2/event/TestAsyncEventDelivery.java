@@ -0,0 +1,454 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code AsyncEventDelivery}.
+ *
+ * @version $Id$
+ */
+public class TestAsyncEventDelivery
+{
+    /** Constant for a property name. */
+    private static final String KEY = "testProperty";
+
+    /** The executor used by tests. */
+    private ManualExecutor executor;
+
+    /** The list for firing events. */
+    private EventListenerList list;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        executor = new ManualExecutor();
+        list = new EventListenerList();
+    }
+
+    /**
+     * Installs a delivery object with the given settings at the test list.
+     *
+     * @param capacity the queue capacity
+     * @param window the coalescing window
+     * @return the delivery object
+     */
+    private AsyncEventDelivery setUpDelivery(int capacity, long window)
+    {
+        AsyncEventDelivery delivery =
+                new AsyncEventDelivery(executor, capacity, window);
+        list.setAsyncEventDelivery(delivery);
+        return delivery;
+    }
+
+    /**
+     * Fires a configuration event with the given parameters.
+     *
+     * @param type the event type
+     * @param key the property key
+     * @param value the property value
+     */
+    private void fire(EventType<ConfigurationEvent> type, String key,
+            Object value)
+    {
+        list.fire(new ConfigurationEvent(this, type, key, value, false));
+    }
+
+    /**
+     * Tries to create an instance without an executor.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitNoExecutor()
+    {
+        new AsyncEventDelivery(null, 10);
+    }
+
+    /**
+     * Tries to create an instance with an invalid capacity.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitInvalidCapacity()
+    {
+        new AsyncEventDelivery(executor, 0);
+    }
+
+    /**
+     * Tests the properties of a newly created instance.
+     */
+    @Test
+    public void testInit()
+    {
+        AsyncEventDelivery delivery = new AsyncEventDelivery(executor, 10);
+        assertSame("Wrong executor", executor, delivery.getExecutor());
+        assertEquals("Wrong capacity", 10, delivery.getCapacity());
+        assertEquals("Wrong window", 0, delivery.getCoalescingWindow());
+        assertEquals("Wrong dropped events", 0,
+                delivery.getDroppedEventCount());
+    }
+
+    /**
+     * Tests that events are delivered by the executor in the correct order.
+     */
+    @Test
+    public void testDeliverAsync()
+    {
+        setUpDelivery(10, 0);
+        RecordingListener listener = new RecordingListener();
+        list.addEventListener(ConfigurationEvent.ANY, listener);
+        fire(ConfigurationEvent.ADD_PROPERTY, KEY, 1);
+        fire(ConfigurationEvent.SET_PROPERTY, KEY, 2);
+        fire(ConfigurationEvent.CLEAR_PROPERTY, KEY, 3);
+        assertTrue("Events delivered synchronously", listener.values.isEmpty());
+        assertEquals("Wrong number of tasks", 1, executor.tasks.size());
+
+        executor.runAll();
+        assertEquals("Wrong events", Arrays.<Object> asList(1, 2, 3),
+                listener.values);
+    }
+
+    /**
+     * Tests that each listener has its own queue.
+     */
+    @Test
+    public void testDeliverMultipleListeners()
+    {
+        setUpDelivery(10, 0);
+        RecordingListener l1 = new RecordingListener();
+        RecordingListener l2 = new RecordingListener();
+        list.addEventListener(ConfigurationEvent.ANY, l1);
+        list.addEventListener(ConfigurationEvent.SET_PROPERTY, l2);
+        fire(ConfigurationEvent.ADD_PROPERTY, KEY, 1);
+        fire(ConfigurationEvent.SET_PROPERTY, KEY, 2);
+        assertEquals("Wrong number of tasks", 2, executor.tasks.size());
+
+        executor.runAll();
+        assertEquals("Wrong events 1", Arrays.<Object> asList(1, 2), l1.values);
+        assertEquals("Wrong events 2", Collections.<Object> singletonList(2),
+                l2.values);
+    }
+
+    /**
+     * Tests that a new task is scheduled after a queue has been processed.
+     */
+    @Test
+    public void testDeliverAfterQueueProcessed()
+    {
+        setUpDelivery(10, 0);
+        RecordingListener listener = new RecordingListener();
+        list.addEventListener(ConfigurationEvent.ANY, listener);
+        fire(ConfigurationEvent.ADD_PROPERTY, KEY, 1);
+        executor.runAll();
+        fire(ConfigurationEvent.ADD_PROPERTY, KEY, 2);
+        assertEquals("No new task", 1, executor.tasks.size());
+        executor.runAll();
+        assertEquals("Wrong events", Arrays.<Object> asList(1, 2),
+                listener.values);
+    }
+
+    /**
+     * Tests that events are dropped if a queue is full.
+     */
+    @Test
+    public void testDeliverQueueFull()
+    {
+        AsyncEventDelivery delivery = setUpDelivery(2, 0);
+        RecordingListener listener = new RecordingListener();
+        list.addEventListener(ConfigurationEvent.ANY, listener);
+        fire(ConfigurationEvent.ADD_PROPERTY, KEY, 1);
+        fire(ConfigurationEvent.ADD_PROPERTY, KEY, 2);
+        fire(ConfigurationEvent.ADD_PROPERTY, KEY, 3);
+        executor.runAll();
+        assertEquals("Wrong events", Arrays.<Object> asList(1, 2),
+                listener.values);
+        assertEquals("Wrong dropped events", 1,
+                delivery.getDroppedEventCount());
+    }
+
+    /**
+     * Tests whether SET_PROPERTY events for the same key are coalesced.
+     */
+    @Test
+    public void testCoalescing()
+    {
+        AsyncEventDelivery delivery = setUpDelivery(10, 60000);
+        RecordingListener listener = new RecordingListener();
+        list.addEventListener(ConfigurationEvent.ANY, listener);
+        fire(ConfigurationEvent.SET_PROPERTY, KEY, 1);
+        fire(ConfigurationEvent.SET_PROPERTY, "otherKey", 2);
+        fire(ConfigurationEvent.SET_PROPERTY, KEY, 3);
+        fire(ConfigurationEvent.ADD_PROPERTY, KEY, 4);
+        fire(ConfigurationEvent.ADD_PROPERTY, KEY, 5);
+        executor.runAll();
+        assertEquals("Wrong events", Arrays.<Object> asList(3, 2, 4, 5),
+                listener.values);
+        assertEquals("Coalesced events counted as dropped", 0,
+                delivery.getDroppedEventCount());
+    }
+
+    /**
+     * Tests that the before update flag is taken into account when
+     * coalescing events.
+     */
+    @Test
+    public void testCoalescingBeforeUpdate()
+    {
+        setUpDelivery(10, 60000);
+        RecordingListener listener = new RecordingListener();
+        list.addEventListener(ConfigurationEvent.ANY, listener);
+        list.fire(new ConfigurationEvent(this, ConfigurationEvent.SET_PROPERTY,
+                KEY, 1, true));
+        fire(ConfigurationEvent.SET_PROPERTY, KEY, 2);
+        list.fire(new ConfigurationEvent(this, ConfigurationEvent.SET_PROPERTY,
+                KEY, 3, true));
+        fire(ConfigurationEvent.SET_PROPERTY, KEY, 4);
+        executor.runAll();
+        assertEquals("Wrong events", Arrays.<Object> asList(3, 4),
+                listener.values);
+    }
+
+    /**
+     * Tests that a SET_PROPERTY event is not coalesced with a pending one if
+     * another event for this property has been queued in between.
+     */
+    @Test
+    public void testCoalescingInterruptedByClearProperty()
+    {
+        setUpDelivery(10, 60000);
+        RecordingListener listener = new RecordingListener();
+        list.addEventListener(ConfigurationEvent.ANY, listener);
+        fire(ConfigurationEvent.SET_PROPERTY, KEY, 1);
+        fire(ConfigurationEvent.SET_PROPERTY, "otherKey", 2);
+        fire(ConfigurationEvent.CLEAR_PROPERTY, KEY, null);
+        fire(ConfigurationEvent.SET_PROPERTY, KEY, 3);
+        fire(ConfigurationEvent.SET_PROPERTY, "otherKey", 4);
+        executor.runAll();
+        assertEquals("Wrong events", Arrays.<Object> asList(1, 4, null, 3),
+                listener.values);
+    }
+
+    /**
+     * Tests that a clear event prevents coalescing for all pending events.
+     */
+    @Test
+    public void testCoalescingInterruptedByClear()
+    {
+        setUpDelivery(10, 60000);
+        RecordingListener listener = new RecordingListener();
+        list.addEventListener(ConfigurationEvent.ANY, listener);
+        fire(ConfigurationEvent.SET_PROPERTY, KEY, 1);
+        fire(ConfigurationEvent.SET_PROPERTY, "otherKey", 2);
+        fire(ConfigurationEvent.CLEAR, null, null);
+        fire(ConfigurationEvent.SET_PROPERTY, KEY, 3);
+        fire(ConfigurationEvent.SET_PROPERTY, "otherKey", 4);
+        executor.runAll();
+        assertEquals("Wrong events", Arrays.<Object> asList(1, 2, null, 3, 4),
+                listener.values);
+    }
+
+    /**
+     * Tests that events are not coalesced if the window is disabled.
+     */
+    @Test
+    public void testCoalescingDisabled()
+    {
+        setUpDelivery(10, 0);
+        RecordingListener listener = new RecordingListener();
+        list.addEventListener(ConfigurationEvent.ANY, listener);
+        fire(ConfigurationEvent.SET_PROPERTY, KEY, 1);
+        fire(ConfigurationEvent.SET_PROPERTY, KEY, 2);
+        executor.runAll();
+        assertEquals("Wrong events", Arrays.<Object> asList(1, 2),
+                listener.values);
+    }
+
+    /**
+     * Tests that events are not coalesced after the window has passed.
+     */
+    @Test
+    public void testCoalescingWindowPassed() throws InterruptedException
+    {
+        setUpDelivery(10, 1);
+        RecordingListener listener = new RecordingListener();
+        list.addEventListener(ConfigurationEvent.ANY, listener);
+        fire(ConfigurationEvent.SET_PROPERTY, KEY, 1);
+        Thread.sleep(10);
+        fire(ConfigurationEvent.SET_PROPERTY, KEY, 2);
+        executor.runAll();
+        assertEquals("Wrong events", Arrays.<Object> asList(1, 2),
+                listener.values);
+    }
+
+    /**
+     * Tests that an event which has already been delivered is not replaced.
+     */
+    @Test
+    public void testCoalescingAfterDelivery()
+    {
+        setUpDelivery(10, 60000);
+        RecordingListener listener = new RecordingListener();
+        list.addEventListener(ConfigurationEvent.ANY, listener);
+        fire(ConfigurationEvent.SET_PROPERTY, KEY, 1);
+        executor.runAll();
+        fire(ConfigurationEvent.SET_PROPERTY, KEY, 2);
+        executor.runAll();
+        assertEquals("Wrong events", Arrays.<Object> asList(1, 2),
+                listener.values);
+    }
+
+    /**
+     * Tests that an exception thrown by a listener does not prevent the
+     * delivery of further events.
+     */
+    @Test
+    public void testListenerException()
+    {
+        setUpDelivery(10, 0);
+        final RecordingListener listener = new RecordingListener();
+        list.addEventListener(ConfigurationEvent.ANY,
+                new EventListener<ConfigurationEvent>()
+                {
+                    @Override
+                    public void onEvent(ConfigurationEvent event)
+                    {
+                        if (Integer.valueOf(1).equals(event.getPropertyValue()))
+                        {
+                            throw new IllegalStateException("Test exception");
+                        }
+                        listener.onEvent(event);
+                    }
+                });
+        fire(ConfigurationEvent.ADD_PROPERTY, KEY, 1);
+        fire(ConfigurationEvent.ADD_PROPERTY, KEY, 2);
+        try
+        {
+            executor.tasks.remove(0).run();
+            fail("Exception not thrown");
+        }
+        catch (IllegalStateException isex)
+        {
+            // expected
+        }
+        executor.runAll();
+        assertEquals("Wrong events", Collections.<Object> singletonList(2),
+                listener.values);
+    }
+
+    /**
+     * Tests asynchronous delivery via a BaseEventSource with a real executor.
+     */
+    @Test
+    public void testEventSourceWithThreadPool() throws InterruptedException
+    {
+        final int count = 100;
+        ExecutorService exec = Executors.newFixedThreadPool(2);
+        try
+        {
+            BaseEventSource source = new BaseEventSource();
+            source.setAsyncEventDelivery(new AsyncEventDelivery(exec, count));
+            final List<Object> values = Collections
+                    .synchronizedList(new ArrayList<Object>());
+            final CountDownLatch latch = new CountDownLatch(count);
+            source.addEventListener(ConfigurationEvent.ADD_PROPERTY,
+                    new EventListener<ConfigurationEvent>()
+                    {
+                        @Override
+                        public void onEvent(ConfigurationEvent event)
+                        {
+                            values.add(event.getPropertyValue());
+                            latch.countDown();
+                        }
+                    });
+
+            List<Object> expected = new ArrayList<Object>(count);
+            for (int i = 0; i < count; i++)
+            {
+                source.fireEvent(ConfigurationEvent.ADD_PROPERTY, KEY, i,
+                        false);
+                expected.add(i);
+            }
+            assertTrue("Events not delivered",
+                    latch.await(10, TimeUnit.SECONDS));
+            assertEquals("Wrong order", expected, values);
+        }
+        finally
+        {
+            exec.shutdownNow();
+        }
+    }
+
+    /**
+     * An executor implementation which collects tasks, so that they can be
+     * run in a controlled way.
+     */
+    private static class ManualExecutor implements Executor
+    {
+        /** The tasks passed to this executor. */
+        private final List<Runnable> tasks = new LinkedList<Runnable>();
+
+        @Override
+        public void execute(Runnable command)
+        {
+            tasks.add(command);
+        }
+
+        /**
+         * Runs all tasks which have been submitted, including tasks submitted
+         * while running.
+         */
+        public void runAll()
+        {
+            while (!tasks.isEmpty())
+            {
+                tasks.remove(0).run();
+            }
+        }
+    }
+
+    /**
+     * A test listener which records the property values of received events.
+     */
+    private static class RecordingListener implements
+            EventListener<ConfigurationEvent>
+    {
+        /** The recorded values. */
+        private final List<Object> values = new ArrayList<Object>();
+
+        @Override
+        public void onEvent(ConfigurationEvent event)
+        {
+            values.add(event.getPropertyValue());
+        }
+    }
+}
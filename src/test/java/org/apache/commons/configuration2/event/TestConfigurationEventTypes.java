@@ -231,6 +231,16 @@ public class TestConfigurationEventTypes
         checkHierarchicalEvent(ConfigurationEvent.SUBNODE_CHANGED);
     }
 
+    /**
+     * Tests the event type indicating that the content of a configuration was
+     * replaced.
+     */
+    @Test
+    public void testReplaceContentEventType()
+    {
+        checkHierarchicalEvent(ConfigurationEvent.REPLACE_CONTENT);
+    }
+
     /**
      * Tests the common base event type for error events.
      */
@@ -22,6 +22,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -533,6 +534,133 @@ public class TestEventListenerList
         assertFalse("Too many elements", iterator.hasNext());
     }
 
+    /**
+     * Tests that a listener added after an event was fired receives further
+     * events of this type.
+     */
+    @Test
+    public void testFireAfterAddEventListener()
+    {
+        ListenerTestImpl listener1 = new ListenerTestImpl();
+        list.addEventListener(typeSub1, listener1);
+        list.fire(new EventSub2(this, typeSub2, MESSAGE));
+        list.fire(new EventSub1(this, typeSub1, MESSAGE));
+
+        ListenerTestImpl listener2 = new ListenerTestImpl();
+        list.addEventListener(typeBase, listener2);
+        list.fire(new EventSub2(this, typeSub2, MESSAGE));
+        listener1.assertEvent(this, typeSub1, MESSAGE);
+        listener2.assertEvent(this, typeSub2, MESSAGE);
+    }
+
+    /**
+     * Tests that a listener removed after an event was fired does not receive
+     * further events.
+     */
+    @Test
+    public void testFireAfterRemoveEventListener()
+    {
+        ListenerTestImpl listener1 = new ListenerTestImpl();
+        ListenerTestImpl listener2 = new ListenerTestImpl();
+        list.addEventListener(typeBase, listener1);
+        list.addEventListener(typeSub1, listener2);
+        list.fire(new EventSub1(this, typeSub1, MESSAGE));
+
+        list.removeEventListener(typeBase, listener1);
+        list.removeEventListener(typeSub1, listener2);
+        list.fire(new EventSub1(this, typeSub1, MESSAGE));
+        listener1.assertEvent(this, typeSub1, MESSAGE);
+        listener2.assertEvent(this, typeSub1, MESSAGE);
+    }
+
+    /**
+     * Tests that no events are delivered after the list has been cleared.
+     */
+    @Test
+    public void testFireAfterClear()
+    {
+        ListenerTestImpl listener = new ListenerTestImpl();
+        list.addEventListener(typeSub1, listener);
+        list.fire(new EventSub1(this, typeSub1, MESSAGE));
+
+        list.clear();
+        list.fire(new EventSub1(this, typeSub1, MESSAGE));
+        listener.assertEvent(this, typeSub1, MESSAGE);
+    }
+
+    /**
+     * Tests that listeners are called in the order of their registration.
+     */
+    @Test
+    public void testFireListenerOrder()
+    {
+        final List<String> calls = new ArrayList<String>();
+        list.addEventListener(typeSub1, new EventListener<EventSub1>()
+        {
+            @Override
+            public void onEvent(EventSub1 event)
+            {
+                calls.add("sub1");
+            }
+        });
+        list.addEventListener(Event.ANY, new EventListener<Event>()
+        {
+            @Override
+            public void onEvent(Event event)
+            {
+                calls.add("any");
+            }
+        });
+        list.addEventListener(typeBase, new EventListener<EventBase>()
+        {
+            @Override
+            public void onEvent(EventBase event)
+            {
+                calls.add("base");
+            }
+        });
+
+        list.fire(new EventSub1(this, typeSub1, MESSAGE));
+        assertEquals("Wrong calls", Arrays.asList("sub1", "any", "base"),
+                calls);
+    }
+
+    /**
+     * Tests hasListeners() for an empty list.
+     */
+    @Test
+    public void testHasListenersEmpty()
+    {
+        assertFalse("Got listeners", list.hasListeners(typeBase));
+    }
+
+    /**
+     * Tests whether hasListeners() takes the event type hierarchy into
+     * account.
+     */
+    @Test
+    public void testHasListenersEventTypes()
+    {
+        list.addEventListener(typeSub1, new ListenerTestImpl());
+        assertTrue("No listeners for sub type", list.hasListeners(typeSub1));
+        assertFalse("Listeners for other type", list.hasListeners(typeSub2));
+        assertFalse("Listeners for base type", list.hasListeners(typeBase));
+        assertFalse("Listeners for null", list.hasListeners(null));
+    }
+
+    /**
+     * Tests that hasListeners() reflects removed listeners.
+     */
+    @Test
+    public void testHasListenersAfterRemove()
+    {
+        ListenerTestImpl listener = new ListenerTestImpl();
+        list.addEventListener(typeBase, listener);
+        assertTrue("No listeners", list.hasListeners(typeSub2));
+        list.removeEventListener(typeBase, listener);
+        assertFalse("Still listeners", list.hasListeners(typeSub2));
+    }
+
     /**
      * Test event class. For testing purposes, a small hierarchy of test event
      * class is created. This way it can be checked whether event types are
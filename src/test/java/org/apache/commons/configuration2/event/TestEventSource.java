@@ -200,6 +200,54 @@ public class TestEventSource
         l.done();
     }
 
+    /**
+     * Tests that no event object is created if there are only listeners for
+     * other event types.
+     */
+    @Test
+    public void testFireEventNoMatchingListeners()
+    {
+        EventListenerTestImpl l = new EventListenerTestImpl(source);
+        source.addEventListener(ConfigurationEvent.CLEAR, l);
+        source.fireEvent(ConfigurationEvent.SET_PROPERTY, TEST_PROPNAME,
+                TEST_PROPVALUE, false);
+        assertEquals("Event object was created", 0, source.eventCount);
+        l.done();
+    }
+
+    /**
+     * Tests that detail events can be enabled and disabled concurrently.
+     */
+    @Test
+    public void testSetDetailEventsConcurrently() throws InterruptedException
+    {
+        final int count = 1000;
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++)
+        {
+            final boolean enable = i % 2 == 0;
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    for (int j = 0; j < count; j++)
+                    {
+                        source.setDetailEvents(enable);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread t : threads)
+        {
+            t.join();
+        }
+        assertFalse("Detail events enabled", source.isDetailEvents());
+        source.setDetailEvents(true);
+        assertTrue("Detail events not enabled", source.isDetailEvents());
+    }
+
     /**
      * Tests whether an event listener can deregister itself in reaction of a
      * delivered event.
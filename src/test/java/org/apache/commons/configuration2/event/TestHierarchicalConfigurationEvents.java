@@ -81,6 +81,36 @@ public class TestHierarchicalConfigurationEvents extends
         listener.done();
     }
 
+    /**
+     * Tests events generated by the replaceContent() method.
+     */
+    @Test
+    public void testReplaceContentEvent()
+    {
+        BaseHierarchicalConfiguration hc = (BaseHierarchicalConfiguration) config;
+        BaseHierarchicalConfiguration source = new BaseHierarchicalConfiguration();
+        source.addProperty(TEST_PROPNAME, TEST_PROPVALUE);
+        hc.replaceContent(source);
+        listener.checkEvent(ConfigurationEvent.REPLACE_CONTENT, null, null,
+                true);
+        listener.checkEvent(ConfigurationEvent.REPLACE_CONTENT, null, null,
+                false);
+        listener.done();
+        assertEquals("Content not replaced", TEST_PROPVALUE,
+                hc.getString(TEST_PROPNAME));
+        assertTrue("Old content still present",
+                !hc.containsKey(EXIST_PROPERTY));
+    }
+
+    /**
+     * Tries to replace the content of a configuration by a null source.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testReplaceContentNull()
+    {
+        ((BaseHierarchicalConfiguration) config).replaceContent(null);
+    }
+
     /**
      * Tests events generated by addNodes() when the list of nodes is empty. In
      * this case no events should be generated.
@@ -17,6 +17,7 @@
 package org.apache.commons.configuration2.interpol;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -89,6 +90,106 @@ public class TestExprLookup
         assertEquals("Wrong result", value, lookup.lookup(value));
     }
 
+    /**
+     * Creates a lookup object with a test variable and an interpolator.
+     *
+     * @return the lookup object
+     */
+    private static ExprLookup createLookup()
+    {
+        ExprLookup.Variables vars = new ExprLookup.Variables();
+        vars.add(new ExprLookup.Variable("String",
+                org.apache.commons.lang3.StringUtils.class));
+        ExprLookup lookup = new ExprLookup(vars);
+        lookup.setInterpolator(new ConfigurationInterpolator());
+        return lookup;
+    }
+
+    /**
+     * Tests whether compiled expressions are cached.
+     */
+    @Test
+    public void testExpressionCache()
+    {
+        ExprLookup lookup = createLookup();
+        final String expr = "String.upperCase('test')";
+        assertEquals("Wrong result (1)", "TEST", lookup.lookup(expr));
+        assertEquals("Wrong result (2)", "TEST", lookup.lookup(expr));
+        assertEquals("Wrong result (3)", "TEST", lookup.lookup(expr));
+        assertEquals("Wrong misses", 1, lookup.getCacheMissCount());
+        assertEquals("Wrong hits", 2, lookup.getCacheHitCount());
+    }
+
+    /**
+     * Tests whether the least recently used expression is removed if the size
+     * of the cache is exceeded.
+     */
+    @Test
+    public void testExpressionCacheEviction()
+    {
+        ExprLookup lookup = createLookup();
+        lookup.setExpressionCacheSize(2);
+        lookup.lookup("String.upperCase('a')");
+        lookup.lookup("String.upperCase('b')");
+        lookup.lookup("String.upperCase('a')");
+        lookup.lookup("String.upperCase('c')");
+        lookup.lookup("String.upperCase('a')");
+        assertEquals("Wrong hits", 2, lookup.getCacheHitCount());
+        lookup.lookup("String.upperCase('b')");
+        assertEquals("Wrong misses", 4, lookup.getCacheMissCount());
+    }
+
+    /**
+     * Tests that caching can be disabled.
+     */
+    @Test
+    public void testExpressionCacheDisabled()
+    {
+        ExprLookup lookup = createLookup();
+        lookup.setExpressionCacheSize(0);
+        assertEquals("Wrong size", 0, lookup.getExpressionCacheSize());
+        final String expr = "String.upperCase('test')";
+        assertEquals("Wrong result (1)", "TEST", lookup.lookup(expr));
+        assertEquals("Wrong result (2)", "TEST", lookup.lookup(expr));
+        assertEquals("Wrong misses", 2, lookup.getCacheMissCount());
+        assertEquals("Wrong hits", 0, lookup.getCacheHitCount());
+    }
+
+    /**
+     * Tries to set a negative cache size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetExpressionCacheSizeNegative()
+    {
+        new ExprLookup().setExpressionCacheSize(-1);
+    }
+
+    /**
+     * Tests that expressions cannot modify the variables of the context.
+     */
+    @Test
+    public void testContextReadOnly()
+    {
+        ExprLookup lookup = createLookup();
+        assertEquals("Wrong result", "x = 'test'", lookup.lookup("x = 'test'"));
+        assertNull("Variable was set", lookup.lookup("x"));
+    }
+
+    /**
+     * Tests whether a change of the variables is taken into account.
+     */
+    @Test
+    public void testSetVariablesUpdatesContext()
+    {
+        ExprLookup lookup = createLookup();
+        final String expr = "Util.message";
+        assertNull("Got a result", lookup.lookup(expr));
+        ExprLookup.Variables vars = new ExprLookup.Variables();
+        vars.add(new ExprLookup.Variable("Util", new Utility("Hello")));
+        lookup.setVariables(vars);
+        assertEquals("Wrong result (2)", "Hello", lookup.lookup(expr));
+    }
+
     public static class Utility
     {
         String message;
@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.net.URL;
+
+import org.apache.commons.configuration2.ConfigurationAssert;
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Test class for {@code CachingLocationStrategy}.
+ *
+ * @version $Id$
+ */
+public class TestCachingLocationStrategy
+{
+    /** Constant for the negative TTL used by the tests. */
+    private static final long TTL = 1000;
+
+    /** A test locator. */
+    private static FileLocator locator;
+
+    /** A URL indicating a successful locate() operation. */
+    private static URL locateURL;
+
+    /** A mock for the file system. */
+    private FileSystem fileSystem;
+
+    /** A mock for the wrapped strategy. */
+    private FileLocationStrategy wrapped;
+
+    /** The strategy to be tested. */
+    private CachingLocationStrategyTestImpl strategy;
+
+    @BeforeClass
+    public static void setUpOnce() throws Exception
+    {
+        locator =
+                FileLocatorUtils.fileLocator().fileName("testFile.tst")
+                        .basePath("base").create();
+        locateURL = ConfigurationAssert.getTestURL("test.xml");
+    }
+
+    @Before
+    public void setUp() throws Exception
+    {
+        fileSystem = EasyMock.createMock(FileSystem.class);
+        EasyMock.replay(fileSystem);
+        wrapped = EasyMock.createMock(FileLocationStrategy.class);
+        strategy = new CachingLocationStrategyTestImpl(wrapped);
+    }
+
+    /**
+     * Tries to create an instance without a wrapped strategy.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitNoWrappedStrategy()
+    {
+        new CachingLocationStrategy(null);
+    }
+
+    /**
+     * Tries to create an instance with a negative TTL.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitInvalidTTL()
+    {
+        new CachingLocationStrategy(wrapped, -1, 10);
+    }
+
+    /**
+     * Tries to create an instance with an invalid maximum size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitInvalidMaxSize()
+    {
+        new CachingLocationStrategy(wrapped, TTL, 0);
+    }
+
+    /**
+     * Tests the default settings of a new instance.
+     */
+    @Test
+    public void testInitDefaults()
+    {
+        CachingLocationStrategy strat = new CachingLocationStrategy(wrapped);
+        assertSame("Wrong wrapped strategy", wrapped,
+                strat.getWrappedStrategy());
+        assertEquals("Wrong TTL", CachingLocationStrategy.DEFAULT_NEGATIVE_TTL,
+                strat.getNegativeTTL());
+        assertEquals("Wrong maximum size",
+                CachingLocationStrategy.DEFAULT_MAX_SIZE, strat.getMaxSize());
+    }
+
+    /**
+     * Tests whether a successful result is cached.
+     */
+    @Test
+    public void testLocateSuccessCached()
+    {
+        EasyMock.expect(wrapped.locate(fileSystem, locator)).andReturn(
+                locateURL);
+        EasyMock.replay(wrapped);
+        assertSame("Wrong result (1)", locateURL,
+                strategy.locate(fileSystem, locator));
+        strategy.setTime(Long.MAX_VALUE - 1);
+        assertSame("Wrong result (2)", locateURL,
+                strategy.locate(fileSystem, locator));
+        EasyMock.verify(wrapped);
+    }
+
+    /**
+     * Tests that irrelevant properties of the locator are ignored for the
+     * cache key.
+     */
+    @Test
+    public void testLocateKeyIgnoresEncoding()
+    {
+        EasyMock.expect(wrapped.locate(fileSystem, locator)).andReturn(
+                locateURL);
+        EasyMock.replay(wrapped);
+        strategy.locate(fileSystem, locator);
+        FileLocator locator2 =
+                FileLocatorUtils.fileLocator(locator).encoding("UTF-8")
+                        .locationStrategy(strategy).create();
+        assertSame("Wrong result", locateURL,
+                strategy.locate(fileSystem, locator2));
+        EasyMock.verify(wrapped);
+    }
+
+    /**
+     * Tests that locators with different file names are resolved separately.
+     */
+    @Test
+    public void testLocateDifferentFileNames()
+    {
+        FileLocator locator2 =
+                FileLocatorUtils.fileLocator(locator).fileName("other.tst")
+                        .create();
+        EasyMock.expect(wrapped.locate(fileSystem, locator)).andReturn(
+                locateURL);
+        EasyMock.expect(wrapped.locate(fileSystem, locator2)).andReturn(null);
+        EasyMock.replay(wrapped);
+        assertSame("Wrong result (1)", locateURL,
+                strategy.locate(fileSystem, locator));
+        assertNull("Wrong result (2)", strategy.locate(fileSystem, locator2));
+        assertEquals("Wrong size", 2, strategy.size());
+        EasyMock.verify(wrapped);
+    }
+
+    /**
+     * Tests whether a failed result is cached within the TTL.
+     */
+    @Test
+    public void testLocateFailureCached()
+    {
+        EasyMock.expect(wrapped.locate(fileSystem, locator)).andReturn(null);
+        EasyMock.replay(wrapped);
+        assertNull("Wrong result (1)", strategy.locate(fileSystem, locator));
+        strategy.setTime(TTL - 1);
+        assertNull("Wrong result (2)", strategy.locate(fileSystem, locator));
+        EasyMock.verify(wrapped);
+    }
+
+    /**
+     * Tests that a cached failed result expires.
+     */
+    @Test
+    public void testLocateFailureExpired()
+    {
+        EasyMock.expect(wrapped.locate(fileSystem, locator)).andReturn(null);
+        EasyMock.expect(wrapped.locate(fileSystem, locator)).andReturn(
+                locateURL);
+        EasyMock.replay(wrapped);
+        assertNull("Wrong result (1)", strategy.locate(fileSystem, locator));
+        strategy.setTime(TTL);
+        assertSame("Wrong result (2)", locateURL,
+                strategy.locate(fileSystem, locator));
+        strategy.setTime(2 * TTL);
+        assertSame("Wrong result (3)", locateURL,
+                strategy.locate(fileSystem, locator));
+        EasyMock.verify(wrapped);
+    }
+
+    /**
+     * Tests that failed results are not cached if the TTL is 0.
+     */
+    @Test
+    public void testLocateFailureNoTTL()
+    {
+        EasyMock.expect(wrapped.locate(fileSystem, locator)).andReturn(null)
+                .times(2);
+        EasyMock.replay(wrapped);
+        CachingLocationStrategy strat =
+                new CachingLocationStrategy(wrapped, 0, 10);
+        assertNull("Wrong result (1)", strat.locate(fileSystem, locator));
+        assertNull("Wrong result (2)", strat.locate(fileSystem, locator));
+        assertEquals("Got entries", 0, strat.size());
+        EasyMock.verify(wrapped);
+    }
+
+    /**
+     * Tests that the maximum size is taken into account.
+     */
+    @Test
+    public void testMaxSize()
+    {
+        FileLocator locator2 =
+                FileLocatorUtils.fileLocator(locator).fileName("other.tst")
+                        .create();
+        EasyMock.expect(wrapped.locate(fileSystem, locator)).andReturn(
+                locateURL).times(2);
+        EasyMock.expect(wrapped.locate(fileSystem, locator2)).andReturn(
+                locateURL);
+        EasyMock.replay(wrapped);
+        CachingLocationStrategy strat =
+                new CachingLocationStrategy(wrapped, TTL, 1);
+        strat.locate(fileSystem, locator);
+        strat.locate(fileSystem, locator2);
+        strat.locate(fileSystem, locator2);
+        strat.locate(fileSystem, locator);
+        assertEquals("Wrong size", 1, strat.size());
+        EasyMock.verify(wrapped);
+    }
+
+    /**
+     * Tests whether the cache can be cleared.
+     */
+    @Test
+    public void testClear()
+    {
+        EasyMock.expect(wrapped.locate(fileSystem, locator)).andReturn(
+                locateURL).times(2);
+        EasyMock.replay(wrapped);
+        strategy.locate(fileSystem, locator);
+        strategy.clear();
+        assertEquals("Not empty", 0, strategy.size());
+        strategy.locate(fileSystem, locator);
+        EasyMock.verify(wrapped);
+    }
+
+    /**
+     * Tests the strategy in a real locate operation.
+     */
+    @Test
+    public void testLocateWithDefaultStrategy()
+    {
+        CachingLocationStrategy strat =
+                new CachingLocationStrategy(
+                        FileLocatorUtils.DEFAULT_LOCATION_STRATEGY);
+        FileLocator loc =
+                FileLocatorUtils.fileLocator().fileName("test.xml")
+                        .locationStrategy(strat).create();
+        URL url = FileLocatorUtils.locate(loc);
+        assertEquals("Wrong URL", locateURL.toExternalForm(),
+                url.toExternalForm());
+        assertSame("Not cached", url, FileLocatorUtils.locate(loc));
+    }
+
+    /**
+     * A test implementation which allows setting the current time.
+     */
+    private static class CachingLocationStrategyTestImpl extends
+            CachingLocationStrategy
+    {
+        /** The current time. */
+        private long time;
+
+        public CachingLocationStrategyTestImpl(FileLocationStrategy wrapped)
+        {
+            super(wrapped, TTL, DEFAULT_MAX_SIZE);
+        }
+
+        public void setTime(long time)
+        {
+            this.time = time;
+        }
+
+        @Override
+        protected long getCurrentTime()
+        {
+            return time;
+        }
+    }
+}
@@ -0,0 +1,531 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test class for {@code ParsedContentCache}.
+ *
+ * @version $Id$
+ */
+public class TestParsedContentCache
+{
+    /** Constant for the parser key used by the tests. */
+    private static final String KEY = "testKey";
+
+    /** Constant for the content of the test file. */
+    private static final String CONTENT = "Test content";
+
+    /** Helper object for creating temporary files. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** The cache to be tested. */
+    private ParsedContentCache cache;
+
+    /** The test parser. */
+    private ParserTestImpl parser;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        cache = new ParsedContentCache();
+        parser = new ParserTestImpl();
+    }
+
+    /**
+     * Creates a test file with the given content.
+     *
+     * @param name the file name
+     * @param content the content
+     * @return the URL of the file
+     * @throws IOException if an error occurs
+     */
+    private URL createFile(String name, String content) throws IOException
+    {
+        File file = new File(folder.getRoot(), name);
+        writeFile(file, content);
+        return FileLocatorUtils.toURL(file);
+    }
+
+    /**
+     * Writes the given content into a file.
+     *
+     * @param file the file
+     * @param content the content
+     * @throws IOException if an error occurs
+     */
+    private static void writeFile(File file, String content)
+            throws IOException
+    {
+        Writer out = new FileWriter(file);
+        try
+        {
+            out.write(content);
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    /**
+     * Tries to create an instance with an invalid maximum size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitInvalidMaxSize()
+    {
+        new ParsedContentCache(0);
+    }
+
+    /**
+     * Tests whether a default instance is available.
+     */
+    @Test
+    public void testGetDefaultCache()
+    {
+        ParsedContentCache defCache = ParsedContentCache.getDefaultCache();
+        assertSame("Different instances", defCache,
+                ParsedContentCache.getDefaultCache());
+        assertEquals("Wrong maximum size", ParsedContentCache.DEFAULT_MAX_SIZE,
+                defCache.getMaxSize());
+    }
+
+    /**
+     * Tries to obtain content without a URL.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetContentNoURL() throws ConfigurationException
+    {
+        cache.getContent(null, KEY, new DefaultFileSystem(), parser);
+    }
+
+    /**
+     * Tries to obtain content without a key.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetContentNoKey() throws Exception
+    {
+        cache.getContent(createFile("test.txt", CONTENT), null,
+                new DefaultFileSystem(), parser);
+    }
+
+    /**
+     * Tries to obtain content without a file system.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetContentNoFileSystem() throws Exception
+    {
+        cache.getContent(createFile("test.txt", CONTENT), KEY, null, parser);
+    }
+
+    /**
+     * Tries to obtain content without a parser.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetContentNoParser() throws Exception
+    {
+        cache.getContent(createFile("test.txt", CONTENT), KEY,
+                new DefaultFileSystem(), null);
+    }
+
+    /**
+     * Tests whether a file is parsed only once.
+     */
+    @Test
+    public void testGetContentCached() throws Exception
+    {
+        URL url = createFile("test.txt", CONTENT);
+        ImmutableNode node1 =
+                cache.getContent(url, KEY, new DefaultFileSystem(), parser);
+        ImmutableNode node2 =
+                cache.getContent(url, KEY, new DefaultFileSystem(), parser);
+        assertEquals("Wrong content", CONTENT, node1.getValue());
+        assertSame("Not cached", node1, node2);
+        assertEquals("Wrong number of parse operations", 1,
+                parser.getParseCount());
+        assertEquals("Wrong hit count", 1, cache.getHitCount());
+        assertEquals("Wrong miss count", 1, cache.getMissCount());
+        assertEquals("Wrong size", 1, cache.size());
+    }
+
+    /**
+     * Tests that a changed file is parsed again.
+     */
+    @Test
+    public void testGetContentFileChanged() throws Exception
+    {
+        URL url = createFile("test.txt", CONTENT);
+        cache.getContent(url, KEY, new DefaultFileSystem(), parser);
+        File file = FileLocatorUtils.fileFromURL(url);
+        long lastModified = file.lastModified();
+        writeFile(file, "Changed content");
+        assertTrue("Cannot set time",
+                file.setLastModified(lastModified - 10000));
+        ImmutableNode node =
+                cache.getContent(url, KEY, new DefaultFileSystem(), parser);
+        assertEquals("Wrong content", "Changed content", node.getValue());
+        assertEquals("Wrong number of parse operations", 2,
+                parser.getParseCount());
+        assertEquals("Wrong size", 1, cache.size());
+    }
+
+    /**
+     * Tests that a change of a recently modified file is detected even if
+     * neither the modification date nor the size have changed.
+     */
+    @Test
+    public void testGetContentRecentlyModifiedFileChanged() throws Exception
+    {
+        URL url = createFile("test.txt", CONTENT);
+        File file = FileLocatorUtils.fileFromURL(url);
+        long lastModified = System.currentTimeMillis();
+        assertTrue("Cannot set time", file.setLastModified(lastModified));
+        cache.getContent(url, KEY, new DefaultFileSystem(), parser);
+        writeFile(file, "Best content");
+        assertTrue("Cannot set time", file.setLastModified(lastModified));
+        ImmutableNode node =
+                cache.getContent(url, KEY, new DefaultFileSystem(), parser);
+        assertEquals("Wrong content", "Best content", node.getValue());
+        assertEquals("Wrong number of parse operations", 2,
+                parser.getParseCount());
+    }
+
+    /**
+     * Tests that different keys cause separate entries.
+     */
+    @Test
+    public void testGetContentDifferentKeys() throws Exception
+    {
+        URL url = createFile("test.txt", CONTENT);
+        ImmutableNode node1 =
+                cache.getContent(url, KEY, new DefaultFileSystem(), parser);
+        ImmutableNode node2 =
+                cache.getContent(url, "otherKey", new DefaultFileSystem(),
+                        parser);
+        assertNotSame("Same content", node1, node2);
+        assertEquals("Wrong size", 2, cache.size());
+    }
+
+    /**
+     * Tests whether content is cached based on a hash value if the file
+     * cannot be checked directly.
+     */
+    @Test
+    public void testGetContentWithHash() throws Exception
+    {
+        URL url = createFile("test.txt", CONTENT);
+        FileSystemTestImpl fs = new FileSystemTestImpl();
+        ImmutableNode node1 = cache.getContent(url, KEY, fs, parser);
+        ImmutableNode node2 = cache.getContent(url, KEY, fs, parser);
+        assertSame("Not cached", node1, node2);
+        assertEquals("Wrong number of parse operations", 1,
+                parser.getParseCount());
+        assertEquals("Wrong number of read operations", 2, fs.getReadCount());
+    }
+
+    /**
+     * Tests that changed content is detected based on a hash value.
+     */
+    @Test
+    public void testGetContentWithHashChanged() throws Exception
+    {
+        URL url = createFile("test.txt", CONTENT);
+        FileSystemTestImpl fs = new FileSystemTestImpl();
+        cache.getContent(url, KEY, fs, parser);
+        writeFile(FileLocatorUtils.fileFromURL(url), "Other content");
+        ImmutableNode node = cache.getContent(url, KEY, fs, parser);
+        assertEquals("Wrong content", "Other content", node.getValue());
+        assertEquals("Wrong number of parse operations", 2,
+                parser.getParseCount());
+    }
+
+    /**
+     * Tests that the maximum size of the cache is taken into account.
+     */
+    @Test
+    public void testMaxSize() throws Exception
+    {
+        cache = new ParsedContentCache(2);
+        URL url1 = createFile("test1.txt", CONTENT);
+        URL url2 = createFile("test2.txt", CONTENT);
+        URL url3 = createFile("test3.txt", CONTENT);
+        FileSystem fs = new DefaultFileSystem();
+        cache.getContent(url1, KEY, fs, parser);
+        cache.getContent(url2, KEY, fs, parser);
+        cache.getContent(url1, KEY, fs, parser);
+        cache.getContent(url3, KEY, fs, parser);
+        assertEquals("Wrong size", 2, cache.size());
+        cache.getContent(url1, KEY, fs, parser);
+        assertEquals("Wrong number of parse operations", 3,
+                parser.getParseCount());
+        cache.getContent(url2, KEY, fs, parser);
+        assertEquals("Entry not evicted", 4, parser.getParseCount());
+    }
+
+    /**
+     * Tests that a failed parse operation is not cached.
+     */
+    @Test
+    public void testGetContentParseError() throws Exception
+    {
+        URL url = createFile("test.txt", CONTENT);
+        parser.setFail(true);
+        try
+        {
+            cache.getContent(url, KEY, new DefaultFileSystem(), parser);
+            fail("Parse error not detected!");
+        }
+        catch (ConfigurationException cex)
+        {
+            assertEquals("Wrong message", "Test exception", cex.getMessage());
+        }
+        assertEquals("Got an entry", 0, cache.size());
+
+        parser.setFail(false);
+        assertEquals("Wrong content", CONTENT,
+                cache.getContent(url, KEY, new DefaultFileSystem(), parser)
+                        .getValue());
+    }
+
+    /**
+     * Tests whether entries for a URL can be invalidated.
+     */
+    @Test
+    public void testInvalidate() throws Exception
+    {
+        URL url1 = createFile("test1.txt", CONTENT);
+        URL url2 = createFile("test2.txt", CONTENT);
+        FileSystem fs = new DefaultFileSystem();
+        cache.getContent(url1, KEY, fs, parser);
+        cache.getContent(url1, "otherKey", fs, parser);
+        cache.getContent(url2, KEY, fs, parser);
+        cache.invalidate(url1);
+        assertEquals("Wrong size", 1, cache.size());
+        cache.getContent(url2, KEY, fs, parser);
+        assertEquals("Wrong hit count", 1, cache.getHitCount());
+    }
+
+    /**
+     * Tests whether the cache can be cleared.
+     */
+    @Test
+    public void testClear() throws Exception
+    {
+        URL url = createFile("test.txt", CONTENT);
+        cache.getContent(url, KEY, new DefaultFileSystem(), parser);
+        cache.clear();
+        assertEquals("Not empty", 0, cache.size());
+        cache.getContent(url, KEY, new DefaultFileSystem(), parser);
+        assertEquals("Wrong number of parse operations", 2,
+                parser.getParseCount());
+    }
+
+    /**
+     * Tests that a file requested by multiple threads concurrently is parsed
+     * only once.
+     */
+    @Test
+    public void testGetContentConcurrently() throws Exception
+    {
+        final int threadCount = 8;
+        final URL url = createFile("test.txt", CONTENT);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        parser.setLatch(startLatch);
+        final List<ImmutableNode> results = new ArrayList<ImmutableNode>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < threadCount; i++)
+        {
+            Thread t = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        ImmutableNode node =
+                                cache.getContent(url, KEY,
+                                        new DefaultFileSystem(), parser);
+                        synchronized (results)
+                        {
+                            results.add(node);
+                        }
+                    }
+                    catch (ConfigurationException cex)
+                    {
+                        // the result list will be incomplete
+                    }
+                }
+            };
+            threads.add(t);
+            t.start();
+        }
+        startLatch.countDown();
+        for (Thread t : threads)
+        {
+            t.join();
+        }
+
+        assertEquals("Wrong number of results", threadCount, results.size());
+        for (ImmutableNode node : results)
+        {
+            assertSame("Different result", results.get(0), node);
+        }
+        assertEquals("Wrong number of parse operations", 1,
+                parser.getParseCount());
+    }
+
+    /**
+     * A test parser implementation which creates a node with the content read
+     * from the stream as value.
+     */
+    private static class ParserTestImpl implements ParsedContentSupport
+    {
+        /** The number of parse operations. */
+        private final AtomicInteger parseCount = new AtomicInteger();
+
+        /** An optional latch to wait for before parsing. */
+        private volatile CountDownLatch latch;
+
+        /** A flag whether parsing should fail. */
+        private volatile boolean fail;
+
+        public int getParseCount()
+        {
+            return parseCount.get();
+        }
+
+        public void setLatch(CountDownLatch latch)
+        {
+            this.latch = latch;
+        }
+
+        public void setFail(boolean fail)
+        {
+            this.fail = fail;
+        }
+
+        @Override
+        public ParsedContentCache getParsedContentCache()
+        {
+            throw new UnsupportedOperationException("Unexpected call!");
+        }
+
+        @Override
+        public Object getParsedContentKey()
+        {
+            throw new UnsupportedOperationException("Unexpected call!");
+        }
+
+        @Override
+        public ImmutableNode parseContent(InputStream in)
+                throws ConfigurationException, IOException
+        {
+            parseCount.incrementAndGet();
+            if (latch != null)
+            {
+                try
+                {
+                    latch.await(10, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (fail)
+            {
+                throw new ConfigurationException("Test exception");
+            }
+            return new ImmutableNode.Builder().name("root")
+                    .value(read(in)).create();
+        }
+
+        /**
+         * Reads the whole content of the given stream.
+         *
+         * @param in the stream
+         * @return the content as string
+         * @throws IOException if an error occurs
+         */
+        private static String read(InputStream in) throws IOException
+        {
+            Reader reader = new InputStreamReader(in, "UTF-8");
+            StringBuilder buf = new StringBuilder();
+            int c;
+            while ((c = reader.read()) >= 0)
+            {
+                buf.append((char) c);
+            }
+            return buf.toString();
+        }
+
+        @Override
+        public void initParsedContent(ImmutableNode root)
+        {
+            throw new UnsupportedOperationException("Unexpected call!");
+        }
+    }
+
+    /**
+     * A test file system implementation which counts read operations.
+     */
+    private static class FileSystemTestImpl extends DefaultFileSystem
+    {
+        /** The number of read operations. */
+        private int readCount;
+
+        public int getReadCount()
+        {
+            return readCount;
+        }
+
+        @Override
+        public InputStream getInputStream(URL url)
+                throws ConfigurationException
+        {
+            readCount++;
+            return super.getInputStream(url);
+        }
+    }
+}
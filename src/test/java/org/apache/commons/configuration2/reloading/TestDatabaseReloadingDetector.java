@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.reloading;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.commons.configuration2.DatabaseConfiguration;
+import org.apache.commons.configuration2.DatabaseConfigurationTestHelper;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code DatabaseReloadingDetector}.
+ *
+ * @version $Id$
+ */
+public class TestDatabaseReloadingDetector
+{
+    /** The test helper. */
+    private DatabaseConfigurationTestHelper helper;
+
+    /** The configuration to be monitored. */
+    private DatabaseConfiguration config;
+
+    /** A configuration for manipulating the test data. */
+    private DatabaseConfiguration updateConfig;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        helper = new DatabaseConfigurationTestHelper();
+        helper.setUp();
+        config = helper.setUpMultiConfig();
+        updateConfig = helper.setUpMultiConfig();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        helper.tearDown();
+    }
+
+    /**
+     * Creates a detector for the test configuration which checks the given
+     * expression without a refresh delay.
+     *
+     * @param expression the check expression
+     * @return the detector
+     */
+    private DatabaseReloadingDetector createDetector(String expression)
+    {
+        return new DatabaseReloadingDetector(config, expression, 0);
+    }
+
+    /**
+     * Tries to create an instance without a configuration.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitNoConfiguration()
+    {
+        new DatabaseReloadingDetector(null);
+    }
+
+    /**
+     * Tests the default values of a newly created instance.
+     */
+    @Test
+    public void testInitDefaults()
+    {
+        DatabaseReloadingDetector detector =
+                new DatabaseReloadingDetector(config);
+        assertSame("Wrong configuration", config, detector.getConfiguration());
+        assertEquals("Wrong expression",
+                DatabaseReloadingDetector.DEFAULT_CHECK_EXPRESSION,
+                detector.getCheckExpression());
+        assertEquals("Wrong delay", 5000, detector.getRefreshDelay());
+    }
+
+    /**
+     * Tests that the first check only initializes the detector.
+     */
+    @Test
+    public void testIsReloadingRequiredInit()
+    {
+        DatabaseReloadingDetector detector = createDetector(null);
+        assertFalse("Reloading on first check", detector.isReloadingRequired());
+        assertFalse("Reloading without change", detector.isReloadingRequired());
+    }
+
+    /**
+     * Tests whether added rows are detected by the default expression.
+     */
+    @Test
+    public void testIsReloadingRequiredAddedRow()
+    {
+        DatabaseReloadingDetector detector = createDetector(null);
+        detector.isReloadingRequired();
+        updateConfig.addProperty("key3", "value3");
+        assertTrue("No reloading", detector.isReloadingRequired());
+        assertTrue("Change not reported again", detector.isReloadingRequired());
+    }
+
+    /**
+     * Tests whether a custom expression can be used to detect updates.
+     */
+    @Test
+    public void testIsReloadingRequiredCustomExpression()
+    {
+        DatabaseReloadingDetector detector = createDetector("MAX(value)");
+        detector.isReloadingRequired();
+        updateConfig.setProperty("key2", "value2");
+        assertFalse("Reloading without change", detector.isReloadingRequired());
+        updateConfig.setProperty("key1", "zzz");
+        assertTrue("No reloading", detector.isReloadingRequired());
+    }
+
+    /**
+     * Tests that changes of other configurations stored in the same table are
+     * ignored.
+     */
+    @Test
+    public void testIsReloadingRequiredOtherConfiguration()
+            throws ConfigurationException
+    {
+        DatabaseConfiguration other = helper.setUpMultiConfig(
+                DatabaseConfiguration.class, "otherConfig");
+        DatabaseReloadingDetector detector = createDetector(null);
+        detector.isReloadingRequired();
+        other.addProperty("key3", "value3");
+        assertFalse("Reloading for other config",
+                detector.isReloadingRequired());
+    }
+
+    /**
+     * Tests whether reloadingPerformed() stores the current state.
+     */
+    @Test
+    public void testReloadingPerformed()
+    {
+        DatabaseReloadingDetector detector = createDetector(null);
+        detector.isReloadingRequired();
+        updateConfig.addProperty("key3", "value3");
+        detector.reloadingPerformed();
+        assertFalse("Still reloading", detector.isReloadingRequired());
+        updateConfig.clearProperty("key1");
+        assertTrue("Next change not detected", detector.isReloadingRequired());
+    }
+
+    /**
+     * Tests whether the refresh delay is taken into account.
+     */
+    @Test
+    public void testRefreshDelay()
+    {
+        DatabaseConfiguration mockConfig =
+                EasyMock.createMock(DatabaseConfiguration.class);
+        EasyMock.expect(mockConfig.queryChangeIndicator("MAX(id)"))
+                .andReturn(1).once();
+        EasyMock.replay(mockConfig);
+        DatabaseReloadingDetector detector =
+                new DatabaseReloadingDetector(mockConfig, "MAX(id)", 60000);
+        assertFalse("Reloading on first check", detector.isReloadingRequired());
+        assertFalse("Reloading in delay", detector.isReloadingRequired());
+        EasyMock.verify(mockConfig);
+    }
+
+    /**
+     * Tests whether the detector can be used by a reloading controller.
+     */
+    @Test
+    public void testReloadingController()
+    {
+        ReloadingController controller =
+                new ReloadingController(createDetector(null));
+        assertFalse("Reloading on first check",
+                controller.checkForReloading(null));
+        updateConfig.clearProperty("key2");
+        assertTrue("No reloading", controller.checkForReloading(null));
+        controller.resetReloadingState();
+        assertFalse("Reloading after reset",
+                controller.checkForReloading(null));
+    }
+
+    /**
+     * Tests that a failed query does not cause a reload and that the last
+     * known value is kept.
+     */
+    @Test
+    public void testIsReloadingRequiredQueryError()
+    {
+        DatabaseReloadingDetectorTestImpl detector =
+                new DatabaseReloadingDetectorTestImpl(config);
+        detector.isReloadingRequired();
+        detector.failing = true;
+        assertFalse("Reloading on error", detector.isReloadingRequired());
+        detector.reloadingPerformed();
+        assertFalse("Reloading on error (2)", detector.isReloadingRequired());
+        detector.failing = false;
+        assertFalse("Reloading after error", detector.isReloadingRequired());
+        updateConfig.addProperty("key3", "value3");
+        assertTrue("No reloading", detector.isReloadingRequired());
+    }
+
+    /**
+     * Tests that the detector is initialized by the first successful query.
+     */
+    @Test
+    public void testIsReloadingRequiredInitError()
+    {
+        DatabaseReloadingDetectorTestImpl detector =
+                new DatabaseReloadingDetectorTestImpl(config);
+        detector.failing = true;
+        detector.isReloadingRequired();
+        detector.failing = false;
+        assertFalse("Reloading on first check", detector.isReloadingRequired());
+        updateConfig.addProperty("key3", "value3");
+        assertTrue("No reloading", detector.isReloadingRequired());
+    }
+
+    /**
+     * A test implementation of the detector which allows simulating a failed
+     * query.
+     */
+    private static class DatabaseReloadingDetectorTestImpl extends
+            DatabaseReloadingDetector
+    {
+        /** A flag whether the query should fail. */
+        private boolean failing;
+
+        public DatabaseReloadingDetectorTestImpl(DatabaseConfiguration config)
+        {
+            super(config, null, 0);
+        }
+
+        @Override
+        protected Object fetchCheckValue()
+        {
+            return failing ? null : super.fetchCheckValue();
+        }
+    }
+}
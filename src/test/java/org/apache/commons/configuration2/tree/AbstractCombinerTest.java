@@ -16,10 +16,18 @@
  */
 package org.apache.commons.configuration2.tree;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
 import org.apache.commons.configuration2.ConfigurationAssert;
@@ -71,14 +79,7 @@ public abstract class AbstractCombinerTest
     protected BaseHierarchicalConfiguration createCombinedConfiguration()
             throws ConfigurationException
     {
-        XMLConfiguration conf1 = new XMLConfiguration();
-        new FileHandler(conf1).load(CONF1);
-        XMLConfiguration conf2 = new XMLConfiguration();
-        new FileHandler(conf2).load(CONF2);
-        ImmutableNode cn =
-                combiner.combine(conf1.getNodeModel().getNodeHandler()
-                        .getRootNode(), conf2.getNodeModel().getNodeHandler()
-                        .getRootNode());
+        ImmutableNode cn = combiner.combine(loadRoot(CONF1), loadRoot(CONF2));
 
         BaseHierarchicalConfiguration result = new BaseHierarchicalConfiguration();
         result.getNodeModel().setRootNode(cn);
@@ -86,6 +87,122 @@ public abstract class AbstractCombinerTest
         return result;
     }
 
+    /**
+     * Loads the given test configuration and returns its root node.
+     *
+     * @param file the file to be loaded
+     * @return the root node of this configuration
+     * @throws ConfigurationException if an error occurs
+     */
+    private static ImmutableNode loadRoot(File file)
+            throws ConfigurationException
+    {
+        XMLConfiguration conf = new XMLConfiguration();
+        new FileHandler(conf).load(file);
+        return conf.getNodeModel().getNodeHandler().getRootNode();
+    }
+
+    /**
+     * Returns a string representation of the given node structure.
+     *
+     * @param node the root node
+     * @return a string for this structure
+     */
+    private static String dump(ImmutableNode node)
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream stream = new PrintStream(out);
+        TreeUtils.printTree(stream, node);
+        stream.flush();
+        return out.toString();
+    }
+
+    /**
+     * Checks that the test configurations are combined in the same way if
+     * the given executor is used.
+     *
+     * @param executor the executor
+     * @throws ConfigurationException if an error occurs
+     */
+    private void checkParallelCombination(Executor executor)
+            throws ConfigurationException
+    {
+        ImmutableNode root1 = loadRoot(CONF1);
+        ImmutableNode root2 = loadRoot(CONF2);
+        String expected = dump(combiner.combine(root1, root2));
+        combiner.setExecutor(executor);
+        combiner.setParallelThreshold(1);
+        assertEquals("Different result", expected,
+                dump(combiner.combine(root1, root2)));
+    }
+
+    /**
+     * Tests whether nodes can be combined in parallel.
+     */
+    @Test
+    public void testParallelCombination() throws ConfigurationException
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            checkParallelCombination(executor);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests parallel combination with a single thread. The caller has to
+     * execute pending tasks itself.
+     */
+    @Test
+    public void testParallelCombinationSingleThread()
+            throws ConfigurationException
+    {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            checkParallelCombination(executor);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests parallel combination if the executor rejects all tasks.
+     */
+    @Test
+    public void testParallelCombinationRejected()
+            throws ConfigurationException
+    {
+        checkParallelCombination(new Executor()
+        {
+            public void execute(Runnable command)
+            {
+                throw new RejectedExecutionException();
+            }
+        });
+    }
+
+    /**
+     * Tests whether multiple node structures can be combined.
+     */
+    @Test
+    public void testCombineAll() throws ConfigurationException
+    {
+        ImmutableNode root1 = loadRoot(CONF1);
+        ImmutableNode root2 = loadRoot(CONF2);
+        ImmutableNode root3 = combiner.combine(root2, root1);
+        String expected =
+                dump(combiner.combine(combiner.combine(root1, root2), root3));
+        assertEquals("Wrong result", expected,
+                dump(combiner.combineAll(Arrays.asList(root1, root2, root3))));
+    }
+
     /**
      * Tests a newly created combiner.
      */
@@ -95,5 +212,8 @@ public abstract class AbstractCombinerTest
         assertTrue("Combiner has list nodes", combiner.getListNodes().isEmpty());
         assertFalse("Node is list node", combiner
                 .isListNode(NodeStructureHelper.createNode("test", null)));
+        assertEquals("Wrong threshold", NodeCombiner.DEFAULT_PARALLEL_THRESHOLD,
+                combiner.getParallelThreshold());
+        assertFalse("Associative", combiner.isAssociative());
     }
 }
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code AttributeIndex}.
+ *
+ * @version $Id$
+ */
+public class TestAttributeIndex
+{
+    /** Constant for the name of the child nodes. */
+    private static final String CHILD = "server";
+
+    /** Constant for the name of the test attribute. */
+    private static final String ATTR = "name";
+
+    /** The parent node of the test structure. */
+    private ImmutableNode parent;
+
+    /** The index to be tested. */
+    private AttributeIndex index;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        parent =
+                new ImmutableNode.Builder().name("servers")
+                        .addChild(createChild(CHILD, "s1"))
+                        .addChild(createChild(CHILD, "s2"))
+                        .addChild(createChild(CHILD, "s1"))
+                        .addChild(createChild("other", "s1"))
+                        .addChild(new ImmutableNode.Builder().name(CHILD)
+                                .create()).create();
+        index = new AttributeIndex();
+    }
+
+    /**
+     * Creates a child node with the test attribute.
+     *
+     * @param name the name of the node
+     * @param value the value of the attribute
+     * @return the child node
+     */
+    private static ImmutableNode createChild(String name, Object value)
+    {
+        return new ImmutableNode.Builder().name(name)
+                .addAttribute(ATTR, value).create();
+    }
+
+    /**
+     * Returns the child of the test parent node with the given index.
+     *
+     * @param idx the index
+     * @return the child node
+     */
+    private ImmutableNode child(int idx)
+    {
+        return parent.getChildren().get(idx);
+    }
+
+    /**
+     * Checks whether the index yields the expected children.
+     */
+    private void checkQueries()
+    {
+        assertEquals("Wrong result for s1", Arrays.asList(child(0), child(2)),
+                index.getChildrenByAttribute(parent, CHILD, ATTR, "s1"));
+        assertEquals("Wrong result for s2", Collections.singletonList(child(1)),
+                index.getChildrenByAttribute(parent, CHILD, ATTR, "s2"));
+        assertTrue("Got result for unknown value",
+                index.getChildrenByAttribute(parent, CHILD, ATTR, "s3")
+                        .isEmpty());
+        assertTrue("Got result for unknown attribute", index
+                .getChildrenByAttribute(parent, CHILD, "unknown", "s1")
+                .isEmpty());
+        assertEquals("Wrong result for other name",
+                Collections.singletonList(child(3)),
+                index.getChildrenByAttribute(parent, "other", ATTR, "s1"));
+    }
+
+    /**
+     * Tests that the index is disabled per default.
+     */
+    @Test
+    public void testDefaultDisabled()
+    {
+        assertFalse("Enabled", index.isEnabled());
+    }
+
+    /**
+     * Tests queries if the index is disabled.
+     */
+    @Test
+    public void testQueryDisabled()
+    {
+        checkQueries();
+    }
+
+    /**
+     * Tests queries if the index is enabled.
+     */
+    @Test
+    public void testQueryEnabled()
+    {
+        index.setEnabled(true);
+        checkQueries();
+    }
+
+    /**
+     * Tests whether index data is reused for subsequent queries.
+     */
+    @Test
+    public void testIndexDataIsReused()
+    {
+        index.setEnabled(true);
+        List<ImmutableNode> result =
+                index.getChildrenByAttribute(parent, CHILD, ATTR, "s1");
+        assertSame("Index data not reused", result,
+                index.getChildrenByAttribute(parent, CHILD, ATTR, "s1"));
+    }
+
+    /**
+     * Tests whether disabling the index discards existing data.
+     */
+    @Test
+    public void testDisableClearsData()
+    {
+        index.setEnabled(true);
+        List<ImmutableNode> result =
+                index.getChildrenByAttribute(parent, CHILD, ATTR, "s1");
+        index.setEnabled(false);
+        index.setEnabled(true);
+        List<ImmutableNode> result2 =
+                index.getChildrenByAttribute(parent, CHILD, ATTR, "s1");
+        assertNotSame("Same result", result, result2);
+        assertEquals("Different content", result, result2);
+    }
+
+    /**
+     * Tests that a changed parent node is indexed correctly.
+     */
+    @Test
+    public void testChangedParent()
+    {
+        index.setEnabled(true);
+        index.getChildrenByAttribute(parent, CHILD, ATTR, "s1");
+        ImmutableNode newChild = createChild(CHILD, "s1");
+        ImmutableNode newParent = parent.addChild(newChild);
+        assertEquals("Wrong result for new parent",
+                Arrays.asList(child(0), child(2), newChild),
+                index.getChildrenByAttribute(newParent, CHILD, ATTR, "s1"));
+        assertEquals("Old parent changed", 2,
+                index.getChildrenByAttribute(parent, CHILD, ATTR, "s1").size());
+    }
+
+    /**
+     * Tests that attribute values are compared by their string
+     * representation.
+     */
+    @Test
+    public void testNonStringValues()
+    {
+        parent = parent.addChild(createChild(CHILD, 42));
+        index.setEnabled(true);
+        assertEquals("Wrong result", 1,
+                index.getChildrenByAttribute(parent, CHILD, ATTR, "42").size());
+        assertEquals("Wrong result for number", 1, index
+                .getChildrenByAttribute(parent, CHILD, ATTR, 42).size());
+    }
+
+    /**
+     * Tests that the result lists cannot be modified.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testResultNotModifiable()
+    {
+        index.setEnabled(true);
+        index.getChildrenByAttribute(parent, CHILD, ATTR, "s1").clear();
+    }
+}
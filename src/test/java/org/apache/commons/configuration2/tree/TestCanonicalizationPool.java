@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code CanonicalizationPool}.
+ *
+ * @version $Id$
+ */
+public class TestCanonicalizationPool
+{
+    /** The pool to be tested. */
+    private CanonicalizationPool pool;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        pool = new CanonicalizationPool();
+    }
+
+    /**
+     * Creates a test node structure. Each call creates new objects.
+     *
+     * @return the root node of the test structure
+     */
+    private static ImmutableNode createStructure()
+    {
+        ImmutableNode.Builder builder = new ImmutableNode.Builder().name("root");
+        for (int i = 0; i < 3; i++)
+        {
+            builder.addChild(new ImmutableNode.Builder()
+                    .name("child")
+                    .value(new String("value" + i))
+                    .addAttribute("id", new String("id" + i))
+                    .addChild(
+                            NodeStructureHelper.createNode("sub",
+                                    new String("subValue"))).create());
+        }
+        return builder.create();
+    }
+
+    /**
+     * Tests whether strings are canonicalized.
+     */
+    @Test
+    public void testCanonicalizeString()
+    {
+        String s1 = new String("test");
+        String s2 = new String("test");
+        assertSame("Wrong first result", s1, pool.canonicalize(s1));
+        assertSame("Wrong second result", s1, pool.canonicalize(s2));
+        assertEquals("Wrong string count", 1, pool.getStringCount());
+    }
+
+    /**
+     * Tests that non-string values are not pooled.
+     */
+    @Test
+    public void testCanonicalizeValueNoString()
+    {
+        Integer value = 42;
+        assertSame("Wrong result", value, pool.canonicalizeValue(value));
+        assertEquals("Got a string", 0, pool.getStringCount());
+    }
+
+    /**
+     * Tests canonicalization of a null string.
+     */
+    @Test
+    public void testCanonicalizeNull()
+    {
+        assertEquals("Wrong result", null, pool.canonicalize((String) null));
+    }
+
+    /**
+     * Tries to canonicalize a null node.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCanonicalizeNodeNull()
+    {
+        pool.canonicalize((ImmutableNode) null);
+    }
+
+    /**
+     * Tests whether identical structures are shared.
+     */
+    @Test
+    public void testCanonicalizeStructuresShared()
+    {
+        ImmutableNode root1 = pool.canonicalize(createStructure());
+        ImmutableNode root2 = pool.canonicalize(createStructure());
+        assertSame("Structure not shared", root1, root2);
+        assertEquals("Wrong node count", 7, pool.getNodeCount());
+    }
+
+    /**
+     * Tests that structures which differ in parts share the common subtrees.
+     */
+    @Test
+    public void testCanonicalizeSubtreesShared()
+    {
+        ImmutableNode root1 = pool.canonicalize(createStructure());
+        ImmutableNode root2 =
+                pool.canonicalize(createStructure().setAttribute("a", "b"));
+        assertNotSame("Roots shared", root1, root2);
+        for (int i = 0; i < root1.getChildren().size(); i++)
+        {
+            assertSame("Child not shared: " + i, root1.getChildren().get(i),
+                    root2.getChildren().get(i));
+        }
+    }
+
+    /**
+     * Tests that attribute values are taken into account.
+     */
+    @Test
+    public void testCanonicalizeDifferentAttributes()
+    {
+        ImmutableNode node1 =
+                pool.canonicalize(new ImmutableNode.Builder().name("n")
+                        .addAttribute("a", "1").create());
+        ImmutableNode node2 =
+                pool.canonicalize(new ImmutableNode.Builder().name("n")
+                        .addAttribute("a", "2").create());
+        assertNotSame("Nodes shared", node1, node2);
+        assertEquals("Wrong attribute", "2", node2.getAttributes().get("a"));
+    }
+
+    /**
+     * Tests that a node is used only once in a structure.
+     */
+    @Test
+    public void testCanonicalizeDuplicatesInStructure()
+    {
+        ImmutableNode child = NodeStructureHelper.createNode("child", "value");
+        ImmutableNode root =
+                new ImmutableNode.Builder()
+                        .name("root")
+                        .addChild(child)
+                        .addChild(
+                                NodeStructureHelper.createNode("child",
+                                        "value")).create();
+        ImmutableNode result = pool.canonicalize(root);
+        assertNotSame("Same child instances", result.getChildren().get(0),
+                result.getChildren().get(1));
+        InMemoryNodeModel model = new InMemoryNodeModel(result);
+        for (ImmutableNode c : result.getChildren())
+        {
+            assertSame("Wrong parent", result, model.getNodeHandler()
+                    .getParent(c));
+        }
+    }
+
+    /**
+     * Tests that nodes of an existing structure are not used again.
+     */
+    @Test
+    public void testCanonicalizeWithExistingStructure()
+    {
+        ImmutableNode existing = pool.canonicalize(createStructure());
+        ImmutableNode result =
+                pool.canonicalize(createStructure(), existing, null);
+        assertNotSame("Root shared", existing, result);
+        assertNotSame("Child shared", existing.getChildren().get(0), result
+                .getChildren().get(0));
+    }
+
+    /**
+     * Tests whether replaced nodes are reported.
+     */
+    @Test
+    public void testCanonicalizeReplacements()
+    {
+        ImmutableNode root1 = pool.canonicalize(createStructure());
+        ImmutableNode root2 = createStructure();
+        Map<ImmutableNode, ImmutableNode> replacements =
+                new IdentityHashMap<ImmutableNode, ImmutableNode>();
+        pool.canonicalize(root2, null, replacements);
+        assertEquals("Wrong number of replacements", 7, replacements.size());
+        assertSame("Wrong root replacement", root1, replacements.get(root2));
+        ImmutableNode child = root2.getChildren().get(1);
+        assertSame("Wrong child replacement", root1.getChildren().get(1),
+                replacements.get(child));
+    }
+
+    /**
+     * Tests whether the pool can be cleared.
+     */
+    @Test
+    public void testClear()
+    {
+        ImmutableNode root = pool.canonicalize(createStructure());
+        pool.clear();
+        assertEquals("Got nodes", 0, pool.getNodeCount());
+        assertEquals("Got strings", 0, pool.getStringCount());
+        assertTrue("Still shared", root != pool.canonicalize(createStructure()));
+    }
+
+    /**
+     * Tests whether structures can be canonicalized concurrently.
+     */
+    @Test
+    public void testCanonicalizeConcurrently() throws InterruptedException
+    {
+        final int threadCount = 8;
+        final int loops = 100;
+        final ImmutableNode expected = pool.canonicalize(createStructure());
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<String> error = new AtomicReference<String>();
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++)
+        {
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        start.await();
+                        for (int j = 0; j < loops; j++)
+                        {
+                            if (pool.canonicalize(createStructure()) != expected)
+                            {
+                                error.set("Structure not shared");
+                            }
+                        }
+                    }
+                    catch (InterruptedException iex)
+                    {
+                        error.set(iex.toString());
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread t : threads)
+        {
+            t.join();
+        }
+        assertNull("Got an error", error.get());
+        assertEquals("Wrong node count", 7, pool.getNodeCount());
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Test class for {@code HashTrieMap}.
+ *
+ * @version $Id$
+ */
+public class TestHashTrieMap
+{
+    /**
+     * Checks whether a trie map has the same content as a reference map.
+     *
+     * @param expected the expected content
+     * @param map the map to be checked
+     */
+    private static void checkContent(Map<Object, Object> expected,
+            HashTrieMap<Object, Object> map)
+    {
+        assertEquals("Wrong size", expected.size(), map.size());
+        for (Map.Entry<Object, Object> e : expected.entrySet())
+        {
+            assertEquals("Wrong value for " + e.getKey(), e.getValue(),
+                    map.get(e.getKey()));
+        }
+        Map<Object, Object> entries = new HashMap<Object, Object>();
+        for (Map.Entry<Object, Object> e : map.entries())
+        {
+            entries.put(e.getKey(), e.getValue());
+        }
+        assertEquals("Wrong entries", expected, entries);
+    }
+
+    /**
+     * Tests the properties of an empty map.
+     */
+    @Test
+    public void testEmpty()
+    {
+        HashTrieMap<Object, Object> map = HashTrieMap.empty();
+        assertTrue("Not empty", map.isEmpty());
+        assertEquals("Wrong size", 0, map.size());
+        assertNull("Got a value", map.get("key"));
+        assertTrue("Got entries", map.entries().isEmpty());
+        assertSame("Remove changed map", map, map.remove("key"));
+    }
+
+    /**
+     * Tests that put() does not change the original map.
+     */
+    @Test
+    public void testPutImmutable()
+    {
+        HashTrieMap<Object, Object> map = HashTrieMap.empty();
+        HashTrieMap<Object, Object> map2 = map.put("key", "value");
+        assertTrue("Original map changed", map.isEmpty());
+        assertEquals("Wrong value", "value", map2.get("key"));
+        HashTrieMap<Object, Object> map3 = map2.put("key", "other");
+        assertEquals("Wrong size", 1, map3.size());
+        assertEquals("Wrong new value", "other", map3.get("key"));
+        assertEquals("Value changed in original map", "value",
+                map2.get("key"));
+    }
+
+    /**
+     * Tests a larger number of random operations against a reference map.
+     */
+    @Test
+    public void testRandomOperations()
+    {
+        Random rnd = new Random(20161018L);
+        Map<Object, Object> expected = new HashMap<Object, Object>();
+        HashTrieMap<Object, Object> map = HashTrieMap.empty();
+        for (int i = 0; i < 5000; i++)
+        {
+            Integer key = rnd.nextInt(2000);
+            if (rnd.nextInt(3) == 0)
+            {
+                expected.remove(key);
+                map = map.remove(key);
+            }
+            else
+            {
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+        }
+        checkContent(expected, map);
+    }
+
+    /**
+     * Tests whether keys with the same hash code are handled correctly.
+     */
+    @Test
+    public void testHashCollisions()
+    {
+        Map<Object, Object> expected = new HashMap<Object, Object>();
+        HashTrieMap<Object, Object> map = HashTrieMap.empty();
+        for (int i = 0; i < 10; i++)
+        {
+            CollidingKey key = new CollidingKey(i);
+            expected.put(key, i);
+            map = map.put(key, i);
+        }
+        map = map.put(new CollidingKey(3), "changed");
+        expected.put(new CollidingKey(3), "changed");
+        checkContent(expected, map);
+
+        for (int i = 0; i < 10; i += 2)
+        {
+            expected.remove(new CollidingKey(i));
+            map = map.remove(new CollidingKey(i));
+        }
+        checkContent(expected, map);
+    }
+
+    /**
+     * Tests that a map becomes empty after all keys have been removed.
+     */
+    @Test
+    public void testRemoveAll()
+    {
+        HashTrieMap<Object, Object> map = HashTrieMap.empty();
+        for (int i = 0; i < 100; i++)
+        {
+            map = map.put(i, i);
+        }
+        for (int i = 0; i < 100; i++)
+        {
+            map = map.remove(i);
+        }
+        assertTrue("Not empty", map.isEmpty());
+        assertTrue("Got entries", map.entries().isEmpty());
+    }
+
+    /**
+     * Tests whether the values of a map can be transformed.
+     */
+    @Test
+    public void testTransformValues()
+    {
+        Map<Object, Object> expected = new HashMap<Object, Object>();
+        HashTrieMap<Object, Object> map = HashTrieMap.empty();
+        for (int i = 0; i < 100; i++)
+        {
+            map = map.put(i, i);
+            expected.put(i, 2 * i);
+        }
+        map = map.put(new CollidingKey(1), 1).put(new CollidingKey(2), 2);
+        expected.put(new CollidingKey(1), 2);
+        expected.put(new CollidingKey(2), 4);
+
+        HashTrieMap<Object, Object> map2 =
+                map.transformValues(new HashTrieMap.ValueTransformer<Object, Object>()
+                {
+                    public Object transform(Map.Entry<Object, Object> entry)
+                    {
+                        return 2 * (Integer) entry.getValue();
+                    }
+                });
+        checkContent(expected, map2);
+        assertEquals("Original map changed", 7, map.get(7));
+    }
+
+    /**
+     * Tests that a transformation which does not change any value returns the
+     * same map.
+     */
+    @Test
+    public void testTransformValuesUnchanged()
+    {
+        HashTrieMap<Object, Object> map = HashTrieMap.empty();
+        for (int i = 0; i < 100; i++)
+        {
+            map = map.put(i, String.valueOf(i));
+        }
+        map = map.put(new CollidingKey(1), "c1").put(new CollidingKey(2), "c2");
+
+        HashTrieMap<Object, Object> map2 =
+                map.transformValues(new HashTrieMap.ValueTransformer<Object, Object>()
+                {
+                    public Object transform(Map.Entry<Object, Object> entry)
+                    {
+                        return entry.getValue();
+                    }
+                });
+        assertSame("Map was copied", map, map2);
+    }
+
+    /**
+     * Tests a transformation which changes only a single value.
+     */
+    @Test
+    public void testTransformValuesSingleChange()
+    {
+        Map<Object, Object> expected = new HashMap<Object, Object>();
+        HashTrieMap<Object, Object> map = HashTrieMap.empty();
+        for (int i = 0; i < 100; i++)
+        {
+            String value = String.valueOf(i);
+            map = map.put(i, value);
+            expected.put(i, value);
+        }
+        expected.put(42, "changed");
+
+        HashTrieMap<Object, Object> map2 =
+                map.transformValues(new HashTrieMap.ValueTransformer<Object, Object>()
+                {
+                    public Object transform(Map.Entry<Object, Object> entry)
+                    {
+                        return Integer.valueOf(42).equals(entry.getKey()) ? "changed"
+                                : entry.getValue();
+                    }
+                });
+        checkContent(expected, map2);
+        assertEquals("Original map changed", "42", map.get(42));
+    }
+
+    /**
+     * Tests that the entries of the map cannot be modified.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testEntrySetValue()
+    {
+        HashTrieMap<Object, Object> map = HashTrieMap.empty();
+        map.put("key", "value").entries().get(0).setValue("other");
+    }
+
+    /**
+     * A test key class with a constant hash code.
+     */
+    private static class CollidingKey
+    {
+        /** The ID of this key. */
+        private final int id;
+
+        public CollidingKey(int id)
+        {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 42;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            return obj instanceof CollidingKey && ((CollidingKey) obj).id == id;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "CollidingKey" + id;
+        }
+    }
+}
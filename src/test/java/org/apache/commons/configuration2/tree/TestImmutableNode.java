@@ -17,7 +17,9 @@
 package org.apache.commons.configuration2.tree;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
@@ -29,6 +31,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 
 import org.junit.Test;
 
@@ -636,4 +639,159 @@ public class TestImmutableNode
         checkUpdatedNode(node, node2);
         checkChildNodes(node2);
     }
+
+    /**
+     * Creates a node with the given number of attributes. The expected
+     * attributes are stored in the passed in map.
+     *
+     * @param count the number of attributes
+     * @param expected the map for the expected attributes
+     * @return the node
+     */
+    private static ImmutableNode createNodeWithAttributes(int count,
+            Map<String, Object> expected)
+    {
+        ImmutableNode.Builder builder = new ImmutableNode.Builder().name(NAME);
+        for (int i = 0; i < count; i++)
+        {
+            builder.addAttribute(ATTR + i, i);
+            expected.put(ATTR + i, i);
+        }
+        builder.addAttribute(ATTR, null);
+        expected.put(ATTR, null);
+        return builder.create();
+    }
+
+    /**
+     * Tests the attribute map of a node with a few attributes.
+     */
+    @Test
+    public void testSmallAttributeMap()
+    {
+        Map<String, Object> expected = new HashMap<String, Object>();
+        ImmutableNode node = createNodeWithAttributes(2, expected);
+        Map<String, Object> attributes = node.getAttributes();
+        assertEquals("Wrong attributes", expected, attributes);
+        assertEquals("Wrong reverse comparison", attributes, expected);
+        assertEquals("Wrong hash code", expected.hashCode(),
+                attributes.hashCode());
+        assertEquals("Wrong size", 3, attributes.size());
+        assertEquals("Wrong value", 1, attributes.get(ATTR + 1));
+        assertTrue("Null value not found", attributes.containsKey(ATTR));
+        assertNull("Got value for null attribute", attributes.get(ATTR));
+        assertFalse("Unknown attribute found",
+                attributes.containsKey("unknown"));
+        assertNull("Got value for unknown attribute",
+                attributes.get("unknown"));
+    }
+
+    /**
+     * Tests that the iteration order of a small attribute map is the same as
+     * for a hash map.
+     */
+    @Test
+    public void testSmallAttributeMapIterationOrder()
+    {
+        Map<String, Object> expected = new HashMap<String, Object>();
+        ImmutableNode node = createNodeWithAttributes(3, expected);
+        assertEquals("Wrong order", new ArrayList<String>(expected.keySet()),
+                new ArrayList<String>(node.getAttributes().keySet()));
+    }
+
+    /**
+     * Tests that a small attribute map cannot be modified.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSmallAttributeMapModify()
+    {
+        ImmutableNode node =
+                createNodeWithAttributes(1, new HashMap<String, Object>());
+        Iterator<String> it = node.getAttributes().keySet().iterator();
+        it.next();
+        it.remove();
+    }
+
+    /**
+     * Tests that an entry of a small attribute map cannot be modified.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSmallAttributeMapModifyEntry()
+    {
+        ImmutableNode node =
+                createNodeWithAttributes(1, new HashMap<String, Object>());
+        node.getAttributes().entrySet().iterator().next().setValue("new");
+    }
+
+    /**
+     * Tests the attribute map of a node with many attributes.
+     */
+    @Test
+    public void testLargeAttributeMap()
+    {
+        Map<String, Object> expected = new HashMap<String, Object>();
+        ImmutableNode node = createNodeWithAttributes(10, expected);
+        assertEquals("Wrong attributes", expected, node.getAttributes());
+    }
+
+    /**
+     * Tests whether attributes of a node with a small attribute map can be
+     * updated.
+     */
+    @Test
+    public void testSmallAttributeMapUpdate()
+    {
+        Map<String, Object> expected = new HashMap<String, Object>();
+        ImmutableNode node = createNodeWithAttributes(3, expected);
+        ImmutableNode node2 =
+                node.setAttribute(ATTR + 1, "changed").removeAttribute(
+                        ATTR + 2);
+        expected.put(ATTR + 1, "changed");
+        expected.remove(ATTR + 2);
+        assertEquals("Wrong attributes", expected, node2.getAttributes());
+    }
+
+    /**
+     * Tests the properties of the list with child nodes.
+     */
+    @Test
+    public void testChildList()
+    {
+        ImmutableNode.Builder builder = new ImmutableNode.Builder();
+        List<ImmutableNode> expected = new ArrayList<ImmutableNode>();
+        for (int i = 0; i < 5; i++)
+        {
+            ImmutableNode child = createChild();
+            expected.add(child);
+            builder.addChild(child);
+        }
+        List<ImmutableNode> children = builder.create().getChildren();
+        assertEquals("Wrong children", expected, children);
+        assertTrue("No random access", children instanceof RandomAccess);
+        assertEquals("Wrong index", 2, children.indexOf(expected.get(2)));
+    }
+
+    /**
+     * Tests that the list of children cannot be modified.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testChildListModify()
+    {
+        ImmutableNode.Builder builder = new ImmutableNode.Builder();
+        builder.addChild(createChild()).addChild(createChild());
+        builder.create().getChildren().set(0, createChild());
+    }
+
+    /**
+     * Tests that node names are interned.
+     */
+    @Test
+    public void testNodeNameInterned()
+    {
+        ImmutableNode node1 =
+                new ImmutableNode.Builder().name(new String(NAME)).create();
+        ImmutableNode node2 =
+                new ImmutableNode.Builder().name(new String(NAME)).create();
+        assertSame("Name not interned", node1.getNodeName(),
+                node2.getNodeName());
+    }
 }
@@ -1076,4 +1076,39 @@ public class TestInMemoryNodeModel
                 NodeStructureHelper.ROOT_AUTHORS_TREE,
                 model.getInMemoryRepresentation());
     }
+
+    /**
+     * Tests the default value of the attribute index flag.
+     */
+    @Test
+    public void testAttributeIndexEnabledDefault()
+    {
+        InMemoryNodeModel model = new InMemoryNodeModel(ROOT_AUTHORS_TREE);
+        assertFalse("Index enabled", model.isAttributeIndexEnabled());
+    }
+
+    /**
+     * Tests whether the node handler of the model supports queries for
+     * children based on attribute values.
+     */
+    @Test
+    public void testGetChildrenByAttribute()
+    {
+        ImmutableNode.Builder builder = new ImmutableNode.Builder();
+        for (int i = 0; i < 3; i++)
+        {
+            builder.addChild(new ImmutableNode.Builder().name("child")
+                    .addAttribute("idx", i % 2).create());
+        }
+        ImmutableNode root = builder.create();
+        InMemoryNodeModel model = new InMemoryNodeModel(root);
+        model.setAttributeIndexEnabled(true);
+        assertTrue("Index not enabled", model.isAttributeIndexEnabled());
+        IndexedNodeHandler<ImmutableNode> handler =
+                (IndexedNodeHandler<ImmutableNode>) model.getNodeHandler();
+        assertEquals("Wrong result",
+                Arrays.asList(root.getChildren().get(0),
+                        root.getChildren().get(2)),
+                handler.getChildrenByAttribute(root, "child", "idx", 0));
+    }
 }
@@ -282,6 +282,48 @@ public class TestInMemoryNodeModelReferences
                 .getReference(trackedNode));
     }
 
+    /**
+     * Tests whether the content of another model including its references can
+     * be taken over.
+     */
+    @Test
+    public void testReplaceContent()
+    {
+        NodeSelector selector = new NodeSelector("Simmons.Hyperion");
+        model.trackNode(selector, resolver);
+        InMemoryNodeModel source = new InMemoryNodeModel();
+        Map<ImmutableNode, String> references =
+                Collections.singletonMap(NodeStructureHelper.nodeForKey(
+                        NodeStructureHelper.ROOT_AUTHORS_TREE, "Homer"),
+                        "newRef");
+        source.mergeRoot(NodeStructureHelper.ROOT_AUTHORS_TREE, null,
+                references, null, resolver);
+
+        model.replaceContent(source, resolver);
+        assertEquals("Wrong root node", source.getRootNode(),
+                model.getRootNode());
+        assertFalse("Node is detached", model.isTrackedNodeDetached(selector));
+        assertEquals("Wrong tracked node",
+                NodeStructureHelper.nodeForKey(model, "Simmons/Hyperion"),
+                model.getTrackedNode(selector));
+        ReferenceNodeHandler refHandler = model.getReferenceNodeHandler();
+        assertEquals("Reference not taken over", "newRef",
+                refHandler.getReference(NodeStructureHelper.nodeForKey(model,
+                        "Homer")));
+        assertNull("Old reference still present",
+                refHandler.getReference(NodeStructureHelper.nodeForKey(model,
+                        "Simmons")));
+    }
+
+    /**
+     * Tries to replace the content of a model by a null source model.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testReplaceContentNull()
+    {
+        model.replaceContent(null, resolver);
+    }
+
     /**
      * Tries to call replaceRoot() with a null node.
      */
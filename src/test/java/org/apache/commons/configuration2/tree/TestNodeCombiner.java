@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for the functionality provided by the {@code NodeCombiner} base
+ * class.
+ *
+ * @version $Id$
+ */
+public class TestNodeCombiner
+{
+    /** An executor for parallel tests. */
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        executor.shutdown();
+    }
+
+    /**
+     * Creates a list with root nodes each of which has a single child with
+     * the index as value.
+     *
+     * @param count the number of nodes
+     * @return the list with the nodes
+     */
+    private static List<ImmutableNode> createRoots(int count)
+    {
+        List<ImmutableNode> roots = new ArrayList<ImmutableNode>(count);
+        for (int i = 0; i < count; i++)
+        {
+            roots.add(new ImmutableNode.Builder().name("root")
+                    .addChild(NodeStructureHelper.createNode("child", i))
+                    .create());
+        }
+        return roots;
+    }
+
+    /**
+     * Tries to set an invalid parallel threshold.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetParallelThresholdInvalid()
+    {
+        new ConcatCombiner().setParallelThreshold(0);
+    }
+
+    /**
+     * Tries to combine an empty list of nodes.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCombineAllEmpty()
+    {
+        new ConcatCombiner().combineAll(Collections.<ImmutableNode> emptyList());
+    }
+
+    /**
+     * Tries to combine a null list of nodes.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCombineAllNull()
+    {
+        new ConcatCombiner().combineAll(null);
+    }
+
+    /**
+     * Tests combineAll() for a single node.
+     */
+    @Test
+    public void testCombineAllSingleNode()
+    {
+        ImmutableNode root = createRoots(1).get(0);
+        assertSame("Wrong result", root,
+                new ConcatCombiner().combineAll(Collections.singletonList(root)));
+    }
+
+    /**
+     * Tests whether an associative combiner performs a tree reduction.
+     */
+    @Test
+    public void testCombineAllTreeReduction()
+    {
+        ConcatCombiner combiner = new ConcatCombiner();
+        combiner.setExecutor(executor);
+        final int count = 11;
+        ImmutableNode result = combiner.combineAll(createRoots(count));
+        assertEquals("Wrong number of children", count, result.getChildren()
+                .size());
+        for (int i = 0; i < count; i++)
+        {
+            assertEquals("Wrong child at " + i, i, result.getChildren().get(i)
+                    .getValue());
+        }
+        assertEquals("Wrong number of combine operations", count - 1,
+                combiner.getCombineCount());
+    }
+
+    /**
+     * Tests that an exception thrown by a parallel task is propagated.
+     */
+    @Test
+    public void testCombineAllException()
+    {
+        final IllegalStateException ex = new IllegalStateException("Test");
+        NodeCombiner combiner = new ConcatCombiner()
+        {
+            @Override
+            public ImmutableNode combine(ImmutableNode node1,
+                    ImmutableNode node2)
+            {
+                throw ex;
+            }
+        };
+        combiner.setExecutor(executor);
+        try
+        {
+            combiner.combineAll(createRoots(4));
+            fail("Exception not propagated!");
+        }
+        catch (IllegalStateException isex)
+        {
+            assertSame("Wrong exception", ex, isex);
+        }
+    }
+
+    /**
+     * A simple associative combiner implementation which concatenates the
+     * children of the nodes to be combined.
+     */
+    private static class ConcatCombiner extends NodeCombiner
+    {
+        /** The number of combine operations. */
+        private int combineCount;
+
+        @Override
+        public boolean isAssociative()
+        {
+            return true;
+        }
+
+        @Override
+        public ImmutableNode combine(ImmutableNode node1, ImmutableNode node2)
+        {
+            synchronized (this)
+            {
+                combineCount++;
+            }
+            return new ImmutableNode.Builder().name(node1.getNodeName())
+                    .addChildren(node1.getChildren())
+                    .addChildren(node2.getChildren()).create();
+        }
+
+        /**
+         * Returns the number of combine operations.
+         *
+         * @return the number of operations
+         */
+        public synchronized int getCombineCount()
+        {
+            return combineCount;
+        }
+    }
+}
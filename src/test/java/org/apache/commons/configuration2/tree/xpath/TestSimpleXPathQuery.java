@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree.xpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.apache.commons.configuration2.tree.InMemoryNodeModel;
+import org.apache.commons.configuration2.tree.NodeHandler;
+import org.apache.commons.configuration2.tree.NodeStructureHelper;
+import org.apache.commons.configuration2.tree.QueryResult;
+import org.apache.commons.jxpath.JXPathContext;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Test class for {@code SimpleXPathQuery}.
+ *
+ * @version $Id$
+ */
+public class TestSimpleXPathQuery
+{
+    /** The root node of the test structure. */
+    private static ImmutableNode root;
+
+    /** The node handler for the test structure. */
+    private static NodeHandler<ImmutableNode> handler;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception
+    {
+        // ensures that the node pointer factory is registered
+        new XPathExpressionEngine();
+        ImmutableNode tables = NodeStructureHelper.ROOT_TABLES_TREE;
+        ImmutableNode.Builder builder =
+                new ImmutableNode.Builder().name("config").addChild(tables);
+        for (int i = 0; i < 3; i++)
+        {
+            builder.addChild(new ImmutableNode.Builder().name("entry")
+                    .addAttribute("key", "k" + i).value(i).create());
+        }
+        builder.addChild(new ImmutableNode.Builder().name("entry").create());
+        root = builder.create();
+        handler = new InMemoryNodeModel(root).getNodeHandler();
+    }
+
+    /**
+     * Checks that the given key is recognized as simple key and that its
+     * evaluation yields the same results as JXPath.
+     *
+     * @param key the key
+     */
+    private static void checkQuery(String key)
+    {
+        SimpleXPathQuery query = SimpleXPathQuery.parse(key);
+        assertNotNull("Not a simple key: " + key, query);
+        JXPathContext context =
+                new XPathContextFactory().createContext(root, handler);
+        List<QueryResult<ImmutableNode>> expected =
+                new ArrayList<QueryResult<ImmutableNode>>();
+        for (Object res : context.selectNodes(key))
+        {
+            expected.add(createResult(res));
+        }
+        assertEquals("Wrong results for " + key, expected,
+                query.execute(root, handler));
+    }
+
+    /**
+     * Converts a result object returned by JXPath to a query result.
+     *
+     * @param res the result object
+     * @return the query result
+     */
+    @SuppressWarnings("unchecked")
+    private static QueryResult<ImmutableNode> createResult(Object res)
+    {
+        return (res instanceof QueryResult) ? (QueryResult<ImmutableNode>) res
+                : QueryResult.createNodeResult((ImmutableNode) res);
+    }
+
+    /**
+     * Checks that the given key is not recognized as simple key.
+     *
+     * @param key the key
+     */
+    private static void checkComplex(String key)
+    {
+        assertNull("Simple key: " + key, SimpleXPathQuery.parse(key));
+    }
+
+    /**
+     * Tests queries with predicates on attribute values.
+     */
+    @Test
+    public void testAttributePredicates()
+    {
+        checkQuery("entry[@key='k1']");
+        checkQuery("entry[@key=\"k2\"]/@key");
+        checkQuery("entry[@key='unknown']");
+        checkQuery("entry[@key='']");
+        checkQuery("tables/table[@tableType='system']/name");
+        checkQuery("tables/table/fields/field[@unknown='x']");
+    }
+
+    /**
+     * Tests that attribute predicates yield the same results if the attribute
+     * index of the model is enabled.
+     */
+    @Test
+    public void testAttributePredicatesIndexed()
+    {
+        InMemoryNodeModel model = new InMemoryNodeModel(root);
+        model.setAttributeIndexEnabled(true);
+        SimpleXPathQuery query = SimpleXPathQuery.parse("entry[@key='k1']");
+        List<QueryResult<ImmutableNode>> results =
+                query.execute(root, model.getNodeHandler());
+        assertEquals("Wrong number of results", 1, results.size());
+        assertEquals("Wrong result", query.execute(root, handler), results);
+        assertEquals("Wrong value", 1, results.get(0).getNode().getValue());
+    }
+
+    /**
+     * Tests queries for child nodes.
+     */
+    @Test
+    public void testChildSteps()
+    {
+        checkQuery("tables");
+        checkQuery("tables/table");
+        checkQuery("tables/table/fields/field/name");
+        checkQuery("entry");
+        checkQuery("unknown/child");
+    }
+
+    /**
+     * Tests queries for child nodes with indices.
+     */
+    @Test
+    public void testChildStepsWithIndex()
+    {
+        checkQuery("tables/table[2]/name");
+        checkQuery("tables/table/fields/field[3]/name");
+        checkQuery("entry[4]");
+        checkQuery("entry[5]");
+    }
+
+    /**
+     * Tests queries for attributes.
+     */
+    @Test
+    public void testAttributes()
+    {
+        checkQuery("entry/@key");
+        checkQuery("entry[2]/@key");
+        checkQuery("entry[4]/@key");
+        checkQuery("@unknown");
+    }
+
+    /**
+     * Tests that keys with other XPath constructs are not treated as simple.
+     */
+    @Test
+    public void testComplexKeys()
+    {
+        checkComplex("tables/table[last()]");
+        checkComplex("entry[@key = 'k1']");
+        checkComplex("entry[@key='k1' or @key='k2']");
+        checkComplex("entry[@key='k1]");
+        checkComplex("entry[@key='k'1']");
+        checkComplex("entry[@key=k1]");
+        checkComplex("entry[@='k1']");
+        checkComplex("entry[0]");
+        checkComplex("entry[]");
+        checkComplex("entry[1");
+        checkComplex("//entry");
+        checkComplex("/tables");
+        checkComplex("tables/");
+        checkComplex("tables//table");
+        checkComplex("entry/@key/child");
+        checkComplex("entry/@key[1]");
+        checkComplex("tables/*");
+        checkComplex("ns:entry");
+        checkComplex("../entry");
+        checkComplex("1entry");
+        checkComplex("entry | tables");
+        checkComplex("");
+    }
+
+    /**
+     * Tests that names with special characters allowed in XML names are
+     * accepted.
+     */
+    @Test
+    public void testNamesWithSpecialCharacters()
+    {
+        assertTrue("Not simple",
+                SimpleXPathQuery.parse("_my-entry.name/sub_1[10]/@a-b") != null);
+    }
+}
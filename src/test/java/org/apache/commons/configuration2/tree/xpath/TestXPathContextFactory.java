@@ -22,7 +22,9 @@ import static org.junit.Assert.assertTrue;
 import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.commons.configuration2.tree.InMemoryNodeModel;
 import org.apache.commons.configuration2.tree.NodeHandler;
+import org.apache.commons.jxpath.CompiledExpression;
 import org.apache.commons.jxpath.JXPathContext;
+import org.apache.commons.jxpath.Pointer;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -61,4 +63,25 @@ public class TestXPathContextFactory
         assertSame("Wrong node", node, wrapper.getNode());
         assertSame("Wrong handler", handler, wrapper.getNodeHandler());
     }
+
+    /**
+     * Tests whether an XPath expression can be compiled.
+     */
+    @Test
+    public void testCompile()
+    {
+        ImmutableNode child = new ImmutableNode.Builder().name("child").create();
+        ImmutableNode node =
+                new ImmutableNode.Builder().name("testRoot").addChild(child)
+                        .create();
+        NodeHandler<ImmutableNode> handler =
+                new InMemoryNodeModel(node).getNodeHandler();
+        new XPathExpressionEngine(); // registers the node pointer factory
+        CompiledExpression expr = factory.compile("child[last()]");
+
+        Pointer ptr =
+                (Pointer) expr.iteratePointers(
+                        factory.createContext(node, handler)).next();
+        assertSame("Wrong node", child, ptr.getNode());
+    }
 }
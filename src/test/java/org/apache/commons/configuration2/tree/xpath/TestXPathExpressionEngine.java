@@ -22,6 +22,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
@@ -31,7 +32,9 @@ import org.apache.commons.configuration2.tree.InMemoryNodeModel;
 import org.apache.commons.configuration2.tree.NodeAddData;
 import org.apache.commons.configuration2.tree.NodeHandler;
 import org.apache.commons.configuration2.tree.QueryResult;
+import org.apache.commons.jxpath.CompiledExpression;
 import org.apache.commons.jxpath.JXPathContext;
+import org.apache.commons.jxpath.Pointer;
 import org.apache.commons.jxpath.ri.JXPathContextReferenceImpl;
 import org.apache.commons.jxpath.ri.model.NodePointerFactory;
 import org.easymock.EasyMock;
@@ -45,8 +48,11 @@ import org.junit.Test;
  */
 public class TestXPathExpressionEngine
 {
-    /** Constant for the valid test key. */
-    private static final String TEST_KEY = "TESTKEY";
+    /**
+     * Constant for the valid test key. This key is not simple, so it is
+     * evaluated by JXPath.
+     */
+    private static final String TEST_KEY = "TESTKEY[last()]";
 
     /** Constant for the name of the root node. */
     private static final String ROOT_NAME = "testRoot";
@@ -57,6 +63,9 @@ public class TestXPathExpressionEngine
     /** A test node handler. */
     private static NodeHandler<ImmutableNode> handler;
 
+    /** The mock for the compiled expression. */
+    private CompiledExpression expression;
+
     @BeforeClass
     public static void setUpBeforeClass() throws Exception
     {
@@ -65,8 +74,9 @@ public class TestXPathExpressionEngine
     }
 
     /**
-     * Creates a mock for a context and prepares it to expect a select
-     * invocation yielding the provided results.
+     * Creates a mock for a context and a mock for a compiled expression which
+     * is prepared to expect an evaluation on this context yielding the
+     * provided results.
      *
      * @param results the results
      * @return the mock context
@@ -74,9 +84,18 @@ public class TestXPathExpressionEngine
     private JXPathContext expectSelect(Object... results)
     {
         JXPathContext ctx = EasyMock.createMock(JXPathContext.class);
-        EasyMock.expect(ctx.selectNodes(TEST_KEY)).andReturn(
-                Arrays.asList(results));
-        EasyMock.replay(ctx);
+        List<Pointer> pointers = new ArrayList<Pointer>(results.length);
+        for (Object result : results)
+        {
+            Pointer ptr = EasyMock.createMock(Pointer.class);
+            EasyMock.expect(ptr.getNode()).andReturn(result);
+            EasyMock.replay(ptr);
+            pointers.add(ptr);
+        }
+        expression = EasyMock.createMock(CompiledExpression.class);
+        EasyMock.expect(expression.iteratePointers(ctx)).andReturn(
+                pointers.iterator());
+        EasyMock.replay(ctx, expression);
         return ctx;
     }
 
@@ -92,6 +111,7 @@ public class TestXPathExpressionEngine
         XPathContextFactory factory =
                 EasyMock.createMock(XPathContextFactory.class);
         EasyMock.expect(factory.createContext(root, handler)).andReturn(ctx);
+        EasyMock.expect(factory.compile(TEST_KEY)).andReturn(expression);
         EasyMock.replay(factory);
         return new XPathExpressionEngine(factory);
     }
@@ -149,6 +169,63 @@ public class TestXPathExpressionEngine
                 .isEmpty());
     }
 
+    /**
+     * Tests that a compiled expression is reused for multiple queries with the
+     * same key.
+     */
+    @Test
+    public void testQueryCompiledExpressionIsCached()
+    {
+        JXPathContext ctx = EasyMock.createMock(JXPathContext.class);
+        CompiledExpression expr = EasyMock.createMock(CompiledExpression.class);
+        XPathContextFactory factory =
+                EasyMock.createMock(XPathContextFactory.class);
+        EasyMock.expect(factory.compile(TEST_KEY)).andReturn(expr);
+        EasyMock.expect(factory.createContext(root, handler)).andReturn(ctx)
+                .times(2);
+        EasyMock.expect(expr.iteratePointers(ctx)).andReturn(
+                new ArrayList<Pointer>().iterator()).times(2);
+        EasyMock.replay(ctx, expr, factory);
+        XPathExpressionEngine engine = new XPathExpressionEngine(factory);
+        assertTrue("Got results (1)", engine.query(root, TEST_KEY, handler)
+                .isEmpty());
+        assertTrue("Got results (2)", engine.query(root, TEST_KEY, handler)
+                .isEmpty());
+        EasyMock.verify(factory, expr);
+    }
+
+    /**
+     * Tests that simple keys are evaluated without JXPath.
+     */
+    @Test
+    public void testQuerySimpleKeyWithoutJXPath()
+    {
+        ImmutableNode child1 =
+                new ImmutableNode.Builder().name("child").create();
+        ImmutableNode child2 =
+                new ImmutableNode.Builder().name("child")
+                        .addAttribute("attr", "value").create();
+        ImmutableNode testRoot =
+                new ImmutableNode.Builder().name(ROOT_NAME)
+                        .addChild(child1).addChild(child2).create();
+        NodeHandler<ImmutableNode> testHandler =
+                new InMemoryNodeModel(testRoot).getNodeHandler();
+        XPathContextFactory factory =
+                EasyMock.createMock(XPathContextFactory.class);
+        EasyMock.replay(factory);
+        XPathExpressionEngine engine = new XPathExpressionEngine(factory);
+
+        List<QueryResult<ImmutableNode>> results =
+                engine.query(testRoot, "child[2]/@attr", testHandler);
+        assertEquals("Incorrect number of results", 1, results.size());
+        assertEquals("Wrong result",
+                QueryResult.createAttributeResult(child2, "attr"),
+                results.get(0));
+        results = engine.query(testRoot, "child", testHandler);
+        assertEquals("Incorrect number of child results", 2, results.size());
+        assertSame("Wrong child", child1, results.get(0).getNode());
+    }
+
     /**
      * Tests a query with an empty key. This should directly return the root
      * node without invoking the JXPathContext.